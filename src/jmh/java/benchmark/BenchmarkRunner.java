@@ -0,0 +1,167 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs all JMH benchmarks and compares the scores against the committed baseline.
+ * Exits with status 1 if any benchmark regressed by more than the tolerance.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>benchmark.include - regex of benchmarks to run</li>
+ *     <li>benchmark.tolerance - allowed relative regression, e.g. 0.25</li>
+ *     <li>benchmark.updateBaseline - overwrite the baseline with the new results instead of comparing</li>
+ *     <li>benchmark.baseline / benchmark.result - file locations</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+	private static final Logger logger = LoggerFactory.getLogger(BenchmarkRunner.class);
+
+	private record Score(String mode, String unit, double score) {
+	}
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		String include = System.getProperty("benchmark.include", ".*");
+		double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+		boolean updateBaseline = Boolean.getBoolean("benchmark.updateBaseline");
+		Path baselinePath = Path.of(System.getProperty("benchmark.baseline", "src/jmh/baseline.json"));
+		Path resultPath = Path.of(System.getProperty("benchmark.result", "target/jmh-result.json"));
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultPath.toString())
+				.build();
+		Collection<RunResult> runResults = new Runner(options).run();
+
+		TreeMap<String, Score> scores = new TreeMap<>();
+		for (RunResult runResult : runResults) {
+			Result<?> primaryResult = runResult.getPrimaryResult();
+			scores.put(getKey(runResult), new Score(
+					runResult.getParams().getMode().shortLabel(),
+					primaryResult.getScoreUnit(),
+					primaryResult.getScore()
+			));
+		}
+
+		ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		if (updateBaseline) {
+			writeBaseline(mapper, baselinePath, scores);
+			return;
+		}
+		if (!Files.exists(baselinePath)) {
+			logger.warn("No baseline found at '{}', run with -Dbenchmark.updateBaseline=true to create one", baselinePath);
+			return;
+		}
+		if (!compareToBaseline(mapper.readTree(baselinePath.toFile()), scores, tolerance)) {
+			System.exit(1);
+		}
+	}
+
+	private static String getKey(RunResult runResult) {
+		StringBuilder key = new StringBuilder(runResult.getParams().getBenchmark());
+		Collection<String> paramKeys = runResult.getParams().getParamsKeys();
+		if (!paramKeys.isEmpty()) {
+			key.append(" (");
+			boolean first = true;
+			for (String paramKey : paramKeys) {
+				if (!first) {
+					key.append(", ");
+				}
+				key.append(paramKey).append('=').append(runResult.getParams().getParam(paramKey));
+				first = false;
+			}
+			key.append(')');
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Entries of benchmarks that were not run (see benchmark.include) are kept.
+	 */
+	private static void writeBaseline(ObjectMapper mapper, Path baselinePath, TreeMap<String, Score> scores) throws IOException {
+		TreeMap<String, JsonNode> entries = new TreeMap<>();
+		if (Files.exists(baselinePath)) {
+			mapper.readTree(baselinePath.toFile()).fields().forEachRemaining(entry -> entries.put(entry.getKey(), entry.getValue()));
+		}
+		for (Map.Entry<String, Score> entry : scores.entrySet()) {
+			ObjectNode node = mapper.createObjectNode();
+			node.put("mode", entry.getValue().mode());
+			node.put("unit", entry.getValue().unit());
+			node.put("score", entry.getValue().score());
+			entries.put(entry.getKey(), node);
+		}
+		ObjectNode root = mapper.createObjectNode();
+		entries.forEach(root::set);
+		mapper.writeValue(baselinePath.toFile(), root);
+		logger.info("Updated {} baseline entries in '{}'", scores.size(), baselinePath);
+	}
+
+	/**
+	 * @return false if any benchmark regressed by more than `tolerance`
+	 */
+	private static boolean compareToBaseline(JsonNode baseline, TreeMap<String, Score> scores, double tolerance) {
+		ArrayList<String> regressions = new ArrayList<>();
+		for (Map.Entry<String, Score> entry : scores.entrySet()) {
+			String key = entry.getKey();
+			Score score = entry.getValue();
+			JsonNode baselineNode = baseline.get(key);
+			if (baselineNode == null) {
+				logger.warn("No baseline for '{}' (score: {} {})", key, score.score(), score.unit());
+				continue;
+			}
+			if (!baselineNode.get("unit").asText().equals(score.unit())) {
+				logger.warn("Unit of '{}' changed from {} to {}, skipping comparison", key, baselineNode.get("unit").asText(), score.unit());
+				continue;
+			}
+
+			double baselineScore = baselineNode.get("score").asDouble();
+			// throughput: higher is better, all other modes measure time: lower is better
+			boolean higherIsBetter = Mode.Throughput.shortLabel().equals(score.mode());
+			double relativeChange = (score.score() - baselineScore) / baselineScore;
+			double regression = higherIsBetter ? -relativeChange : relativeChange;
+			String message = String.format("%-90s %12.3f -> %12.3f %-10s (%+.1f%%)",
+					key, baselineScore, score.score(), score.unit(), relativeChange * 100);
+			if (regression > tolerance) {
+				regressions.add(message);
+			} else {
+				logger.info(message);
+			}
+		}
+
+		if (regressions.isEmpty()) {
+			return true;
+		}
+		logger.error("{} benchmarks regressed by more than {}%:", regressions.size(), Math.round(tolerance * 100));
+		for (String regression : regressions) {
+			logger.error(regression);
+		}
+		return false;
+	}
+}
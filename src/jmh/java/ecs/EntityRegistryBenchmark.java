@@ -0,0 +1,66 @@
+package ecs;
+
+import ecs.components.RotationalVelocity;
+import ecs.components.Transform;
+import ecs.components.Velocity;
+import ecs.systems.ApplyVelocitySystem;
+import ecs.systems.ComputeDataSystem;
+import ecs.systems.RotationalVelocitySystem;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import utils.quaternion.Quaternion;
+import utils.vector.Vec3f;
+
+/**
+ * One update tick over the GL-free systems registered in Main.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityRegistryBenchmark {
+	@Param({"1000", "10000", "100000"})
+	public int entityCount;
+
+	@Setup
+	public void setup() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		registry.registerSystem(ApplyVelocitySystem.getInstance());
+		registry.registerSystem(RotationalVelocitySystem.getInstance());
+		registry.registerSystem(ComputeDataSystem.getInstance());
+
+		Random random = new Random(42);
+		for (int i = 0; i < entityCount; i++) {
+			Entity entity = registry.createEntity();
+			entity.transform = new Transform(
+					new Vec3f(random.nextFloat(), random.nextFloat(), random.nextFloat()),
+					new Quaternion(0f, 0f, 0f, 1f),
+					new Vec3f(1f)
+			);
+			entity.velocityComponent = new Velocity(new Vec3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f));
+			if (i % 2 == 0) {
+				entity.rotationalVelocity = new RotationalVelocity(new Vec3f(0.1f, 0.2f, 0.3f));
+			}
+		}
+		registry.refreshArchetypes();
+	}
+
+	@TearDown
+	public void tearDown() {
+		EntityRegistry.getInstance().reset();
+	}
+
+	@Benchmark
+	public void executeUpdate() {
+		EntityRegistry.getInstance().executeUpdate();
+	}
+}
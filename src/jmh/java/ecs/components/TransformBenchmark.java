@@ -0,0 +1,51 @@
+package ecs.components;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.matrix.Mat4f;
+import utils.matrix.MatrixArithmeticIP;
+import utils.matrix.MatrixMath;
+import utils.quaternion.QuaternionMathIP;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransformBenchmark {
+	private Transform transform;
+	private Mat4f target;
+	private Vec3f forward;
+
+	@Setup
+	public void setup() {
+		transform = new Transform(new Vec3f(1f, 2f, 3f), QuaternionMathOOP.eulerRad(new Vec3f(0.1f, 0.2f, 0.3f)), new Vec3f(0.5f, 1f, 2f));
+		target = new Mat4f();
+		forward = new Vec3f();
+	}
+
+	@Benchmark
+	public Mat4f recompute() {
+		transform.setDirty().checkRecompute();
+		return transform.getTransformMatrix();
+	}
+
+	/**
+	 * the composition {@link Transform#checkRecompute()} used before it was fused
+	 */
+	@Benchmark
+	public Mat4f recomputeWithMatrixProducts() {
+		MatrixArithmeticIP.mul(target,
+				MatrixMath.translate(transform.getPosition()),
+				MatrixArithmeticIP.mul(QuaternionMathOOP.toMat4(transform.getRotation()), MatrixMath.scale(transform.getScale()))
+		);
+		QuaternionMathIP.rotate(transform.getRotation(), forward.set(0f, 0f, 1f));
+		return target;
+	}
+}
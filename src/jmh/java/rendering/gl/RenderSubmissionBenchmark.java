@@ -0,0 +1,71 @@
+package rendering.gl;
+
+import java.util.concurrent.TimeUnit;
+import org.lwjgl.opengl.GL45;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rendering.GeometryBuffer;
+import rendering.GpuArrayManager;
+
+/**
+ * CPU side cost of particle buffer management and submission, measured against the {@link RecordingBackend}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderSubmissionBenchmark {
+	private static final int particleCount = 10_000;
+	private static final int particleFloats = 12;
+
+	private IGLBackend previousBackend;
+	private GeometryBuffer particleBuffer;
+	private GpuArrayManager<float[]> particles;
+
+	@Setup
+	public void setup() {
+		previousBackend = GLFacade.getBackend();
+		GLFacade.setBackend(new RecordingBackend());
+		particleBuffer = new GeometryBuffer(GL45.GL_POINTS, 0, new int[]{4, 4, 4}, false, 0);
+		particles = new GpuArrayManager<>(particleBuffer, particleFloats * Float.BYTES, 0, particleCount, (particle, target) -> target.put(particle));
+		for (int i = 0; i < particleCount; i++) {
+			particles.add(new float[particleFloats]);
+		}
+		particles.flush();
+	}
+
+	@TearDown
+	public void tearDown() {
+		GLFacade.setBackend(previousBackend);
+	}
+
+	@Benchmark
+	public int submitAllChanged() {
+		for (int i = 0; i < particleCount; i++) {
+			particles.markDirty(i);
+		}
+		particles.flush();
+		particleBuffer.draw();
+		GLFacade.endFrame();
+		return particles.getLastUploadCount();
+	}
+
+	/**
+	 * every tenth particle changed, worst case for range coalescing
+	 */
+	@Benchmark
+	public int submitScatteredChanges() {
+		for (int i = 0; i < particleCount; i += 10) {
+			particles.markDirty(i);
+		}
+		particles.flush();
+		particleBuffer.draw();
+		GLFacade.endFrame();
+		return particles.getLastUploadCount();
+	}
+}
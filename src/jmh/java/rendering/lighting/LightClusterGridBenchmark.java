@@ -0,0 +1,69 @@
+package rendering.lighting;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.matrix.MatrixMath;
+import utils.vector.Vec3f;
+
+/**
+ * Point lights scattered around the camera, the volume grows with the light count to keep the density constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LightClusterGridBenchmark {
+	@Param({"1000", "8000", "64000"})
+	public int lightCount;
+
+	private float[] positions;
+	private float[] ranges;
+	private LightClusterGrid grid;
+	private ByteBuffer target;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		float worldSize = (float) Math.cbrt(lightCount) * 8f;
+		positions = new float[lightCount * 3];
+		ranges = new float[lightCount];
+		for (int i = 0; i < lightCount; i++) {
+			positions[i * 3] = (random.nextFloat() - 0.5f) * worldSize;
+			positions[i * 3 + 1] = (random.nextFloat() - 0.5f) * worldSize;
+			positions[i * 3 + 2] = (random.nextFloat() - 0.5f) * worldSize;
+			ranges[i] = 1f + random.nextFloat() * 4f;
+		}
+		grid = new LightClusterGrid(16, 9, 24).setCamera(
+				MatrixMath.lookAt(new Vec3f(0f), new Vec3f(0f, 0f, 1f), new Vec3f(0f, 1f, 0f)),
+				MatrixMath.perspective(90f, 16f / 9f, 0.1f, worldSize)
+		);
+		grid.build(positions, ranges, lightCount);
+		target = ByteBuffer.allocateDirect(grid.getByteSize() * 2).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Benchmark
+	public int build() {
+		grid.build(positions, ranges, lightCount);
+		return grid.getIndexCount();
+	}
+
+	/**
+	 * binning and writing the cluster buffer, as done once per frame
+	 */
+	@Benchmark
+	public ByteBuffer buildAndWrite() {
+		grid.build(positions, ranges, lightCount);
+		target.clear();
+		grid.writeTo(target, 1920, 1080);
+		return target;
+	}
+}
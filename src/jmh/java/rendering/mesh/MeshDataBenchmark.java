@@ -0,0 +1,41 @@
+package rendering.mesh;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * OBJ parsing and index generation, without creating the GeometryBuffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeshDataBenchmark {
+	@Param({"models/crate.obj", "models/midPolyUVSphere.obj"})
+	public String modelPath;
+
+	private MeshData meshData;
+
+	@Setup
+	public void setup() throws URISyntaxException, IOException {
+		meshData = new MeshData(modelPath, false);
+	}
+
+	@Benchmark
+	public MeshData parseObj() throws URISyntaxException, IOException {
+		return new MeshData(modelPath, false);
+	}
+
+	@Benchmark
+	public Object gatherUniqueVertices() {
+		return meshData.gatherUniqueVertices();
+	}
+}
@@ -0,0 +1,60 @@
+package rendering.mesh;
+
+import ecs.components.Mesh;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.matrix.Mat4f;
+
+/**
+ * Grouping of mesh components into instanced batches, as done by the mesh render program once per frame.
+ * Every instance owns its component like entities do, they reference one of a few shared geometries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeshInstanceBatcherBenchmark {
+	@Param({"1000", "10000"})
+	public int instanceCount;
+
+	@Param({"1", "16"})
+	public int geometryCount;
+
+	private Mesh[] meshes;
+	private Mat4f[] matrices;
+	private final MeshInstanceBatcher batcher = new MeshInstanceBatcher();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		MeshData[] geometries = new MeshData[geometryCount];
+		for (int i = 0; i < geometryCount; i++) {
+			geometries[i] = new MeshData();
+		}
+		meshes = new Mesh[instanceCount];
+		matrices = new Mat4f[instanceCount];
+		for (int i = 0; i < instanceCount; i++) {
+			meshes[i] = new Mesh(geometries[random.nextInt(geometryCount)], null, null, null, null);
+			matrices[i] = new Mat4f();
+		}
+		batch();
+	}
+
+	@Benchmark
+	public ByteBuffer batch() {
+		batcher.begin();
+		for (int i = 0; i < instanceCount; i++) {
+			batcher.add(meshes[i], matrices[i]);
+		}
+		batcher.finish();
+		return batcher.getInstanceData();
+	}
+}
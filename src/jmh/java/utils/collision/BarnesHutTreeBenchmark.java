@@ -0,0 +1,55 @@
+package utils.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BarnesHutTreeBenchmark {
+	private static final double gravConstant = 6.6743e-5;
+
+	@Param({"1000", "10000"})
+	public int bodyCount;
+
+	private double[] positions;
+	private double[] masses;
+	private double[] accelerations;
+	private BarnesHutTree tree;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		positions = new double[bodyCount * 3];
+		masses = new double[bodyCount];
+		accelerations = new double[bodyCount * 3];
+		for (int i = 0; i < bodyCount; i++) {
+			positions[i * 3] = random.nextGaussian() * 100;
+			positions[i * 3 + 1] = random.nextGaussian() * 100;
+			positions[i * 3 + 2] = random.nextGaussian() * 10;
+			masses[i] = 1 + random.nextDouble() * 1000;
+		}
+		tree = new BarnesHutTree();
+	}
+
+	@Benchmark
+	public double[] barnesHut() {
+		tree.build(positions, masses, bodyCount);
+		tree.computeAccelerations(gravConstant, 0.5, 0, accelerations);
+		return accelerations;
+	}
+
+	@Benchmark
+	public double[] exact() {
+		BarnesHutTree.computeExactAccelerations(positions, masses, bodyCount, gravConstant, 0, accelerations);
+		return accelerations;
+	}
+}
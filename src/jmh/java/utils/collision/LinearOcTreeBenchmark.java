@@ -0,0 +1,116 @@
+package utils.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.operator.Operator;
+import utils.vector.Vec3f;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LinearOcTreeBenchmark {
+	private static final float worldSize = 256f;
+
+	@Param({"1000", "10000"})
+	public int elementCount;
+
+	private AxisAlignedBoundingBox[] boxes;
+	private Integer[] elements;
+	private LinearOcTree<Integer> insertTree;
+	private LinearOcTree<Integer> filledTree;
+	private AxisAlignedBoundingBox queryBox;
+	private final ITreeProcessor<Integer> noopProcessor = new ITreeProcessor<>() {
+		@Override
+		public boolean descend(AxisAlignedBoundingBox nodeBox) {
+			return false;
+		}
+
+		@Override
+		public void process(Integer hit) {
+		}
+	};
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		boxes = new AxisAlignedBoundingBox[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			Vec3f min = new Vec3f(
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize
+			);
+			float size = 0.1f + random.nextFloat() * 2f;
+			boxes[i] = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, size));
+		}
+		elements = new Integer[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			elements[i] = i;
+		}
+		insertTree = new LinearOcTree<>(worldSize);
+		filledTree = new LinearOcTree<>(worldSize);
+		for (int i = 0; i < elementCount; i++) {
+			filledTree.insert(boxes[i], elements[i]);
+		}
+		filledTree.traverse(noopProcessor);
+		queryBox = new AxisAlignedBoundingBox(new Vec3f(-16f), new Vec3f(16f));
+	}
+
+	@Benchmark
+	public LinearOcTree<Integer> insert() {
+		insertTree.clear();
+		for (int i = 0; i < elementCount; i++) {
+			insertTree.insert(boxes[i], elements[i]);
+		}
+		// the linear tree is built lazily, include that in the measurement
+		insertTree.traverse(noopProcessor);
+		return insertTree;
+	}
+
+	@Benchmark
+	public LinearOcTree<Integer> bulkBuild() {
+		insertTree.build(boxes, elements, elementCount);
+		return insertTree;
+	}
+
+	@Benchmark
+	public void traverseAll(Blackhole blackhole) {
+		filledTree.traverse(new ITreeProcessor<>() {
+			@Override
+			public boolean descend(AxisAlignedBoundingBox nodeBox) {
+				return true;
+			}
+
+			@Override
+			public void process(Integer hit) {
+				blackhole.consume(hit);
+			}
+		});
+	}
+
+	@Benchmark
+	public void traverseQuery(Blackhole blackhole) {
+		filledTree.traverse(new ITreeProcessor<>() {
+			@Override
+			public boolean descend(AxisAlignedBoundingBox nodeBox) {
+				return queryBox.isIntersecting(nodeBox);
+			}
+
+			@Override
+			public void process(Integer hit) {
+				if (queryBox.isIntersecting(boxes[hit])) {
+					blackhole.consume(hit);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,156 @@
+package utils.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.operator.Operator;
+import utils.vector.Vec3f;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OcTreeBenchmark {
+	private static final float worldSize = 256f;
+
+	@Param({"1000", "10000"})
+	public int elementCount;
+
+	private AxisAlignedBoundingBox[] boxes;
+	private OcTree<Integer> insertTree;
+	private OcTree<Integer> filledTree;
+	private AxisAlignedBoundingBox queryBox;
+	private AxisAlignedBoundingBox[] movingBoxes;
+	private OcTree<Integer> trackedTree;
+	private int[] handles;
+	private float moveDirection = 0.05f;
+	private final SpatialQueryResult<Integer> queryResult = new SpatialQueryResult<>();
+	private final Vec3f queryPoint = new Vec3f(3f, -7f, 11f);
+	private final Vec3f rayDirection = new Vec3f(0.6f, 0.3f, -0.2f);
+	private final BatchQueryResult<Integer> batchResult = new BatchQueryResult<>();
+	private AxisAlignedBoundingBox[] batchBoxes;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		boxes = new AxisAlignedBoundingBox[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			Vec3f min = new Vec3f(
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize
+			);
+			float size = 0.1f + random.nextFloat() * 2f;
+			boxes[i] = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, size));
+		}
+		insertTree = new OcTree<>(worldSize);
+		filledTree = new OcTree<>(worldSize);
+		for (int i = 0; i < elementCount; i++) {
+			filledTree.insert(boxes[i], i);
+		}
+		queryBox = new AxisAlignedBoundingBox(new Vec3f(-16f), new Vec3f(16f));
+		batchBoxes = new AxisAlignedBoundingBox[1024];
+		for (int i = 0; i < batchBoxes.length; i++) {
+			Vec3f min = boxes[i % elementCount].min().copy().apply(Operator.Sub, 2f);
+			batchBoxes[i] = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, 4f));
+		}
+
+		movingBoxes = new AxisAlignedBoundingBox[elementCount];
+		trackedTree = new OcTree<>(worldSize);
+		handles = new int[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			movingBoxes[i] = boxes[i].copy();
+			handles[i] = trackedTree.insertTracked(movingBoxes[i], i);
+		}
+	}
+
+	@Benchmark
+	public OcTree<Integer> insert() {
+		insertTree.clear();
+		for (int i = 0; i < elementCount; i++) {
+			insertTree.insert(boxes[i], i);
+		}
+		return insertTree;
+	}
+
+	/**
+	 * every element moves a little, only elements crossing a cell boundary are relocated
+	 */
+	@Benchmark
+	public OcTree<Integer> updateTracked() {
+		moveDirection = -moveDirection;
+		for (int i = 0; i < elementCount; i++) {
+			movingBoxes[i].min().apply(Operator.Add, moveDirection);
+			movingBoxes[i].max().apply(Operator.Add, moveDirection);
+			trackedTree.update(handles[i], movingBoxes[i]);
+		}
+		return trackedTree;
+	}
+
+	@Benchmark
+	public void traverseAll(Blackhole blackhole) {
+		filledTree.traverse(new ITreeProcessor<>() {
+			@Override
+			public boolean descend(AxisAlignedBoundingBox nodeBox) {
+				return true;
+			}
+
+			@Override
+			public void process(Integer hit) {
+				blackhole.consume(hit);
+			}
+		});
+	}
+
+	@Benchmark
+	public void traverseQuery(Blackhole blackhole) {
+		filledTree.traverse(new ITreeProcessor<>() {
+			@Override
+			public boolean descend(AxisAlignedBoundingBox nodeBox) {
+				return queryBox.isIntersecting(nodeBox);
+			}
+
+			@Override
+			public void process(Integer hit) {
+				if (queryBox.isIntersecting(boxes[hit])) {
+					blackhole.consume(hit);
+				}
+			}
+		});
+	}
+
+	@Benchmark
+	public SpatialQueryResult<Integer> queryNearest() {
+		filledTree.queryNearest(queryPoint, 16, queryResult);
+		return queryResult;
+	}
+
+	@Benchmark
+	public SpatialQueryResult<Integer> raycast() {
+		filledTree.raycast(queryPoint, rayDirection, worldSize, 1, queryResult);
+		return queryResult;
+	}
+
+	@Benchmark
+	public BatchQueryResult<Integer> queryBoxesBatched() {
+		filledTree.queryBoxes(batchBoxes, batchBoxes.length, batchResult);
+		return batchResult;
+	}
+
+	@Benchmark
+	public int queryBoxesSequential() {
+		int hits = 0;
+		for (AxisAlignedBoundingBox box : batchBoxes) {
+			filledTree.queryBox(box, queryResult);
+			hits += queryResult.size();
+		}
+		return hits;
+	}
+}
@@ -0,0 +1,94 @@
+package utils.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.operator.Operator;
+import utils.vector.Vec3f;
+
+/**
+ * Dense particles of equal size, the world grows with the particle count to keep the density constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpatialHashGridBenchmark {
+	private static final float particleRadius = 0.25f;
+
+	@Param({"1000", "10000"})
+	public int elementCount;
+
+	private AxisAlignedBoundingBox[] boxes;
+	private Integer[] elements;
+	private SpatialHashGrid<Integer> buildGrid;
+	private SpatialHashGrid<Integer> filledGrid;
+	private OcTree<Integer> ocTree;
+	private final SpatialQueryResult<Integer> queryResult = new SpatialQueryResult<>();
+	private final Vec3f queryPoint = new Vec3f(1f, -2f, 0.5f);
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		float worldSize = (float) Math.cbrt(elementCount) * 2f;
+		boxes = new AxisAlignedBoundingBox[elementCount];
+		elements = new Integer[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			Vec3f center = new Vec3f(
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize,
+					(random.nextFloat() - 0.5f) * worldSize
+			);
+			boxes[i] = new AxisAlignedBoundingBox(center.copy().apply(Operator.Sub, particleRadius), center.copy().apply(Operator.Add, particleRadius));
+			elements[i] = i;
+		}
+		buildGrid = new SpatialHashGrid<>(particleRadius * 2f);
+		filledGrid = new SpatialHashGrid<>(particleRadius * 2f);
+		filledGrid.build(boxes, elements, elementCount);
+		ocTree = new OcTree<>(worldSize);
+	}
+
+	@Benchmark
+	public SpatialHashGrid<Integer> build() {
+		buildGrid.build(boxes, elements, elementCount);
+		return buildGrid;
+	}
+
+	/**
+	 * rebuild and pair generation, as done once per tick
+	 */
+	@Benchmark
+	public int buildAndFindPairs() {
+		buildGrid.build(boxes, elements, elementCount);
+		return buildGrid.computeOverlappingPairs();
+	}
+
+	/**
+	 * the same neighbour search through the octree, one sphere query per particle
+	 */
+	@Benchmark
+	public int ocTreeBuildAndQueryNeighbours() {
+		ocTree.clear();
+		for (int i = 0; i < elementCount; i++) {
+			ocTree.insert(boxes[i], elements[i]);
+		}
+		int hits = 0;
+		for (int i = 0; i < elementCount; i++) {
+			ocTree.queryBox(boxes[i], queryResult);
+			hits += queryResult.size();
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public SpatialQueryResult<Integer> queryNearest() {
+		filledGrid.queryNearest(queryPoint, 16, queryResult);
+		return queryResult;
+	}
+}
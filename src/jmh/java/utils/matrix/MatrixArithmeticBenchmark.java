@@ -0,0 +1,52 @@
+package utils.matrix;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+import utils.vector.Vec4f;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatrixArithmeticBenchmark {
+	private Mat4f a;
+	private Mat4f b;
+	private Mat4f target;
+	private Vec4f vector;
+
+	@Setup
+	public void setup() {
+		// rotation matrices, so repeated in-place multiplies stay bounded
+		a = QuaternionMathOOP.toMat4(QuaternionMathOOP.eulerRad(new Vec3f(0.1f, 0.2f, 0.3f)));
+		b = QuaternionMathOOP.toMat4(QuaternionMathOOP.eulerRad(new Vec3f(-0.3f, 0.05f, 0.7f)));
+		target = new Mat4f();
+		vector = new Vec4f(1f, 2f, 3f, 1f);
+	}
+
+	@Benchmark
+	public Mat4f mat4MulInPlace() {
+		return MatrixArithmeticIP.mul(a, b);
+	}
+
+	@Benchmark
+	public Mat4f mat4MulIntoTarget() {
+		return MatrixArithmeticIP.mul(target, a, b);
+	}
+
+	@Benchmark
+	public Mat4f mat4MulAllocating() {
+		return MatrixArithmeticOOP.mul(a, b);
+	}
+
+	@Benchmark
+	public Vec4f mat4VecMulAllocating() {
+		return MatrixArithmeticOOP.mul(a, vector);
+	}
+}
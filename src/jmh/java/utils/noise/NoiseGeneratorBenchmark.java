@@ -0,0 +1,36 @@
+package utils.noise;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.noise.threedim.PerlinLayer3D;
+import utils.noise.threedim.VoxelGrid3D;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoiseGeneratorBenchmark {
+	@Param({"64"})
+	public int gridSize;
+
+	private VoxelGrid3D grid;
+	private PerlinLayer3D layer;
+
+	@Setup
+	public void setup() {
+		grid = new VoxelGrid3D(gridSize, gridSize, gridSize);
+		layer = new PerlinLayer3D(4f, 0.5f, 1.5f, 2.5f, -1f, 1f, 0f);
+	}
+
+	@Benchmark
+	public VoxelGrid3D generate3D() {
+		NoiseGenerator.generate3D(grid, layer);
+		return grid;
+	}
+}
@@ -0,0 +1,41 @@
+package utils.noise;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PerlinBenchmark {
+	private static final int samplesPerAxis = 32;
+	private static final int gridSize = 32;
+
+	@Benchmark
+	public void perlin2D(Blackhole blackhole) {
+		for (int x = 0; x < samplesPerAxis; x++) {
+			for (int y = 0; y < samplesPerAxis; y++) {
+				blackhole.consume(Perlin.perlin(x * 0.173f, y * 0.241f));
+			}
+		}
+	}
+
+	@Benchmark
+	public void perlin3D(Blackhole blackhole) {
+		for (int x = 0; x < samplesPerAxis; x++) {
+			for (int y = 0; y < samplesPerAxis; y++) {
+				blackhole.consume(Perlin.perlin(x * 0.173f, y * 0.241f, (x + y) * 0.057f));
+			}
+		}
+	}
+
+	@Benchmark
+	public float[][][] perlinGrid() {
+		return Perlin.perlinGrid(gridSize, gridSize, gridSize, 4f, 0.5f, 1.5f, 2.5f);
+	}
+}
@@ -0,0 +1,67 @@
+package utils.operator;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.vector.Vec3f;
+
+/**
+ * Velocity integration of many particles through the generic operator API and through the specialized kernels.
+ * The setup runs every operator through the shared call sites first, like the engine does, so they are megamorphic when measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OperatorBenchmark {
+	private static final int count = 4096;
+	private static final float deltaSeconds = 1f / 60f;
+
+	private Vec3f[] positions;
+	private Vec3f[] velocities;
+	private final Vec3f gravity = new Vec3f(0f, -9.81f, 0f);
+
+	@Setup
+	public void setup() {
+		positions = new Vec3f[count];
+		velocities = new Vec3f[count];
+		for (int i = 0; i < count; i++) {
+			positions[i] = new Vec3f(i, -i, i * 0.5f);
+			velocities[i] = new Vec3f(1f, 2f, 3f);
+		}
+
+		Vec3f scratch = new Vec3f(1f);
+		for (int i = 0; i < 100_000; i++) {
+			for (Operator operator : Operator.values()) {
+				scratch.apply(operator, 1f);
+				scratch.apply(operator, 1f, 1f, 1f);
+				scratch.apply(operator, velocities[0]);
+			}
+			scratch.set(1f, 1f, 1f);
+		}
+	}
+
+	@Benchmark
+	public Vec3f[] integrateOperators() {
+		for (int i = 0; i < count; i++) {
+			Vec3f velocity = velocities[i];
+			positions[i].apply(Operator.Add, velocity.data[0] * deltaSeconds, velocity.data[1] * deltaSeconds, velocity.data[2] * deltaSeconds);
+			velocity.apply(Operator.Add, gravity.data[0] * deltaSeconds, gravity.data[1] * deltaSeconds, gravity.data[2] * deltaSeconds);
+		}
+		return positions;
+	}
+
+	@Benchmark
+	public Vec3f[] integrateKernels() {
+		for (int i = 0; i < count; i++) {
+			Vec3f velocity = velocities[i];
+			positions[i].scaleAdd(velocity, deltaSeconds);
+			velocity.scaleAdd(gravity, deltaSeconds);
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,39 @@
+package utils.quaternion;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.vector.Vec3f;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuaternionMathBenchmark {
+	private Quaternion rotation;
+	private Quaternion other;
+	private Quaternion target;
+	private Vec3f vector;
+
+	@Setup
+	public void setup() {
+		rotation = QuaternionMathOOP.eulerRad(new Vec3f(0.1f, 0.2f, 0.3f));
+		other = QuaternionMathOOP.eulerRad(new Vec3f(-0.3f, 0.05f, 0.7f));
+		target = new Quaternion();
+		vector = new Vec3f(1f, 2f, 3f);
+	}
+
+	@Benchmark
+	public Vec3f rotateVector() {
+		return QuaternionMathIP.rotate(rotation, vector);
+	}
+
+	@Benchmark
+	public Quaternion rotateQuaternion() {
+		return QuaternionMathIP.rotate(target, rotation, other);
+	}
+}
@@ -0,0 +1,268 @@
+package utils.simd;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.matrix.Mat4f;
+import utils.matrix.MatrixArithmeticIP;
+import utils.matrix.MatrixArithmeticOOP;
+import utils.operator.Operator;
+import utils.quaternion.Quaternion;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+import utils.vector.Vec4f;
+
+/**
+ * Every kernel three times: the existing per object math, the scalar batch loops and the Vector API batch kernels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchMathBenchmark {
+	private static final int count = 4096;
+
+	private final IBatchMath scalar = new ScalarBatchMath();
+	private IBatchMath vector;
+
+	// rotation, so repeated in-place multiplies stay bounded
+	private Mat4f rotation;
+	private Mat4f transform;
+
+	private Vec4f[] vectors4;
+	private Vec3f[] a;
+	private Vec3f[] b;
+	private Vec3f[] targets;
+	private float[] dots;
+	private Quaternion[] quaternions;
+	private Mat4f[] matrices;
+	private Mat4f[] matrixTargets;
+
+	private Vec4Batch vectorBatch;
+	private Vec3Batch aBatch;
+	private Vec3Batch bBatch;
+	private Vec3Batch targetBatch;
+	private Vec3Batch targetBatch2;
+	private Vec4Batch quaternionBatch;
+	private Mat4Batch matrixBatch;
+	private Mat4Batch matrixTargetBatch;
+
+	@Setup
+	public void setup() {
+		vector = BatchMath.getInstance();
+		Random random = new Random(43);
+		rotation = QuaternionMathOOP.toMat4(QuaternionMathOOP.eulerRad(new Vec3f(0.1f, 0.2f, 0.3f)));
+		transform = QuaternionMathOOP.toMat4(QuaternionMathOOP.eulerRad(new Vec3f(-0.3f, 0.05f, 0.7f)));
+		transform.data[3] = 1f;
+		transform.data[7] = 2f;
+		transform.data[11] = 3f;
+
+		vectors4 = new Vec4f[count];
+		a = new Vec3f[count];
+		b = new Vec3f[count];
+		targets = new Vec3f[count];
+		dots = new float[count];
+		quaternions = new Quaternion[count];
+		matrices = new Mat4f[count];
+		matrixTargets = new Mat4f[count];
+		vectorBatch = new Vec4Batch(count).setSize(count);
+		aBatch = new Vec3Batch(count).setSize(count);
+		bBatch = new Vec3Batch(count).setSize(count);
+		targetBatch = new Vec3Batch(count).setSize(count);
+		targetBatch2 = new Vec3Batch(count).setSize(count);
+		quaternionBatch = new Vec4Batch(count).setSize(count);
+		matrixBatch = new Mat4Batch(count).setSize(count);
+		matrixTargetBatch = new Mat4Batch(count).setSize(count);
+		for (int i = 0; i < count; i++) {
+			a[i] = new Vec3f(random.nextFloat(), random.nextFloat(), random.nextFloat());
+			b[i] = new Vec3f(random.nextFloat(), random.nextFloat(), random.nextFloat());
+			targets[i] = new Vec3f();
+			vectors4[i] = new Vec4f(a[i], 1f);
+			quaternions[i] = QuaternionMathOOP.eulerRad(b[i]);
+			matrices[i] = QuaternionMathOOP.toMat4(quaternions[i]);
+			matrixTargets[i] = new Mat4f();
+			aBatch.set(i, a[i]);
+			bBatch.set(i, b[i]);
+			vectorBatch.set(i, vectors4[i]);
+			quaternionBatch.set(i, quaternions[i]);
+			matrixBatch.set(i, matrices[i]);
+		}
+	}
+
+	@Benchmark
+	public Vec4f[] mat4Vec4Objects() {
+		for (int i = 0; i < count; i++) {
+			MatrixArithmeticIP.mul(rotation, vectors4[i]);
+		}
+		return vectors4;
+	}
+
+	@Benchmark
+	public Vec4Batch mat4Vec4Scalar() {
+		scalar.mul(rotation, vectorBatch, vectorBatch);
+		return vectorBatch;
+	}
+
+	@Benchmark
+	public Vec4Batch mat4Vec4Vector() {
+		vector.mul(rotation, vectorBatch, vectorBatch);
+		return vectorBatch;
+	}
+
+	@Benchmark
+	public Mat4f[] mat4Mat4Objects() {
+		for (int i = 0; i < count; i++) {
+			MatrixArithmeticIP.mul(matrixTargets[i], matrices[i], matrices[i]);
+		}
+		return matrixTargets;
+	}
+
+	@Benchmark
+	public Mat4Batch mat4Mat4Scalar() {
+		scalar.mul(matrixBatch, matrixBatch, matrixTargetBatch);
+		return matrixTargetBatch;
+	}
+
+	@Benchmark
+	public Mat4Batch mat4Mat4Vector() {
+		vector.mul(matrixBatch, matrixBatch, matrixTargetBatch);
+		return matrixTargetBatch;
+	}
+
+	@Benchmark
+	public Vec3f[] rotateObjects() {
+		for (int i = 0; i < count; i++) {
+			QuaternionMathOOP.rotate(targets[i], quaternions[i], a[i]);
+		}
+		return targets;
+	}
+
+	@Benchmark
+	public Vec3Batch rotateScalar() {
+		scalar.rotate(quaternionBatch, aBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3Batch rotateVector() {
+		vector.rotate(quaternionBatch, aBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3f[] normalizeObjects() {
+		for (int i = 0; i < count; i++) {
+			targets[i].set(a[i].data).normalize();
+		}
+		return targets;
+	}
+
+	@Benchmark
+	public Vec3Batch normalizeScalar() {
+		scalar.normalize(aBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3Batch normalizeVector() {
+		vector.normalize(aBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public float[] dotObjects() {
+		for (int i = 0; i < count; i++) {
+			dots[i] = a[i].dot(b[i]);
+		}
+		return dots;
+	}
+
+	@Benchmark
+	public float[] dotScalar() {
+		scalar.dot(aBatch, bBatch, dots);
+		return dots;
+	}
+
+	@Benchmark
+	public float[] dotVector() {
+		vector.dot(aBatch, bBatch, dots);
+		return dots;
+	}
+
+	@Benchmark
+	public Vec3f[] crossObjects() {
+		for (int i = 0; i < count; i++) {
+			targets[i].set(a[i].data).cross(b[i]);
+		}
+		return targets;
+	}
+
+	@Benchmark
+	public Vec3Batch crossScalar() {
+		scalar.cross(aBatch, bBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3Batch crossVector() {
+		vector.cross(aBatch, bBatch, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3f[] addScaledObjects() {
+		for (int i = 0; i < count; i++) {
+			targets[i].set(b[i].data).apply(Operator.Mul, 0.01f).apply(Operator.Add, a[i]);
+		}
+		return targets;
+	}
+
+	@Benchmark
+	public Vec3Batch addScaledScalar() {
+		scalar.addScaled(aBatch, bBatch, 0.01f, targetBatch);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3Batch addScaledVector() {
+		vector.addScaled(aBatch, bBatch, 0.01f, targetBatch);
+		return targetBatch;
+	}
+
+	/**
+	 * There is no box transform outside the batch kernels, the object version transforms all eight corners.
+	 */
+	@Benchmark
+	public Vec3f[] transformAABBsObjects() {
+		Vec4f corner = new Vec4f();
+		for (int i = 0; i < count; i++) {
+			Vec3f min = targets[i].set(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+			for (int cornerIndex = 0; cornerIndex < 8; cornerIndex++) {
+				corner.data[0] = (cornerIndex & 1) == 0 ? a[i].data[0] : b[i].data[0];
+				corner.data[1] = (cornerIndex & 2) == 0 ? a[i].data[1] : b[i].data[1];
+				corner.data[2] = (cornerIndex & 4) == 0 ? a[i].data[2] : b[i].data[2];
+				corner.data[3] = 1f;
+				Vec4f transformed = MatrixArithmeticOOP.mul(transform, corner);
+				min.set(Math.min(min.data[0], transformed.data[0]), Math.min(min.data[1], transformed.data[1]), Math.min(min.data[2], transformed.data[2]));
+			}
+		}
+		return targets;
+	}
+
+	@Benchmark
+	public Vec3Batch transformAABBsScalar() {
+		scalar.transformAABBs(transform, aBatch, bBatch, targetBatch, targetBatch2);
+		return targetBatch;
+	}
+
+	@Benchmark
+	public Vec3Batch transformAABBsVector() {
+		vector.transformAABBs(transform, aBatch, bBatch, targetBatch, targetBatch2);
+		return targetBatch;
+	}
+}
@@ -5,7 +5,6 @@ import utils.matrix.MatrixArithmeticOOP;
 import utils.matrix.Mat3f;
 import utils.matrix.Mat4f;
 import utils.matrix.MatrixMath;
-import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public abstract class BaseCamera {
@@ -49,24 +48,24 @@ public abstract class BaseCamera {
 		}
 
 		if (right != 0f) {
-			this.position.apply(Operator.Add, this.right.copy().apply(Operator.Mul, right));
+			this.position.scaleAdd(this.right, right);
 		}
 		if (up != 0f) {
-			this.position.apply(Operator.Add, this.up.copy().apply(Operator.Mul, up));
+			this.position.scaleAdd(this.up, up);
 		}
 		if (forward != 0f) {
-			this.position.apply(Operator.Add, this.forward.copy().apply(Operator.Mul, forward));
+			this.position.scaleAdd(this.forward, forward);
 		}
 		updateTransform();
 	}
 
 	public void moveAbsolute(Vec3f direction) {
-		this.position.apply(Operator.Add, direction);
+		this.position.addInPlace(direction);
 		updateTransform();
 	}
 
 	public void moveAbsolute(float x, float y, float z) {
-		this.position.apply(Operator.Add, x, y, z);
+		this.position.addInPlace(x, y, z);
 		updateTransform();
 	}
 
@@ -8,10 +8,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rendering.shaderdata.ShaderDataManager;
 import utils.input.InputManager;
-import utils.operator.Operator;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathIP;
-import utils.quaternion.QuaternionMathOOP;
+import utils.scratch.ScratchArena;
 import utils.vector.Vec2f;
 import utils.vector.Vec3f;
 
@@ -120,11 +119,10 @@ public class FollowCamera {
 		if (rotationUnlocked) {
 			if (unlockRotationPressed) {
 				Vec2f cursorPosition = inputManager.getCursorPosition();
-				Vec2f cursorDelta = cursorPosition.copy()
-						.apply(Operator.Sub, prevCursorPosition)
-						.apply(Operator.Mul, mouseSensitivity.data[0] * deltaSeconds, mouseSensitivity.data[1] * deltaSeconds);
+				float cursorDeltaX = (cursorPosition.data[0] - prevCursorPosition.data[0]) * (mouseSensitivity.data[0] * deltaSeconds);
+				float cursorDeltaY = (cursorPosition.data[1] - prevCursorPosition.data[1]) * (mouseSensitivity.data[1] * deltaSeconds);
 				prevCursorPosition.set(cursorPosition.data);
-				currentRotationOffset.apply(Operator.Add, cursorDelta.data[1], cursorDelta.data[0], 0f);
+				currentRotationOffset.addInPlace(cursorDeltaY, cursorDeltaX, 0f);
 				if (currentRotationOffset.data[0] > 360f) {
 					currentRotationOffset.data[0] -= 360f;
 				} else if (currentRotationOffset.data[0] < -360f) {
@@ -145,11 +143,14 @@ public class FollowCamera {
 			prevCursorPosition.set(cursorPosition.data);
 		}
 
-		Vec3f translationInput = new Vec3f();
-		if (applyTranslationInput(translationInput)) {
-			QuaternionMathIP.rotate(QuaternionMathOOP.eulerDeg(currentRotationOffset), translationInput);
-			currentPositionOffset.apply(Operator.Add, translationInput);
-			transformChanged = true;
+		ScratchArena arena = ScratchArena.get();
+		try (ScratchArena.Scope scope = arena.push()) {
+			Vec3f translationInput = arena.vec3();
+			if (applyTranslationInput(translationInput)) {
+				QuaternionMathIP.rotate(QuaternionMathIP.eulerDeg(arena.quaternion(), currentRotationOffset), translationInput);
+				currentPositionOffset.addInPlace(translationInput);
+				transformChanged = true;
+			}
 		}
 
 		if (trackedEntity != null) {
@@ -175,12 +176,14 @@ public class FollowCamera {
 	}
 
 	private void applyCameraTransform() {
-		Vec3f positionOffset = QuaternionMathOOP.rotate(lastEntityRotation, currentPositionOffset);
-		Operator.Add.apply(camera.getPosition().data, 0, lastEntityPosition.data, 0, positionOffset.data, 0, 3);
+		QuaternionMathIP.rotate(camera.getPosition(), lastEntityRotation, currentPositionOffset).addInPlace(lastEntityPosition);
 
-		Quaternion rotationOffset = QuaternionMathOOP.eulerDeg(currentRotationOffset);
-		QuaternionMathIP.rotate(rotationOffset, lastEntityRotation, rotationOffset);
-		camera.setRotation(QuaternionMathOOP.toMat3(rotationOffset));
+		ScratchArena arena = ScratchArena.get();
+		try (ScratchArena.Scope scope = arena.push()) {
+			Quaternion rotationOffset = QuaternionMathIP.eulerDeg(arena.quaternion(), currentRotationOffset);
+			QuaternionMathIP.rotate(rotationOffset, lastEntityRotation, rotationOffset);
+			camera.setRotation(QuaternionMathIP.toMat3(arena.mat3(), rotationOffset));
+		}
 
 		ShaderDataManager dataManager = ShaderDataManager.getInstance();
 		dataManager.camera_position.setData(camera.getPosition());
@@ -0,0 +1,147 @@
+package ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Packed storage of all entities that share the exact same set of components.
+ * Systems iterate archetypes in chunks of {@link #chunkSize} entities instead of filtering every entity.
+ * Besides the entity references every component of the signature is packed into its own column,
+ * so chunk-aware systems (see {@link UpdateSystem#execute_updateChunk(Archetype, int, int)}) walk contiguous arrays.
+ * The components themselves stay fields of the {@link Entity}, the columns hold the same references.
+ */
+public class Archetype {
+	public static final int chunkSize = 1024;
+
+	private final long signature;
+	private final ComponentType[] componentTypes;
+	private final Object[][] columns = new Object[ComponentType.values().length][];
+	private Entity[] entities = new Entity[16];
+	private int size = 0;
+
+	private final ArrayList<ArchetypeChunk> chunks = new ArrayList<>();
+	private int chunkedSize = 0;
+
+	Archetype(long signature) {
+		this.signature = signature;
+		componentTypes = Arrays.stream(ComponentType.values())
+				.filter(componentType -> (signature & componentType.bit) != 0)
+				.toArray(ComponentType[]::new);
+		for (ComponentType componentType : componentTypes) {
+			columns[componentType.ordinal()] = new Object[entities.length];
+		}
+	}
+
+	public long getSignature() {
+		return signature;
+	}
+
+	public boolean hasComponent(ComponentType componentType) {
+		return (signature & componentType.bit) != 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int chunkCount() {
+		return (size + chunkSize - 1) / chunkSize;
+	}
+
+	public Entity get(int index) {
+		return entities[index];
+	}
+
+	/**
+	 * The column is replaced when the archetype grows, so fetch it again for every chunk instead of keeping it.
+	 *
+	 * @return the packed components of `componentType`, index i belongs to {@link #get(int)} i;
+	 * 		null if the type is not part of the signature
+	 */
+	public Object[] getColumn(ComponentType componentType) {
+		return columns[componentType.ordinal()];
+	}
+
+	/**
+	 * The chunks are cached and only the tail is rebuilt when the size changed since the last call.
+	 *
+	 * @return the reused chunks covering [0, size)
+	 */
+	ArrayList<ArchetypeChunk> getChunks() {
+		if (chunkedSize != size) {
+			rebuildChunks();
+		}
+		return chunks;
+	}
+
+	private void rebuildChunks() {
+		int chunkCount = chunkCount();
+		while (chunks.size() > chunkCount) {
+			chunks.remove(chunks.size() - 1);
+		}
+		// the last chunk is the only one whose end can differ
+		int lastIndex = chunks.size() - 1;
+		if (lastIndex >= 0 && chunks.get(lastIndex).end() != Math.min((lastIndex + 1) * chunkSize, size)) {
+			chunks.remove(lastIndex);
+		}
+		for (int chunk = chunks.size(); chunk < chunkCount; chunk++) {
+			int start = chunk * chunkSize;
+			chunks.add(new ArchetypeChunk(this, start, Math.min(start + chunkSize, size)));
+		}
+		chunkedSize = size;
+	}
+
+	void add(Entity entity) {
+		if (size == entities.length) {
+			entities = Arrays.copyOf(entities, size * 2);
+			for (ComponentType componentType : componentTypes) {
+				columns[componentType.ordinal()] = Arrays.copyOf(columns[componentType.ordinal()], size * 2);
+			}
+		}
+		entity.archetype = this;
+		entity.archetypeIndex = size;
+		entities[size] = entity;
+		size++;
+		refreshComponents(entity);
+	}
+
+	/**
+	 * Copies the component fields of the entity into the columns, needed when a component was replaced by one of the same type.
+	 */
+	void refreshComponents(Entity entity) {
+		int index = entity.archetypeIndex;
+		for (ComponentType componentType : componentTypes) {
+			columns[componentType.ordinal()][index] = entity.getComponent(componentType);
+		}
+	}
+
+	void remove(Entity entity) {
+		int lastIndex = size - 1;
+		int removeIndex = entity.archetypeIndex;
+		if (removeIndex != lastIndex) {
+			// move last entity, so the storage stays packed
+			Entity lastEntity = entities[lastIndex];
+			lastEntity.archetypeIndex = removeIndex;
+			entities[removeIndex] = lastEntity;
+			for (ComponentType componentType : componentTypes) {
+				Object[] column = columns[componentType.ordinal()];
+				column[removeIndex] = column[lastIndex];
+			}
+		}
+		entities[lastIndex] = null;
+		for (ComponentType componentType : componentTypes) {
+			columns[componentType.ordinal()][lastIndex] = null;
+		}
+		size--;
+		entity.archetype = null;
+		entity.archetypeIndex = -1;
+	}
+
+	void clear() {
+		Arrays.fill(entities, 0, size, null);
+		for (ComponentType componentType : componentTypes) {
+			Arrays.fill(columns[componentType.ordinal()], 0, size, null);
+		}
+		size = 0;
+	}
+}
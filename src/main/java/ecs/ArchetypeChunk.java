@@ -0,0 +1,7 @@
+package ecs;
+
+/**
+ * A contiguous range [start, end) of entities inside an {@link Archetype}.
+ */
+public record ArchetypeChunk(Archetype archetype, int start, int end) {
+}
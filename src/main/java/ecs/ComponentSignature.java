@@ -0,0 +1,59 @@
+package ecs;
+
+/**
+ * A set of {@link ComponentType}s, stored as a bitmask.
+ */
+public record ComponentSignature(long mask) {
+	/**
+	 * as required components: matched by every entity
+	 */
+	public static final ComponentSignature any = new ComponentSignature(0L);
+	/**
+	 * as read or write components: the system accesses no component
+	 */
+	public static final ComponentSignature none = new ComponentSignature(0L);
+
+	public static ComponentSignature of(ComponentType... componentTypes) {
+		long mask = 0L;
+		for (ComponentType componentType : componentTypes) {
+			mask |= componentType.bit;
+		}
+		return new ComponentSignature(mask);
+	}
+
+	/**
+	 * @param entitySignature signature of an entity or archetype
+	 * @return true if every component of this signature is present in `entitySignature`
+	 */
+	public boolean isMatchedBy(long entitySignature) {
+		return (entitySignature & mask) == mask;
+	}
+
+	public boolean intersects(ComponentSignature other) {
+		return (mask & other.mask) != 0;
+	}
+
+	public ComponentSignature union(ComponentSignature other) {
+		return new ComponentSignature(mask | other.mask);
+	}
+
+	public boolean contains(ComponentType componentType) {
+		return (mask & componentType.bit) != 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("ComponentSignature{");
+		boolean first = true;
+		for (ComponentType componentType : ComponentType.values()) {
+			if (contains(componentType)) {
+				if (!first) {
+					builder.append(", ");
+				}
+				builder.append(componentType.name());
+				first = false;
+			}
+		}
+		return builder.append('}').toString();
+	}
+}
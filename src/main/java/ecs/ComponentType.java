@@ -0,0 +1,27 @@
+package ecs;
+
+/**
+ * One constant per component field of {@link Entity}, used to build {@link ComponentSignature}s.
+ */
+public enum ComponentType {
+	transform,
+	mesh,
+	marchingCubesMesh,
+	light,
+	velocity,
+	scaleVelocity,
+	orbital,
+	sphereParticle,
+	shockwave,
+	shockwaveExpandingAnimator,
+	aabbCollider,
+	rotationalVelocity,
+	lifeTime,
+	lifeTimeLightIntensity;
+
+	public final long bit;
+
+	ComponentType() {
+		bit = 1L << ordinal();
+	}
+}
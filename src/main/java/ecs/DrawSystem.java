@@ -1,6 +1,13 @@
 package ecs;
 
 public interface DrawSystem {
+	/**
+	 * Only entities whose components match this signature are offered to {@link #isTargetEntity_drawTick(Entity)}.
+	 */
+	default ComponentSignature getRequiredComponents() {
+		return ComponentSignature.any;
+	}
+
 	boolean isTargetEntity_drawTick(Entity entity);
 
 	void execute_drawTick(Entity entity);
@@ -19,7 +19,11 @@ import ecs.components.Velocity;
 public class Entity {
 
 	int ecsIndex;
+	long handle = EntityHandle.invalid;
 	boolean isExpired = false;
+	Archetype archetype = null;
+	int archetypeIndex = -1;
+	boolean archetypePending = false;
 
 	public Transform transform;
 	public Mesh meshComponent;
@@ -43,4 +47,79 @@ public class Entity {
 	public boolean isExpired() {
 		return isExpired;
 	}
+
+	/**
+	 * @return a handle that stays valid across frames and can be resolved with {@link EntityRegistry#getEntity(long)}
+	 */
+	public long getHandle() {
+		return handle;
+	}
+
+	/**
+	 * @return bitmask of {@link ComponentType}s currently attached to this entity
+	 */
+	public long computeSignature() {
+		long signature = 0L;
+		if (transform != null) signature |= ComponentType.transform.bit;
+		if (meshComponent != null) signature |= ComponentType.mesh.bit;
+		if (marchingCubesMesh != null) signature |= ComponentType.marchingCubesMesh.bit;
+		if (lightComponent != null) signature |= ComponentType.light.bit;
+		if (velocityComponent != null) signature |= ComponentType.velocity.bit;
+		if (scaleVelocity != null) signature |= ComponentType.scaleVelocity.bit;
+		if (orbitalComponent != null) signature |= ComponentType.orbital.bit;
+		if (sphereParticleComponent != null) signature |= ComponentType.sphereParticle.bit;
+		if (shockwaveComponent != null) signature |= ComponentType.shockwave.bit;
+		if (shockwaveExpandingAnimator != null) signature |= ComponentType.shockwaveExpandingAnimator.bit;
+		if (aabbCollider != null) signature |= ComponentType.aabbCollider.bit;
+		if (rotationalVelocity != null) signature |= ComponentType.rotationalVelocity.bit;
+		if (lifeTimeComponent != null) signature |= ComponentType.lifeTime.bit;
+		if (lifeTimeLightIntensityComponent != null) signature |= ComponentType.lifeTimeLightIntensity.bit;
+		return signature;
+	}
+
+	/**
+	 * @return the component field matching `type`, null if the entity does not have the component
+	 */
+	public Object getComponent(ComponentType type) {
+		return switch (type) {
+			case transform -> transform;
+			case mesh -> meshComponent;
+			case marchingCubesMesh -> marchingCubesMesh;
+			case light -> lightComponent;
+			case velocity -> velocityComponent;
+			case scaleVelocity -> scaleVelocity;
+			case orbital -> orbitalComponent;
+			case sphereParticle -> sphereParticleComponent;
+			case shockwave -> shockwaveComponent;
+			case shockwaveExpandingAnimator -> shockwaveExpandingAnimator;
+			case aabbCollider -> aabbCollider;
+			case rotationalVelocity -> rotationalVelocity;
+			case lifeTime -> lifeTimeComponent;
+			case lifeTimeLightIntensity -> lifeTimeLightIntensityComponent;
+		};
+	}
+
+	/**
+	 * Assigns the component field matching `type`, null removes the component.
+	 *
+	 * @throws ClassCastException if the component does not match the type
+	 */
+	public void setComponent(ComponentType type, Object component) {
+		switch (type) {
+			case transform -> transform = (Transform) component;
+			case mesh -> meshComponent = (Mesh) component;
+			case marchingCubesMesh -> marchingCubesMesh = (MarchingCubesMesh) component;
+			case light -> lightComponent = (Light) component;
+			case velocity -> velocityComponent = (Velocity) component;
+			case scaleVelocity -> scaleVelocity = (ScaleVelocity) component;
+			case orbital -> orbitalComponent = (OrbitalObject) component;
+			case sphereParticle -> sphereParticleComponent = (SphereParticle) component;
+			case shockwave -> shockwaveComponent = (Shockwave) component;
+			case shockwaveExpandingAnimator -> shockwaveExpandingAnimator = (ShockwaveExpandingAnimator) component;
+			case aabbCollider -> aabbCollider = (AABBCollider) component;
+			case rotationalVelocity -> rotationalVelocity = (RotationalVelocity) component;
+			case lifeTime -> lifeTimeComponent = (LifeTime) component;
+			case lifeTimeLightIntensity -> lifeTimeLightIntensityComponent = (LifeTimeLightIntensity) component;
+		}
+	}
 }
@@ -0,0 +1,303 @@
+package ecs;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Records structural changes (create / erase / add-component / remove-component) while systems run in parallel,
+ * and applies them in one batch at the end of {@link EntityRegistry#executeUpdate()}.
+ * <p>
+ * Every thread writes into its own segment, which is registered once on first use, so recording takes no locks.
+ * Empty segments of threads that have terminated are dropped again.
+ * Commands may only be recorded from the main thread or from threads joined by the registry (system execution).
+ * <p>
+ * Playback is deterministic regardless of thread scheduling:
+ * commands on existing entities are ordered by entity handle, then in recording order with erase last;
+ * creations are ordered by their `orderKey`. Only commands of different threads with equal keys have no defined order.
+ * The order comes from a stable radix sort over the keys of the commands gathered segment by segment.
+ */
+public class EntityCommandBuffer {
+	private enum CommandKind {
+		addComponent,
+		removeComponent,
+		erase,
+		create
+	}
+
+	private static class Command {
+		CommandKind kind;
+		long sortKey;
+		Entity entity;
+		ComponentType componentType;
+		Object component;
+		Consumer<Entity> initializer;
+
+		void clear() {
+			entity = null;
+			component = null;
+			initializer = null;
+		}
+	}
+
+	private static class Segment {
+		// weak, so the segment does not keep a terminated thread alive
+		final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+		Command[] commands = new Command[64];
+		int size = 0;
+		int playbackSize = 0;
+
+		boolean isAbandoned() {
+			Thread thread = owner.get();
+			return size == 0 && (thread == null || !thread.isAlive());
+		}
+
+		Command next(CommandKind kind, long sortKey) {
+			if (size == commands.length) {
+				commands = Arrays.copyOf(commands, size * 2);
+			}
+			Command command = commands[size];
+			if (command == null) {
+				command = new Command();
+				commands[size] = command;
+			}
+			command.kind = kind;
+			command.sortKey = sortKey;
+			size++;
+			return command;
+		}
+	}
+
+	private static final int radixBits = 8;
+	private static final int radixBuckets = 1 << radixBits;
+	private static final int radixMask = radixBuckets - 1;
+
+	private final CopyOnWriteArrayList<Segment> segments = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<Segment> threadSegment = ThreadLocal.withInitial(this::registerSegment);
+
+	// gathered commands and their sort keys with the sign bit flipped, so they sort as unsigned; the second pair is the radix scratch
+	private Command[] playbackCommands = new Command[64];
+	private long[] playbackKeys = new long[64];
+	private Command[] scratchCommands = new Command[64];
+	private long[] scratchKeys = new long[64];
+	private final int[] radixOffsets = new int[radixBuckets];
+
+	private synchronized Segment registerSegment() {
+		Segment segment = new Segment();
+		segments.add(segment);
+		return segment;
+	}
+
+	public void erase(Entity entity) {
+		threadSegment.get().next(CommandKind.erase, entity.handle).entity = entity;
+	}
+
+	/**
+	 * @param component the component to assign, replaces an existing component of the same type
+	 */
+	public void addComponent(Entity entity, ComponentType type, Object component) {
+		Command command = threadSegment.get().next(CommandKind.addComponent, entity.handle);
+		command.entity = entity;
+		command.componentType = type;
+		command.component = component;
+	}
+
+	public void removeComponent(Entity entity, ComponentType type) {
+		Command command = threadSegment.get().next(CommandKind.removeComponent, entity.handle);
+		command.entity = entity;
+		command.componentType = type;
+	}
+
+	/**
+	 * @param orderKey    determines the creation order (and thus the handles) of all deferred creations,
+	 *                    e.g. the handle of the entity that spawns the new one
+	 * @param initializer assigns the components of the new entity during playback
+	 */
+	public void create(long orderKey, Consumer<Entity> initializer) {
+		threadSegment.get().next(CommandKind.create, orderKey).initializer = initializer;
+	}
+
+	public boolean isEmpty() {
+		boolean isEmpty = true;
+		boolean hasAbandonedSegments = false;
+		for (Segment segment : segments) {
+			if (segment.size > 0) {
+				isEmpty = false;
+			} else if (segment.isAbandoned()) {
+				hasAbandonedSegments = true;
+			}
+		}
+		if (hasAbandonedSegments) {
+			removeAbandonedSegments();
+		}
+		return isEmpty;
+	}
+
+	/**
+	 * The owner of an abandoned segment is gone, so nothing can record into it anymore
+	 */
+	private void removeAbandonedSegments() {
+		segments.removeIf(Segment::isAbandoned);
+	}
+
+	/**
+	 * @return amount of registered segments, one per thread that recorded commands and is still alive or has pending commands
+	 */
+	int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Applies and clears all recorded commands, must be called from the main thread while no system is running.
+	 * Commands recorded during playback (e.g. by a create initializer) are kept for the next playback.
+	 *
+	 * @return the number of commands that were applied
+	 */
+	int playback(EntityRegistry registry) {
+		int count = 0;
+		int eraseCount = 0;
+		int createCount = 0;
+		for (Segment segment : segments) {
+			segment.playbackSize = segment.size;
+			count += segment.size;
+			for (int i = 0; i < segment.size; i++) {
+				CommandKind kind = segment.commands[i].kind;
+				if (kind == CommandKind.erase) {
+					eraseCount++;
+				} else if (kind == CommandKind.create) {
+					createCount++;
+				}
+			}
+		}
+		if (playbackCommands.length < count) {
+			int capacity = Math.max(count, playbackCommands.length * 2);
+			playbackCommands = new Command[capacity];
+			playbackKeys = new long[capacity];
+			scratchCommands = new Command[capacity];
+			scratchKeys = new long[capacity];
+		}
+
+		// gather in segment and recording order, component changes before erases before creations,
+		// so the stable sort by key leaves equal keys in exactly that order
+		int changeIndex = 0;
+		int createStart = count - createCount;
+		int eraseIndex = createStart - eraseCount;
+		int createIndex = createStart;
+		for (Segment segment : segments) {
+			for (int i = 0; i < segment.playbackSize; i++) {
+				Command command = segment.commands[i];
+				int index = switch (command.kind) {
+					case addComponent, removeComponent -> changeIndex++;
+					case erase -> eraseIndex++;
+					case create -> createIndex++;
+				};
+				playbackCommands[index] = command;
+				playbackKeys[index] = command.sortKey ^ Long.MIN_VALUE;
+			}
+		}
+		radixSort(0, createStart);
+		radixSort(createStart, count);
+
+		int appliedCount = 0;
+		for (int i = 0; i < count; i++) {
+			Command command = playbackCommands[i];
+			Entity entity = command.entity;
+			switch (command.kind) {
+				case addComponent -> {
+					if (!entity.isExpired) {
+						entity.setComponent(command.componentType, command.component);
+						registry.markComponentsChanged(entity);
+						appliedCount++;
+					}
+				}
+				case removeComponent -> {
+					if (!entity.isExpired) {
+						entity.setComponent(command.componentType, null);
+						registry.markComponentsChanged(entity);
+						appliedCount++;
+					}
+				}
+				case erase -> {
+					if (!entity.isExpired) {
+						registry.eraseEntity(entity);
+						appliedCount++;
+					}
+				}
+				case create -> {
+					command.initializer.accept(registry.createEntity());
+					appliedCount++;
+				}
+			}
+			command.clear();
+		}
+
+		Arrays.fill(playbackCommands, 0, count, null);
+		for (Segment segment : segments) {
+			// move commands recorded during playback to the front, the played back command objects are reused
+			int remaining = segment.size - segment.playbackSize;
+			for (int i = 0; i < remaining; i++) {
+				Command recorded = segment.commands[segment.playbackSize + i];
+				segment.commands[segment.playbackSize + i] = segment.commands[i];
+				segment.commands[i] = recorded;
+			}
+			segment.size = remaining;
+			segment.playbackSize = 0;
+		}
+		removeAbandonedSegments();
+		return appliedCount;
+	}
+
+	/**
+	 * Stable LSD radix sort of the gathered commands in [start, end) by key, skipping digits all keys share
+	 */
+	private void radixSort(int start, int end) {
+		if (end - start < 2) {
+			return;
+		}
+		Command[] commands = playbackCommands;
+		long[] keys = playbackKeys;
+		Command[] targetCommands = scratchCommands;
+		long[] targetKeys = scratchKeys;
+		for (int shift = 0; shift < Long.SIZE; shift += radixBits) {
+			Arrays.fill(radixOffsets, 0);
+			for (int i = start; i < end; i++) {
+				radixOffsets[(int) (keys[i] >>> shift) & radixMask]++;
+			}
+			if (radixOffsets[(int) (keys[start] >>> shift) & radixMask] == end - start) {
+				continue;
+			}
+			int runningOffset = start;
+			for (int bucket = 0; bucket < radixBuckets; bucket++) {
+				int bucketCount = radixOffsets[bucket];
+				radixOffsets[bucket] = runningOffset;
+				runningOffset += bucketCount;
+			}
+			for (int i = start; i < end; i++) {
+				int target = radixOffsets[(int) (keys[i] >>> shift) & radixMask]++;
+				targetCommands[target] = commands[i];
+				targetKeys[target] = keys[i];
+			}
+			Command[] swapCommands = commands;
+			commands = targetCommands;
+			targetCommands = swapCommands;
+			long[] swapKeys = keys;
+			keys = targetKeys;
+			targetKeys = swapKeys;
+		}
+		if (commands != playbackCommands) {
+			System.arraycopy(commands, start, playbackCommands, start, end - start);
+		}
+		Arrays.fill(scratchCommands, start, end, null);
+	}
+
+	void clear() {
+		for (Segment segment : segments) {
+			for (int i = 0; i < segment.size; i++) {
+				segment.commands[i].clear();
+			}
+			segment.size = 0;
+		}
+		removeAbandonedSegments();
+	}
+}
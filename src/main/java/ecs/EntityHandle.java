@@ -0,0 +1,28 @@
+package ecs;
+
+/**
+ * Entity handles are longs made of the slot index (low 32 bits) and the generation of that slot (high 32 bits).
+ * Erasing an entity bumps the generation of its slot, so handles of erased entities never resolve to a newer entity.
+ */
+public final class EntityHandle {
+	public static final long invalid = -1L;
+
+	private EntityHandle() {
+	}
+
+	public static long of(int slot, int generation) {
+		return (((long) generation) << 32) | (slot & 0xFFFF_FFFFL);
+	}
+
+	public static int slot(long handle) {
+		return (int) handle;
+	}
+
+	public static int generation(long handle) {
+		return (int) (handle >>> 32);
+	}
+
+	public static String toString(long handle) {
+		return handle == invalid ? "EntityHandle{invalid}" : ("EntityHandle{slot: " + slot(handle) + ", generation: " + generation(handle) + "}");
+	}
+}
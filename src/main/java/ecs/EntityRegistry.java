@@ -1,14 +1,19 @@
 package ecs;
 
 import java.util.ArrayList;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.profiling.Profiler;
 
 public class EntityRegistry {
 	private static final Logger logger = LoggerFactory.getLogger(EntityRegistry.class);
+	private static final String updateCategory = "update";
+	private static final String updateStageCategory = "updateStage";
+	private static final String drawCategory = "draw";
+	private static final String commandPlaybackSection = "ecs/commandPlayback";
 
 	private static EntityRegistry instance;
 
@@ -24,38 +29,120 @@ public class EntityRegistry {
 	private final ArrayList<DrawSystem> drawSystems = new ArrayList<>();
 	private final ArrayList<EntityEraseListener> entityEraseListeners = new ArrayList<>();
 
-	private final ArrayBlockingQueue<Entity> entitiesToErase = new ArrayBlockingQueue<>(128);
-	// if the arrayBlockingQueue is full, fallback to LinkedBlockingQueue, so we don't drop erasure-events
-	private final LinkedBlockingQueue<Entity> entitiesToEraseBackup = new LinkedBlockingQueue<>();
+	// slot table behind the entity handles, erased slots are recycled through the free list
+	private Entity[] entitySlots = new Entity[1024];
+	private int[] slotGenerations = new int[1024];
+	private int usedSlotCount = 0;
+	private int[] freeSlots = new int[256];
+	private int freeSlotCount = 0;
+
+	private final ArrayList<Archetype> archetypes = new ArrayList<>();
+	private final HashMap<Long, Archetype> archetypesBySignature = new HashMap<>();
+	private final ArrayList<ArchetypeChunk> matchingChunks = new ArrayList<>();
+	// created entities and entities with changed components, moved into their archetype before the next system run
+	private final ArrayList<Entity> pendingEntities = new ArrayList<>();
+	private SystemScheduler scheduler = null;
+
+	private final EntityCommandBuffer commandBuffer = new EntityCommandBuffer();
 
 	private EntityRegistry() {
 	}
 
 	public void reset() {
+		for (Entity entity : entities) {
+			entity.isExpired = true;
+			releaseSlot(entity);
+		}
 		entities.clear();
 		updateSystems.clear();
 		drawSystems.clear();
 		entityEraseListeners.clear();
-		entitiesToErase.clear();
-		entitiesToEraseBackup.clear();
+		for (Archetype archetype : archetypes) {
+			archetype.clear();
+		}
+		archetypes.clear();
+		archetypesBySignature.clear();
+		pendingEntities.clear();
+		scheduler = null;
+		commandBuffer.clear();
 	}
 
+	/**
+	 * Not thread-safe, use {@link EntityCommandBuffer#create} from within systems.
+	 * Components assigned before the next system run are picked up, later changes have to go through
+	 * the command buffer or be reported with {@link #markComponentsChanged(Entity)}.
+	 */
 	public Entity createEntity() {
 		Entity entity = new Entity(entities.size());
+		int slot = allocateSlot();
+		entitySlots[slot] = entity;
+		entity.handle = EntityHandle.of(slot, slotGenerations[slot]);
 		entities.add(entity);
+		markComponentsChanged(entity);
 		return entity;
 	}
 
-	public void enqueueEraseEntity(Entity entity) {
-		if (!entitiesToErase.offer(entity)) {
-			try {
-				if (!entitiesToEraseBackup.offer(entity, 8, TimeUnit.MILLISECONDS)) {
-					logger.error("Failed to enqueue Entity erasure, backupQueue was blocked for more than 8ms");
-				}
-			} catch (InterruptedException e) {
-				logger.error("Failed to enqueue Entity erasure", e);
-			}
+	/**
+	 * Moves the entity into the archetype matching its components before the next system run.
+	 * Not thread-safe, call it after assigning component fields of an existing entity outside of the command buffer.
+	 */
+	public void markComponentsChanged(Entity entity) {
+		if (!entity.archetypePending) {
+			entity.archetypePending = true;
+			pendingEntities.add(entity);
+		}
+	}
+
+	private int allocateSlot() {
+		if (freeSlotCount > 0) {
+			freeSlotCount--;
+			return freeSlots[freeSlotCount];
+		}
+		if (usedSlotCount == entitySlots.length) {
+			entitySlots = Arrays.copyOf(entitySlots, usedSlotCount * 2);
+			slotGenerations = Arrays.copyOf(slotGenerations, usedSlotCount * 2);
+		}
+		return usedSlotCount++;
+	}
+
+	private void releaseSlot(Entity entity) {
+		int slot = EntityHandle.slot(entity.handle);
+		entitySlots[slot] = null;
+		slotGenerations[slot]++;
+		if (freeSlotCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+		}
+		freeSlots[freeSlotCount] = slot;
+		freeSlotCount++;
+	}
+
+	/**
+	 * @return the entity referenced by the handle, or null if it was erased
+	 */
+	public Entity getEntity(long handle) {
+		int slot = EntityHandle.slot(handle);
+		if (handle == EntityHandle.invalid || slot < 0 || slot >= usedSlotCount || slotGenerations[slot] != EntityHandle.generation(handle)) {
+			return null;
 		}
+		return entitySlots[slot];
+	}
+
+	public boolean isAlive(long handle) {
+		return getEntity(handle) != null;
+	}
+
+	/**
+	 * Erases the entity at the end of the current {@link #executeUpdate()}, safe to call from within systems.
+	 */
+	public void enqueueEraseEntity(Entity entity) {
+		commandBuffer.erase(entity);
+	}
+
+	/**
+	 * @return the buffer for structural changes made while systems are running, see {@link EntityCommandBuffer}
+	 */
+	public EntityCommandBuffer getCommandBuffer() {
+		return commandBuffer;
 	}
 
 	public void eraseEntity(Entity entity) {
@@ -68,6 +155,10 @@ public class EntityRegistry {
 		}
 
 		entity.isExpired = true;
+		releaseSlot(entity);
+		if (entity.archetype != null) {
+			entity.archetype.remove(entity);
+		}
 		int lastIndex = entities.size() - 1;
 		if (entity.ecsIndex != lastIndex) {
 			// move last entity, so we can get correct indices after deletion in O(1)
@@ -87,46 +178,273 @@ public class EntityRegistry {
 		}
 		if (system instanceof UpdateSystem) {
 			updateSystems.add((UpdateSystem) system);
+			scheduler = null;
 		}
 	}
 
-	public void executeUpdateSystem(UpdateSystem system) {
-		entities.parallelStream()
-				.filter(entity -> !entity.isExpired && system.isTargetEntity_updateTick(entity))
-				.forEach(system::execute_updateTick);
+	/**
+	 * Moves every entity into the archetype matching its current components.
+	 * Only needed if component fields were changed without {@link #markComponentsChanged(Entity)},
+	 * systems only move the entities that were created or changed since their last run.
+	 */
+	public void refreshArchetypes() {
+		for (Entity entity : entities) {
+			entity.archetypePending = false;
+			updateArchetype(entity);
+		}
+		pendingEntities.clear();
+	}
+
+	private void refreshPendingArchetypes() {
+		if (pendingEntities.isEmpty()) {
+			return;
+		}
+		for (Entity entity : pendingEntities) {
+			entity.archetypePending = false;
+			if (!entity.isExpired) {
+				updateArchetype(entity);
+			}
+		}
+		pendingEntities.clear();
+	}
+
+	private void updateArchetype(Entity entity) {
+		long signature = entity.computeSignature();
+		Archetype currentArchetype = entity.archetype;
+		if (currentArchetype != null && currentArchetype.getSignature() == signature) {
+			// a component may have been replaced by another one of the same type
+			currentArchetype.refreshComponents(entity);
+			return;
+		}
+		if (currentArchetype != null) {
+			currentArchetype.remove(entity);
+		}
+		getOrCreateArchetype(signature).add(entity);
+	}
+
+	private Archetype getOrCreateArchetype(long signature) {
+		Archetype archetype = archetypesBySignature.get(signature);
+		if (archetype == null) {
+			archetype = new Archetype(signature);
+			archetypesBySignature.put(signature, archetype);
+			archetypes.add(archetype);
+		}
+		return archetype;
+	}
+
+	public ArrayList<Archetype> getArchetypes() {
+		return archetypes;
+	}
+
+	public SystemScheduler getScheduler() {
+		if (scheduler == null) {
+			scheduler = new SystemScheduler(updateSystems);
+		}
+		return scheduler;
+	}
+
+	/**
+	 * @return the execution graph of the registered update systems, see {@link SystemScheduler#describe()}
+	 */
+	public String describeSchedule() {
+		return getScheduler().describe();
+	}
+
+	/**
+	 * @return the reused list of chunks belonging to archetypes that match the signature
+	 */
+	private ArrayList<ArchetypeChunk> gatherMatchingChunks(ComponentSignature signature) {
+		matchingChunks.clear();
+		for (Archetype archetype : archetypes) {
+			if (archetype.size() != 0 && signature.isMatchedBy(archetype.getSignature())) {
+				addChunks(archetype);
+			}
+		}
+		return matchingChunks;
+	}
+
+	private ArrayList<ArchetypeChunk> gatherMatchingChunks(SystemScheduler.Stage stage) {
+		matchingChunks.clear();
+		for (Archetype archetype : archetypes) {
+			if (archetype.size() != 0 && stage.getMatchingSystems(archetype.getSignature()) != 0) {
+				addChunks(archetype);
+			}
+		}
+		return matchingChunks;
+	}
+
+	private void addChunks(Archetype archetype) {
+		// indexed loop, addAll would copy the cached chunks into a temporary array
+		ArrayList<ArchetypeChunk> chunks = archetype.getChunks();
+		for (int i = 0; i < chunks.size(); i++) {
+			matchingChunks.add(chunks.get(i));
+		}
+	}
+
+	private static void forEachChunk(ArrayList<ArchetypeChunk> chunks, Consumer<ArchetypeChunk> action) {
+		if (chunks.size() == 1) {
+			// not worth the fork/join overhead
+			action.accept(chunks.get(0));
+		} else if (!chunks.isEmpty()) {
+			chunks.parallelStream().forEach(action);
+		}
+	}
+
+	/**
+	 * @return the number of entities the system was executed on
+	 */
+	private static int runUpdateSystemOnChunk(UpdateSystem system, ArchetypeChunk chunk) {
+		Archetype archetype = chunk.archetype();
+		int executedCount = system.execute_updateChunk(archetype, chunk.start(), chunk.end());
+		if (executedCount >= 0) {
+			return executedCount;
+		}
+		executedCount = 0;
+		for (int i = chunk.start(); i < chunk.end(); i++) {
+			Entity entity = archetype.get(i);
+			if (!entity.isExpired && system.isTargetEntity_updateTick(entity)) {
+				system.execute_updateTick(entity);
+				executedCount++;
+			}
+		}
+		return executedCount;
+	}
+
+	private static void runProfiledUpdateSystemOnChunk(Profiler profiler, UpdateSystem system, ArchetypeChunk chunk) {
+		long startBytes = profiler.getCurrentThreadAllocatedBytes();
+		long startNanos = System.nanoTime();
+		int executedCount = runUpdateSystemOnChunk(system, chunk);
+		long durationNanos = System.nanoTime() - startNanos;
+		profiler.getSection(updateCategory, system).accumulate(durationNanos, executedCount, profiler.getAllocatedBytesSince(startBytes));
+	}
+
+	/**
+	 * Adds the time of {@link UpdateSystem#onExecuteUpdateDone()} to the CPU time of the system, the caller commits the sample.
+	 */
+	private static void runOnExecuteUpdateDone(Profiler profiler, boolean profile, UpdateSystem system) {
+		if (!profile) {
+			system.onExecuteUpdateDone();
+			return;
+		}
+		long startBytes = profiler.getCurrentThreadAllocatedBytes();
+		long startNanos = System.nanoTime();
 		system.onExecuteUpdateDone();
+		long durationNanos = System.nanoTime() - startNanos;
+		profiler.getSection(updateCategory, system).accumulate(durationNanos, 0, profiler.getAllocatedBytesSince(startBytes));
+	}
+
+	private void runUpdateSystem(UpdateSystem system) {
+		Profiler profiler = Profiler.getInstance();
+		boolean profile = profiler.isEnabled();
+		long startNanos = System.nanoTime();
+		forEachChunk(gatherMatchingChunks(system.getRequiredComponents()), chunk -> {
+			if (profile) {
+				runProfiledUpdateSystemOnChunk(profiler, system, chunk);
+			} else {
+				runUpdateSystemOnChunk(system, chunk);
+			}
+		});
+		runOnExecuteUpdateDone(profiler, profile, system);
+		if (profile) {
+			profiler.getSection(updateCategory, system).commit(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Systems of a stage do not conflict, so each chunk is processed system by system while it is hot in cache.
+	 * The systems share the wall time of the stage, so only their CPU time is recorded per system.
+	 */
+	private void runUpdateStage(SystemScheduler.Stage stage) {
+		long startTime = System.nanoTime();
+		Profiler profiler = Profiler.getInstance();
+		boolean profile = profiler.isEnabled();
+		ArrayList<UpdateSystem> stageSystems = stage.getSystems();
+		forEachChunk(gatherMatchingChunks(stage), chunk -> {
+			long matchingSystems = stage.getMatchingSystems(chunk.archetype().getSignature());
+			for (long remaining = matchingSystems; remaining != 0; remaining &= remaining - 1) {
+				UpdateSystem system = stageSystems.get(Long.numberOfTrailingZeros(remaining));
+				if (profile) {
+					runProfiledUpdateSystemOnChunk(profiler, system, chunk);
+				} else {
+					runUpdateSystemOnChunk(system, chunk);
+				}
+			}
+		});
+		for (UpdateSystem system : stageSystems) {
+			runOnExecuteUpdateDone(profiler, profile, system);
+		}
+		stage.lastDurationNanos = System.nanoTime() - startTime;
+		if (profile) {
+			for (UpdateSystem system : stageSystems) {
+				profiler.getSection(updateCategory, system).commitCpuTime();
+			}
+			if (stage.profilerSection == null) {
+				stage.profilerSection = profiler.getSection(updateStageCategory + "/" + stage.getName());
+			}
+			stage.profilerSection.recordWallTime(stage.lastDurationNanos);
+		}
+	}
+
+	private void runDrawSystem(DrawSystem system) {
+		Profiler profiler = Profiler.getInstance();
+		boolean profile = profiler.isEnabled();
+		long startBytes = profile ? profiler.getCurrentThreadAllocatedBytes() : -1;
+		long startNanos = System.nanoTime();
+		int executedCount = 0;
+		for (ArchetypeChunk chunk : gatherMatchingChunks(system.getRequiredComponents())) {
+			Archetype archetype = chunk.archetype();
+			for (int i = chunk.start(); i < chunk.end(); i++) {
+				Entity entity = archetype.get(i);
+				if (!entity.isExpired && system.isTargetEntity_drawTick(entity)) {
+					system.execute_drawTick(entity);
+					executedCount++;
+				}
+			}
+		}
+		system.onExecuteDrawDone();
+		if (profile) {
+			long durationNanos = System.nanoTime() - startNanos;
+			profiler.getSection(drawCategory, system).record(durationNanos, executedCount, profiler.getAllocatedBytesSince(startBytes));
+		}
+	}
+
+	public void executeUpdateSystem(UpdateSystem system) {
+		refreshPendingArchetypes();
+		runUpdateSystem(system);
 	}
 
 	public void executeUpdate() {
-		for (UpdateSystem system : updateSystems) {
-			entities.parallelStream()
-					.filter(entity -> !entity.isExpired && system.isTargetEntity_updateTick(entity))
-					.forEach(system::execute_updateTick);
-			system.onExecuteUpdateDone();
+		refreshPendingArchetypes();
+		for (SystemScheduler.Stage stage : getScheduler().getStages()) {
+			runUpdateStage(stage);
 		}
-		for (Entity entity : entitiesToErase) {
-			eraseEntity(entity);
+		playbackCommands();
+	}
+
+	private void playbackCommands() {
+		if (commandBuffer.isEmpty()) {
+			return;
 		}
-		entitiesToErase.clear();
-		for (Entity entity : entitiesToEraseBackup) {
-			eraseEntity(entity);
+		Profiler profiler = Profiler.getInstance();
+		boolean profile = profiler.isEnabled();
+		long startBytes = profile ? profiler.getCurrentThreadAllocatedBytes() : -1;
+		long startNanos = System.nanoTime();
+		int appliedCount = commandBuffer.playback(this);
+		if (profile) {
+			long durationNanos = System.nanoTime() - startNanos;
+			profiler.getSection(commandPlaybackSection).record(durationNanos, appliedCount, profiler.getAllocatedBytesSince(startBytes));
 		}
-		entitiesToEraseBackup.clear();
 	}
 
 	public void executeDraw() {
+		refreshPendingArchetypes();
 		for (DrawSystem drawSystem : drawSystems) {
-			entities.stream()
-					.filter(entity -> !entity.isExpired && drawSystem.isTargetEntity_drawTick(entity))
-					.forEach(drawSystem::execute_drawTick);
-			drawSystem.onExecuteDrawDone();
+			runDrawSystem(drawSystem);
 		}
 	}
 
 	public void executeDrawSystem(DrawSystem system) {
-		entities.stream()
-				.filter(entity -> !entity.isExpired && system.isTargetEntity_drawTick(entity))
-				.forEach(system::execute_drawTick);
-		system.onExecuteDrawDone();
+		refreshPendingArchetypes();
+		runDrawSystem(system);
 	}
 }
@@ -0,0 +1,166 @@
+package ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+import utils.profiling.ProfilerSection;
+
+/**
+ * Groups {@link UpdateSystem}s into stages based on the components they read and write.
+ * A system is placed in the stage after the last earlier-registered system it conflicts with,
+ * so conflicting systems keep their registration order while independent systems share a stage.
+ * The systems of a stage are executed in one fused pass over each entity chunk.
+ */
+public class SystemScheduler {
+	private static final int maxSystemsPerStage = Long.SIZE;
+
+	private final ArrayList<UpdateSystem> systems;
+	private final int[] stageOfSystem;
+	private final ArrayList<Stage> stages = new ArrayList<>();
+
+	public SystemScheduler(List<UpdateSystem> systems) {
+		this.systems = new ArrayList<>(systems);
+		stageOfSystem = new int[systems.size()];
+		for (int i = 0; i < this.systems.size(); i++) {
+			UpdateSystem system = this.systems.get(i);
+			int stageIndex = 0;
+			for (int j = 0; j < i; j++) {
+				if (conflicts(system, this.systems.get(j))) {
+					stageIndex = Math.max(stageIndex, stageOfSystem[j] + 1);
+				}
+			}
+			while (stageIndex < stages.size() && stages.get(stageIndex).systems.size() >= maxSystemsPerStage) {
+				stageIndex++;
+			}
+			if (stageIndex == stages.size()) {
+				stages.add(new Stage());
+			}
+			stageOfSystem[i] = stageIndex;
+			stages.get(stageIndex).add(system);
+		}
+	}
+
+	public ArrayList<Stage> getStages() {
+		return stages;
+	}
+
+	private static boolean isBarrier(UpdateSystem system) {
+		return system.getReadComponents() == null || system.getWriteComponents() == null;
+	}
+
+	/**
+	 * @return true if the systems cannot run in the same pass, because one writes what the other accesses
+	 */
+	public static boolean conflicts(UpdateSystem a, UpdateSystem b) {
+		if (isBarrier(a) || isBarrier(b)) {
+			return true;
+		}
+		return conflictMask(a, b) != 0;
+	}
+
+	private static long conflictMask(UpdateSystem a, UpdateSystem b) {
+		long aRead = a.getReadComponents().mask();
+		long aWrite = a.getWriteComponents().mask();
+		long bRead = b.getReadComponents().mask();
+		long bWrite = b.getWriteComponents().mask();
+		return (aWrite & (bRead | bWrite)) | (bWrite & aRead);
+	}
+
+	private static String getName(UpdateSystem system) {
+		String simpleName = system.getClass().getSimpleName();
+		return simpleName.isEmpty() ? system.getClass().getName() : simpleName;
+	}
+
+	/**
+	 * @return a human-readable execution graph: stages, their systems, declared accesses, the dependencies
+	 * that forced each system into its stage, and the duration of the last execution of each stage
+	 */
+	public String describe() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Update schedule: ").append(systems.size()).append(" systems in ").append(stages.size()).append(" stages");
+		for (int stageIndex = 0; stageIndex < stages.size(); stageIndex++) {
+			Stage stage = stages.get(stageIndex);
+			builder.append(System.lineSeparator())
+					.append("Stage ").append(stageIndex)
+					.append(" (last run: ").append(String.format("%.3f", stage.lastDurationNanos / 1_000_000d)).append(" ms)");
+			for (UpdateSystem system : stage.systems) {
+				builder.append(System.lineSeparator()).append("  ").append(getName(system));
+				if (isBarrier(system)) {
+					builder.append(" [barrier: no declared accesses]");
+				} else {
+					builder.append(" reads ").append(system.getReadComponents())
+							.append(" writes ").append(system.getWriteComponents());
+				}
+				appendDependencies(builder, system, stageIndex);
+			}
+		}
+		return builder.toString();
+	}
+
+	private void appendDependencies(StringBuilder builder, UpdateSystem system, int stageIndex) {
+		int systemIndex = systems.indexOf(system);
+		for (int j = 0; j < systemIndex; j++) {
+			UpdateSystem other = systems.get(j);
+			if (stageOfSystem[j] != stageIndex - 1 || !conflicts(system, other)) {
+				continue;
+			}
+			builder.append(System.lineSeparator()).append("    after ").append(getName(other));
+			if (isBarrier(system) || isBarrier(other)) {
+				builder.append(" (barrier)");
+			} else {
+				builder.append(" (").append(new ComponentSignature(conflictMask(system, other))).append(')');
+			}
+		}
+	}
+
+	public static class Stage {
+		private final ArrayList<UpdateSystem> systems = new ArrayList<>();
+		private final ArrayList<ComponentSignature> requiredComponents = new ArrayList<>();
+		long lastDurationNanos = 0;
+		ProfilerSection profilerSection = null;
+		private String name = null;
+
+		private void add(UpdateSystem system) {
+			systems.add(system);
+			requiredComponents.add(system.getRequiredComponents());
+			name = null;
+		}
+
+		/**
+		 * @return simple names of the systems joined by '+'
+		 */
+		public String getName() {
+			if (name == null) {
+				StringBuilder builder = new StringBuilder();
+				for (UpdateSystem system : systems) {
+					if (builder.length() > 0) {
+						builder.append('+');
+					}
+					builder.append(system.getClass().getSimpleName());
+				}
+				name = builder.toString();
+			}
+			return name;
+		}
+
+		public ArrayList<UpdateSystem> getSystems() {
+			return systems;
+		}
+
+		public long getLastDurationNanos() {
+			return lastDurationNanos;
+		}
+
+		/**
+		 * @return bitmask of the indices of all systems in this stage that accept the archetype
+		 */
+		public long getMatchingSystems(long archetypeSignature) {
+			long result = 0L;
+			for (int i = 0; i < requiredComponents.size(); i++) {
+				if (requiredComponents.get(i).isMatchedBy(archetypeSignature)) {
+					result |= 1L << i;
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -1,9 +1,43 @@
 package ecs;
 
 public interface UpdateSystem {
+	/**
+	 * Only entities whose components match this signature are offered to {@link #isTargetEntity_updateTick(Entity)}.
+	 */
+	default ComponentSignature getRequiredComponents() {
+		return ComponentSignature.any;
+	}
+
+	/**
+	 * Components this system reads during {@link #execute_updateTick(Entity)} or {@link #onExecuteUpdateDone()}.
+	 * Returning null (the default) means unknown, the system is then scheduled as a barrier.
+	 */
+	default ComponentSignature getReadComponents() {
+		return null;
+	}
+
+	/**
+	 * Components this system modifies, see {@link #getReadComponents()}.
+	 */
+	default ComponentSignature getWriteComponents() {
+		return null;
+	}
+
 	boolean isTargetEntity_updateTick(Entity entity);
 
 	void execute_updateTick(Entity entity);
 
+	/**
+	 * Runs the system on the entities [start, end) of a matching archetype, reading the packed
+	 * {@link Archetype#getColumn(ComponentType) columns} instead of visiting every {@link Entity}.
+	 * Erased entities leave their archetype immediately, but entities the system does not target must be skipped by the implementation.
+	 *
+	 * @return the number of entities the system was executed on, or -1 (the default) to fall back to
+	 * 		{@link #isTargetEntity_updateTick(Entity)} and {@link #execute_updateTick(Entity)} per entity
+	 */
+	default int execute_updateChunk(Archetype archetype, int start, int end) {
+		return -1;
+	}
+
 	void onExecuteUpdateDone();
 }
@@ -1,7 +1,7 @@
 package ecs.components;
 
+import gamestate.Time;
 import utils.collision.AxisAlignedBoundingBox;
-import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public class AABBCollider {
@@ -15,6 +15,12 @@ public class AABBCollider {
 
 	private final AxisAlignedBoundingBox boundingBox = new AxisAlignedBoundingBox(Vec3f.zero(), Vec3f.zero());
 	private byte trackedTransformChangeID = 0;
+	private int collisionLayer = 1;
+	private int collisionMask = -1;
+
+	private boolean fastMover = false;
+	private final Vec3f displacement = Vec3f.zero();
+	private final AxisAlignedBoundingBox sweptBoundingBox = new AxisAlignedBoundingBox(Vec3f.zero(), Vec3f.zero());
 
 	public AABBCollider(Vec3f positiveBoundOffset, Vec3f negativeBoundOffset) {
 		this.positiveBoundOffset = positiveBoundOffset;
@@ -24,11 +30,12 @@ public class AABBCollider {
 	public AxisAlignedBoundingBox getAABB(Transform transform) {
 		if(transform.getChangeID() != trackedTransformChangeID){
 			trackedTransformChangeID = transform.getChangeID();
-			Vec3f absScale = transform.getScale().copy().apply(Math::abs);
-			Vec3f pointA = absScale.copy().apply(Operator.Mul, negativeBoundOffset).apply(Operator.Add, transform.getPosition());
-			Vec3f pointB = absScale.apply(Operator.Mul, positiveBoundOffset).apply(Operator.Add, transform.getPosition());
-			boundingBox.min().set(pointA.data);
-			boundingBox.max().set(pointB.data);
+			float[] scale = transform.getScale().data;
+			float absScaleX = Math.abs(scale[0]);
+			float absScaleY = Math.abs(scale[1]);
+			float absScaleZ = Math.abs(scale[2]);
+			boundingBox.min().set(absScaleX, absScaleY, absScaleZ).fma(negativeBoundOffset, transform.getPosition());
+			boundingBox.max().set(absScaleX, absScaleY, absScaleZ).fma(positiveBoundOffset, transform.getPosition());
 		}
 		return boundingBox;
 	}
@@ -36,4 +43,84 @@ public class AABBCollider {
 	public AxisAlignedBoundingBox getOldAABB(){
 		return boundingBox;
 	}
+
+	public int getCollisionLayer() {
+		return collisionLayer;
+	}
+
+	/**
+	 * @param collisionLayer bitmask of the layers this collider belongs to
+	 */
+	public AABBCollider setCollisionLayer(int collisionLayer) {
+		this.collisionLayer = collisionLayer;
+		return this;
+	}
+
+	public int getCollisionMask() {
+		return collisionMask;
+	}
+
+	/**
+	 * @param collisionMask bitmask of the layers this collider reports collisions with
+	 */
+	public AABBCollider setCollisionMask(int collisionMask) {
+		this.collisionMask = collisionMask;
+		return this;
+	}
+
+	public boolean isFastMover() {
+		return fastMover;
+	}
+
+	/**
+	 * @param fastMover enables continuous collision detection along the movement of the last tick, for objects that would pass through others between two ticks
+	 */
+	public AABBCollider setFastMover(boolean fastMover) {
+		this.fastMover = fastMover;
+		if (!fastMover) {
+			displacement.set(0f, 0f, 0f);
+		}
+		return this;
+	}
+
+	/**
+	 * Reconstructs the movement of the last tick from the velocity, call after {@link #getAABB(Transform)}.
+	 *
+	 * @param velocity may be null for colliders that don't move
+	 */
+	public void updateSweep(Velocity velocity) {
+		if (velocity == null) {
+			displacement.set(0f, 0f, 0f);
+		} else {
+			float[] v = velocity.getVelocity().data;
+			displacement.set(v[0] * Time.physicsDeltaSecondsF, v[1] * Time.physicsDeltaSecondsF, v[2] * Time.physicsDeltaSecondsF);
+		}
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			float start = boundingBox.min().data[i] - displacement.data[i];
+			sweptBoundingBox.min().data[i] = Math.min(start, boundingBox.min().data[i]);
+			start = boundingBox.max().data[i] - displacement.data[i];
+			sweptBoundingBox.max().data[i] = Math.max(start, boundingBox.max().data[i]);
+		}
+	}
+
+	/**
+	 * @return movement during the last tick, zero unless this is a fast mover
+	 */
+	public Vec3f getDisplacement() {
+		return displacement;
+	}
+
+	/**
+	 * @return bounds covering the whole movement of the last tick for fast movers, the current bounds otherwise
+	 */
+	public AxisAlignedBoundingBox getBroadphaseAABB() {
+		return fastMover ? sweptBoundingBox : boundingBox;
+	}
+
+	/**
+	 * @return true if both colliders accept the layer of the other one
+	 */
+	public boolean canCollideWith(AABBCollider other) {
+		return (collisionLayer & other.collisionMask) != 0 && (other.collisionLayer & collisionMask) != 0;
+	}
 }
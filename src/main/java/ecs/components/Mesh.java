@@ -1,6 +1,6 @@
 package ecs.components;
 
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.mesh.MeshData;
 import rendering.texture.FallbackTextures;
 import rendering.texture.ITexture;
@@ -78,7 +78,7 @@ public class Mesh {
 	public void bindTextures(int textureSlot, int phongSlot, int normalSlot, int heightSlot,
 							 int glsl_textureFlags) {
 		int textureFlag = ((normalData != null) ? 1 : 0) | ((heightData != null) ? 2 : 0);
-		GL45.glUniform1i(glsl_textureFlags, textureFlag);
+		GLFacade.glUniform1i(glsl_textureFlags, textureFlag);
 
 		(textureData == null ? FallbackTextures.getFallbackTexture() : textureData).bindTexture(textureSlot);
 		(phongData == null ? FallbackTextures.getFallbackPhong() : phongData).bindTexture(phongSlot);
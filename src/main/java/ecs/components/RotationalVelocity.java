@@ -1,9 +1,9 @@
 package ecs.components;
 
 import gamestate.Time;
-import utils.operator.Operator;
+import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathIP;
-import utils.quaternion.QuaternionMathOOP;
+import utils.scratch.ScratchArena;
 import utils.vector.Vec3f;
 
 public class RotationalVelocity {
@@ -17,11 +17,12 @@ public class RotationalVelocity {
 	}
 
 	public void applyRotation(Transform transform) {
-		QuaternionMathIP.rotate(
-				transform.getRotation(),
-				transform.getRotation(),
-				QuaternionMathOOP.eulerRad(eulerAngleVelocity.copy().apply(Operator.Mul, Time.physicsDeltaSecondsF))
-		);
+		ScratchArena arena = ScratchArena.get();
+		try (ScratchArena.Scope scope = arena.push()) {
+			Vec3f eulerAngles = arena.vec3(eulerAngleVelocity).mulInPlace(Time.physicsDeltaSecondsF);
+			Quaternion rotation = QuaternionMathIP.eulerRad(arena.quaternion(), eulerAngles);
+			QuaternionMathIP.rotate(transform.getRotation(), transform.getRotation(), rotation);
+		}
 		//transform.setDirty();
 	}
 }
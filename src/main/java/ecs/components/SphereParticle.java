@@ -1,5 +1,6 @@
 package ecs.components;
 
+import ecs.soa.TransformView;
 import java.nio.FloatBuffer;
 import utils.vector.Vec4f;
 
@@ -62,7 +63,12 @@ public class SphereParticle {
 	}
 
 	public void writeToBuffer(FloatBuffer buffer, Transform transform){
-		transform.getPosition().writeToBuffer(buffer, radius);
+		TransformView storeView = transform.getStoreView();
+		if (storeView != null) {
+			buffer.put(storeView.getPositionX()).put(storeView.getPositionY()).put(storeView.getPositionZ()).put(radius);
+		} else {
+			transform.getPosition().writeToBuffer(buffer, radius);
+		}
 		colorInner.writeToBuffer(buffer);
 		colorOuter.writeToBuffer(buffer);
 	}
@@ -1,11 +1,9 @@
 package ecs.components;
 
-import utils.matrix.MatrixArithmeticIP;
+import ecs.soa.TransformView;
 import utils.matrix.Mat4f;
-import utils.matrix.MatrixMath;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathIP;
-import utils.quaternion.QuaternionMathOOP;
 import utils.vector.Vec3f;
 
 public class Transform {
@@ -18,6 +16,7 @@ public class Transform {
 
 	private boolean transformChanged = false;
 	private byte transformChangeID = 0;
+	private TransformView storeView = null;
 
 	public Transform(Vec3f position, Quaternion rotation, Vec3f scale) {
 		this.position = position;
@@ -36,59 +35,113 @@ public class Transform {
 		return this;
 	}
 
+	/**
+	 * @return whether the matrix and forward vector are outdated until the next {@link #checkRecompute()}
+	 */
+	public boolean isDirty() {
+		return transformChanged;
+	}
+
+	/**
+	 * Store-backed transforms move without a new ID, see {@link #getStoreView()}.
+	 */
 	public byte getChangeID() {
 		return transformChangeID;
 	}
 
 	public Vec3f getPosition() {
+		if (storeView != null) {
+			storeView.getPosition(position);
+		}
 		return position;
 	}
 
 	public Transform setPosition(Vec3f position) {
-		setDirty();
 		this.position.set(position.data);
+		if (storeView != null) {
+			storeView.setPosition(position.data[0], position.data[1], position.data[2]);
+		} else {
+			setDirty();
+		}
 		return this;
 	}
 
 	public Quaternion getRotation() {
+		if (storeView != null) {
+			storeView.getRotation(rotation);
+		}
 		return rotation;
 	}
 
 	public Transform setRotation(Quaternion rotation) {
-		setDirty();
 		this.rotation.set(rotation.data);
+		if (storeView != null) {
+			storeView.setRotation(rotation.data[0], rotation.data[1], rotation.data[2], rotation.data[3]);
+		} else {
+			setDirty();
+		}
 		return this;
 	}
 
 	public Vec3f getScale() {
+		if (storeView != null) {
+			storeView.getScale(scale);
+		}
 		return scale;
 	}
 
 	public Transform setScale(Vec3f scale) {
-		setDirty();
 		this.scale.set(scale.data);
+		if (storeView != null) {
+			storeView.setScale(scale.data[0], scale.data[1], scale.data[2]);
+		} else {
+			setDirty();
+		}
 		return this;
 	}
 
+	/**
+	 * Recomputes the matrix and forward vector if the transform changed, without allocating.
+	 */
 	public void checkRecompute() {
 		if (transformChanged) {
-			MatrixArithmeticIP.mul(transformMatrix,
-					MatrixMath.translate(position),
-					MatrixArithmeticIP.mul(
-							QuaternionMathOOP.toMat4(rotation),
-							MatrixMath.scale(scale)
-					)
-			);
-			QuaternionMathIP.rotate(rotation, forward.set(0f, 0f, 1f));
+			QuaternionMathIP.toTransformMatrix(transformMatrix, position, rotation, scale);
+			QuaternionMathIP.forward(rotation, forward);
+			transformChanged = false;
+		}
+	}
+
+	/**
+	 * While a view is set the store owns position, rotation, scale and the matrix: the getters copy the slot into
+	 * the returned objects on every call and the setters write through, so modify store-backed transforms only via the setters.
+	 * Hot consumers (particles, mesh batching) read the slot directly instead.
+	 *
+	 * @return the store slot that owns this transform, null if the fields are used
+	 */
+	public TransformView getStoreView() {
+		return storeView;
+	}
+
+	public Transform setStoreView(TransformView storeView) {
+		this.storeView = storeView;
+		if (storeView != null) {
+			// the store recomputes the matrix, nothing is left to recompute here
 			transformChanged = false;
 		}
+		return this;
 	}
 
 	public Mat4f getTransformMatrix() {
+		if (storeView != null) {
+			storeView.getTransformMatrix(transformMatrix);
+		}
 		return transformMatrix;
 	}
 
 	public Vec3f getForward() {
+		if (storeView != null) {
+			QuaternionMathIP.forward(getRotation(), forward);
+		}
 		return forward;
 	}
 }
@@ -1,7 +1,6 @@
 package ecs.components;
 
 import gamestate.Time;
-import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public class Velocity {
@@ -27,12 +26,7 @@ public class Velocity {
 	 * For physical (semi) correctness, apply Velocity FIRST, then update velocity values.
 	 */
 	public void applyVelocity(Transform transform) {
-		transform.setDirty().getPosition().apply(
-				Operator.Add,
-				velocity.data[0] * Time.physicsDeltaSecondsF,
-				velocity.data[1] * Time.physicsDeltaSecondsF,
-				velocity.data[2] * Time.physicsDeltaSecondsF
-		);
+		transform.setDirty().getPosition().scaleAdd(velocity, Time.physicsDeltaSecondsF);
 	}
 
 	/**
@@ -40,30 +34,15 @@ public class Velocity {
 	 * if that is not your case, update the velocity vector directly instead of using this method.
 	 */
 	public void applyAccelerationWithPositionUpdate(Vec3f acceleration, Transform transform) {
-		transform.setDirty().getPosition().apply(
-				Operator.Add,
-				acceleration.data[0] * Time.physicsDeltaSecondsSquaredF / 2f,
-				acceleration.data[1] * Time.physicsDeltaSecondsSquaredF / 2f,
-				acceleration.data[2] * Time.physicsDeltaSecondsSquaredF / 2f
-		);
+		transform.setDirty().getPosition().scaleAdd(acceleration, Time.physicsDeltaSecondsSquaredF / 2f);
 		applyAcceleration(acceleration);
 	}
 
 	public void applyAcceleration(Vec3f acceleration) {
-		velocity.apply(
-				Operator.Add,
-				acceleration.data[0] * Time.physicsDeltaSecondsF,
-				acceleration.data[1] * Time.physicsDeltaSecondsF,
-				acceleration.data[2] * Time.physicsDeltaSecondsF
-		);
+		velocity.scaleAdd(acceleration, Time.physicsDeltaSecondsF);
 	}
 
 	public void applyAcceleration(Vec3f acceleration, float scalar) {
-		velocity.apply(
-				Operator.Add,
-				acceleration.data[0] * Time.physicsDeltaSecondsF * scalar,
-				acceleration.data[1] * Time.physicsDeltaSecondsF * scalar,
-				acceleration.data[2] * Time.physicsDeltaSecondsF * scalar
-		);
+		velocity.scaleAdd(acceleration, Time.physicsDeltaSecondsF * scalar);
 	}
 }
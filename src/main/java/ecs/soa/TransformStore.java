@@ -0,0 +1,208 @@
+package ecs.soa;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Opt-in structure-of-arrays storage for position / rotation / scale / velocity and the cached transform matrix.
+ * <p>
+ * Every attribute lives in its own float column, so bulk kernels like {@link #integrate(float)} run as plain
+ * counted loops over primitive arrays, which the JIT can auto-vectorize.
+ * Slots are packed: releasing a slot moves the last slot into the gap and updates its {@link TransformView}.
+ */
+public class TransformStore {
+	/**
+	 * floats per cached matrix, the first three rows of the row-major affine matrix (the last row is always 0,0,0,1)
+	 */
+	public static final int MATRIX_STRIDE = 12;
+	private static final int parallelChunkSize = 4096;
+
+	private int capacity;
+	private int size = 0;
+
+	float[] positionX, positionY, positionZ;
+	float[] rotationX, rotationY, rotationZ, rotationW;
+	float[] scaleX, scaleY, scaleZ;
+	float[] velocityX, velocityY, velocityZ;
+	float[] matrices;
+	boolean[] matrixDirty;
+	private TransformView[] views;
+
+	public TransformStore(int initialCapacity) {
+		capacity = Math.max(initialCapacity, 16);
+		positionX = new float[capacity];
+		positionY = new float[capacity];
+		positionZ = new float[capacity];
+		rotationX = new float[capacity];
+		rotationY = new float[capacity];
+		rotationZ = new float[capacity];
+		rotationW = new float[capacity];
+		scaleX = new float[capacity];
+		scaleY = new float[capacity];
+		scaleZ = new float[capacity];
+		velocityX = new float[capacity];
+		velocityY = new float[capacity];
+		velocityZ = new float[capacity];
+		matrices = new float[capacity * MATRIX_STRIDE];
+		matrixDirty = new boolean[capacity];
+		views = new TransformView[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return a view onto a new slot with identity rotation, unit scale and zero position / velocity
+	 */
+	public TransformView allocate() {
+		if (size == capacity) {
+			grow(capacity * 2);
+		}
+		int slot = size;
+		size++;
+		positionX[slot] = 0f;
+		positionY[slot] = 0f;
+		positionZ[slot] = 0f;
+		rotationX[slot] = 0f;
+		rotationY[slot] = 0f;
+		rotationZ[slot] = 0f;
+		rotationW[slot] = 1f;
+		scaleX[slot] = 1f;
+		scaleY[slot] = 1f;
+		scaleZ[slot] = 1f;
+		velocityX[slot] = 0f;
+		velocityY[slot] = 0f;
+		velocityZ[slot] = 0f;
+		matrixDirty[slot] = true;
+		TransformView view = new TransformView(this, slot);
+		views[slot] = view;
+		return view;
+	}
+
+	/**
+	 * Frees the slot of the view, the view must not be used afterwards.
+	 */
+	public void release(TransformView view) {
+		if (view.store != this || view.slot < 0) {
+			throw new IllegalArgumentException("view does not belong to this store");
+		}
+		int removeSlot = view.slot;
+		int lastSlot = size - 1;
+		if (removeSlot != lastSlot) {
+			copySlot(lastSlot, removeSlot);
+			TransformView movedView = views[lastSlot];
+			movedView.slot = removeSlot;
+			views[removeSlot] = movedView;
+		}
+		views[lastSlot] = null;
+		view.slot = -1;
+		size--;
+	}
+
+	/**
+	 * position += velocity * deltaSeconds, for every slot
+	 */
+	public void integrate(float deltaSeconds) {
+		if (size >= parallelChunkSize * 2) {
+			int chunkCount = (size + parallelChunkSize - 1) / parallelChunkSize;
+			IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+				int start = chunk * parallelChunkSize;
+				integrateRange(start, Math.min(start + parallelChunkSize, size), deltaSeconds);
+			});
+		} else {
+			integrateRange(0, size, deltaSeconds);
+		}
+	}
+
+	private void integrateRange(int start, int end, float deltaSeconds) {
+		final float[] px = positionX, py = positionY, pz = positionZ;
+		final float[] vx = velocityX, vy = velocityY, vz = velocityZ;
+		for (int i = start; i < end; i++) {
+			px[i] += vx[i] * deltaSeconds;
+		}
+		for (int i = start; i < end; i++) {
+			py[i] += vy[i] * deltaSeconds;
+		}
+		for (int i = start; i < end; i++) {
+			pz[i] += vz[i] * deltaSeconds;
+		}
+		Arrays.fill(matrixDirty, start, end, true);
+	}
+
+	/**
+	 * Recomputes the cached matrix (translate * rotate * scale) of every dirty slot.
+	 */
+	public void recomputeMatrices() {
+		for (int i = 0; i < size; i++) {
+			checkRecompute(i);
+		}
+	}
+
+	void checkRecompute(int slot) {
+		if (matrixDirty[slot]) {
+			composeMatrix(slot);
+			matrixDirty[slot] = false;
+		}
+	}
+
+	private void composeMatrix(int slot) {
+		float qx = rotationX[slot], qy = rotationY[slot], qz = rotationZ[slot], qw = rotationW[slot];
+		float qxx = qx * qx, qyy = qy * qy, qzz = qz * qz;
+		float qxy = qx * qy, qxz = qx * qz, qyz = qy * qz;
+		float qwx = qw * qx, qwy = qw * qy, qwz = qw * qz;
+		float sx = scaleX[slot], sy = scaleY[slot], sz = scaleZ[slot];
+
+		int m = slot * MATRIX_STRIDE;
+		matrices[m] = (1f - 2f * (qyy + qzz)) * sx;
+		matrices[m + 1] = 2f * (qxy - qwz) * sy;
+		matrices[m + 2] = 2f * (qxz + qwy) * sz;
+		matrices[m + 3] = positionX[slot];
+		matrices[m + 4] = 2f * (qxy + qwz) * sx;
+		matrices[m + 5] = (1f - 2f * (qxx + qzz)) * sy;
+		matrices[m + 6] = 2f * (qyz - qwx) * sz;
+		matrices[m + 7] = positionY[slot];
+		matrices[m + 8] = 2f * (qxz - qwy) * sx;
+		matrices[m + 9] = 2f * (qyz + qwx) * sy;
+		matrices[m + 10] = (1f - 2f * (qxx + qyy)) * sz;
+		matrices[m + 11] = positionZ[slot];
+	}
+
+	private void copySlot(int from, int to) {
+		positionX[to] = positionX[from];
+		positionY[to] = positionY[from];
+		positionZ[to] = positionZ[from];
+		rotationX[to] = rotationX[from];
+		rotationY[to] = rotationY[from];
+		rotationZ[to] = rotationZ[from];
+		rotationW[to] = rotationW[from];
+		scaleX[to] = scaleX[from];
+		scaleY[to] = scaleY[from];
+		scaleZ[to] = scaleZ[from];
+		velocityX[to] = velocityX[from];
+		velocityY[to] = velocityY[from];
+		velocityZ[to] = velocityZ[from];
+		System.arraycopy(matrices, from * MATRIX_STRIDE, matrices, to * MATRIX_STRIDE, MATRIX_STRIDE);
+		matrixDirty[to] = matrixDirty[from];
+	}
+
+	private void grow(int newCapacity) {
+		capacity = newCapacity;
+		positionX = Arrays.copyOf(positionX, newCapacity);
+		positionY = Arrays.copyOf(positionY, newCapacity);
+		positionZ = Arrays.copyOf(positionZ, newCapacity);
+		rotationX = Arrays.copyOf(rotationX, newCapacity);
+		rotationY = Arrays.copyOf(rotationY, newCapacity);
+		rotationZ = Arrays.copyOf(rotationZ, newCapacity);
+		rotationW = Arrays.copyOf(rotationW, newCapacity);
+		scaleX = Arrays.copyOf(scaleX, newCapacity);
+		scaleY = Arrays.copyOf(scaleY, newCapacity);
+		scaleZ = Arrays.copyOf(scaleZ, newCapacity);
+		velocityX = Arrays.copyOf(velocityX, newCapacity);
+		velocityY = Arrays.copyOf(velocityY, newCapacity);
+		velocityZ = Arrays.copyOf(velocityZ, newCapacity);
+		matrices = Arrays.copyOf(matrices, newCapacity * MATRIX_STRIDE);
+		matrixDirty = Arrays.copyOf(matrixDirty, newCapacity);
+		views = Arrays.copyOf(views, newCapacity);
+	}
+}
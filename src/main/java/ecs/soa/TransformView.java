@@ -0,0 +1,142 @@
+package ecs.soa;
+
+import ecs.components.Transform;
+import java.nio.FloatBuffer;
+import utils.matrix.Mat4f;
+import utils.quaternion.Quaternion;
+import utils.vector.Vec3f;
+
+/**
+ * Lightweight handle onto one slot of a {@link TransformStore}.
+ * The slot may change when other slots are released, the view is kept up to date by the store.
+ */
+public class TransformView {
+	final TransformStore store;
+	int slot;
+
+	TransformView(TransformStore store, int slot) {
+		this.store = store;
+		this.slot = slot;
+	}
+
+	public int getSlot() {
+		return slot;
+	}
+
+	public boolean isReleased() {
+		return slot < 0;
+	}
+
+	public float getPositionX() {
+		return store.positionX[slot];
+	}
+
+	public float getPositionY() {
+		return store.positionY[slot];
+	}
+
+	public float getPositionZ() {
+		return store.positionZ[slot];
+	}
+
+	public TransformView setPosition(float x, float y, float z) {
+		store.positionX[slot] = x;
+		store.positionY[slot] = y;
+		store.positionZ[slot] = z;
+		store.matrixDirty[slot] = true;
+		return this;
+	}
+
+	public TransformView setRotation(float x, float y, float z, float w) {
+		store.rotationX[slot] = x;
+		store.rotationY[slot] = y;
+		store.rotationZ[slot] = z;
+		store.rotationW[slot] = w;
+		store.matrixDirty[slot] = true;
+		return this;
+	}
+
+	public TransformView setScale(float x, float y, float z) {
+		store.scaleX[slot] = x;
+		store.scaleY[slot] = y;
+		store.scaleZ[slot] = z;
+		store.matrixDirty[slot] = true;
+		return this;
+	}
+
+	public float getVelocityX() {
+		return store.velocityX[slot];
+	}
+
+	public float getVelocityY() {
+		return store.velocityY[slot];
+	}
+
+	public float getVelocityZ() {
+		return store.velocityZ[slot];
+	}
+
+	public TransformView setVelocity(float x, float y, float z) {
+		store.velocityX[slot] = x;
+		store.velocityY[slot] = y;
+		store.velocityZ[slot] = z;
+		return this;
+	}
+
+	public Vec3f getPosition(Vec3f target) {
+		return target.set(store.positionX[slot], store.positionY[slot], store.positionZ[slot]);
+	}
+
+	public Quaternion getRotation(Quaternion target) {
+		return target.set(store.rotationX[slot], store.rotationY[slot], store.rotationZ[slot], store.rotationW[slot]);
+	}
+
+	public Vec3f getScale(Vec3f target) {
+		return target.set(store.scaleX[slot], store.scaleY[slot], store.scaleZ[slot]);
+	}
+
+	/**
+	 * Copies the cached matrix into `target`, recomputing it first if the slot changed since {@link TransformStore#recomputeMatrices()}.
+	 */
+	public Mat4f getTransformMatrix(Mat4f target) {
+		store.checkRecompute(slot);
+		System.arraycopy(store.matrices, slot * TransformStore.MATRIX_STRIDE, target.data, 0, TransformStore.MATRIX_STRIDE);
+		target.data[12] = 0f;
+		target.data[13] = 0f;
+		target.data[14] = 0f;
+		target.data[15] = 1f;
+		return target;
+	}
+
+	/**
+	 * Writes the cached matrix as 16 row-major floats at `index` without going through a {@link Mat4f}.
+	 */
+	public void writeTransformMatrix(FloatBuffer target, int index) {
+		store.checkRecompute(slot);
+		target.put(index, store.matrices, slot * TransformStore.MATRIX_STRIDE, TransformStore.MATRIX_STRIDE);
+		index += TransformStore.MATRIX_STRIDE;
+		target.put(index, 0f);
+		target.put(index + 1, 0f);
+		target.put(index + 2, 0f);
+		target.put(index + 3, 1f);
+	}
+
+	public TransformView copyFrom(Transform transform) {
+		float[] position = transform.getPosition().data;
+		float[] rotation = transform.getRotation().data;
+		float[] scale = transform.getScale().data;
+		setPosition(position[0], position[1], position[2]);
+		setRotation(rotation[0], rotation[1], rotation[2], rotation[3]);
+		return setScale(scale[0], scale[1], scale[2]);
+	}
+
+	/**
+	 * Copies the slot into the fields of a transform that is no longer backed by this view.
+	 */
+	public void copyTo(Transform transform) {
+		getPosition(transform.getPosition());
+		getRotation(transform.getRotation());
+		getScale(transform.getScale());
+		transform.setDirty();
+	}
+}
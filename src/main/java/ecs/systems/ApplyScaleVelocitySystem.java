@@ -1,9 +1,15 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.UpdateSystem;
 
 public class ApplyScaleVelocitySystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.scaleVelocity);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.scaleVelocity);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.transform);
+
 	private static ApplyScaleVelocitySystem instance;
 
 	public static ApplyScaleVelocitySystem getInstance() {
@@ -17,6 +23,21 @@ public class ApplyScaleVelocitySystem implements UpdateSystem {
 	}
 
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		return entity.transform != null && entity.scaleVelocity != null;
@@ -1,9 +1,26 @@
 package ecs.systems;
 
+import ecs.Archetype;
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
+import ecs.EntityEraseListener;
 import ecs.UpdateSystem;
+import ecs.components.Transform;
+import ecs.components.Velocity;
+import ecs.soa.TransformStore;
+import ecs.soa.TransformView;
+import gamestate.Time;
+
+/**
+ * Entities registered with {@link #registerInStore(Entity)} are integrated in one bulk pass over a {@link TransformStore}
+ * instead of one visit per entity.
+ */
+public class ApplyVelocitySystem implements UpdateSystem, EntityEraseListener {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.velocity);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.velocity);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.transform);
 
-public class ApplyVelocitySystem implements UpdateSystem {
 	private static ApplyVelocitySystem instance;
 
 	public static ApplyVelocitySystem getInstance() {
@@ -13,12 +30,49 @@ public class ApplyVelocitySystem implements UpdateSystem {
 		return instance;
 	}
 
+	private final TransformStore transformStore = new TransformStore(1024);
+
 	private ApplyVelocitySystem() {
 	}
 
+	/**
+	 * Moves position, rotation, scale and velocity of the entity into the transform store until it is erased.
+	 * The velocity is copied once and the store owns the transform from now on,
+	 * so only entities whose velocity and transform are not modified elsewhere (e.g. particles) should be registered.
+	 */
+	public void registerInStore(Entity entity) {
+		TransformView view = transformStore.allocate().copyFrom(entity.transform);
+		float[] velocity = entity.velocityComponent.getVelocity().data;
+		view.setVelocity(velocity[0], velocity[1], velocity[2]);
+		entity.transform.setStoreView(view);
+	}
+
+	public TransformStore getTransformStore() {
+		return transformStore;
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
+	/**
+	 * Orbital entities are integrated by {@link OrbitalSystem}.
+	 */
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
-		return entity.transform != null && entity.velocityComponent != null;
+		return entity.transform != null && entity.velocityComponent != null && entity.orbitalComponent == null
+				&& entity.transform.getStoreView() == null;
 	}
 
 	@Override
@@ -26,7 +80,46 @@ public class ApplyVelocitySystem implements UpdateSystem {
 		entity.velocityComponent.applyVelocity(entity.transform);
 	}
 
+	/**
+	 * Walks the transform and velocity columns, orbital archetypes are skipped as a whole.
+	 */
+	@Override
+	public int execute_updateChunk(Archetype archetype, int start, int end) {
+		if (archetype.hasComponent(ComponentType.orbital)) {
+			return 0;
+		}
+		Object[] transforms = archetype.getColumn(ComponentType.transform);
+		Object[] velocities = archetype.getColumn(ComponentType.velocity);
+		int executedCount = 0;
+		for (int i = start; i < end; i++) {
+			Transform transform = (Transform) transforms[i];
+			if (transform.getStoreView() == null) {
+				((Velocity) velocities[i]).applyVelocity(transform);
+				executedCount++;
+			}
+		}
+		return executedCount;
+	}
+
+	/**
+	 * Integrates the store and recomputes its matrices, consumers read them from the store slots.
+	 */
 	@Override
 	public void onExecuteUpdateDone() {
+		if (transformStore.size() != 0) {
+			transformStore.integrate(Time.physicsDeltaSecondsF);
+			transformStore.recomputeMatrices();
+		}
+	}
+
+	@Override
+	public void onErase(Entity entity) {
+		if (entity.transform != null && entity.transform.getStoreView() != null) {
+			TransformView view = entity.transform.getStoreView();
+			// keep the last state in the fields for anyone still holding the transform
+			entity.transform.setStoreView(null);
+			view.copyTo(entity.transform);
+			transformStore.release(view);
+		}
 	}
 }
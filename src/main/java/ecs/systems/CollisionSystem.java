@@ -0,0 +1,259 @@
+package ecs.systems;
+
+import ecs.ComponentSignature;
+import ecs.ComponentType;
+import ecs.Entity;
+import ecs.EntityHandle;
+import ecs.UpdateSystem;
+import ecs.components.AABBCollider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import utils.collision.DynamicAABBTree;
+import utils.collision.SweptCollision;
+
+/**
+ * Broadphase for all entities with an {@link ecs.components.AABBCollider}.
+ * <p>
+ * Colliders are kept in a persistent {@link DynamicAABBTree}, only entities that left their fat bounds are re-inserted.
+ * Once per tick the overlapping pairs are collected into a reused buffer and offered to the registered listeners.
+ * <p>
+ * Colliders flagged as {@link AABBCollider#setFastMover fast movers} enter the tree with bounds covering their whole movement of the tick,
+ * their pairs are confirmed by a time of impact test instead of the overlap at the end of the tick.
+ */
+public class CollisionSystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.aabbCollider);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.transform, ComponentType.velocity);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.aabbCollider);
+
+	/**
+	 * below this many pairs the listeners are called on the updating thread
+	 */
+	private static final int parallelPairThreshold = 256;
+
+	private static CollisionSystem instance;
+
+	public static CollisionSystem getInstance() {
+		if (instance == null) {
+			instance = new CollisionSystem();
+		}
+		return instance;
+	}
+
+	@FunctionalInterface
+	public interface CollisionListener {
+		/**
+		 * Narrow phase callback, called concurrently for different pairs.
+		 * Entities must not be modified directly, use the {@link ecs.EntityCommandBuffer} instead.
+		 */
+		void onCollision(Entity entityA, Entity entityB);
+	}
+
+	private final DynamicAABBTree<Entity> tree = new DynamicAABBTree<>(0.5f);
+	private final CopyOnWriteArrayList<CollisionListener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * collider entities of the tick, one list per updating thread so the parallel pass does not contend on a lock
+	 */
+	private final CopyOnWriteArrayList<ArrayList<Entity>> colliderEntities = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<ArrayList<Entity>> threadColliderEntities = ThreadLocal.withInitial(this::registerColliderEntities);
+
+	/**
+	 * proxy id per entity handle slot, -1 if the slot has no proxy
+	 */
+	private int[] proxyBySlot = new int[0];
+	private int[] proxyLastSeenTick = new int[0];
+	private int tick = 0;
+
+	/**
+	 * two entities per pair that passed the broadphase, reused between ticks
+	 */
+	private Entity[] pairs = new Entity[64];
+	private float[] pairTimesOfImpact = new float[32];
+	private int pairCount = 0;
+	private int reinsertedCount = 0;
+
+	private CollisionSystem() {
+	}
+
+	private synchronized ArrayList<Entity> registerColliderEntities() {
+		ArrayList<Entity> entities = new ArrayList<>();
+		colliderEntities.add(entities);
+		return entities;
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
+	public void addCollisionListener(CollisionListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeCollisionListener(CollisionListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public boolean isTargetEntity_updateTick(Entity entity) {
+		return entity.transform != null && entity.aabbCollider != null;
+	}
+
+	@Override
+	public void execute_updateTick(Entity entity) {
+		entity.aabbCollider.getAABB(entity.transform);
+		if (entity.aabbCollider.isFastMover()) {
+			entity.aabbCollider.updateSweep(entity.velocityComponent);
+		}
+		threadColliderEntities.get().add(entity);
+	}
+
+	@Override
+	public void onExecuteUpdateDone() {
+		tick++;
+		updateProxies();
+		collectPairs();
+		notifyListeners();
+	}
+
+	private void updateProxies() {
+		reinsertedCount = 0;
+		for (ArrayList<Entity> entities : colliderEntities) {
+			for (Entity entity : entities) {
+				updateProxy(entity);
+			}
+			entities.clear();
+		}
+
+		// erased entities and entities that lost their collider
+		for (int slot = 0; slot < proxyBySlot.length; slot++) {
+			int proxy = proxyBySlot[slot];
+			if (proxy >= 0 && proxyLastSeenTick[proxy] != tick) {
+				tree.destroyProxy(proxy);
+				proxyBySlot[slot] = -1;
+			}
+		}
+	}
+
+	private void updateProxy(Entity entity) {
+		int slot = EntityHandle.slot(entity.getHandle());
+		if (slot >= proxyBySlot.length) {
+			int oldLength = proxyBySlot.length;
+			proxyBySlot = Arrays.copyOf(proxyBySlot, Math.max(slot + 1, oldLength * 2));
+			Arrays.fill(proxyBySlot, oldLength, proxyBySlot.length, -1);
+		}
+		int proxy = proxyBySlot[slot];
+		if (proxy >= 0 && tree.getUserData(proxy) != entity) {
+			// slot was recycled by a new entity
+			tree.destroyProxy(proxy);
+			proxy = -1;
+		}
+		if (proxy < 0) {
+			proxy = tree.createProxy(entity.aabbCollider.getBroadphaseAABB(), entity);
+			proxyBySlot[slot] = proxy;
+		} else if (tree.moveProxy(proxy, entity.aabbCollider.getBroadphaseAABB())) {
+			reinsertedCount++;
+		}
+		if (proxy >= proxyLastSeenTick.length) {
+			proxyLastSeenTick = Arrays.copyOf(proxyLastSeenTick, Math.max(proxy + 1, proxyLastSeenTick.length * 2));
+		}
+		proxyLastSeenTick[proxy] = tick;
+	}
+
+	private void collectPairs() {
+		pairCount = 0;
+		int candidateCount = tree.computeOverlappingPairs();
+		int[] candidates = tree.getPairBuffer();
+		for (int i = 0; i < candidateCount; i++) {
+			Entity entityA = tree.getUserData(candidates[i * 2]);
+			Entity entityB = tree.getUserData(candidates[i * 2 + 1]);
+			AABBCollider colliderA = entityA.aabbCollider;
+			AABBCollider colliderB = entityB.aabbCollider;
+			if (!colliderA.canCollideWith(colliderB)) {
+				continue;
+			}
+			float timeOfImpact = 1f;
+			if (colliderA.isFastMover() || colliderB.isFastMover()) {
+				timeOfImpact = SweptCollision.timeOfImpact(colliderA.getOldAABB(), colliderA.getDisplacement(),
+						colliderB.getOldAABB(), colliderB.getDisplacement());
+				if (timeOfImpact == SweptCollision.noImpact) {
+					continue;
+				}
+			} else if (!colliderA.getOldAABB().isIntersecting(colliderB.getOldAABB())) {
+				continue;
+			}
+			if (pairCount * 2 == pairs.length) {
+				pairs = Arrays.copyOf(pairs, pairs.length * 2);
+				pairTimesOfImpact = Arrays.copyOf(pairTimesOfImpact, pairs.length / 2);
+			}
+			pairs[pairCount * 2] = entityA;
+			pairs[pairCount * 2 + 1] = entityB;
+			pairTimesOfImpact[pairCount] = timeOfImpact;
+			pairCount++;
+		}
+	}
+
+	private void notifyListeners() {
+		if (listeners.isEmpty() || pairCount == 0) {
+			return;
+		}
+		if (pairCount < parallelPairThreshold) {
+			for (int i = 0; i < pairCount; i++) {
+				notifyListeners(i);
+			}
+		} else {
+			IntStream.range(0, pairCount).parallel().forEach(this::notifyListeners);
+		}
+	}
+
+	private void notifyListeners(int pairIndex) {
+		Entity entityA = pairs[pairIndex * 2];
+		Entity entityB = pairs[pairIndex * 2 + 1];
+		for (CollisionListener listener : listeners) {
+			listener.onCollision(entityA, entityB);
+		}
+	}
+
+	/**
+	 * @return amount of overlapping pairs found in the last tick
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * @param side 0 or 1
+	 */
+	public Entity getPairEntity(int pairIndex, int side) {
+		return pairs[pairIndex * 2 + side];
+	}
+
+	/**
+	 * @return fraction of the last tick at which the pair first touched, 1 for pairs without a fast mover
+	 */
+	public float getPairTimeOfImpact(int pairIndex) {
+		return pairTimesOfImpact[pairIndex];
+	}
+
+	/**
+	 * @return amount of colliders that left their fat bounds in the last tick
+	 */
+	public int getReinsertedCount() {
+		return reinsertedCount;
+	}
+
+	public int getColliderCount() {
+		return tree.getProxyCount();
+	}
+}
@@ -1,9 +1,39 @@
 package ecs.systems;
 
+import ecs.Archetype;
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.UpdateSystem;
+import ecs.components.Transform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
 
+/**
+ * Recomputes the matrices of changed transforms.
+ * <p>
+ * By default transforms are recomputed while the entities are visited.
+ * In batched mode the visit only collects the dirty transforms into a list per updating thread.
+ * Once all chunks are done the lists are merged into a contiguous array, which is recomputed in parallel,
+ * so the work is split evenly no matter how the dirty transforms are spread over the chunks.
+ * Transforms backed by the {@link ecs.soa.TransformStore} of {@link ApplyVelocitySystem} are recomputed in bulk there and skipped here.
+ */
 public class ComputeDataSystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.transform);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.transform);
+
+	/**
+	 * dirty transforms per parallel task in batched mode
+	 */
+	private static final int batchSize = 256;
+	/**
+	 * batched mode of every state that does not choose one itself, particle heavy states like SpaceSim switch it on while they run
+	 */
+	public static final boolean batchedByDefault = Boolean.getBoolean("ecs.batchedTransforms");
+
 	private static ComputeDataSystem instance;
 
 	public static ComputeDataSystem getInstance() {
@@ -13,22 +43,126 @@ public class ComputeDataSystem implements UpdateSystem {
 		return instance;
 	}
 
+	private boolean isBatched = batchedByDefault;
+	private final CopyOnWriteArrayList<ArrayList<Transform>> threadDirtyTransforms = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<ArrayList<Transform>> dirtyTransformsOfThread = ThreadLocal.withInitial(this::registerDirtyTransforms);
+	private Transform[] dirtyTransforms = new Transform[1024];
+	private int dirtyCount = 0;
+	private int lastBatchSize = 0;
+
 	private ComputeDataSystem() {
 	}
 
+	private synchronized ArrayList<Transform> registerDirtyTransforms() {
+		ArrayList<Transform> transforms = new ArrayList<>();
+		threadDirtyTransforms.add(transforms);
+		return transforms;
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
+	public boolean isBatched() {
+		return isBatched;
+	}
+
+	public ComputeDataSystem setBatched(boolean batched) {
+		isBatched = batched;
+		return this;
+	}
+
+	/**
+	 * @return amount of transforms recomputed by the last batched tick
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
+		if (entity.transform.getStoreView() != null) {
+			return false;
+		}
+		if (isBatched) {
+			return entity.transform.isDirty();
+		}
 		entity.transform.checkRecompute();
 		return false;
 	}
 
 	@Override
 	public void execute_updateTick(Entity entity) {
+		dirtyTransformsOfThread.get().add(entity.transform);
+	}
 
+	/**
+	 * Same as {@link #isTargetEntity_updateTick(Entity)} and {@link #execute_updateTick(Entity)}, but walks the transform column.
+	 */
+	@Override
+	public int execute_updateChunk(Archetype archetype, int start, int end) {
+		Object[] transforms = archetype.getColumn(ComponentType.transform);
+		ArrayList<Transform> dirtyTransformsOfChunk = isBatched ? dirtyTransformsOfThread.get() : null;
+		int executedCount = 0;
+		for (int i = start; i < end; i++) {
+			Transform transform = (Transform) transforms[i];
+			if (transform.getStoreView() != null) {
+				continue;
+			}
+			if (dirtyTransformsOfChunk == null) {
+				transform.checkRecompute();
+			} else if (transform.isDirty()) {
+				dirtyTransformsOfChunk.add(transform);
+				executedCount++;
+			}
+		}
+		return executedCount;
 	}
 
 	@Override
 	public void onExecuteUpdateDone() {
+		mergeDirtyTransforms();
+		lastBatchSize = dirtyCount;
+		if (dirtyCount == 0) {
+			return;
+		}
+		int batchCount = (dirtyCount + batchSize - 1) / batchSize;
+		if (batchCount > 1) {
+			IntStream.range(0, batchCount).parallel().forEach(this::recomputeBatch);
+		} else {
+			recomputeBatch(0);
+		}
+		Arrays.fill(dirtyTransforms, 0, dirtyCount, null);
+		dirtyCount = 0;
+	}
 
+	private void mergeDirtyTransforms() {
+		for (ArrayList<Transform> transforms : threadDirtyTransforms) {
+			if (dirtyCount + transforms.size() > dirtyTransforms.length) {
+				dirtyTransforms = Arrays.copyOf(dirtyTransforms, Math.max(dirtyCount + transforms.size(), dirtyTransforms.length * 2));
+			}
+			for (Transform transform : transforms) {
+				dirtyTransforms[dirtyCount++] = transform;
+			}
+			transforms.clear();
+		}
+	}
+
+	private void recomputeBatch(int batch) {
+		int end = Math.min(dirtyCount, (batch + 1) * batchSize);
+		for (int i = batch * batchSize; i < end; i++) {
+			dirtyTransforms[i].checkRecompute();
+		}
 	}
 }
@@ -1,11 +1,17 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.UpdateSystem;
 import ecs.components.LifeTimeLightIntensity;
 import utils.MathF;
 
 public class LifeTimeLightIntensitySystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.lifeTime, ComponentType.lifeTimeLightIntensity, ComponentType.light);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.lifeTime, ComponentType.lifeTimeLightIntensity);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.light);
+
 	private static LifeTimeLightIntensitySystem instance;
 
 	public static LifeTimeLightIntensitySystem getInstance() {
@@ -18,6 +24,21 @@ public class LifeTimeLightIntensitySystem implements UpdateSystem {
 	private LifeTimeLightIntensitySystem() {
 	}
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		return entity.lifeTimeComponent != null && entity.lifeTimeLightIntensityComponent != null
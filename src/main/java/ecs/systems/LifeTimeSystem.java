@@ -1,11 +1,17 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.EntityRegistry;
 import ecs.UpdateSystem;
 import gamestate.Time;
 
 public class LifeTimeSystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.lifeTime);
+	private static final ComponentSignature readComponents = ComponentSignature.none;
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.lifeTime);
+
 	private static LifeTimeSystem instance;
 
 	public static LifeTimeSystem getInstance() {
@@ -18,6 +24,21 @@ public class LifeTimeSystem implements UpdateSystem {
 	private LifeTimeSystem() {
 	}
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		return entity.lifeTimeComponent != null;
@@ -1,5 +1,8 @@
 package ecs.systems;
 
+import camera.BaseCamera;
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.EntityEraseListener;
 import ecs.UpdateSystem;
@@ -8,15 +11,29 @@ import ecs.components.Transform;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rendering.GpuArrayManager;
+import rendering.ShaderStorageBuffer;
+import rendering.gl.GLFacade;
+import rendering.lighting.LightClusterGrid;
+import rendering.lighting.LightType;
+import rendering.stream.ArrayStreamer;
+import rendering.stream.PersistentMappedStorage;
+import utils.WindowInfo;
+import utils.vector.Vec3f;
 
 public class LightManagerSystem implements UpdateSystem, EntityEraseListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(LightManagerSystem.class);
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.light);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.transform);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.light);
 	private static final int LightCountField_Bytes = 16;
+	private static final int clusterTilesX = 16;
+	private static final int clusterTilesY = 9;
+	private static final int clusterSlices = 24;
 
 	private static LightManagerSystem instance;
 
@@ -27,25 +44,101 @@ public class LightManagerSystem implements UpdateSystem, EntityEraseListener {
 		return instance;
 	}
 
-	private final ArrayList<Entity> boundLights = new ArrayList<>();
-	private final ArrayList<Entity> changedLights = new ArrayList<>();
-	private final int[] singleIntArray = new int[]{0};
-	private final int glLightSSBO;
-	private boolean boundLightCountChanged = false;
-	private int currentPossibleLightCount = 0;
+	private final ShaderStorageBuffer glLightSSBO = new ShaderStorageBuffer(GL45.GL_DYNAMIC_DRAW);
+	private final GpuArrayManager<Entity> boundLights = new GpuArrayManager<>(glLightSSBO, Light.BYTES, LightCountField_Bytes, 16, LightManagerSystem::writeLight);
+
+	private final ArrayStreamer lightStreamer = new ArrayStreamer(GL45.GL_SHADER_STORAGE_BUFFER, PersistentMappedStorage::new);
+	private boolean isStreaming = Boolean.getBoolean("gl.streaming");
+
+	private final LightClusterGrid lightClusters = new LightClusterGrid(clusterTilesX, clusterTilesY, clusterSlices);
+	private final ShaderStorageBuffer glClusterSSBO = new ShaderStorageBuffer(GL45.GL_DYNAMIC_DRAW);
+	private float[] clusterPositions = new float[16 * 3];
+	private float[] clusterRanges = new float[16];
+	private ByteBuffer clusterStaging = ByteBuffer.allocateDirect(0);
+	private long clusteredFrame = -1;
 
 	private LightManagerSystem() {
-		GL45.glGenBuffers(singleIntArray);
-		glLightSSBO = singleIntArray[0];
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glLightSSBO);
-		GL45.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, LightCountField_Bytes, GL45.GL_DYNAMIC_DRAW);
-		singleIntArray[0] = 0;
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
 	}
 
+	/**
+	 * In streaming mode all lights are written into a persistently mapped ring buffer once per frame,
+	 * instead of uploading the changed ones into a single buffer
+	 */
+	public LightManagerSystem setStreaming(boolean streaming) {
+		isStreaming = streaming;
+		return this;
+	}
+
+	/**
+	 * Uploads pending changes and binds the light buffer
+	 */
 	public void bindShaderData(int bindIndex) {
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glLightSSBO);
-		GL45.glBindBufferBase(GL45.GL_SHADER_STORAGE_BUFFER, bindIndex, glLightSSBO);
+		if (isStreaming) {
+			lightStreamer.bind(boundLights, bindIndex);
+			return;
+		}
+		boundLights.flush();
+		glLightSSBO.bind(bindIndex);
+	}
+
+	/**
+	 * Bins the lights into the clusters of the camera once per frame and binds the per cluster light lists,
+	 * see {@link LightClusterGrid} for the layout. Indices refer to the buffer bound by {@link #bindShaderData(int)}.
+	 */
+	public void bindClusterData(int bindIndex, BaseCamera camera) {
+		long frame = GLFacade.getFrameIndex();
+		if (frame != clusteredFrame) {
+			clusteredFrame = frame;
+			buildClusters(camera);
+		}
+		glClusterSSBO.bind(bindIndex);
+	}
+
+	private void buildClusters(BaseCamera camera) {
+		int lightCount = boundLights.size();
+		if (clusterRanges.length < lightCount) {
+			clusterRanges = new float[Math.max(lightCount, clusterRanges.length * 2)];
+			clusterPositions = new float[clusterRanges.length * 3];
+		}
+		for (int slot = 0; slot < lightCount; slot++) {
+			Entity entity = boundLights.get(slot);
+			Light light = entity.lightComponent;
+			Vec3f position = entity.transform.getPosition();
+			System.arraycopy(position.data, 0, clusterPositions, slot * 3, 3);
+			clusterRanges[slot] = light.getLightType() == LightType.directional ? 0f : light.getRange();
+		}
+		if (camera != null) {
+			lightClusters.setCamera(camera.getLookAtMatrix(), camera.getProjectionMatrix());
+		} else {
+			lightClusters.clearCamera();
+		}
+		lightClusters.build(clusterPositions, clusterRanges, lightCount);
+
+		int bytes = lightClusters.getByteSize();
+		if (clusterStaging.capacity() < bytes) {
+			clusterStaging = ByteBuffer.allocateDirect(Math.max(bytes, clusterStaging.capacity() * 3 / 2)).order(ByteOrder.LITTLE_ENDIAN);
+			glClusterSSBO.allocate(clusterStaging.capacity());
+		}
+		clusterStaging.clear();
+		WindowInfo windowInfo = WindowInfo.getInstance();
+		lightClusters.writeTo(clusterStaging, windowInfo.getWindowWidth(), windowInfo.getWindowHeight());
+		clusterStaging.flip();
+		glClusterSSBO.upload(0, clusterStaging);
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
 	}
 
 	@Override
@@ -60,44 +153,17 @@ public class LightManagerSystem implements UpdateSystem, EntityEraseListener {
 	public synchronized void execute_updateTick(Entity entity) {
 		Light light = entity.lightComponent;
 		if (light.lightManagerIndex < 0) {
-			light.lightManagerIndex = boundLights.size();
-			boundLights.add(entity);
-			boundLightCountChanged = true;
+			light.lightManagerIndex = boundLights.add(entity);
+		} else {
+			boundLights.markDirty(light.lightManagerIndex);
 		}
-		if(light.trackedTransformChangeID != entity.transform.getChangeID()){
-			light.trackedTransformChangeID = entity.transform.getChangeID();
-		}
-		changedLights.add(entity);
+		light.trackedTransformChangeID = entity.transform.getChangeID();
 	}
 
 	@Override
 	public void onExecuteUpdateDone() {
-		if (!changedLights.isEmpty() || boundLightCountChanged) {
-			GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glLightSSBO);
-			boolean bufferWasResized = false;
-			if (boundLightCountChanged) {
-				if (boundLights.size() > currentPossibleLightCount) {
-					bufferWasResized = true;
-					performResize();
-				}
-				singleIntArray[0] = boundLights.size();
-				GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
-			}
-			if (!bufferWasResized && !changedLights.isEmpty()) {
-				FloatBuffer buffer = ByteBuffer.allocateDirect(Light.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-				for (Entity changedLight : changedLights) {
-					Light light = changedLight.lightComponent;
-					light.lightDataChanged = false;
-					light.writeToBuffer(buffer, changedLight.transform);
-					buffer.rewind();
-					GL45.glBufferSubData(
-							GL45.GL_SHADER_STORAGE_BUFFER,
-							(long) LightCountField_Bytes + ((long) light.lightManagerIndex * Light.BYTES),
-							buffer
-					);
-				}
-			}
-			changedLights.clear();
+		if (!isStreaming) {
+			boundLights.flush();
 		}
 	}
 
@@ -112,38 +178,15 @@ public class LightManagerSystem implements UpdateSystem, EntityEraseListener {
 			return;
 		}
 
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glLightSSBO);
-		int lastBoundLightIndex = boundLights.size() - 1;
-		singleIntArray[0] = lastBoundLightIndex;
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
-		if (removeIndex != lastBoundLightIndex) {
-			Entity movedLightEntity = boundLights.get(lastBoundLightIndex);
-			Light movedLight = movedLightEntity.lightComponent;
-			boundLights.set(removeIndex, movedLightEntity);
-			movedLight.lightManagerIndex = removeIndex;
-			FloatBuffer buffer = ByteBuffer.allocateDirect(Light.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-			movedLight.writeToBuffer(buffer, movedLightEntity.transform);
-			buffer.rewind();
-			GL45.glBufferSubData(
-					GL45.GL_SHADER_STORAGE_BUFFER,
-					LightCountField_Bytes + ((long) removeIndex * Light.BYTES),
-					buffer
-			);
+		Entity movedLightEntity = boundLights.remove(removeIndex);
+		if (movedLightEntity != null) {
+			movedLightEntity.lightComponent.lightManagerIndex = removeIndex;
 		}
-		boundLights.remove(lastBoundLightIndex);
 	}
 
-	private void performResize() {
-		currentPossibleLightCount = (int) ((boundLights.size() + 1) * 1.3f);
-		int lightDataBytes = currentPossibleLightCount * Light.BYTES;
-		GL45.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, LightCountField_Bytes + lightDataBytes, GL45.GL_DYNAMIC_DRAW);
-		FloatBuffer buffer = ByteBuffer.allocateDirect(lightDataBytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-		for (Entity boundLightEntity : boundLights) {
-			Light boundLight = boundLightEntity.lightComponent;
-			boundLight.writeToBuffer(buffer, boundLightEntity.transform);
-			boundLight.lightDataChanged = false;
-		}
-		buffer.rewind();
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, LightCountField_Bytes, buffer);
+	private static void writeLight(Entity entity, FloatBuffer target) {
+		Light light = entity.lightComponent;
+		light.lightDataChanged = false;
+		light.writeToBuffer(target, entity.transform);
 	}
 }
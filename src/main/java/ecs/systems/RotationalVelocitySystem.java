@@ -1,9 +1,15 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.UpdateSystem;
 
 public class RotationalVelocitySystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.rotationalVelocity);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.rotationalVelocity);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.transform);
+
 	private static RotationalVelocitySystem instance;
 
 	public static RotationalVelocitySystem getInstance() {
@@ -16,6 +22,21 @@ public class RotationalVelocitySystem implements UpdateSystem {
 	private RotationalVelocitySystem() {
 	}
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		return entity.transform != null && entity.rotationalVelocity != null;
@@ -1,9 +1,15 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.UpdateSystem;
 
 public class ShockwaveExpandingAnimatorSystem implements UpdateSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.shockwave, ComponentType.shockwaveExpandingAnimator);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.shockwaveExpandingAnimator);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.shockwave);
+
 	private static ShockwaveExpandingAnimatorSystem instance;
 
 	public static ShockwaveExpandingAnimatorSystem getInstance() {
@@ -16,6 +22,21 @@ public class ShockwaveExpandingAnimatorSystem implements UpdateSystem {
 	private ShockwaveExpandingAnimatorSystem() {
 	}
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		return entity.shockwaveComponent != null && entity.shockwaveExpandingAnimator != null;
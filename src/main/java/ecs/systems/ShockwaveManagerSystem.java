@@ -1,21 +1,27 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.EntityEraseListener;
 import ecs.UpdateSystem;
 import ecs.components.Shockwave;
 import ecs.components.Transform;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rendering.GpuArrayManager;
+import rendering.ShaderStorageBuffer;
+import rendering.stream.ArrayStreamer;
+import rendering.stream.PersistentMappedStorage;
 
 public class ShockwaveManagerSystem implements UpdateSystem, EntityEraseListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(ShockwaveManagerSystem.class);
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.shockwave);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.transform);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.shockwave);
 	private static final int ShockwaveCountField_Bytes = 16;
 
 	private static ShockwaveManagerSystem instance;
@@ -27,27 +33,49 @@ public class ShockwaveManagerSystem implements UpdateSystem, EntityEraseListener
 		return instance;
 	}
 
-	private final ArrayList<Entity> boundShockwaves = new ArrayList<>();
-	private final ArrayList<Entity> changedShockwaves = new ArrayList<>();
-	private final int[] singleIntArray = new int[]{0};
-	private final int glShockwaveSSBO;
-	private final FloatBuffer singleShockwaveBuffer = ByteBuffer.allocateDirect(Shockwave.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+	private final ShaderStorageBuffer glShockwaveSSBO = new ShaderStorageBuffer(GL45.GL_DYNAMIC_DRAW);
+	private final GpuArrayManager<Entity> boundShockwaves = new GpuArrayManager<>(glShockwaveSSBO, Shockwave.BYTES, ShockwaveCountField_Bytes, 16, ShockwaveManagerSystem::writeShockwave);
 
-	private boolean boundShockwaveCountChanged = false;
-	private int currentPossibleShockwaveCount = 0;
+	private final ArrayStreamer shockwaveStreamer = new ArrayStreamer(GL45.GL_SHADER_STORAGE_BUFFER, PersistentMappedStorage::new);
+	private boolean isStreaming = Boolean.getBoolean("gl.streaming");
 
 	private ShockwaveManagerSystem() {
-		GL45.glGenBuffers(singleIntArray);
-		glShockwaveSSBO = singleIntArray[0];
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glShockwaveSSBO);
-		GL45.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, ShockwaveCountField_Bytes, GL45.GL_DYNAMIC_DRAW);
-		singleIntArray[0] = 0;
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
 	}
 
+	/**
+	 * In streaming mode all shockwaves are written into a persistently mapped ring buffer once per frame,
+	 * instead of uploading the changed ones into a single buffer
+	 */
+	public ShockwaveManagerSystem setStreaming(boolean streaming) {
+		isStreaming = streaming;
+		return this;
+	}
+
+	/**
+	 * Uploads pending changes and binds the shockwave buffer
+	 */
 	public void bindShaderData(int bindIndex) {
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glShockwaveSSBO);
-		GL45.glBindBufferBase(GL45.GL_SHADER_STORAGE_BUFFER, bindIndex, glShockwaveSSBO);
+		if (isStreaming) {
+			shockwaveStreamer.bind(boundShockwaves, bindIndex);
+			return;
+		}
+		boundShockwaves.flush();
+		glShockwaveSSBO.bind(bindIndex);
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
 	}
 
 	@Override
@@ -62,43 +90,17 @@ public class ShockwaveManagerSystem implements UpdateSystem, EntityEraseListener
 	public synchronized void execute_updateTick(Entity entity) {
 		Shockwave shockwave = entity.shockwaveComponent;
 		if (shockwave.shockwaveManagerIndex < 0) {
-			shockwave.shockwaveManagerIndex = boundShockwaves.size();
-			boundShockwaves.add(entity);
-			boundShockwaveCountChanged = true;
-		}
-		if (shockwave.trackedTransformChangeID != entity.transform.getChangeID()) {
-			shockwave.trackedTransformChangeID = entity.transform.getChangeID();
+			shockwave.shockwaveManagerIndex = boundShockwaves.add(entity);
+		} else {
+			boundShockwaves.markDirty(shockwave.shockwaveManagerIndex);
 		}
-		changedShockwaves.add(entity);
+		shockwave.trackedTransformChangeID = entity.transform.getChangeID();
 	}
 
 	@Override
 	public void onExecuteUpdateDone() {
-		if (!changedShockwaves.isEmpty() || boundShockwaveCountChanged) {
-			GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glShockwaveSSBO);
-			boolean bufferWasResized = false;
-			if (boundShockwaveCountChanged) {
-				if (boundShockwaves.size() > currentPossibleShockwaveCount) {
-					bufferWasResized = true;
-					performResize();
-				}
-				singleIntArray[0] = boundShockwaves.size();
-				GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
-			}
-			if (!bufferWasResized && !changedShockwaves.isEmpty()) {
-				for (Entity shockwaveEntity : changedShockwaves) {
-					Shockwave shockwave = shockwaveEntity.shockwaveComponent;
-					shockwave.shockwaveDataChanged = false;
-					shockwave.writeToBuffer(singleShockwaveBuffer, shockwaveEntity.transform);
-					singleShockwaveBuffer.rewind();
-					GL45.glBufferSubData(
-							GL45.GL_SHADER_STORAGE_BUFFER,
-							(long) ShockwaveCountField_Bytes + ((long) shockwave.shockwaveManagerIndex * Shockwave.BYTES),
-							singleShockwaveBuffer
-					);
-				}
-			}
-			changedShockwaves.clear();
+		if (!isStreaming) {
+			boundShockwaves.flush();
 		}
 	}
 
@@ -113,37 +115,15 @@ public class ShockwaveManagerSystem implements UpdateSystem, EntityEraseListener
 			return;
 		}
 
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glShockwaveSSBO);
-		int lastBoundShockwaveIndex = boundShockwaves.size() - 1;
-		singleIntArray[0] = lastBoundShockwaveIndex;
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, singleIntArray);
-		if (removeIndex != lastBoundShockwaveIndex) {
-			Entity movedShockwaveEntity = boundShockwaves.get(lastBoundShockwaveIndex);
-			Shockwave movedShockwave = movedShockwaveEntity.shockwaveComponent;
-			boundShockwaves.set(removeIndex, movedShockwaveEntity);
-			movedShockwave.shockwaveManagerIndex = removeIndex;
-			movedShockwave.writeToBuffer(singleShockwaveBuffer, movedShockwaveEntity.transform);
-			singleShockwaveBuffer.rewind();
-			GL45.glBufferSubData(
-					GL45.GL_SHADER_STORAGE_BUFFER,
-					ShockwaveCountField_Bytes + ((long) removeIndex * Shockwave.BYTES),
-					singleShockwaveBuffer
-			);
+		Entity movedShockwaveEntity = boundShockwaves.remove(removeIndex);
+		if (movedShockwaveEntity != null) {
+			movedShockwaveEntity.shockwaveComponent.shockwaveManagerIndex = removeIndex;
 		}
-		boundShockwaves.remove(lastBoundShockwaveIndex);
 	}
 
-	private void performResize() {
-		currentPossibleShockwaveCount = (int) ((boundShockwaves.size() + 1) * 1.3f);
-		int shockwaveDataBytes = currentPossibleShockwaveCount * Shockwave.BYTES;
-		GL45.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, ShockwaveCountField_Bytes + shockwaveDataBytes, GL45.GL_DYNAMIC_DRAW);
-		FloatBuffer buffer = ByteBuffer.allocateDirect(shockwaveDataBytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-		for (Entity boundEntity : boundShockwaves) {
-			Shockwave shockwave = boundEntity.shockwaveComponent;
-			shockwave.writeToBuffer(buffer, boundEntity.transform);
-			shockwave.shockwaveDataChanged = false;
-		}
-		buffer.rewind();
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, ShockwaveCountField_Bytes, buffer);
+	private static void writeShockwave(Entity entity, FloatBuffer target) {
+		Shockwave shockwave = entity.shockwaveComponent;
+		shockwave.shockwaveDataChanged = false;
+		shockwave.writeToBuffer(target, entity.transform);
 	}
 }
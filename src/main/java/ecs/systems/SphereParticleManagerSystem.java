@@ -1,22 +1,25 @@
 package ecs.systems;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.EntityEraseListener;
 import ecs.UpdateSystem;
 import ecs.components.SphereParticle;
 import ecs.components.Transform;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rendering.GeometryBuffer;
+import rendering.GpuArrayManager;
 
 public class SphereParticleManagerSystem implements UpdateSystem, EntityEraseListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(SphereParticleManagerSystem.class);
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.sphereParticle);
+	private static final ComponentSignature readComponents = ComponentSignature.of(ComponentType.transform);
+	private static final ComponentSignature writeComponents = ComponentSignature.of(ComponentType.sphereParticle);
 
 	private static SphereParticleManagerSystem instance;
 
@@ -28,51 +31,57 @@ public class SphereParticleManagerSystem implements UpdateSystem, EntityEraseLis
 	}
 
 	private final GeometryBuffer particleBuffer = new GeometryBuffer(GL45.GL_POINTS, 0, new int[]{4, 4, 4}, false, 0);
-	private final ArrayList<Entity> boundParticles = new ArrayList<>();
-	private final ArrayList<Entity> changedParticles = new ArrayList<>();
+	private final GpuArrayManager<Entity> boundParticles = new GpuArrayManager<>(particleBuffer, SphereParticle.BYTES, 0, 256, SphereParticleManagerSystem::writeParticle);
 
+	/**
+	 * @return particle buffer with all pending changes uploaded
+	 */
 	public GeometryBuffer getParticleBuffer() {
+		boundParticles.flush();
 		return particleBuffer;
 	}
 
 	private SphereParticleManagerSystem() {
 	}
 
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
+	}
+
+	@Override
+	public ComponentSignature getReadComponents() {
+		return readComponents;
+	}
+
+	@Override
+	public ComponentSignature getWriteComponents() {
+		return writeComponents;
+	}
+
 	@Override
 	public boolean isTargetEntity_updateTick(Entity entity) {
 		Transform transform = entity.transform;
 		SphereParticle particle = entity.sphereParticleComponent;
+		// store-backed transforms move every tick without a new change ID
 		return transform != null && particle != null
-				&& (particle.particleDataChanged || particle.trackedTransformChangeID != transform.getChangeID());
+				&& (particle.particleDataChanged || particle.trackedTransformChangeID != transform.getChangeID() || transform.getStoreView() != null);
 	}
 
 	@Override
 	public synchronized void execute_updateTick(Entity entity) {
 		SphereParticle particle = entity.sphereParticleComponent;
 		if (particle.particleManagerIndex < 0) {
-			particle.particleManagerIndex = boundParticles.size();
-			boundParticles.add(entity);
+			particle.particleManagerIndex = boundParticles.add(entity);
+		} else {
+			boundParticles.markDirty(particle.particleManagerIndex);
 		}
-		if (particle.trackedTransformChangeID != entity.transform.getChangeID()) {
-			particle.trackedTransformChangeID = entity.transform.getChangeID();
-		}
-		changedParticles.add(entity);
+		particle.trackedTransformChangeID = entity.transform.getChangeID();
 	}
 
 	@Override
 	public void onExecuteUpdateDone() {
-		if (!changedParticles.isEmpty()) {
-			FloatBuffer buffer = ByteBuffer.allocateDirect(SphereParticle.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-			for (Entity changedParticleEntity : changedParticles) {
-				SphereParticle particle = changedParticleEntity.sphereParticleComponent;
-				Transform transform = changedParticleEntity.transform;
-				particle.particleDataChanged = false;
-				particle.writeToBuffer(buffer, transform);
-				buffer.rewind();
-				particleBuffer.setSubData(buffer, 1, particle.particleManagerIndex);
-			}
-			changedParticles.clear();
-		}
+		boundParticles.flush();
 	}
 
 	@Override
@@ -86,17 +95,15 @@ public class SphereParticleManagerSystem implements UpdateSystem, EntityEraseLis
 			return;
 		}
 
-		int lastBoundIndex = boundParticles.size() - 1;
-		if (removeIndex != lastBoundIndex) {
-			Entity movedEntity = boundParticles.get(lastBoundIndex);
-			boundParticles.set(removeIndex, movedEntity);
+		Entity movedEntity = boundParticles.remove(removeIndex);
+		if (movedEntity != null) {
 			movedEntity.sphereParticleComponent.particleManagerIndex = removeIndex;
-			FloatBuffer buffer = ByteBuffer.allocateDirect(SphereParticle.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
-			movedEntity.sphereParticleComponent.writeToBuffer(buffer, movedEntity.transform);
-			buffer.rewind();
-			particleBuffer.setSubData(buffer, 1, removeIndex); // overwrite data at removed index
 		}
-		particleBuffer.popLastVertex();
-		boundParticles.remove(lastBoundIndex);
+	}
+
+	private static void writeParticle(Entity entity, FloatBuffer target) {
+		SphereParticle particle = entity.sphereParticleComponent;
+		particle.particleDataChanged = false;
+		particle.writeToBuffer(target, entity.transform);
 	}
 }
@@ -7,13 +7,18 @@ import logging.LogbackLoggerProvider;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 import utils.input.InputManager;
+import utils.profiling.Profiler;
+import utils.scratch.ScratchArena;
 
 /**
  * Plug in this StateManager to run without frame-rate caps for benchmark purposes
  */
 public class BenchmarkStateManager implements IGameStateManager {
 	private static final Logger logger = LogbackLoggerProvider.getLogger(BenchmarkStateManager.class);
+	private static final String stateUpdateCategory = "state.update";
+	private static final String stateDrawCategory = "state.draw";
 	private static BenchmarkStateManager instance;
 
 	public static BenchmarkStateManager getInstance() {
@@ -143,7 +148,13 @@ public class BenchmarkStateManager implements IGameStateManager {
 
 		currentGameState = currentGameState == null ? gameStates.peek() : currentGameState;
 		while (true) {
-			currentGameState.update();
+			Profiler profiler = Profiler.getInstance();
+			if (profiler.isEnabled()) {
+				profiler.profile(stateUpdateCategory, currentGameState, currentGameState::update);
+			} else {
+				// no bound method reference per tick while profiling is off
+				currentGameState.update();
+			}
 			if (currentGameState.isFinished()) {
 				currentGameState.onExit();
 				gameStates.pop();
@@ -157,12 +168,16 @@ public class BenchmarkStateManager implements IGameStateManager {
 			}
 		}
 		EntityRegistry.getInstance().executeUpdate();
+		ScratchArena.get().reset();
+		Profiler.getInstance().reportIfDue();
 
-		GL45.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
-		currentGameState.draw();
+		GLFacade.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
+		Profiler.getInstance().profile(stateDrawCategory, currentGameState, currentGameState::draw);
 		EntityRegistry.getInstance().executeDraw();
+		ScratchArena.get().reset();
 		GLFW.glfwSwapBuffers(window);
-		GL45.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
+		GLFacade.endFrame();
+		GLFacade.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
 
 		return -1;
 	}
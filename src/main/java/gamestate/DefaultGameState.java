@@ -5,6 +5,7 @@ import camera.controls.FollowCamera;
 import logging.LogbackLoggerProvider;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 import rendering.programs.MarchingCubesRenderProgram;
 import rendering.programs.MeshRenderProgram;
 import rendering.programs.PostProcessingProgram;
@@ -32,7 +33,7 @@ public abstract class DefaultGameState extends BaseGameState {
 				new PerspectiveCamera(90f, 0.1f, 300f),
 				cameraPosition, new Vec3f(0f)
 		);
-		meshRenderProgram = meshRenderer ? new MeshRenderProgram() : null;
+		meshRenderProgram = meshRenderer ? new MeshRenderProgram(cameraControls.getCamera()) : null;
 		particleProgram = particleRenderer ? new SphereParticleProgram() : null;
 		postProcessingProgram = postProcessing ? new PostProcessingProgram() : null;
 		marchingCubesProgram = marchingCubes ? new MarchingCubesRenderProgram() : null;
@@ -87,7 +88,7 @@ public abstract class DefaultGameState extends BaseGameState {
 			marchingCubesProgram.execute();
 		}
 		if (postProcessing) {
-			GL45.glBindFramebuffer(GL45.GL_FRAMEBUFFER, 0);
+			GLFacade.glBindFramebuffer(GL45.GL_FRAMEBUFFER, 0);
 			postProcessingProgram.execute();
 		}
 	}
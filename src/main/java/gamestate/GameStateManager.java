@@ -7,10 +7,15 @@ import logging.LogbackLoggerProvider;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 import utils.input.InputManager;
+import utils.profiling.Profiler;
+import utils.scratch.ScratchArena;
 
 public class GameStateManager implements IGameStateManager{
 	private static final Logger logger = LogbackLoggerProvider.getLogger(GameStateManager.class);
+	private static final String stateUpdateCategory = "state.update";
+	private static final String stateDrawCategory = "state.draw";
 	private static final long noStateWaitDelayMillis = 1000L / 10L;
 	private static GameStateManager instance;
 
@@ -86,7 +91,13 @@ public class GameStateManager implements IGameStateManager{
 
 			currentGameState = currentGameState == null ? gameStates.peek() : currentGameState;
 			while (true) {
-				currentGameState.update();
+				Profiler profiler = Profiler.getInstance();
+				if (profiler.isEnabled()) {
+					profiler.profile(stateUpdateCategory, currentGameState, currentGameState::update);
+				} else {
+					// no bound method reference per tick while profiling is off
+					currentGameState.update();
+				}
 				if (currentGameState.isFinished()) {
 					currentGameState.onExit();
 					gameStates.pop();
@@ -100,18 +111,22 @@ public class GameStateManager implements IGameStateManager{
 				}
 			}
 			EntityRegistry.getInstance().executeUpdate();
+			ScratchArena.get().reset();
+			Profiler.getInstance().reportIfDue();
 		}
 
 		long millisUntilDraw = Time.graphicsDeltaMilliseconds - (now - lastDrawMillis);
 		if (millisUntilDraw <= 0 || newStateStarted) {
-			GL45.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
+			GLFacade.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
 			millisUntilDraw += Time.graphicsDeltaMilliseconds;
 			lastDrawMillis += Time.graphicsDeltaMilliseconds;
 			currentGameState = currentGameState == null ? gameStates.peek() : currentGameState;
-			currentGameState.draw();
+			Profiler.getInstance().profile(stateDrawCategory, currentGameState, currentGameState::draw);
 			EntityRegistry.getInstance().executeDraw();
+			ScratchArena.get().reset();
 			GLFW.glfwSwapBuffers(window);
-			GL45.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
+			GLFacade.endFrame();
+			GLFacade.glClear(GL45.GL_COLOR_BUFFER_BIT | GL45.GL_DEPTH_BUFFER_BIT);
 		}
 
 		return Math.min(millisUntilUpdate, millisUntilDraw);
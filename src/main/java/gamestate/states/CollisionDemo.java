@@ -1,5 +1,7 @@
 package gamestate.states;
 
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.Entity;
 import ecs.EntityRegistry;
 import ecs.UpdateSystem;
@@ -10,6 +12,7 @@ import ecs.components.RotationalVelocity;
 import ecs.components.SphereParticle;
 import ecs.components.Transform;
 import ecs.components.Velocity;
+import ecs.systems.CollisionSystem;
 import gamestate.DefaultGameState;
 import gamestate.Time;
 import java.util.ArrayList;
@@ -18,11 +21,7 @@ import org.lwjgl.glfw.GLFW;
 import rendering.mesh.MeshData;
 import rendering.texture.Sampler;
 import rendering.texture.Texture2D;
-import utils.collision.AxisAlignedBoundingBox;
-import utils.collision.ITreeProcessor;
-import utils.collision.OcTree;
 import utils.input.InputManager;
-import utils.operator.Operator;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathOOP;
 import utils.vector.Vec3f;
@@ -31,13 +30,19 @@ import utils.vector.Vec4f;
 public class CollisionDemo extends DefaultGameState {
 
 	public static final float boxSize = 20f;
+	private static final int targetLayer = 1;
+	private static final int projectileLayer = 1 << 1;
 
 	private final MeshData sphereMeshData = MeshData.loadFromFile("models/sphere.obj", false);
 	private final Texture2D planetTexture = Texture2D.fromResource("textures/planet1.png", Sampler.linearMirroredSampler);
 	private final Texture2D planetPhong = Texture2D.fromResource("textures/Planet1_phong.png", Sampler.linearMirroredSampler);
 
 	private final Random random = new Random();
-	private final OcTree<Entity> collisionTree = new OcTree<>(16f);
+	private final CollisionSystem.CollisionListener projectileHitListener = (entityA, entityB) -> {
+		// layer masks only let projectile-target pairs through
+		Entity target = entityA.aabbCollider.getCollisionLayer() == targetLayer ? entityA : entityB;
+		EntityRegistry.getInstance().enqueueEraseEntity(target);
+	};
 
 	private final ArrayList<Entity> targetEntities = new ArrayList<>();
 	private double nextTargetSpawnInSeconds = 0;
@@ -50,6 +55,7 @@ public class CollisionDemo extends DefaultGameState {
 		super("CollisionDemo", new Vec3f(1.4f, 1.4f, 1.4f), new Vec3f(0f, 0f, -7f),
 				true, true, false, false);
 		super.init();
+		CollisionSystem.getInstance().addCollisionListener(projectileHitListener);
 	}
 
 	private void createBullet() {
@@ -58,8 +64,8 @@ public class CollisionDemo extends DefaultGameState {
 		Entity bullet = EntityRegistry.getInstance().createEntity();
 		bullet.transform = new Transform(spawnPosition, Quaternion.identity(), new Vec3f(0.1f));
 		bullet.sphereParticleComponent = new SphereParticle(-0.1f, new Vec4f(1.6f, 1.6f, 0f, 1f), new Vec4f(0.7f, 0.8f, 0f, 1f));
-		bullet.aabbCollider = AABBCollider.unitBounds();
-		bullet.velocityComponent = new Velocity(bulletDirection.apply(Operator.Mul, 10f));
+		bullet.aabbCollider = AABBCollider.unitBounds().setCollisionLayer(projectileLayer).setCollisionMask(targetLayer).setFastMover(true);
+		bullet.velocityComponent = new Velocity(bulletDirection.mulInPlace(10f));
 		projectileEntities.add(bullet);
 	}
 
@@ -79,7 +85,7 @@ public class CollisionDemo extends DefaultGameState {
 			targetEntity.meshComponent = new Mesh(sphereMeshData, planetTexture, planetPhong, null, null);
 			targetEntity.velocityComponent = new Velocity(direction);
 			targetEntity.rotationalVelocity = new RotationalVelocity(angularVelocity);
-			targetEntity.aabbCollider = AABBCollider.unitBounds();
+			targetEntity.aabbCollider = AABBCollider.unitBounds().setCollisionLayer(targetLayer).setCollisionMask(projectileLayer);
 			targetEntities.add(targetEntity);
 		}
 	}
@@ -94,6 +100,11 @@ public class CollisionDemo extends DefaultGameState {
 
 		if (!targetEntities.isEmpty()) {
 			EntityRegistry.getInstance().executeUpdateSystem(new UpdateSystem() {
+				@Override
+				public ComponentSignature getRequiredComponents() {
+					return ComponentSignature.of(ComponentType.transform, ComponentType.velocity);
+				}
+
 				@Override
 				public boolean isTargetEntity_updateTick(Entity entity) {
 					return entity.transform != null && entity.velocityComponent != null;
@@ -115,26 +126,6 @@ public class CollisionDemo extends DefaultGameState {
 				}
 			});
 
-			for (Entity targetEntity : targetEntities) {
-				collisionTree.insert(targetEntity.aabbCollider.getAABB(targetEntity.transform), targetEntity);
-			}
-			for (Entity projectileEntity : projectileEntities) {
-				AxisAlignedBoundingBox bulletAABB = projectileEntity.aabbCollider.getAABB(projectileEntity.transform);
-				collisionTree.traverse(new ITreeProcessor<>() {
-					@Override
-					public boolean descend(AxisAlignedBoundingBox nodeBox) {
-						return nodeBox.isIntersecting(bulletAABB);
-					}
-
-					@Override
-					public void process(Entity hit) {
-						if (hit.aabbCollider.getOldAABB().isIntersecting(bulletAABB)) {
-							EntityRegistry.getInstance().enqueueEraseEntity(hit);
-						}
-					}
-				});
-			}
-			collisionTree.clear();
 			targetEntities.removeIf(Entity::isExpired);
 		}
 
@@ -151,6 +142,7 @@ public class CollisionDemo extends DefaultGameState {
 
 	@Override
 	public void onExit() {
+		CollisionSystem.getInstance().removeCollisionListener(projectileHitListener);
 		for (Entity targetEntity : targetEntities) {
 			EntityRegistry.getInstance().eraseEntity(targetEntity);
 		}
@@ -15,7 +15,6 @@ import rendering.mesh.MeshData;
 import rendering.texture.Sampler;
 import rendering.texture.Texture2D;
 import utils.input.InputManager;
-import utils.operator.Operator;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathOOP;
 import utils.vector.Vec3f;
@@ -45,7 +44,7 @@ public class FreeFallDemo extends DefaultGameState {
 			nextEntitySpawnInSeconds = 0.25;
 
 			Vec3f position = new Vec3f(random.nextFloat(-4f, 4f), 15, random.nextFloat(-4f, 4f));
-			Vec3f scale = new Vec3f(1f).apply(Operator.Mul, random.nextFloat(0.1f, 1.5f));
+			Vec3f scale = new Vec3f(1f).mulInPlace(random.nextFloat(0.1f, 1.5f));
 			Entity entity = EntityRegistry.getInstance().createEntity();
 			entity.transform = new Transform(position, Quaternion.identity(), scale);
 			entity.meshComponent = new Mesh(sphereMeshData, planetTexture, planetPhong, null, null);
@@ -17,7 +17,6 @@ import rendering.texture.ITexture;
 import rendering.texture.Sampler;
 import rendering.texture.Texture2D;
 import utils.input.InputManager;
-import utils.operator.Operator;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathOOP;
 import utils.vector.Vec3f;
@@ -68,7 +67,7 @@ public class LightDemo extends DefaultGameState {
 			lightEntity.transform = new Transform(position, rotation, new Vec3f(0.1f));
 			lightEntity.sphereParticleComponent = new SphereParticle(
 					-0.15f,
-					new Vec4f(color.copy().apply(Operator.Add, 0.5f), 1f),
+					new Vec4f(color.copy().addInPlace(0.5f), 1f),
 					new Vec4f(color, 1f)
 			);
 			activeLights.add(lightEntity);
@@ -99,9 +98,9 @@ public class LightDemo extends DefaultGameState {
 
 		if (InputManager.getInstance().getKeyDown(GLFW.GLFW_KEY_F)) {
 			for (Entity activeLight : activeLights) {
-				Vec3f newColor = new Vec3f(1f).apply(Operator.Sub, activeLight.lightComponent.getColor());
+				Vec3f newColor = new Vec3f(1f).subInPlace(activeLight.lightComponent.getColor());
 				activeLight.lightComponent.setColor(newColor);
-				activeLight.sphereParticleComponent.setColorInner(new Vec4f(newColor.copy().apply(Operator.Add, 0.5f), 1f));
+				activeLight.sphereParticleComponent.setColorInner(new Vec4f(newColor.copy().addInPlace(0.5f), 1f));
 				activeLight.sphereParticleComponent.setColorOuter(new Vec4f(newColor, 1f));
 			}
 		}
@@ -109,7 +108,7 @@ public class LightDemo extends DefaultGameState {
 		if (InputManager.getInstance().getKeyDown(GLFW.GLFW_KEY_SPACE)) {
 			Vec3f cameraForward = cameraControls.getCamera().getForward();
 			float zDelta = cameraControls.getCamera().getPosition().data[2] / cameraForward.data[2];
-			Vec3f spawnPosition = cameraForward.copy().apply(Operator.Mul, -zDelta).apply(Operator.Add, cameraControls.getCamera().getPosition());
+			Vec3f spawnPosition = cameraForward.copy().mulInPlace(-zDelta).addInPlace(cameraControls.getCamera().getPosition());
 			Entity shockwaveEntity = EntityRegistry.getInstance().createEntity();
 			shockwaveEntity.shockwaveComponent = new Shockwave(0f, -0.16f, 8f);
 			shockwaveEntity.shockwaveExpandingAnimator = new ShockwaveExpandingAnimator(0.9f, 8f, -0.16f, 2f);
@@ -15,6 +15,8 @@ import ecs.components.ScaleVelocity;
 import ecs.components.SphereParticle;
 import ecs.components.Transform;
 import ecs.components.Velocity;
+import ecs.systems.ApplyVelocitySystem;
+import ecs.systems.ComputeDataSystem;
 import gamestate.BaseGameState;
 import gamestate.Time;
 import java.util.ArrayList;
@@ -23,6 +25,7 @@ import logging.LogbackLoggerProvider;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 import rendering.mesh.MeshData;
 import rendering.programs.MeshRenderProgram;
 import rendering.programs.PostProcessingProgram;
@@ -33,9 +36,10 @@ import rendering.texture.Sampler;
 import rendering.texture.Texture2D;
 import utils.input.InputManager;
 import utils.operator.Operator;
+import utils.operator.OperatorKernels;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathIP;
-import utils.quaternion.QuaternionMathOOP;
+import utils.scratch.ScratchArena;
 import utils.vector.Vec2f;
 import utils.vector.Vec3f;
 import utils.vector.Vec4f;
@@ -43,7 +47,15 @@ import utils.vector.Vec4f;
 public class SpaceSim extends BaseGameState {
 
 	private static final Logger logger = LogbackLoggerProvider.getLogger(SpaceSim.class);
-
+	// thruster particles keep their velocity, so they are integrated in bulk by the transform store of the ApplyVelocitySystem
+	private static final boolean storeParticleTransforms = !Boolean.getBoolean("spacesim.plainParticleTransforms");
+
+	private static final Vec3f upDirection = Vec3f.up();
+	private static final Vec3f downDirection = Vec3f.down();
+	private static final Vec3f rightDirection = Vec3f.right();
+	private static final Vec3f leftDirection = Vec3f.left();
+	private static final Vec3f forwardDirection = Vec3f.forward();
+	private static final Vec3f backwardDirection = Vec3f.backward();
 	private static final Vec3f[] cannonOffsets = new Vec3f[]{
 			new Vec3f(-6.6f, 0.8f, 0.58f),
 			new Vec3f(-2.4f, -0.6f, -0.45f),
@@ -62,11 +74,11 @@ public class SpaceSim extends BaseGameState {
 	private final Texture2D starSparrowPhong = Texture2D.fromResource("models/starSparrow/phong.png", Sampler.linearMirroredSampler);
 	private final Texture2D starSparrowNormal = Texture2D.fromResource("models/starSparrow/normal.png", Sampler.linearMirroredSampler);
 
-	private final MeshRenderProgram meshRenderProgram = new MeshRenderProgram();
+	private final BaseCamera baseCamera = new PerspectiveCamera(90f, 0.1f, 20_000f);
+	private final MeshRenderProgram meshRenderProgram = new MeshRenderProgram(baseCamera);
 	private final SphereParticleProgram particleProgram = new SphereParticleProgram();
 	private final PostProcessingProgram postProcessingProgram = new PostProcessingProgram();
 
-	private final BaseCamera baseCamera = new PerspectiveCamera(90f, 0.1f, 20_000f);
 	private final Vec2f mouseSensitivity = new Vec2f(2f);
 	private final int cameraRotationButton = GLFW.GLFW_MOUSE_BUTTON_LEFT;
 	private final int cameraForwardKey = GLFW.GLFW_KEY_I;
@@ -108,6 +120,8 @@ public class SpaceSim extends BaseGameState {
 		meshRenderProgram.forceBindData();
 		particleProgram.forceBindData();
 		postProcessingProgram.forceBindData();
+		// thousands of thruster particles change every tick, batched mode splits their recompute evenly over the workers
+		ComputeDataSystem.getInstance().setBatched(true);
 		loadEntities();
 		printControls();
 	}
@@ -126,33 +140,41 @@ public class SpaceSim extends BaseGameState {
 	private void spawnThrusterParticle(Transform shipTransform, Velocity shipVelocity, Vec3f spawnOffset,
 									   Vec3f ejectionDirection, Vec3f spreadDirectionA, Vec3f spreadDirectionB) {
 		float speedValue = random.nextFloat(5f, 10f);
-		Vec3f ejectionVector = new Vec3f();
-		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
-			ejectionVector.data[i] = (ejectionDirection.data[i] * speedValue)
-					+ (spreadDirectionA.data[i] * random.nextFloat(-0.5f, 0.5f))
-					+ (spreadDirectionB.data[i] * random.nextFloat(-0.5f, 0.5f));
+		Vec3f velocity = new Vec3f();
+		Vec3f spawnPosition;
+		ScratchArena arena = ScratchArena.get();
+		try (ScratchArena.Scope scope = arena.push()) {
+			Vec3f ejectionVector = arena.vec3();
+			for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+				ejectionVector.data[i] = (ejectionDirection.data[i] * speedValue)
+						+ (spreadDirectionA.data[i] * random.nextFloat(-0.5f, 0.5f))
+						+ (spreadDirectionB.data[i] * random.nextFloat(-0.5f, 0.5f));
+			}
+			QuaternionMathIP.rotate(velocity, shipTransform.getRotation(), ejectionVector);
+			spawnPosition = new Vec3f(
+					random.nextFloat(-0.1f, 0.1f),
+					random.nextFloat(-0.1f, 0.1f),
+					random.nextFloat(-0.1f, 0.1f)
+			)
+					.addInPlace(QuaternionMathIP.rotate(arena.vec3(), shipTransform.getRotation(), spawnOffset))
+					.addInPlace(shipTransform.getPosition());
 		}
-		Vec3f velocity = QuaternionMathOOP.rotate(shipTransform.getRotation(), ejectionVector);
-		Vec3f spawnPosition = new Vec3f(
-				random.nextFloat(-0.1f, 0.1f),
-				random.nextFloat(-0.1f, 0.1f),
-				random.nextFloat(-0.1f, 0.1f)
-		)
-				.apply(Operator.Add, QuaternionMathIP.rotate(shipTransform.getRotation(), spawnOffset))
-				.apply(Operator.Add, shipTransform.getPosition());
 		float radius = random.nextFloat(-0.03f, -0.01f);
 		Entity particleEntity = EntityRegistry.getInstance().createEntity();
-		particleEntity.velocityComponent = new Velocity(velocity.apply(Operator.Add, shipVelocity.getVelocity()));
+		particleEntity.velocityComponent = new Velocity(velocity.addInPlace(shipVelocity.getVelocity()));
 		particleEntity.lifeTimeComponent = new LifeTime(2f);
 		particleEntity.transform = new Transform(spawnPosition, Quaternion.identity(), new Vec3f(Math.abs(radius)));
 		particleEntity.sphereParticleComponent = new SphereParticle(radius, new Vec4f(1.6f, 1.6f, 1.6f, 1.0f), new Vec4f(1.0f, 1.0f, 1.0f, 1.0f));
+		if (storeParticleTransforms) {
+			ApplyVelocitySystem.getInstance().registerInStore(particleEntity);
+		}
 	}
 
 	private void spawnProjectile(Transform shipTransform, Vec3f spawnOffset, Vec3f velocity) {
 		Entity projectileEntity = EntityRegistry.getInstance().createEntity();
 		projectileEntity.meshComponent = new Mesh(lowPolyIcoSphereSmoothedInverted, null, null, null, null);
 		projectileEntity.transform = new Transform(
-				QuaternionMathIP.rotate(shipTransform.getRotation(), spawnOffset).apply(Operator.Add, shipTransform.getPosition()),
+				QuaternionMathIP.rotate(shipTransform.getRotation(), spawnOffset).addInPlace(shipTransform.getPosition()),
 				shipTransform.getRotation().copy(),
 				new Vec3f(0.1f)
 		);
@@ -201,7 +223,7 @@ public class SpaceSim extends BaseGameState {
 		for (int x = -49; x < 50; x += 10) {
 			for (int y = -49; y < 50; y += 10) {
 				for (int z = -49; z < 50; z += 10) {
-					Vec3f position = playerPosition.copy().apply(Operator.Add,
+					Vec3f position = playerPosition.copy().addInPlace(
 							x + random.nextFloat(-3f, 3f),
 							y + random.nextFloat(-3f, 3f),
 							z + random.nextFloat(-3f, 3f)
@@ -260,6 +282,8 @@ public class SpaceSim extends BaseGameState {
 		Transform shipTransform = playerShipEntity.transform;
 		Velocity shipVelocity = playerShipEntity.velocityComponent;
 		RotationalVelocity shipRotationVelocity = playerShipEntity.rotationalVelocity;
+		// temporaries live until the frame reset of the game loop
+		ScratchArena arena = ScratchArena.get();
 
 		final float shipPitchSensitivity = 0.25f;
 		final float shipRollSensitivity = 0.25f;
@@ -271,57 +295,53 @@ public class SpaceSim extends BaseGameState {
 		final float projectileVelocityVal = 200f;
 
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_W)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Add, Time.physicsDeltaSecondsF * shipPitchSensitivity, 0f, 0f);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(0f, 0.04f, 4.77f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(0f, -0.93f, -3.9f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
+			shipRotationVelocity.eulerAngleVelocity.addInPlace(Time.physicsDeltaSecondsF * shipPitchSensitivity, 0f, 0f);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(0f, 0.04f, 4.77f), upDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(0f, -0.93f, -3.9f), downDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_S)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Sub, Time.physicsDeltaSecondsF * shipPitchSensitivity, 0f, 0f);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(0f, -0.43f, 4.77f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(0f, 0.3f, -3.9f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
+			shipRotationVelocity.eulerAngleVelocity.subInPlace(Time.physicsDeltaSecondsF * shipPitchSensitivity, 0f, 0f);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(0f, -0.43f, 4.77f), downDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(0f, 0.3f, -3.9f), upDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_A)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Add, 0f, 0f, Time.physicsDeltaSecondsF * shipRollSensitivity);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.16f, 0.33f, -1.0f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.16f, -0.73f, -1.0f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
+			shipRotationVelocity.eulerAngleVelocity.addInPlace(0f, 0f, Time.physicsDeltaSecondsF * shipRollSensitivity);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.16f, 0.33f, -1.0f), upDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.16f, -0.73f, -1.0f), downDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_D)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Sub, 0f, 0f, Time.physicsDeltaSecondsF * shipRollSensitivity);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.16f, 0.33f, -1.0f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.16f, -0.73f, -1.0f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
+			shipRotationVelocity.eulerAngleVelocity.subInPlace(0f, 0f, Time.physicsDeltaSecondsF * shipRollSensitivity);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.16f, 0.33f, -1.0f), upDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.16f, -0.73f, -1.0f), downDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_Q)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Sub, 0f, Time.physicsDeltaSecondsF * shipYawSensitivity, 0f);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.18f, -0.25f, -0.185f), Vec3f.forward(), Vec3f.right(), Vec3f.up());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.18f, -0.25f, -4.21f), Vec3f.backward(), Vec3f.right(), Vec3f.up());
+			shipRotationVelocity.eulerAngleVelocity.subInPlace(0f, Time.physicsDeltaSecondsF * shipYawSensitivity, 0f);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.18f, -0.25f, -0.185f), forwardDirection, rightDirection, upDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.18f, -0.25f, -4.21f), backwardDirection, rightDirection, upDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_E)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Add, 0f, Time.physicsDeltaSecondsF * shipYawSensitivity, 0f);
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.18f, -0.25f, -0.185f), Vec3f.forward(), Vec3f.right(), Vec3f.up());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.18f, -0.25f, -4.21f), Vec3f.backward(), Vec3f.right(), Vec3f.up());
+			shipRotationVelocity.eulerAngleVelocity.addInPlace(0f, Time.physicsDeltaSecondsF * shipYawSensitivity, 0f);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.18f, -0.25f, -0.185f), forwardDirection, rightDirection, upDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.18f, -0.25f, -4.21f), backwardDirection, rightDirection, upDirection);
 		}
 
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_UP)) {
-			shipVelocity.getVelocity().apply(Operator.Add,
-					QuaternionMathIP.rotate(shipTransform.getRotation(), new Vec3f(0f, Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f)));
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.16f, -0.73f, -1f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.16f, -0.73f, -1f), Vec3f.down(), Vec3f.right(), Vec3f.forward());
+			shipVelocity.getVelocity().addInPlace(QuaternionMathIP.rotate(shipTransform.getRotation(), arena.vec3(0f, Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f)));
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.16f, -0.73f, -1f), downDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.16f, -0.73f, -1f), downDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_DOWN)) {
-			shipVelocity.getVelocity().apply(Operator.Sub,
-					QuaternionMathIP.rotate(shipTransform.getRotation(), new Vec3f(0f, Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f)));
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.16f, 0.33f, -1f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.16f, 0.33f, -1f), Vec3f.up(), Vec3f.right(), Vec3f.forward());
+			shipVelocity.getVelocity().subInPlace(QuaternionMathIP.rotate(shipTransform.getRotation(), arena.vec3(0f, Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f)));
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.16f, 0.33f, -1f), upDirection, rightDirection, forwardDirection);
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.16f, 0.33f, -1f), upDirection, rightDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_LEFT)) {
-			shipVelocity.getVelocity().apply(Operator.Sub,
-					QuaternionMathIP.rotate(shipTransform.getRotation(), new Vec3f(Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f, 0f)));
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.85f, -0.23f, -1f), Vec3f.right(), Vec3f.up(), Vec3f.forward());
+			shipVelocity.getVelocity().subInPlace(QuaternionMathIP.rotate(shipTransform.getRotation(), arena.vec3(Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f, 0f)));
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.85f, -0.23f, -1f), rightDirection, upDirection, forwardDirection);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_RIGHT)) {
-			shipVelocity.getVelocity().apply(Operator.Add,
-					QuaternionMathIP.rotate(shipTransform.getRotation(), new Vec3f(Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f, 0f)));
-			spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.85f, -0.23f, -1f), Vec3f.left(), Vec3f.up(), Vec3f.forward());
+			shipVelocity.getVelocity().addInPlace(QuaternionMathIP.rotate(shipTransform.getRotation(), arena.vec3(Time.physicsDeltaSecondsF * shipStrafeSensitivity, 0f, 0f)));
+			spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.85f, -0.23f, -1f), leftDirection, upDirection, forwardDirection);
 		}
 
 		if (InputManager.getInstance().getKeyDown(GLFW.GLFW_KEY_R)) {
@@ -346,22 +366,22 @@ public class SpaceSim extends BaseGameState {
 		}
 		if (currentPlayerThrottle != 0) {
 			float throttleFactor = new float[]{-3f, -1f, 0f, 1f, 2f, 4f, 6f, 12f}[currentPlayerThrottle + 2];
-			shipVelocity.getVelocity().apply(Operator.Add, QuaternionMathIP.rotate(
+			shipVelocity.getVelocity().addInPlace(QuaternionMathIP.rotate(
 					shipTransform.getRotation(),
-					new Vec3f(0f, 0f, Time.physicsDeltaSecondsF * shipThrustFactor * throttleFactor)
+					arena.vec3(0f, 0f, Time.physicsDeltaSecondsF * shipThrustFactor * throttleFactor)
 			));
 			if (currentPlayerThrottle < 0) {
-				spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(-3.18f, -0.25f, -0.185f), Vec3f.forward(), Vec3f.right(), Vec3f.up());
-				spawnThrusterParticle(shipTransform, shipVelocity, new Vec3f(3.18f, -0.25f, -0.185f), Vec3f.forward(), Vec3f.right(), Vec3f.up());
+				spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(-3.18f, -0.25f, -0.185f), forwardDirection, rightDirection, upDirection);
+				spawnThrusterParticle(shipTransform, shipVelocity, arena.vec3(3.18f, -0.25f, -0.185f), forwardDirection, rightDirection, upDirection);
 			}
 		}
 
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_X)) {
-			shipRotationVelocity.eulerAngleVelocity.apply(Operator.Mul, shipRotationDampFactor);
+			shipRotationVelocity.eulerAngleVelocity.mulInPlace(shipRotationDampFactor);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_C)) {
-			Vec3f dampingThrust = shipVelocity.getVelocity().copy().normalize().apply(Operator.Mul, (-Time.physicsDeltaSecondsF) * shipVelocityDampFactor);
-			shipVelocity.getVelocity().apply(Operator.Add, dampingThrust);
+			Vec3f dampingThrust = arena.vec3(shipVelocity.getVelocity()).normalize().mulInPlace((-Time.physicsDeltaSecondsF) * shipVelocityDampFactor);
+			shipVelocity.getVelocity().addInPlace(dampingThrust);
 		}
 
 		if (cannonCoolDownSecondsLeft > 0) {
@@ -371,7 +391,7 @@ public class SpaceSim extends BaseGameState {
 			Vec3f cannonOffset_left = cannonOffsets[currentCannonIndex].copy();
 			Vec3f cannonOffset_right = cannonOffset_left.copy().apply(Operator.Mul, -1f, 1f, 1f);
 			Vec3f projectileVelocity = QuaternionMathIP.rotate(shipTransform.getRotation(), new Vec3f(0f, 0f, projectileVelocityVal))
-					.apply(Operator.Add, shipVelocity.getVelocity());
+					.addInPlace(shipVelocity.getVelocity());
 			spawnProjectile(shipTransform, cannonOffset_left, projectileVelocity);
 			spawnProjectile(shipTransform, cannonOffset_right, projectileVelocity);
 			currentCannonIndex = (currentCannonIndex + 1) % 4;
@@ -392,7 +412,7 @@ public class SpaceSim extends BaseGameState {
 		Vec3f positionDelta = new Vec3f();
 		for (Entity speedParticle : speedParticles) {
 			Vec3f particlePosition = speedParticle.transform.getPosition();
-			Operator.Sub.apply(positionDelta.data, 0, particlePosition.data, 0, cameraPosition.data, 0, Vec3f.DATA_LEN);
+			OperatorKernels.sub(positionDelta.data, 0, particlePosition.data, 0, cameraPosition.data, 0, Vec3f.DATA_LEN);
 			boolean positionChanged = positionDelta.data[0] < -50f || positionDelta.data[0] > 50f
 					|| positionDelta.data[1] < -50f || positionDelta.data[1] > 50f
 					|| positionDelta.data[2] < -50f || positionDelta.data[2] > 50f;
@@ -416,7 +436,7 @@ public class SpaceSim extends BaseGameState {
 		meshRenderProgram.execute();
 		particleProgram.execute();
 
-		GL45.glBindFramebuffer(GL45.GL_FRAMEBUFFER, 0);
+		GLFacade.glBindFramebuffer(GL45.GL_FRAMEBUFFER, 0);
 		postProcessingProgram.execute();
 	}
 
@@ -426,11 +446,13 @@ public class SpaceSim extends BaseGameState {
 		meshRenderProgram.forceBindData();
 		particleProgram.forceBindData();
 		postProcessingProgram.forceBindData();
+		ComputeDataSystem.getInstance().setBatched(true);
 		printControls();
 	}
 
 	@Override
 	public void onPause() {
+		ComputeDataSystem.getInstance().setBatched(ComputeDataSystem.batchedByDefault);
 		logger.info("===== SpaceSim State paused =====");
 	}
 
@@ -442,6 +464,7 @@ public class SpaceSim extends BaseGameState {
 
 	@Override
 	public void onExit() {
+		ComputeDataSystem.getInstance().setBatched(ComputeDataSystem.batchedByDefault);
 		for (Entity entity : solarSystemEntities) {
 			EntityRegistry.getInstance().eraseEntity(entity);
 		}
@@ -13,7 +13,6 @@ import rendering.mesh.MeshData;
 import rendering.texture.Sampler;
 import rendering.texture.Texture2D;
 import utils.input.InputManager;
-import utils.operator.Operator;
 import utils.quaternion.Quaternion;
 import utils.quaternion.QuaternionMathOOP;
 import utils.vector.Vec3f;
@@ -62,16 +61,16 @@ public class SpringDemo extends DefaultGameState {
 		Light lightComponent = lightSource.lightComponent;
 		Transform lightTransform = lightSource.transform;
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_UP)) {
-			lightTransform.setDirty().getPosition().apply(Operator.Add, 0f, spotLightMoveStep, 0f);
+			lightTransform.setDirty().getPosition().addInPlace(0f, spotLightMoveStep, 0f);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_DOWN)) {
-			lightTransform.setDirty().getPosition().apply(Operator.Add, 0f, -spotLightMoveStep, 0f);
+			lightTransform.setDirty().getPosition().addInPlace(0f, -spotLightMoveStep, 0f);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_LEFT)) {
-			lightTransform.setDirty().getPosition().apply(Operator.Add, -spotLightMoveStep, 0f, 0f);
+			lightTransform.setDirty().getPosition().addInPlace(-spotLightMoveStep, 0f, 0f);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_RIGHT)) {
-			lightTransform.setDirty().getPosition().apply(Operator.Add, spotLightMoveStep, 0f, 0f);
+			lightTransform.setDirty().getPosition().addInPlace(spotLightMoveStep, 0f, 0f);
 		}
 		if (InputManager.getInstance().getKey(GLFW.GLFW_KEY_R)) {
 			lightComponent.setSpotAngle(lightComponent.getSpotAngle() + spotLightAngleStep);
@@ -94,7 +93,7 @@ public class SpringDemo extends DefaultGameState {
 		double displacementVelocity = displacementAcceleration * Time.physicsDeltaSeconds;
 		double accelerationDistance = displacementAcceleration * Time.physicsDeltaSecondsSquared * 0.5;
 		double totalTravelDistance = (planetVelocity * Time.physicsDeltaSeconds) + accelerationDistance;
-		planetPosition.apply(Operator.Add, (float) totalTravelDistance, 0f, 0f);
+		planetPosition.addInPlace((float) totalTravelDistance, 0f, 0f);
 		planetVelocity += (float) displacementVelocity;
 		planetTransform.setDirty();
 	}
@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
 import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.texture.ITexture;
 import rendering.texture.Sampler;
 
@@ -33,7 +34,7 @@ public class RGBFloatTexture implements ITexture {
 	private boolean isDeleted = false;
 
 	public RGBFloatTexture(Sampler sampler, int width, int height) {
-		textureID = GL45.glGenTextures();
+		textureID = GLFacade.glGenTextures();
 		this.sampler = sampler;
 
 		this.width = width;
@@ -65,9 +66,9 @@ public class RGBFloatTexture implements ITexture {
 			throw new IllegalStateException("cannot call 'recompute' on deleted Texture!");
 		}
 
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
-		GL45.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, width, height, 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
-		GL45.glGenerateMipmap(GL45.GL_TEXTURE_2D);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, width, height, 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
+		GLFacade.glGenerateMipmap(GL45.GL_TEXTURE_2D);
 	}
 
 	public BufferedImage toImage() {
@@ -94,8 +95,8 @@ public class RGBFloatTexture implements ITexture {
 		if (isDeleted) {
 			throw new IllegalStateException("cannot call 'bindTexture' of deleted Texture!");
 		}
-		GL45.glActiveTexture(GL45.GL_TEXTURE0 + slot);
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glActiveTexture(GL45.GL_TEXTURE0 + slot);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 		sampler.bind(slot);
 	}
 
@@ -104,8 +105,8 @@ public class RGBFloatTexture implements ITexture {
 		if (isDeleted) {
 			return;
 		}
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, 0);
-		GL45.glDeleteTextures(textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, 0);
+		GLFacade.glDeleteTextures(textureID);
 		isDeleted = true;
 	}
 }
@@ -3,6 +3,7 @@ package main;
 import ecs.EntityRegistry;
 import ecs.systems.ApplyScaleVelocitySystem;
 import ecs.systems.ApplyVelocitySystem;
+import ecs.systems.CollisionSystem;
 import ecs.systems.ComputeDataSystem;
 import ecs.systems.LifeTimeLightIntensitySystem;
 import ecs.systems.LifeTimeSystem;
@@ -22,6 +23,7 @@ import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 import utils.WindowInfo;
 import utils.input.InputManager;
 
@@ -71,7 +73,7 @@ public class Main {
 	}
 
 	public static void checkError() {
-		int glError = GL45.glGetError();
+		int glError = GLFacade.glGetError();
 		if (glError != GL45.GL_NO_ERROR) {
 			switch (glError) {
 				case GL45.GL_INVALID_ENUM -> logger.error("GL_INVALID_ENUM");
@@ -87,8 +89,8 @@ public class Main {
 
 	public void run() {
 		GL.createCapabilities();
-		GL45.glClearColor(0.05f, 0f, 0.05f, 1f);
-		GL45.glEnable(GL45.GL_DEPTH_TEST);
+		GLFacade.glClearColor(0.05f, 0f, 0.05f, 1f);
+		GLFacade.glEnable(GL45.GL_DEPTH_TEST);
 
 		EntityRegistry.getInstance().registerSystem(ApplyVelocitySystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(ApplyScaleVelocitySystem.getInstance());
@@ -97,11 +99,13 @@ public class Main {
 		EntityRegistry.getInstance().registerSystem(RotationalVelocitySystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(LifeTimeLightIntensitySystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(LifeTimeSystem.getInstance());
+		EntityRegistry.getInstance().registerSystem(CollisionSystem.getInstance());
 
 		EntityRegistry.getInstance().registerSystem(ComputeDataSystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(LightManagerSystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(SphereParticleManagerSystem.getInstance());
 		EntityRegistry.getInstance().registerSystem(ShockwaveManagerSystem.getInstance());
+		logger.debug(EntityRegistry.getInstance().describeSchedule());
 
 		IGameStateManager.startGameState(MainState.class);
 
@@ -6,8 +6,9 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.Arrays;
 import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 
-public class GeometryBuffer {
+public class GeometryBuffer implements IGpuArrayBackend {
 
 	private final int glDrawMode;
 	private final int vertexArrayObjectID;
@@ -28,32 +29,32 @@ public class GeometryBuffer {
 		this.glDrawMode = glDrawMode;
 		this.indexed = indexed;
 
-		vertexArrayObjectID = GL45.glGenVertexArrays();
-		GL45.glBindVertexArray(vertexArrayObjectID);
+		vertexArrayObjectID = GLFacade.glGenVertexArrays();
+		GLFacade.glBindVertexArray(vertexArrayObjectID);
 
-		vertexBufferObjectID = GL45.glGenBuffers();
-		GL45.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		vertexBufferObjectID = GLFacade.glGenBuffers();
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
 
 		currentCapacity = initialCapacity * Float.BYTES;
-		GL45.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
+		GLFacade.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
 
 		{
 			vertexSize = Arrays.stream(floatComponentCounts).sum() * Float.BYTES;
 			long offset = 0;
 			int index = 0;
 			for (int floatComponentCount : floatComponentCounts) {
-				GL45.glEnableVertexAttribArray(index);
-				GL45.glVertexAttribPointer(index, floatComponentCount, GL45.GL_FLOAT, false, vertexSize, offset);
+				GLFacade.glEnableVertexAttribArray(index);
+				GLFacade.glVertexAttribPointer(index, floatComponentCount, GL45.GL_FLOAT, false, vertexSize, offset);
 				offset += ((long) floatComponentCount * Float.BYTES);
 				index++;
 			}
 		}
 
 		if (indexed) {
-			indexBufferObjectID = GL45.glGenBuffers();
-			GL45.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
+			indexBufferObjectID = GLFacade.glGenBuffers();
+			GLFacade.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
 			currentIndexCapacity = initialIndexCapacity * Integer.BYTES;
-			GL45.glBufferData(GL45.GL_ELEMENT_ARRAY_BUFFER, currentIndexCapacity, GL45.GL_STATIC_DRAW);
+			GLFacade.glBufferData(GL45.GL_ELEMENT_ARRAY_BUFFER, currentIndexCapacity, GL45.GL_STATIC_DRAW);
 		} else {
 			indexBufferObjectID = -1;
 		}
@@ -61,12 +62,12 @@ public class GeometryBuffer {
 
 	public void setData(float[] data) {
 		long dataSize = (long) data.length * Float.BYTES;
-		GL45.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
 		if (dataSize > currentCapacity) {
 			currentCapacity = Math.max(dataSize, currentCapacity * 3 / 2);
-			GL45.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
+			GLFacade.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
 		}
-		GL45.glBufferSubData(GL45.GL_ARRAY_BUFFER, 0, data);
+		GLFacade.glBufferSubData(GL45.GL_ARRAY_BUFFER, 0, data);
 
 		vertexCount = (int) (dataSize / vertexSize);
 	}
@@ -74,11 +75,11 @@ public class GeometryBuffer {
 	private void checkSubDataResize(long dataSize, long offset) {
 		if (dataSize + offset > currentCapacity) {
 			IntBuffer prevBuffer = ByteBuffer.allocateDirect((int) currentCapacity).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
-			GL45.glGetBufferSubData(GL45.GL_ARRAY_BUFFER, 0, prevBuffer);
+			GLFacade.glGetBufferSubData(GL45.GL_ARRAY_BUFFER, 0, prevBuffer);
 			currentCapacity = Math.max(offset + dataSize, currentCapacity * 3 / 2);
-			GL45.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
+			GLFacade.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
 			prevBuffer.rewind();
-			GL45.glBufferSubData(GL45.GL_ARRAY_BUFFER, 0, prevBuffer);
+			GLFacade.glBufferSubData(GL45.GL_ARRAY_BUFFER, 0, prevBuffer);
 		}
 	}
 
@@ -88,12 +89,33 @@ public class GeometryBuffer {
 	 * @param offset number of vertices to use as offset into geometry buffer
 	 */
 	public void setSubData(FloatBuffer buffer, int size, int offset) {
-		GL45.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
 		checkSubDataResize((long) size * vertexSize, (long) offset * vertexSize);
-		GL45.glBufferSubData(GL45.GL_ARRAY_BUFFER, (long) offset * vertexSize, buffer);
+		GLFacade.glBufferSubData(GL45.GL_ARRAY_BUFFER, (long) offset * vertexSize, buffer);
 		vertexCount = Math.max(vertexCount, size + offset);
 	}
 
+	@Override
+	public void allocate(long bytes) {
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		currentCapacity = bytes;
+		GLFacade.glBufferData(GL45.GL_ARRAY_BUFFER, currentCapacity, GL45.GL_STATIC_DRAW);
+	}
+
+	/**
+	 * Uploads without the resize check of {@link #setSubData(FloatBuffer, int, int)}, the storage has to be allocated already
+	 */
+	@Override
+	public void upload(long offset, ByteBuffer data) {
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		GLFacade.glBufferSubData(GL45.GL_ARRAY_BUFFER, offset, data);
+	}
+
+	@Override
+	public void setElementCount(int count) {
+		vertexCount = count;
+	}
+
 	public void popLastVertex() {
 		if (vertexCount > 0) {
 			vertexCount--;
@@ -102,22 +124,35 @@ public class GeometryBuffer {
 
 	public void setIndexData(int[] data) {
 		long dataSize = (long) data.length * Integer.BYTES;
-		GL45.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
+		GLFacade.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
 		if (dataSize > currentIndexCapacity) {
 			currentIndexCapacity = Math.max(dataSize, currentIndexCapacity * 3 / 2);
-			GL45.glBufferData(GL45.GL_ELEMENT_ARRAY_BUFFER, currentIndexCapacity, GL45.GL_STATIC_DRAW);
+			GLFacade.glBufferData(GL45.GL_ELEMENT_ARRAY_BUFFER, currentIndexCapacity, GL45.GL_STATIC_DRAW);
 		}
-		GL45.glBufferSubData(GL45.GL_ELEMENT_ARRAY_BUFFER, 0, data);
+		GLFacade.glBufferSubData(GL45.GL_ELEMENT_ARRAY_BUFFER, 0, data);
 		indexCount = (int) dataSize;
 	}
 
 	public void draw() {
-		GL45.glBindVertexArray(vertexArrayObjectID);
+		GLFacade.glBindVertexArray(vertexArrayObjectID);
+		if (indexed) {
+			GLFacade.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
+			GLFacade.glDrawElementsInstanced(glDrawMode, indexCount, GL45.GL_UNSIGNED_INT, 0, 1);
+		} else {
+			GLFacade.glDrawArrays(glDrawMode, 0, vertexCount);
+		}
+	}
+
+	/**
+	 * Draws the geometry instanceCount times, shaders tell the instances apart by gl_InstanceID
+	 */
+	public void drawInstanced(int instanceCount) {
+		GLFacade.glBindVertexArray(vertexArrayObjectID);
 		if (indexed) {
-			GL45.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
-			GL45.glDrawElementsInstanced(glDrawMode, indexCount, GL45.GL_UNSIGNED_INT, 0, 1);
+			GLFacade.glBindBuffer(GL45.GL_ELEMENT_ARRAY_BUFFER, indexBufferObjectID);
+			GLFacade.glDrawElementsInstanced(glDrawMode, indexCount, GL45.GL_UNSIGNED_INT, 0, instanceCount);
 		} else {
-			GL45.glDrawArrays(glDrawMode, 0, vertexCount);
+			GLFacade.glDrawArraysInstanced(glDrawMode, 0, vertexCount, instanceCount);
 		}
 	}
 
@@ -127,9 +162,9 @@ public class GeometryBuffer {
 		}
 		isDeleted = true;
 		if (indexed) {
-			GL45.glDeleteBuffers(indexBufferObjectID);
+			GLFacade.glDeleteBuffers(indexBufferObjectID);
 		}
-		GL45.glDeleteBuffers(vertexBufferObjectID);
-		GL45.glDeleteVertexArrays(vertexArrayObjectID);
+		GLFacade.glDeleteBuffers(vertexBufferObjectID);
+		GLFacade.glDeleteVertexArrays(vertexArrayObjectID);
 	}
 }
@@ -0,0 +1,206 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+
+/**
+ * Densely packed array of fixed-size elements mirrored into a GPU buffer.
+ * <p>
+ * Elements are written into one persistent staging buffer and only on {@link #flush()}, changed slots are tracked in a bitset
+ * and adjacent ones are uploaded as a single range. Removal swaps the last element into the freed slot.
+ * An optional header in front of the elements holds the element count as int, as expected by the shader storage blocks.
+ */
+public class GpuArrayManager<T> {
+	public interface ElementWriter<T> {
+		/**
+		 * Writes exactly elementBytes at the current position of the target
+		 */
+		void write(T element, FloatBuffer target);
+	}
+
+	private final IGpuArrayBackend backend;
+	private final int elementBytes;
+	private final int headerBytes;
+	private final ElementWriter<T> writer;
+
+	private final ArrayList<T> elements = new ArrayList<>();
+	private final BitSet dirtySlots = new BitSet();
+	private ByteBuffer staging;
+	private FloatBuffer stagingFloats;
+	private int capacity;
+	private boolean reallocate = true;
+	private boolean countChanged = true;
+	private int lastUploadCount = 0;
+
+	/**
+	 * @param elementBytes bytes per element, multiple of 4
+	 * @param headerBytes  bytes in front of the first element, 0 or at least 4 to hold the element count
+	 */
+	public GpuArrayManager(IGpuArrayBackend backend, int elementBytes, int headerBytes, int initialCapacity, ElementWriter<T> writer) {
+		if (elementBytes <= 0 || elementBytes % Float.BYTES != 0 || headerBytes % Float.BYTES != 0 || (headerBytes != 0 && headerBytes < Integer.BYTES)) {
+			throw new IllegalArgumentException("invalid layout, elementBytes: " + elementBytes + ", headerBytes: " + headerBytes);
+		}
+		this.backend = backend;
+		this.elementBytes = elementBytes;
+		this.headerBytes = headerBytes;
+		this.writer = writer;
+		createStaging(Math.max(1, initialCapacity));
+	}
+
+	private void createStaging(int newCapacity) {
+		capacity = newCapacity;
+		staging = ByteBuffer.allocateDirect(headerBytes + newCapacity * elementBytes).order(ByteOrder.LITTLE_ENDIAN);
+		stagingFloats = staging.asFloatBuffer();
+		reallocate = true;
+	}
+
+	/**
+	 * @return slot of the new element
+	 */
+	public int add(T element) {
+		int slot = elements.size();
+		if (slot == capacity) {
+			createStaging(Math.max(slot + 1, capacity * 3 / 2));
+		}
+		elements.add(element);
+		dirtySlots.set(slot);
+		countChanged = true;
+		return slot;
+	}
+
+	public void markDirty(int slot) {
+		dirtySlots.set(slot);
+	}
+
+	/**
+	 * Swap-removes the element at the slot.
+	 *
+	 * @return element that was moved into the slot, null if the last element was removed
+	 */
+	public T remove(int slot) {
+		int lastSlot = elements.size() - 1;
+		T moved = null;
+		if (slot != lastSlot) {
+			moved = elements.get(lastSlot);
+			elements.set(slot, moved);
+			dirtySlots.set(slot);
+		}
+		elements.remove(lastSlot);
+		dirtySlots.clear(lastSlot);
+		countChanged = true;
+		return moved;
+	}
+
+	public T get(int slot) {
+		return elements.get(slot);
+	}
+
+	public int size() {
+		return elements.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return bytes of the header and all live elements
+	 */
+	public int getByteSize() {
+		return headerBytes + elements.size() * elementBytes;
+	}
+
+	/**
+	 * @return amount of upload calls issued by the last {@link #flush()}
+	 */
+	public int getLastUploadCount() {
+		return lastUploadCount;
+	}
+
+	/**
+	 * Writes all changed elements and uploads them, one call per contiguous range of dirty slots.
+	 */
+	public void flush() {
+		lastUploadCount = 0;
+		int size = elements.size();
+		if (reallocate) {
+			backend.allocate(staging.capacity());
+			writeHeader();
+			for (int slot = 0; slot < size; slot++) {
+				writeElement(slot);
+			}
+			upload(0, headerBytes + (long) size * elementBytes);
+			reallocate = false;
+		} else {
+			boolean headerPending = countChanged && headerBytes > 0;
+			if (headerPending) {
+				writeHeader();
+			}
+			int start = dirtySlots.nextSetBit(0);
+			if (headerPending && start != 0) {
+				upload(0, headerBytes);
+			}
+			while (start >= 0 && start < size) {
+				int end = Math.min(dirtySlots.nextClearBit(start), size);
+				for (int slot = start; slot < end; slot++) {
+					writeElement(slot);
+				}
+				long from = start == 0 && headerPending ? 0 : headerBytes + (long) start * elementBytes;
+				upload(from, headerBytes + (long) end * elementBytes);
+				start = dirtySlots.nextSetBit(end);
+			}
+		}
+		dirtySlots.clear();
+		if (countChanged) {
+			countChanged = false;
+			backend.setElementCount(size);
+		}
+	}
+
+	/**
+	 * Writes the header and all elements directly into the target at its position, e.g. a mapped streaming region.
+	 * Staging and dirty tracking are left untouched, the position of the target is moved behind the written bytes.
+	 */
+	public void writeTo(ByteBuffer target) {
+		int start = target.position();
+		if (headerBytes > 0) {
+			target.putInt(start, elements.size());
+		}
+		FloatBuffer targetFloats = target.position(start + headerBytes).asFloatBuffer();
+		for (int slot = 0; slot < elements.size(); slot++) {
+			writeElement(slot, targetFloats, slot * elementBytes / Float.BYTES);
+		}
+		target.position(start + getByteSize());
+	}
+
+	private void writeHeader() {
+		if (headerBytes > 0) {
+			staging.putInt(0, elements.size());
+		}
+	}
+
+	private void writeElement(int slot) {
+		writeElement(slot, stagingFloats, (headerBytes + slot * elementBytes) / Float.BYTES);
+	}
+
+	private void writeElement(int slot, FloatBuffer target, int position) {
+		target.position(position);
+		writer.write(elements.get(slot), target);
+		if (target.position() != position + elementBytes / Float.BYTES) {
+			throw new IllegalStateException("element writer wrote " + (target.position() - position) * Float.BYTES + " bytes, expected " + elementBytes);
+		}
+	}
+
+	private void upload(long from, long to) {
+		if (to <= from) {
+			return;
+		}
+		staging.limit((int) to).position((int) from);
+		backend.upload(from, staging);
+		staging.clear();
+		lastUploadCount++;
+	}
+}
@@ -0,0 +1,24 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+
+/**
+ * GPU side storage of a {@link GpuArrayManager}, keeps the GL calls out of the manager so it can be tested without a context.
+ */
+public interface IGpuArrayBackend {
+	/**
+	 * (Re)allocates the storage, previous content is discarded
+	 */
+	void allocate(long bytes);
+
+	/**
+	 * Uploads the remaining bytes of data to the given byte offset
+	 */
+	void upload(long offset, ByteBuffer data);
+
+	/**
+	 * Called after uploads whenever the number of live elements changed
+	 */
+	default void setElementCount(int count) {
+	}
+}
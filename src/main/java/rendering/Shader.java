@@ -7,6 +7,7 @@ import java.nio.charset.StandardCharsets;
 import logging.LogbackLoggerProvider;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 
 public class Shader {
 	private static final Logger logger = LogbackLoggerProvider.getLogger(Shader.class);
@@ -41,21 +42,21 @@ public class Shader {
 			logger.error("Failed to load file: {}", resourcePath, e);
 		}
 
-		shaderID = GL45.glCreateShader(type);
-		GL45.glShaderSource(shaderID, shaderCode);
-		GL45.glCompileShader(shaderID);
+		shaderID = GLFacade.glCreateShader(type);
+		GLFacade.glShaderSource(shaderID, shaderCode);
+		GLFacade.glCompileShader(shaderID);
 
-		String infoLog = GL45.glGetShaderInfoLog(shaderID, GL45.glGetShaderi(shaderID, GL45.GL_INFO_LOG_LENGTH));
+		String infoLog = GLFacade.glGetShaderInfoLog(shaderID, GLFacade.glGetShaderi(shaderID, GL45.GL_INFO_LOG_LENGTH));
 		if (infoLog.trim().length() > 0) {
 			logger.info(infoLog);
 		}
 
-		if (GL45.glGetShaderi(shaderID, GL45.GL_COMPILE_STATUS) == GL45.GL_FALSE) {
+		if (GLFacade.glGetShaderi(shaderID, GL45.GL_COMPILE_STATUS) == GL45.GL_FALSE) {
 			logger.error("Failed to compile shader from file: {}", resourcePath);
 		}
 	}
 
 	public void delete() {
-		GL45.glDeleteShader(shaderID);
+		GLFacade.glDeleteShader(shaderID);
 	}
 }
@@ -3,6 +3,7 @@ package rendering;
 import logging.LogbackLoggerProvider;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 
 public class ShaderProgram {
 	private static final Logger logger = LogbackLoggerProvider.getLogger(ShaderProgram.class);
@@ -24,32 +25,32 @@ public class ShaderProgram {
 
 	public ShaderProgram(String programName,
 						 String vertexShaderPath, String geometryShaderPath, String fragmentShaderPath) {
-		programID = GL45.glCreateProgram();
+		programID = GLFacade.glCreateProgram();
 		this.programName = programName;
 
 		if (vertexShaderPath != null) {
 			vertexShader = Shader.vertexShader(vertexShaderPath);
-			GL45.glAttachShader(programID, vertexShader.shaderID);
+			GLFacade.glAttachShader(programID, vertexShader.shaderID);
 		}
 		if (geometryShaderPath != null) {
 			geometryShader = Shader.geometryShader(geometryShaderPath);
-			GL45.glAttachShader(programID, geometryShader.shaderID);
+			GLFacade.glAttachShader(programID, geometryShader.shaderID);
 		}
 		if (fragmentShaderPath != null) {
 			fragmentShader = Shader.fragmentShader(fragmentShaderPath);
-			GL45.glAttachShader(programID, fragmentShader.shaderID);
+			GLFacade.glAttachShader(programID, fragmentShader.shaderID);
 		}
 
-		GL45.glLinkProgram(programID);
+		GLFacade.glLinkProgram(programID);
 
-		String infoLog = GL45.glGetProgramInfoLog(programID, GL45.glGetProgrami(programID, GL45.GL_INFO_LOG_LENGTH));
+		String infoLog = GLFacade.glGetProgramInfoLog(programID, GLFacade.glGetProgrami(programID, GL45.GL_INFO_LOG_LENGTH));
 		if (infoLog.trim().length() > 0) {
 			logger.info(infoLog);
 		}else{
 			logger.info("Program '{}' linked without logs.", programName);
 		}
 
-		if (GL45.glGetProgrami(programID, GL45.GL_LINK_STATUS) == GL45.GL_FALSE) {
+		if (GLFacade.glGetProgrami(programID, GL45.GL_LINK_STATUS) == GL45.GL_FALSE) {
 			logger.error("Failed to link program {}", programName);
 		}else{
 			logger.info("Program '{}' linked successfully.", programName);
@@ -57,11 +58,11 @@ public class ShaderProgram {
 	}
 
 	public void use() {
-		GL45.glUseProgram(programID);
+		GLFacade.glUseProgram(programID);
 	}
 
 	public int getUniformLocation(String str) {
-		return GL45.glGetUniformLocation(programID, str);
+		return GLFacade.glGetUniformLocation(programID, str);
 	}
 
 	public void delete() {
@@ -77,6 +78,6 @@ public class ShaderProgram {
 			fragmentShader.delete();
 			fragmentShader = null;
 		}
-		GL45.glDeleteProgram(programID);
+		GLFacade.glDeleteProgram(programID);
 	}
 }
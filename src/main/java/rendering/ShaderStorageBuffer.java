@@ -0,0 +1,36 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
+
+public class ShaderStorageBuffer implements IGpuArrayBackend {
+	private final int bufferID;
+	private final int usage;
+
+	public ShaderStorageBuffer(int usage) {
+		this.usage = usage;
+		bufferID = GLFacade.glGenBuffers();
+	}
+
+	public void bind(int bindIndex) {
+		GLFacade.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, bufferID);
+		GLFacade.glBindBufferBase(GL45.GL_SHADER_STORAGE_BUFFER, bindIndex, bufferID);
+	}
+
+	@Override
+	public void allocate(long bytes) {
+		GLFacade.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, bufferID);
+		GLFacade.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, bytes, usage);
+	}
+
+	@Override
+	public void upload(long offset, ByteBuffer data) {
+		GLFacade.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, bufferID);
+		GLFacade.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, offset, data);
+	}
+
+	public void delete() {
+		GLFacade.glDeleteBuffers(bufferID);
+	}
+}
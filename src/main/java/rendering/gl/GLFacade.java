@@ -0,0 +1,375 @@
+package rendering.gl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Static entry point for all OpenGL calls of the engine, forwards to the active {@link IGLBackend}.
+ * <p>
+ * Uses {@link LwjglBackend} by default, headless tests and benchmarks swap in a {@link RecordingBackend}.
+ * Constants are still taken from GL45 directly.
+ */
+public final class GLFacade {
+	private static IGLBackend backend = new LwjglBackend();
+	private static long frameIndex = 0;
+
+	private GLFacade() {
+	}
+
+	public static IGLBackend getBackend() {
+		return backend;
+	}
+
+	public static void setBackend(IGLBackend backend) {
+		GLFacade.backend = backend;
+	}
+
+	/**
+	 * @return amount of frames ended so far
+	 */
+	public static long getFrameIndex() {
+		return frameIndex;
+	}
+
+	public static void endFrame() {
+		frameIndex++;
+		backend.endFrame();
+	}
+
+	public static int glGenBuffers() {
+		return backend.glGenBuffers();
+	}
+
+	public static void glDeleteBuffers(int buffer) {
+		backend.glDeleteBuffers(buffer);
+	}
+
+	public static void glBindBuffer(int target, int buffer) {
+		backend.glBindBuffer(target, buffer);
+	}
+
+	public static void glBindBufferBase(int target, int index, int buffer) {
+		backend.glBindBufferBase(target, index, buffer);
+	}
+
+	public static void glBufferData(int target, long size, int usage) {
+		backend.glBufferData(target, size, usage);
+	}
+
+	public static void glBufferData(int target, IntBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+
+	public static void glBufferSubData(int target, long offset, ByteBuffer data) {
+		backend.glBufferSubData(target, offset, data);
+	}
+
+	public static void glBufferSubData(int target, long offset, FloatBuffer data) {
+		backend.glBufferSubData(target, offset, data);
+	}
+
+	public static void glBufferSubData(int target, long offset, IntBuffer data) {
+		backend.glBufferSubData(target, offset, data);
+	}
+
+	public static void glBufferSubData(int target, long offset, float[] data) {
+		backend.glBufferSubData(target, offset, data);
+	}
+
+	public static void glBufferSubData(int target, long offset, int[] data) {
+		backend.glBufferSubData(target, offset, data);
+	}
+
+	public static void glGetBufferSubData(int target, long offset, IntBuffer data) {
+		backend.glGetBufferSubData(target, offset, data);
+	}
+
+	public static void glBufferStorage(int target, long size, int flags) {
+		backend.glBufferStorage(target, size, flags);
+	}
+
+	public static void glBindBufferRange(int target, int index, int buffer, long offset, long size) {
+		backend.glBindBufferRange(target, index, buffer, offset, size);
+	}
+
+	public static ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+		return backend.glMapBufferRange(target, offset, length, access);
+	}
+
+	public static long glFenceSync(int condition, int flags) {
+		return backend.glFenceSync(condition, flags);
+	}
+
+	public static int glClientWaitSync(long sync, int flags, long timeout) {
+		return backend.glClientWaitSync(sync, flags, timeout);
+	}
+
+	public static void glDeleteSync(long sync) {
+		backend.glDeleteSync(sync);
+	}
+
+	public static int glGenVertexArrays() {
+		return backend.glGenVertexArrays();
+	}
+
+	public static void glDeleteVertexArrays(int array) {
+		backend.glDeleteVertexArrays(array);
+	}
+
+	public static void glBindVertexArray(int array) {
+		backend.glBindVertexArray(array);
+	}
+
+	public static void glEnableVertexAttribArray(int index) {
+		backend.glEnableVertexAttribArray(index);
+	}
+
+	public static void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		backend.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+
+	public static void glVertexAttribIPointer(int index, int size, int type, int stride, long pointer) {
+		backend.glVertexAttribIPointer(index, size, type, stride, pointer);
+	}
+
+	public static void glDrawArrays(int mode, int first, int count) {
+		backend.glDrawArrays(mode, first, count);
+	}
+
+	public static void glDrawArraysInstanced(int mode, int first, int count, int primcount) {
+		backend.glDrawArraysInstanced(mode, first, count, primcount);
+	}
+
+	public static void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount) {
+		backend.glDrawElementsInstanced(mode, count, type, indices, primcount);
+	}
+
+	public static void glClear(int mask) {
+		backend.glClear(mask);
+	}
+
+	public static void glClearColor(float red, float green, float blue, float alpha) {
+		backend.glClearColor(red, green, blue, alpha);
+	}
+
+	public static void glEnable(int target) {
+		backend.glEnable(target);
+	}
+
+	public static int glGetError() {
+		return backend.glGetError();
+	}
+
+	public static int glGenTextures() {
+		return backend.glGenTextures();
+	}
+
+	public static void glDeleteTextures(int texture) {
+		backend.glDeleteTextures(texture);
+	}
+
+	public static void glBindTexture(int target, int texture) {
+		backend.glBindTexture(target, texture);
+	}
+
+	public static void glActiveTexture(int texture) {
+		backend.glActiveTexture(texture);
+	}
+
+	public static void glTexParameteri(int target, int pname, int param) {
+		backend.glTexParameteri(target, pname, param);
+	}
+
+	public static void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	public static void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, int[] pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	public static void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, short[] pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	public static void glGenerateMipmap(int target) {
+		backend.glGenerateMipmap(target);
+	}
+
+	public static void glPixelStorei(int pname, int param) {
+		backend.glPixelStorei(pname, param);
+	}
+
+	public static int glGenSamplers() {
+		return backend.glGenSamplers();
+	}
+
+	public static void glDeleteSamplers(int sampler) {
+		backend.glDeleteSamplers(sampler);
+	}
+
+	public static void glBindSampler(int unit, int sampler) {
+		backend.glBindSampler(unit, sampler);
+	}
+
+	public static void glSamplerParameteri(int sampler, int pname, int param) {
+		backend.glSamplerParameteri(sampler, pname, param);
+	}
+
+	public static int glGenFramebuffers() {
+		return backend.glGenFramebuffers();
+	}
+
+	public static void glDeleteFramebuffers(int framebuffer) {
+		backend.glDeleteFramebuffers(framebuffer);
+	}
+
+	public static void glBindFramebuffer(int target, int framebuffer) {
+		backend.glBindFramebuffer(target, framebuffer);
+	}
+
+	public static void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		backend.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	public static int glCheckFramebufferStatus(int target) {
+		return backend.glCheckFramebufferStatus(target);
+	}
+
+	public static int glGenRenderbuffers() {
+		return backend.glGenRenderbuffers();
+	}
+
+	public static void glDeleteRenderbuffers(int renderbuffer) {
+		backend.glDeleteRenderbuffers(renderbuffer);
+	}
+
+	public static void glBindRenderbuffer(int target, int renderbuffer) {
+		backend.glBindRenderbuffer(target, renderbuffer);
+	}
+
+	public static void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		backend.glRenderbufferStorage(target, internalformat, width, height);
+	}
+
+	public static void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		backend.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+
+	public static int glCreateShader(int type) {
+		return backend.glCreateShader(type);
+	}
+
+	public static void glShaderSource(int shader, CharSequence string) {
+		backend.glShaderSource(shader, string);
+	}
+
+	public static void glCompileShader(int shader) {
+		backend.glCompileShader(shader);
+	}
+
+	public static int glGetShaderi(int shader, int pname) {
+		return backend.glGetShaderi(shader, pname);
+	}
+
+	public static String glGetShaderInfoLog(int shader, int maxLength) {
+		return backend.glGetShaderInfoLog(shader, maxLength);
+	}
+
+	public static void glDeleteShader(int shader) {
+		backend.glDeleteShader(shader);
+	}
+
+	public static int glCreateProgram() {
+		return backend.glCreateProgram();
+	}
+
+	public static void glAttachShader(int program, int shader) {
+		backend.glAttachShader(program, shader);
+	}
+
+	public static void glLinkProgram(int program) {
+		backend.glLinkProgram(program);
+	}
+
+	public static int glGetProgrami(int program, int pname) {
+		return backend.glGetProgrami(program, pname);
+	}
+
+	public static String glGetProgramInfoLog(int program, int maxLength) {
+		return backend.glGetProgramInfoLog(program, maxLength);
+	}
+
+	public static void glDeleteProgram(int program) {
+		backend.glDeleteProgram(program);
+	}
+
+	public static void glUseProgram(int program) {
+		backend.glUseProgram(program);
+	}
+
+	public static int glGetUniformLocation(int program, CharSequence name) {
+		return backend.glGetUniformLocation(program, name);
+	}
+
+	public static void glUniform1i(int location, int v0) {
+		backend.glUniform1i(location, v0);
+	}
+
+	public static void glUniform2fv(int location, FloatBuffer value) {
+		backend.glUniform2fv(location, value);
+	}
+
+	public static void glUniform3fv(int location, FloatBuffer value) {
+		backend.glUniform3fv(location, value);
+	}
+
+	public static void glUniform4fv(int location, FloatBuffer value) {
+		backend.glUniform4fv(location, value);
+	}
+
+	public static void glUniform4fv(int location, float[] value) {
+		backend.glUniform4fv(location, value);
+	}
+
+	public static void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix2fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix3fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		backend.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix2x3fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix2x3fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix2x4fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix2x4fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix3x2fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix3x2fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix3x4fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix3x4fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix4x2fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix4x2fv(location, transpose, value);
+	}
+
+	public static void glUniformMatrix4x3fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix4x3fv(location, transpose, value);
+	}
+}
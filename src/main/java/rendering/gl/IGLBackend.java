@@ -0,0 +1,192 @@
+package rendering.gl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * The OpenGL calls used by the engine, see {@link GLFacade} for the active backend.
+ */
+public interface IGLBackend {
+	// buffers
+	int glGenBuffers();
+
+	void glDeleteBuffers(int buffer);
+
+	void glBindBuffer(int target, int buffer);
+
+	void glBindBufferBase(int target, int index, int buffer);
+
+	void glBufferData(int target, long size, int usage);
+
+	void glBufferData(int target, IntBuffer data, int usage);
+
+	void glBufferSubData(int target, long offset, ByteBuffer data);
+
+	void glBufferSubData(int target, long offset, FloatBuffer data);
+
+	void glBufferSubData(int target, long offset, IntBuffer data);
+
+	void glBufferSubData(int target, long offset, float[] data);
+
+	void glBufferSubData(int target, long offset, int[] data);
+
+	void glGetBufferSubData(int target, long offset, IntBuffer data);
+
+	void glBufferStorage(int target, long size, int flags);
+
+	void glBindBufferRange(int target, int index, int buffer, long offset, long size);
+
+	ByteBuffer glMapBufferRange(int target, long offset, long length, int access);
+
+	// sync objects
+	long glFenceSync(int condition, int flags);
+
+	int glClientWaitSync(long sync, int flags, long timeout);
+
+	void glDeleteSync(long sync);
+
+	// vertex arrays
+	int glGenVertexArrays();
+
+	void glDeleteVertexArrays(int array);
+
+	void glBindVertexArray(int array);
+
+	void glEnableVertexAttribArray(int index);
+
+	void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+
+	void glVertexAttribIPointer(int index, int size, int type, int stride, long pointer);
+
+	// drawing
+	void glDrawArrays(int mode, int first, int count);
+
+	void glDrawArraysInstanced(int mode, int first, int count, int primcount);
+
+	void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount);
+
+	void glClear(int mask);
+
+	void glClearColor(float red, float green, float blue, float alpha);
+
+	void glEnable(int target);
+
+	int glGetError();
+
+	// textures and samplers
+	int glGenTextures();
+
+	void glDeleteTextures(int texture);
+
+	void glBindTexture(int target, int texture);
+
+	void glActiveTexture(int texture);
+
+	void glTexParameteri(int target, int pname, int param);
+
+	void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels);
+
+	void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, int[] pixels);
+
+	void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, short[] pixels);
+
+	void glGenerateMipmap(int target);
+
+	void glPixelStorei(int pname, int param);
+
+	int glGenSamplers();
+
+	void glDeleteSamplers(int sampler);
+
+	void glBindSampler(int unit, int sampler);
+
+	void glSamplerParameteri(int sampler, int pname, int param);
+
+	// framebuffers
+	int glGenFramebuffers();
+
+	void glDeleteFramebuffers(int framebuffer);
+
+	void glBindFramebuffer(int target, int framebuffer);
+
+	void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level);
+
+	int glCheckFramebufferStatus(int target);
+
+	int glGenRenderbuffers();
+
+	void glDeleteRenderbuffers(int renderbuffer);
+
+	void glBindRenderbuffer(int target, int renderbuffer);
+
+	void glRenderbufferStorage(int target, int internalformat, int width, int height);
+
+	void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer);
+
+	// shaders
+	int glCreateShader(int type);
+
+	void glShaderSource(int shader, CharSequence string);
+
+	void glCompileShader(int shader);
+
+	int glGetShaderi(int shader, int pname);
+
+	String glGetShaderInfoLog(int shader, int maxLength);
+
+	void glDeleteShader(int shader);
+
+	int glCreateProgram();
+
+	void glAttachShader(int program, int shader);
+
+	void glLinkProgram(int program);
+
+	int glGetProgrami(int program, int pname);
+
+	String glGetProgramInfoLog(int program, int maxLength);
+
+	void glDeleteProgram(int program);
+
+	void glUseProgram(int program);
+
+	int glGetUniformLocation(int program, CharSequence name);
+
+	// uniforms
+	void glUniform1i(int location, int v0);
+
+	void glUniform2fv(int location, FloatBuffer value);
+
+	void glUniform3fv(int location, FloatBuffer value);
+
+	void glUniform4fv(int location, FloatBuffer value);
+
+	void glUniform4fv(int location, float[] value);
+
+	void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4fv(int location, boolean transpose, float[] value);
+
+	void glUniformMatrix2x3fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix2x4fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix3x2fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix3x4fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4x2fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4x3fv(int location, boolean transpose, FloatBuffer value);
+
+	/**
+	 * Marks the end of a frame, after the buffers were swapped
+	 */
+	default void endFrame() {
+	}
+}
@@ -0,0 +1,431 @@
+package rendering.gl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.lwjgl.opengl.GL45;
+
+/**
+ * Forwards every call to the current LWJGL context.
+ */
+public class LwjglBackend implements IGLBackend {
+	@Override
+	public int glGenBuffers() {
+		return GL45.glGenBuffers();
+	}
+
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		GL45.glDeleteBuffers(buffer);
+	}
+
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		GL45.glBindBuffer(target, buffer);
+	}
+
+	@Override
+	public void glBindBufferBase(int target, int index, int buffer) {
+		GL45.glBindBufferBase(target, index, buffer);
+	}
+
+	@Override
+	public void glBufferData(int target, long size, int usage) {
+		GL45.glBufferData(target, size, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		GL45.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, ByteBuffer data) {
+		GL45.glBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, FloatBuffer data) {
+		GL45.glBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, IntBuffer data) {
+		GL45.glBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, float[] data) {
+		GL45.glBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, int[] data) {
+		GL45.glBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glGetBufferSubData(int target, long offset, IntBuffer data) {
+		GL45.glGetBufferSubData(target, offset, data);
+	}
+
+	@Override
+	public void glBufferStorage(int target, long size, int flags) {
+		GL45.glBufferStorage(target, size, flags);
+	}
+
+	@Override
+	public void glBindBufferRange(int target, int index, int buffer, long offset, long size) {
+		GL45.glBindBufferRange(target, index, buffer, offset, size);
+	}
+
+	@Override
+	public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+		return GL45.glMapBufferRange(target, offset, length, access);
+	}
+
+	@Override
+	public long glFenceSync(int condition, int flags) {
+		return GL45.glFenceSync(condition, flags);
+	}
+
+	@Override
+	public int glClientWaitSync(long sync, int flags, long timeout) {
+		return GL45.glClientWaitSync(sync, flags, timeout);
+	}
+
+	@Override
+	public void glDeleteSync(long sync) {
+		GL45.glDeleteSync(sync);
+	}
+
+	@Override
+	public int glGenVertexArrays() {
+		return GL45.glGenVertexArrays();
+	}
+
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		GL45.glDeleteVertexArrays(array);
+	}
+
+	@Override
+	public void glBindVertexArray(int array) {
+		GL45.glBindVertexArray(array);
+	}
+
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		GL45.glEnableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		GL45.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+
+	@Override
+	public void glVertexAttribIPointer(int index, int size, int type, int stride, long pointer) {
+		GL45.glVertexAttribIPointer(index, size, type, stride, pointer);
+	}
+
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		GL45.glDrawArrays(mode, first, count);
+	}
+
+	@Override
+	public void glDrawArraysInstanced(int mode, int first, int count, int primcount) {
+		GL45.glDrawArraysInstanced(mode, first, count, primcount);
+	}
+
+	@Override
+	public void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount) {
+		GL45.glDrawElementsInstanced(mode, count, type, indices, primcount);
+	}
+
+	@Override
+	public void glClear(int mask) {
+		GL45.glClear(mask);
+	}
+
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		GL45.glClearColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glEnable(int target) {
+		GL45.glEnable(target);
+	}
+
+	@Override
+	public int glGetError() {
+		return GL45.glGetError();
+	}
+
+	@Override
+	public int glGenTextures() {
+		return GL45.glGenTextures();
+	}
+
+	@Override
+	public void glDeleteTextures(int texture) {
+		GL45.glDeleteTextures(texture);
+	}
+
+	@Override
+	public void glBindTexture(int target, int texture) {
+		GL45.glBindTexture(target, texture);
+	}
+
+	@Override
+	public void glActiveTexture(int texture) {
+		GL45.glActiveTexture(texture);
+	}
+
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		GL45.glTexParameteri(target, pname, param);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		GL45.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, int[] pixels) {
+		GL45.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, short[] pixels) {
+		GL45.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glGenerateMipmap(int target) {
+		GL45.glGenerateMipmap(target);
+	}
+
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		GL45.glPixelStorei(pname, param);
+	}
+
+	@Override
+	public int glGenSamplers() {
+		return GL45.glGenSamplers();
+	}
+
+	@Override
+	public void glDeleteSamplers(int sampler) {
+		GL45.glDeleteSamplers(sampler);
+	}
+
+	@Override
+	public void glBindSampler(int unit, int sampler) {
+		GL45.glBindSampler(unit, sampler);
+	}
+
+	@Override
+	public void glSamplerParameteri(int sampler, int pname, int param) {
+		GL45.glSamplerParameteri(sampler, pname, param);
+	}
+
+	@Override
+	public int glGenFramebuffers() {
+		return GL45.glGenFramebuffers();
+	}
+
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		GL45.glDeleteFramebuffers(framebuffer);
+	}
+
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		GL45.glBindFramebuffer(target, framebuffer);
+	}
+
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		GL45.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	@Override
+	public int glCheckFramebufferStatus(int target) {
+		return GL45.glCheckFramebufferStatus(target);
+	}
+
+	@Override
+	public int glGenRenderbuffers() {
+		return GL45.glGenRenderbuffers();
+	}
+
+	@Override
+	public void glDeleteRenderbuffers(int renderbuffer) {
+		GL45.glDeleteRenderbuffers(renderbuffer);
+	}
+
+	@Override
+	public void glBindRenderbuffer(int target, int renderbuffer) {
+		GL45.glBindRenderbuffer(target, renderbuffer);
+	}
+
+	@Override
+	public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		GL45.glRenderbufferStorage(target, internalformat, width, height);
+	}
+
+	@Override
+	public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		GL45.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+
+	@Override
+	public int glCreateShader(int type) {
+		return GL45.glCreateShader(type);
+	}
+
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		GL45.glShaderSource(shader, string);
+	}
+
+	@Override
+	public void glCompileShader(int shader) {
+		GL45.glCompileShader(shader);
+	}
+
+	@Override
+	public int glGetShaderi(int shader, int pname) {
+		return GL45.glGetShaderi(shader, pname);
+	}
+
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		return GL45.glGetShaderInfoLog(shader, maxLength);
+	}
+
+	@Override
+	public void glDeleteShader(int shader) {
+		GL45.glDeleteShader(shader);
+	}
+
+	@Override
+	public int glCreateProgram() {
+		return GL45.glCreateProgram();
+	}
+
+	@Override
+	public void glAttachShader(int program, int shader) {
+		GL45.glAttachShader(program, shader);
+	}
+
+	@Override
+	public void glLinkProgram(int program) {
+		GL45.glLinkProgram(program);
+	}
+
+	@Override
+	public int glGetProgrami(int program, int pname) {
+		return GL45.glGetProgrami(program, pname);
+	}
+
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		return GL45.glGetProgramInfoLog(program, maxLength);
+	}
+
+	@Override
+	public void glDeleteProgram(int program) {
+		GL45.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glUseProgram(int program) {
+		GL45.glUseProgram(program);
+	}
+
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		return GL45.glGetUniformLocation(program, name);
+	}
+
+	@Override
+	public void glUniform1i(int location, int v0) {
+		GL45.glUniform1i(location, v0);
+	}
+
+	@Override
+	public void glUniform2fv(int location, FloatBuffer value) {
+		GL45.glUniform2fv(location, value);
+	}
+
+	@Override
+	public void glUniform3fv(int location, FloatBuffer value) {
+		GL45.glUniform3fv(location, value);
+	}
+
+	@Override
+	public void glUniform4fv(int location, FloatBuffer value) {
+		GL45.glUniform4fv(location, value);
+	}
+
+	@Override
+	public void glUniform4fv(int location, float[] value) {
+		GL45.glUniform4fv(location, value);
+	}
+
+	@Override
+	public void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix2fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix3fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		GL45.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix2x3fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix2x3fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix2x4fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix2x4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3x2fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix3x2fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3x4fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix3x4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4x2fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix4x2fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4x3fv(int location, boolean transpose, FloatBuffer value) {
+		GL45.glUniformMatrix4x3fv(location, transpose, value);
+	}
+}
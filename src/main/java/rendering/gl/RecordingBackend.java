@@ -0,0 +1,537 @@
+package rendering.gl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.lwjgl.opengl.GL45;
+
+/**
+ * Null backend that only counts the submitted work, for measuring and budgeting render submission without a GPU.
+ * <p>
+ * Object names are handed out from a counter, status queries report success, fences are always signaled,
+ * buffer mappings are backed by fresh memory and reads leave the target untouched.
+ * Counters cover the current frame until {@link #endFrame()}, which moves them to {@link #getLastFrame()}.
+ */
+public class RecordingBackend implements IGLBackend {
+	/**
+	 * @param calls          every GL call
+	 * @param drawCalls      glDraw* calls
+	 * @param stateChanges   binds, program and texture unit switches and capability changes
+	 * @param uniformUpdates glUniform* calls
+	 * @param uploads        calls transferring data to the GPU
+	 * @param uploadedBytes  bytes transferred to the GPU
+	 */
+	public record FrameStats(int calls, int drawCalls, int stateChanges, int uniformUpdates, int uploads, long uploadedBytes) {
+	}
+
+	private int nextObjectID = 1;
+	private int calls = 0;
+	private int drawCalls = 0;
+	private int stateChanges = 0;
+	private int uniformUpdates = 0;
+	private int uploads = 0;
+	private long uploadedBytes = 0;
+	private int frameCount = 0;
+	private FrameStats lastFrame = new FrameStats(0, 0, 0, 0, 0, 0);
+
+	/**
+	 * @return counters of the frame in progress
+	 */
+	public FrameStats getCurrentFrame() {
+		return new FrameStats(calls, drawCalls, stateChanges, uniformUpdates, uploads, uploadedBytes);
+	}
+
+	public FrameStats getLastFrame() {
+		return lastFrame;
+	}
+
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	@Override
+	public void endFrame() {
+		lastFrame = getCurrentFrame();
+		frameCount++;
+		calls = 0;
+		drawCalls = 0;
+		stateChanges = 0;
+		uniformUpdates = 0;
+		uploads = 0;
+		uploadedBytes = 0;
+	}
+
+	private void recordUpload(long bytes) {
+		calls++;
+		uploads++;
+		uploadedBytes += bytes;
+	}
+
+	@Override
+	public int glGenBuffers() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		calls++;
+	}
+
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glBindBufferBase(int target, int index, int buffer) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glBufferData(int target, long size, int usage) {
+		calls++;
+	}
+
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		recordUpload((long) data.remaining() * Integer.BYTES);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, ByteBuffer data) {
+		recordUpload(data == null ? 0 : data.remaining());
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, FloatBuffer data) {
+		recordUpload((long) data.remaining() * Float.BYTES);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, IntBuffer data) {
+		recordUpload((long) data.remaining() * Integer.BYTES);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, float[] data) {
+		recordUpload((long) data.length * Float.BYTES);
+	}
+
+	@Override
+	public void glBufferSubData(int target, long offset, int[] data) {
+		recordUpload((long) data.length * Integer.BYTES);
+	}
+
+	@Override
+	public void glGetBufferSubData(int target, long offset, IntBuffer data) {
+		calls++;
+	}
+
+	@Override
+	public void glBufferStorage(int target, long size, int flags) {
+		calls++;
+	}
+
+	@Override
+	public void glBindBufferRange(int target, int index, int buffer, long offset, long size) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+		calls++;
+		return ByteBuffer.allocateDirect((int) length).order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public long glFenceSync(int condition, int flags) {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public int glClientWaitSync(long sync, int flags, long timeout) {
+		calls++;
+		return GL45.GL_ALREADY_SIGNALED;
+	}
+
+	@Override
+	public void glDeleteSync(long sync) {
+		calls++;
+	}
+
+	@Override
+	public int glGenVertexArrays() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		calls++;
+	}
+
+	@Override
+	public void glBindVertexArray(int array) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		calls++;
+	}
+
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		calls++;
+	}
+
+	@Override
+	public void glVertexAttribIPointer(int index, int size, int type, int stride, long pointer) {
+		calls++;
+	}
+
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		calls++;
+		drawCalls++;
+	}
+
+	@Override
+	public void glDrawArraysInstanced(int mode, int first, int count, int primcount) {
+		calls++;
+		drawCalls++;
+	}
+
+	@Override
+	public void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount) {
+		calls++;
+		drawCalls++;
+	}
+
+	@Override
+	public void glClear(int mask) {
+		calls++;
+	}
+
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		calls++;
+	}
+
+	@Override
+	public void glEnable(int target) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public int glGetError() {
+		calls++;
+		return GL45.GL_NO_ERROR;
+	}
+
+	@Override
+	public int glGenTextures() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteTextures(int texture) {
+		calls++;
+	}
+
+	@Override
+	public void glBindTexture(int target, int texture) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glActiveTexture(int texture) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		calls++;
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		recordUpload(pixels == null ? 0 : pixels.remaining());
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, int[] pixels) {
+		recordUpload((long) pixels.length * Integer.BYTES);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, short[] pixels) {
+		recordUpload((long) pixels.length * Short.BYTES);
+	}
+
+	@Override
+	public void glGenerateMipmap(int target) {
+		calls++;
+	}
+
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		calls++;
+	}
+
+	@Override
+	public int glGenSamplers() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteSamplers(int sampler) {
+		calls++;
+	}
+
+	@Override
+	public void glBindSampler(int unit, int sampler) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glSamplerParameteri(int sampler, int pname, int param) {
+		calls++;
+	}
+
+	@Override
+	public int glGenFramebuffers() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		calls++;
+	}
+
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		calls++;
+	}
+
+	@Override
+	public int glCheckFramebufferStatus(int target) {
+		calls++;
+		return GL45.GL_FRAMEBUFFER_COMPLETE;
+	}
+
+	@Override
+	public int glGenRenderbuffers() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glDeleteRenderbuffers(int renderbuffer) {
+		calls++;
+	}
+
+	@Override
+	public void glBindRenderbuffer(int target, int renderbuffer) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		calls++;
+	}
+
+	@Override
+	public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		calls++;
+	}
+
+	@Override
+	public int glCreateShader(int type) {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		calls++;
+	}
+
+	@Override
+	public void glCompileShader(int shader) {
+		calls++;
+	}
+
+	@Override
+	public int glGetShaderi(int shader, int pname) {
+		calls++;
+		return pname == GL45.GL_INFO_LOG_LENGTH ? 0 : GL45.GL_TRUE;
+	}
+
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public void glDeleteShader(int shader) {
+		calls++;
+	}
+
+	@Override
+	public int glCreateProgram() {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glAttachShader(int program, int shader) {
+		calls++;
+	}
+
+	@Override
+	public void glLinkProgram(int program) {
+		calls++;
+	}
+
+	@Override
+	public int glGetProgrami(int program, int pname) {
+		calls++;
+		return pname == GL45.GL_INFO_LOG_LENGTH ? 0 : GL45.GL_TRUE;
+	}
+
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public void glDeleteProgram(int program) {
+		calls++;
+	}
+
+	@Override
+	public void glUseProgram(int program) {
+		calls++;
+		stateChanges++;
+	}
+
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		calls++;
+		return nextObjectID++;
+	}
+
+	@Override
+	public void glUniform1i(int location, int v0) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniform2fv(int location, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniform3fv(int location, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniform4fv(int location, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniform4fv(int location, float[] value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix2x3fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix2x4fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix3x2fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix3x4fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix4x2fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+
+	@Override
+	public void glUniformMatrix4x3fv(int location, boolean transpose, FloatBuffer value) {
+		calls++;
+		uniformUpdates++;
+	}
+}
@@ -0,0 +1,305 @@
+package rendering.lighting;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import utils.matrix.Mat4f;
+
+/**
+ * Clustered light culling on the CPU: the view frustum is split into tiles in screen space and exponential slices in depth,
+ * every light with a range is binned into the clusters its bounding sphere overlaps.
+ * <p>
+ * The cluster range of a light is the screen space bounding rectangle and depth range of its sphere, which is conservative,
+ * shading still has to test the range per fragment. Lights without range, e.g. directional ones, go into a global list instead.
+ * Binning is a counting sort: lights are counted per cluster in parallel blocks, the counts are turned into offsets
+ * and the blocks scatter their lights, so every cluster list is in ascending light order.
+ * All arrays are reused between builds and only grow.
+ */
+public class LightClusterGrid {
+	/**
+	 * tiles x, tiles y, slices, global light count as int, near plane, far plane, slice scale, unused,
+	 * tiles per pixel x and y, two unused as float
+	 */
+	public static final int headerBytes = 12 * Integer.BYTES;
+	private static final int parallelThreshold = 1 << 10;
+	private static final int boundsStride = 6;
+	private static final int culled = -1;
+	private static final int global = -2;
+
+	private final int tilesX;
+	private final int tilesY;
+	private final int slices;
+	private final int clusterCount;
+
+	// first three rows of the world to view matrix
+	private final float[] worldToView = new float[12];
+	private float scaleX;
+	private float scaleY;
+	private float zNear;
+	private float zFar;
+	private float sliceScale;
+	private boolean hasCamera = false;
+
+	private float[] positions;
+	private float[] ranges;
+	private int lightCount = 0;
+	private int blockSize;
+
+	// min x, max x, min y, max y, min slice, max slice per light, min x is culled or global for lights without cluster range
+	private int[] lightBounds = new int[16 * boundsStride];
+	private int[] blockOffsets;
+	private final int[] clusterStart;
+	private int[] lightIndices = new int[16];
+	private int[] globalLights = new int[16];
+	private int globalLightCount = 0;
+
+	public LightClusterGrid(int tilesX, int tilesY, int slices) {
+		if (tilesX <= 0 || tilesY <= 0 || slices <= 0) {
+			throw new IllegalArgumentException("invalid cluster grid " + tilesX + "x" + tilesY + "x" + slices);
+		}
+		this.tilesX = tilesX;
+		this.tilesY = tilesY;
+		this.slices = slices;
+		clusterCount = tilesX * tilesY * slices;
+		clusterStart = new int[clusterCount + 1];
+		blockOffsets = new int[clusterCount];
+	}
+
+	/**
+	 * @param worldToView camera transform without projection, looking down -z
+	 * @param projection  perspective projection, any other projection disables clustering and all lights become global
+	 */
+	public LightClusterGrid setCamera(Mat4f worldToView, Mat4f projection) {
+		float[] p = projection.data;
+		if (p[14] != -1f || p[15] != 0f) {
+			hasCamera = false;
+			return this;
+		}
+		System.arraycopy(worldToView.data, 0, this.worldToView, 0, 12);
+		scaleX = p[0];
+		scaleY = p[5];
+		zNear = p[11] / (p[10] - 1f);
+		zFar = p[11] / (p[10] + 1f);
+		sliceScale = slices / (float) Math.log(zFar / zNear);
+		hasCamera = true;
+		return this;
+	}
+
+	public LightClusterGrid clearCamera() {
+		hasCamera = false;
+		return this;
+	}
+
+	/**
+	 * Bins the lights, light indices in the cluster lists refer to the order of the input.
+	 *
+	 * @param positions world position per light as x, y, z
+	 * @param ranges    range per light, lights with a range of zero or less affect every cluster
+	 */
+	public void build(float[] positions, float[] ranges, int lightCount) {
+		this.positions = positions;
+		this.ranges = ranges;
+		this.lightCount = lightCount;
+		if (lightBounds.length < lightCount * boundsStride) {
+			lightBounds = new int[Math.max(lightCount, lightBounds.length / boundsStride * 2) * boundsStride];
+		}
+		int blockCount = lightCount >= parallelThreshold ? ForkJoinPool.getCommonPoolParallelism() * 4 : 1;
+		blockSize = (lightCount + blockCount - 1) / blockCount;
+		if (blockOffsets.length < blockCount * clusterCount) {
+			blockOffsets = new int[blockCount * clusterCount];
+		}
+		Arrays.fill(blockOffsets, 0, blockCount * clusterCount, 0);
+
+		if (blockCount > 1) {
+			IntStream.range(0, blockCount).parallel().forEach(this::countBlock);
+		} else {
+			countBlock(0);
+		}
+		int indexCount = computeClusterOffsets(blockCount);
+		if (lightIndices.length < indexCount) {
+			lightIndices = new int[Math.max(indexCount, lightIndices.length * 2)];
+		}
+		if (blockCount > 1) {
+			IntStream.range(0, blockCount).parallel().forEach(this::scatterBlock);
+		} else {
+			scatterBlock(0);
+		}
+
+		globalLightCount = 0;
+		for (int light = 0; light < lightCount; light++) {
+			if (lightBounds[light * boundsStride] == global) {
+				if (globalLightCount == globalLights.length) {
+					globalLights = Arrays.copyOf(globalLights, globalLightCount * 2);
+				}
+				globalLights[globalLightCount++] = light;
+			}
+		}
+		this.positions = null;
+		this.ranges = null;
+	}
+
+	private void countBlock(int block) {
+		int offset = block * clusterCount;
+		for (int light = block * blockSize, end = Math.min(lightCount, light + blockSize); light < end; light++) {
+			int bounds = light * boundsStride;
+			computeBounds(light, bounds);
+			if (lightBounds[bounds] < 0) {
+				continue;
+			}
+			for (int z = lightBounds[bounds + 4]; z <= lightBounds[bounds + 5]; z++) {
+				for (int y = lightBounds[bounds + 2]; y <= lightBounds[bounds + 3]; y++) {
+					int rowStart = offset + getClusterIndex(0, y, z);
+					for (int x = lightBounds[bounds]; x <= lightBounds[bounds + 1]; x++) {
+						blockOffsets[rowStart + x]++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Turns the per block counts into scatter offsets, cluster major so every list stays in light order
+	 *
+	 * @return total amount of cluster entries
+	 */
+	private int computeClusterOffsets(int blockCount) {
+		int runningOffset = 0;
+		for (int cluster = 0; cluster < clusterCount; cluster++) {
+			clusterStart[cluster] = runningOffset;
+			for (int block = 0, index = cluster; block < blockCount; block++, index += clusterCount) {
+				int count = blockOffsets[index];
+				blockOffsets[index] = runningOffset;
+				runningOffset += count;
+			}
+		}
+		clusterStart[clusterCount] = runningOffset;
+		return runningOffset;
+	}
+
+	private void scatterBlock(int block) {
+		int offset = block * clusterCount;
+		for (int light = block * blockSize, end = Math.min(lightCount, light + blockSize); light < end; light++) {
+			int bounds = light * boundsStride;
+			if (lightBounds[bounds] < 0) {
+				continue;
+			}
+			for (int z = lightBounds[bounds + 4]; z <= lightBounds[bounds + 5]; z++) {
+				for (int y = lightBounds[bounds + 2]; y <= lightBounds[bounds + 3]; y++) {
+					int rowStart = offset + getClusterIndex(0, y, z);
+					for (int x = lightBounds[bounds]; x <= lightBounds[bounds + 1]; x++) {
+						lightIndices[blockOffsets[rowStart + x]++] = light;
+					}
+				}
+			}
+		}
+	}
+
+	private void computeBounds(int light, int bounds) {
+		float range = ranges[light];
+		if (!(range > 0f) || !hasCamera) {
+			lightBounds[bounds] = global;
+			return;
+		}
+		float[] m = worldToView;
+		float px = positions[light * 3];
+		float py = positions[light * 3 + 1];
+		float pz = positions[light * 3 + 2];
+		float viewX = m[0] * px + m[1] * py + m[2] * pz + m[3];
+		float viewY = m[4] * px + m[5] * py + m[6] * pz + m[7];
+		float depth = -(m[8] * px + m[9] * py + m[10] * pz + m[11]);
+		if (depth + range < zNear || depth - range > zFar) {
+			lightBounds[bounds] = culled;
+			return;
+		}
+		float nearDepth = Math.max(depth - range, zNear);
+		float farDepth = Math.min(depth + range, zFar);
+
+		// x / depth is monotonic in both, so the extremes of the sphere's bounding box give a conservative screen rectangle
+		float minX = scaleX * (viewX - range) / (viewX - range >= 0f ? farDepth : nearDepth);
+		float maxX = scaleX * (viewX + range) / (viewX + range >= 0f ? nearDepth : farDepth);
+		float minY = scaleY * (viewY - range) / (viewY - range >= 0f ? farDepth : nearDepth);
+		float maxY = scaleY * (viewY + range) / (viewY + range >= 0f ? nearDepth : farDepth);
+		if (maxX < -1f || minX > 1f || maxY < -1f || minY > 1f) {
+			lightBounds[bounds] = culled;
+			return;
+		}
+		lightBounds[bounds] = toTile(minX, tilesX);
+		lightBounds[bounds + 1] = toTile(maxX, tilesX);
+		lightBounds[bounds + 2] = toTile(minY, tilesY);
+		lightBounds[bounds + 3] = toTile(maxY, tilesY);
+		lightBounds[bounds + 4] = getSlice(nearDepth);
+		lightBounds[bounds + 5] = getSlice(farDepth);
+	}
+
+	private static int toTile(float ndc, int tiles) {
+		return Math.max(0, Math.min(tiles - 1, (int) Math.floor((ndc + 1f) * 0.5f * tiles)));
+	}
+
+	/**
+	 * @return depth slice of a positive view depth, matching the lookup in the shader
+	 */
+	public int getSlice(float depth) {
+		return Math.max(0, Math.min(slices - 1, (int) Math.floor(Math.log(depth / zNear) * sliceScale)));
+	}
+
+	public int getClusterIndex(int tileX, int tileY, int slice) {
+		return (slice * tilesY + tileY) * tilesX + tileX;
+	}
+
+	public int getClusterCount() {
+		return clusterCount;
+	}
+
+	public int getClusterLightCount(int cluster) {
+		return clusterStart[cluster + 1] - clusterStart[cluster];
+	}
+
+	/**
+	 * @return index of the i-th light binned into the cluster
+	 */
+	public int getClusterLight(int cluster, int i) {
+		return lightIndices[clusterStart[cluster] + i];
+	}
+
+	/**
+	 * @return amount of cluster list entries over all clusters
+	 */
+	public int getIndexCount() {
+		return clusterStart[clusterCount];
+	}
+
+	public int getGlobalLightCount() {
+		return globalLightCount;
+	}
+
+	public int getGlobalLight(int i) {
+		return globalLights[i];
+	}
+
+	/**
+	 * @return bytes written by {@link #writeTo(ByteBuffer, int, int)}
+	 */
+	public int getByteSize() {
+		return headerBytes + (2 * clusterCount + globalLightCount + getIndexCount()) * Integer.BYTES;
+	}
+
+	/**
+	 * Writes the header, then first index and length of every cluster list, the global lights and the cluster lists.
+	 * List starts count in ints from the end of the header.
+	 *
+	 * @param target little endian buffer with at least {@link #getByteSize()} bytes remaining
+	 */
+	public void writeTo(ByteBuffer target, int screenWidth, int screenHeight) {
+		target.putInt(tilesX).putInt(tilesY).putInt(slices).putInt(globalLightCount);
+		target.putFloat(hasCamera ? zNear : 1f).putFloat(hasCamera ? zFar : 2f).putFloat(hasCamera ? sliceScale : 0f).putFloat(0f);
+		target.putFloat(hasCamera ? (float) tilesX / screenWidth : 0f).putFloat(hasCamera ? (float) tilesY / screenHeight : 0f).putFloat(0f).putFloat(0f);
+		int listBase = 2 * clusterCount + globalLightCount;
+		for (int cluster = 0; cluster < clusterCount; cluster++) {
+			target.putInt(listBase + clusterStart[cluster]).putInt(getClusterLightCount(cluster));
+		}
+		int position = target.position();
+		target.asIntBuffer().put(globalLights, 0, globalLightCount).put(lightIndices, 0, getIndexCount());
+		target.position(position + (globalLightCount + getIndexCount()) * Integer.BYTES);
+	}
+}
@@ -5,6 +5,7 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import utils.noise.threedim.VoxelGrid3D;
 
 public class MarchingCubesGrid3D extends VoxelGrid3D {
@@ -22,24 +23,24 @@ public class MarchingCubesGrid3D extends VoxelGrid3D {
 	public MarchingCubesGrid3D(int xDimension, int yDimension, int zDimension) {
 		super(xDimension, yDimension, zDimension);
 
-		glslVoxelSSBO = GL45.glGenBuffers();
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glslVoxelSSBO);
+		glslVoxelSSBO = GLFacade.glGenBuffers();
+		GLFacade.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glslVoxelSSBO);
 		// why does this align to an offset of 12, unlike Light data which aligns to 16?
 		//  might be because of OpenGL alignment rules regarding struct[] vs vec3[]
-		GL45.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, ((long) xDimension * yDimension * zDimension * Float.BYTES) + 12, GL45.GL_DYNAMIC_DRAW);
+		GLFacade.glBufferData(GL45.GL_SHADER_STORAGE_BUFFER, ((long) xDimension * yDimension * zDimension * Float.BYTES) + 12, GL45.GL_DYNAMIC_DRAW);
 		voxelBuffer = ByteBuffer.allocateDirect(xDimension * yDimension * zDimension * Float.BYTES)
 				.order(ByteOrder.LITTLE_ENDIAN)
 				.asFloatBuffer();
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, new int[]{xDimension, yDimension, zDimension, 0});
+		GLFacade.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 0, new int[]{xDimension, yDimension, zDimension, 0});
 
-		vertexArrayObjectID = GL45.glGenVertexArrays();
-		GL45.glBindVertexArray(vertexArrayObjectID);
+		vertexArrayObjectID = GLFacade.glGenVertexArrays();
+		GLFacade.glBindVertexArray(vertexArrayObjectID);
 
-		vertexBufferObjectID = GL45.glGenBuffers();
-		GL45.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
+		vertexBufferObjectID = GLFacade.glGenBuffers();
+		GLFacade.glBindBuffer(GL45.GL_ARRAY_BUFFER, vertexBufferObjectID);
 
-		GL45.glEnableVertexAttribArray(0);
-		GL45.glVertexAttribIPointer(0, 3, GL45.GL_INT, 3 * Integer.BYTES, 0);
+		GLFacade.glEnableVertexAttribArray(0);
+		GLFacade.glVertexAttribIPointer(0, 3, GL45.GL_INT, 3 * Integer.BYTES, 0);
 
 		IntBuffer intBuffer = ByteBuffer.allocateDirect((xDimension - 1) * (yDimension - 1) * (zDimension - 1) * Integer.BYTES * 3)
 				.order(ByteOrder.LITTLE_ENDIAN)
@@ -54,7 +55,7 @@ public class MarchingCubesGrid3D extends VoxelGrid3D {
 			}
 		}
 		intBuffer.rewind();
-		GL45.glBufferData(GL45.GL_ARRAY_BUFFER, intBuffer, GL45.GL_STATIC_DRAW);
+		GLFacade.glBufferData(GL45.GL_ARRAY_BUFFER, intBuffer, GL45.GL_STATIC_DRAW);
 	}
 
 	public void makeManifold() {
@@ -89,21 +90,21 @@ public class MarchingCubesGrid3D extends VoxelGrid3D {
 			}
 		}
 		voxelBuffer.rewind();
-		GL45.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 12, voxelBuffer);
+		GLFacade.glBufferSubData(GL45.GL_SHADER_STORAGE_BUFFER, 12, voxelBuffer);
 		voxelDataDirty = false;
 	}
 
 	public void bindShaderData(int bindIndex) {
-		GL45.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glslVoxelSSBO);
+		GLFacade.glBindBuffer(GL45.GL_SHADER_STORAGE_BUFFER, glslVoxelSSBO);
 		if (voxelDataDirty) {
 			forceBindVoxelData();
 		}
-		GL45.glBindBufferBase(GL45.GL_SHADER_STORAGE_BUFFER, bindIndex, glslVoxelSSBO);
+		GLFacade.glBindBufferBase(GL45.GL_SHADER_STORAGE_BUFFER, bindIndex, glslVoxelSSBO);
 	}
 
 	public void draw() {
-		GL45.glBindVertexArray(vertexArrayObjectID);
-		GL45.glDrawArrays(GL45.GL_POINTS, 0, (xDimension - 1) * (yDimension - 1) * (zDimension - 1));
+		GLFacade.glBindVertexArray(vertexArrayObjectID);
+		GLFacade.glDrawArrays(GL45.GL_POINTS, 0, (xDimension - 1) * (yDimension - 1) * (zDimension - 1));
 	}
 
 	public void delete() {
@@ -111,7 +112,7 @@ public class MarchingCubesGrid3D extends VoxelGrid3D {
 			return;
 		}
 		isDeleted = true;
-		GL45.glDeleteBuffers(vertexBufferObjectID);
-		GL45.glDeleteVertexArrays(vertexArrayObjectID);
+		GLFacade.glDeleteBuffers(vertexBufferObjectID);
+		GLFacade.glDeleteVertexArrays(vertexArrayObjectID);
 	}
 }
@@ -16,7 +16,6 @@ import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rendering.GeometryBuffer;
-import utils.operator.Operator;
 import utils.vector.Vec2f;
 import utils.vector.Vec3f;
 
@@ -185,7 +184,7 @@ public class MeshData {
 		}
 		if (invertNormals) {
 			for (Vec3f normal : normals) {
-				normal.apply(Operator.Mul, -1f);
+				normal.mulInPlace(-1f);
 			}
 		}
 	}
@@ -200,7 +199,7 @@ public class MeshData {
 	/**
 	 * @return a list of unique vertices + array of indices that map this MeshData::faces to the unique list.
 	 */
-	private Pair<ArrayList<FaceData.VertexData>, int[]> gatherUniqueVertices() {
+	Pair<ArrayList<FaceData.VertexData>, int[]> gatherUniqueVertices() {
 		ArrayList<FaceData.VertexData> uniqueVertices = new ArrayList<>();
 		int[] indexData = new int[faces.size() * 3];
 		int indexDataIndex = 0;
@@ -0,0 +1,208 @@
+package rendering.mesh;
+
+import ecs.components.Mesh;
+import ecs.soa.TransformView;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import rendering.texture.ITexture;
+import utils.matrix.Mat4f;
+
+/**
+ * Groups meshes that share their {@link MeshData} and textures into batches, so every batch can be drawn with one instanced call.
+ * <p>
+ * Once per frame {@link #begin()}, {@link #add(Mesh, Mat4f)} (or {@link #add(Mesh, TransformView)}) for every mesh to draw and {@link #finish()}.
+ * Finishing orders the object to world matrices by batch into one buffer, batches in the order they were first added.
+ * Batches and buffers are kept between frames, so a frame with a known set of batches does not allocate.
+ */
+public class MeshInstanceBatcher {
+	public static final int matrixBytes = Mat4f.DATA_LEN * Float.BYTES;
+
+	private static final class BatchKey {
+		private MeshData meshData;
+		private ITexture textureData;
+		private ITexture phongData;
+		private ITexture normalData;
+		private ITexture heightData;
+
+		private BatchKey set(Mesh mesh) {
+			meshData = mesh.getMeshData();
+			textureData = mesh.getTextureData();
+			phongData = mesh.getPhongData();
+			normalData = mesh.getNormalData();
+			heightData = mesh.getHeightData();
+			return this;
+		}
+
+		private BatchKey copy() {
+			BatchKey copy = new BatchKey();
+			copy.meshData = meshData;
+			copy.textureData = textureData;
+			copy.phongData = phongData;
+			copy.normalData = normalData;
+			copy.heightData = heightData;
+			return copy;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof BatchKey other)) {
+				return false;
+			}
+			return meshData == other.meshData && textureData == other.textureData && phongData == other.phongData
+					&& normalData == other.normalData && heightData == other.heightData;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = Objects.hashCode(meshData);
+			hash = 31 * hash + Objects.hashCode(textureData);
+			hash = 31 * hash + Objects.hashCode(phongData);
+			hash = 31 * hash + Objects.hashCode(normalData);
+			return 31 * hash + Objects.hashCode(heightData);
+		}
+	}
+
+	private static final class Batch {
+		private final BatchKey key;
+		private Mesh mesh;
+		private long frame = -1;
+		private int index;
+		private int size;
+		private int offset;
+		private int cursor;
+
+		private Batch(BatchKey key) {
+			this.key = key;
+		}
+	}
+
+	private final HashMap<BatchKey, Batch> batches = new HashMap<>();
+	private final ArrayList<Batch> activeBatches = new ArrayList<>();
+	private final BatchKey probeKey = new BatchKey();
+	private long frame = 0;
+
+	private Mat4f[] instanceMatrices = new Mat4f[16];
+	private TransformView[] instanceViews = new TransformView[16];
+	private int[] instanceBatches = new int[16];
+	private int instanceCount = 0;
+	private ByteBuffer instanceData = ByteBuffer.allocateDirect(16 * matrixBytes).order(ByteOrder.LITTLE_ENDIAN);
+	private FloatBuffer instanceFloats = instanceData.asFloatBuffer();
+
+	public void begin() {
+		frame++;
+		activeBatches.clear();
+		Arrays.fill(instanceMatrices, 0, instanceCount, null);
+		Arrays.fill(instanceViews, 0, instanceCount, null);
+		instanceCount = 0;
+	}
+
+	/**
+	 * @param objectToWorld matrix of the instance, read on {@link #finish()}
+	 */
+	public void add(Mesh mesh, Mat4f objectToWorld) {
+		int instance = addInstance(mesh);
+		instanceMatrices[instance] = objectToWorld;
+	}
+
+	/**
+	 * @param storeView store slot whose matrix is copied on {@link #finish()}, without syncing it into the transform
+	 */
+	public void add(Mesh mesh, TransformView storeView) {
+		int instance = addInstance(mesh);
+		instanceViews[instance] = storeView;
+	}
+
+	/**
+	 * @return index of the new instance
+	 */
+	private int addInstance(Mesh mesh) {
+		Batch batch = batches.get(probeKey.set(mesh));
+		if (batch == null) {
+			batch = new Batch(probeKey.copy());
+			batches.put(batch.key, batch);
+		}
+		if (batch.frame != frame) {
+			batch.frame = frame;
+			batch.mesh = mesh;
+			batch.size = 0;
+			batch.index = activeBatches.size();
+			activeBatches.add(batch);
+		}
+		batch.size++;
+
+		if (instanceCount == instanceBatches.length) {
+			instanceBatches = Arrays.copyOf(instanceBatches, instanceCount * 2);
+			instanceMatrices = Arrays.copyOf(instanceMatrices, instanceCount * 2);
+			instanceViews = Arrays.copyOf(instanceViews, instanceCount * 2);
+		}
+		instanceBatches[instanceCount] = batch.index;
+		return instanceCount++;
+	}
+
+	/**
+	 * Writes the matrices of all added instances grouped by batch, batches that received no instance this frame are dropped
+	 */
+	public void finish() {
+		int runningOffset = 0;
+		for (Batch batch : activeBatches) {
+			batch.offset = runningOffset;
+			batch.cursor = runningOffset;
+			runningOffset += batch.size;
+		}
+		if (batches.size() > activeBatches.size()) {
+			batches.values().removeIf(batch -> batch.frame != frame);
+		}
+
+		if (instanceData.capacity() < instanceCount * matrixBytes) {
+			instanceData = ByteBuffer.allocateDirect(Math.max(instanceCount, instanceData.capacity() / matrixBytes * 3 / 2) * matrixBytes).order(ByteOrder.LITTLE_ENDIAN);
+			instanceFloats = instanceData.asFloatBuffer();
+		}
+		for (int instance = 0; instance < instanceCount; instance++) {
+			Batch batch = activeBatches.get(instanceBatches[instance]);
+			int index = batch.cursor++ * Mat4f.DATA_LEN;
+			if (instanceViews[instance] != null) {
+				instanceViews[instance].writeTransformMatrix(instanceFloats, index);
+			} else {
+				instanceFloats.put(index, instanceMatrices[instance].data, 0, Mat4f.DATA_LEN);
+			}
+		}
+	}
+
+	public int getBatchCount() {
+		return activeBatches.size();
+	}
+
+	/**
+	 * @return first mesh added to the batch this frame, all meshes of a batch share geometry and textures
+	 */
+	public Mesh getBatchMesh(int batch) {
+		return activeBatches.get(batch).mesh;
+	}
+
+	/**
+	 * @return index of the batch's first instance in the instance data
+	 */
+	public int getBatchOffset(int batch) {
+		return activeBatches.get(batch).offset;
+	}
+
+	public int getBatchSize(int batch) {
+		return activeBatches.get(batch).size;
+	}
+
+	public int getInstanceCount() {
+		return instanceCount;
+	}
+
+	/**
+	 * @return row major object to world matrices of all instances, from position 0 up to the limit
+	 */
+	public ByteBuffer getInstanceData() {
+		return instanceData.limit(instanceCount * matrixBytes).position(0);
+	}
+}
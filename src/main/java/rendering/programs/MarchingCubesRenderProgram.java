@@ -4,8 +4,8 @@ import ecs.DrawSystem;
 import ecs.Entity;
 import ecs.EntityRegistry;
 import ecs.systems.LightManagerSystem;
-import org.lwjgl.opengl.GL45;
 import rendering.ShaderProgram;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.ShaderData;
 import rendering.shaderdata.ShaderDataManager;
 import rendering.texture.ITexture;
@@ -71,9 +71,9 @@ public class MarchingCubesRenderProgram implements DrawSystem {
 
 	@Override
 	public void execute_drawTick(Entity entity) {
-		GL45.glUniform4fv(glsl_phongData, entity.marchingCubesMesh.phongData().data);
+		GLFacade.glUniform4fv(glsl_phongData, entity.marchingCubesMesh.phongData().data);
 		entity.marchingCubesMesh.voxelGrid().bindShaderData(1);
-		GL45.glUniformMatrix4fv(glsl_objectToWorldMatrix, true, entity.transform.getTransformMatrix().data);
+		GLFacade.glUniformMatrix4fv(glsl_objectToWorldMatrix, true, entity.transform.getTransformMatrix().data);
 		entity.marchingCubesMesh.voxelGrid().draw();
 	}
 
@@ -1,18 +1,33 @@
 package rendering.programs;
 
+import camera.BaseCamera;
+import ecs.ComponentSignature;
+import ecs.ComponentType;
 import ecs.DrawSystem;
 import ecs.Entity;
 import ecs.EntityRegistry;
+import ecs.components.Mesh;
+import ecs.soa.TransformView;
 import ecs.systems.LightManagerSystem;
+import java.nio.ByteBuffer;
 import org.lwjgl.opengl.GL45;
 import rendering.ShaderProgram;
+import rendering.ShaderStorageBuffer;
+import rendering.gl.GLFacade;
+import rendering.mesh.MeshInstanceBatcher;
 import rendering.shaderdata.ShaderData;
 import rendering.shaderdata.ShaderDataManager;
 
 public class MeshRenderProgram implements DrawSystem {
+	private static final ComponentSignature requiredComponents = ComponentSignature.of(ComponentType.transform, ComponentType.mesh);
+
 	private final ShaderProgram program = ShaderProgram.fromBaseDirectory("shader/demo", true, true, true);
+	private final BaseCamera camera;
+	private final MeshInstanceBatcher instanceBatcher = new MeshInstanceBatcher();
+	private final ShaderStorageBuffer glInstanceSSBO = new ShaderStorageBuffer(GL45.GL_DYNAMIC_DRAW);
+	private long instanceBufferBytes = 0;
 
-	private final int glsl_objectToWorldMatrix;
+	private final int glsl_instanceOffset;
 	private final int glsl_worldToCameraMatrix;
 	private final int glsl_cameraPosition;
 	private final int glsl_ambientLight;
@@ -20,8 +35,12 @@ public class MeshRenderProgram implements DrawSystem {
 
 	private boolean forceBindData = false;
 
-	public MeshRenderProgram() {
-		glsl_objectToWorldMatrix = program.getUniformLocation("object_to_world_matrix");
+	/**
+	 * @param camera camera the lights are clustered for
+	 */
+	public MeshRenderProgram(BaseCamera camera) {
+		this.camera = camera;
+		glsl_instanceOffset = program.getUniformLocation("instance_offset");
 		glsl_worldToCameraMatrix = program.getUniformLocation("world_to_camera_matrix");
 		glsl_cameraPosition = program.getUniformLocation("camera_position");
 		glsl_ambientLight = program.getUniformLocation("ambient_light");
@@ -46,14 +65,23 @@ public class MeshRenderProgram implements DrawSystem {
 		bindData(dataManager.camera_position, glsl_cameraPosition);
 		bindData(dataManager.lighting_ambientLight, glsl_ambientLight);
 
-		LightManagerSystem.getInstance().bindShaderData(4);
+		LightManagerSystem lightManager = LightManagerSystem.getInstance();
+		lightManager.bindShaderData(4);
+		lightManager.bindClusterData(6, camera);
 
+		instanceBatcher.begin();
 		EntityRegistry.getInstance().executeDrawSystem(this);
 		forceBindData = false;
 	}
 
 	public void delete() {
 		program.delete();
+		glInstanceSSBO.delete();
+	}
+
+	@Override
+	public ComponentSignature getRequiredComponents() {
+		return requiredComponents;
 	}
 
 	@Override
@@ -63,12 +91,36 @@ public class MeshRenderProgram implements DrawSystem {
 
 	@Override
 	public void execute_drawTick(Entity entity) {
-		entity.meshComponent.bindTextures(0, 1, 2, 3, glsl_textureFlags);
-		GL45.glUniformMatrix4fv(glsl_objectToWorldMatrix, true, entity.transform.getTransformMatrix().data);
-		entity.meshComponent.getMeshData().getGeometryBuffer().draw();
+		TransformView storeView = entity.transform.getStoreView();
+		if (storeView != null) {
+			instanceBatcher.add(entity.meshComponent, storeView);
+		} else {
+			instanceBatcher.add(entity.meshComponent, entity.transform.getTransformMatrix());
+		}
 	}
 
+	/**
+	 * Uploads the matrices of all collected instances and draws every batch of equal geometry and textures with one call
+	 */
 	@Override
 	public void onExecuteDrawDone() {
+		instanceBatcher.finish();
+		ByteBuffer instanceData = instanceBatcher.getInstanceData();
+		if (!instanceData.hasRemaining()) {
+			return;
+		}
+		if (instanceData.remaining() > instanceBufferBytes) {
+			instanceBufferBytes = instanceData.capacity();
+			glInstanceSSBO.allocate(instanceBufferBytes);
+		}
+		glInstanceSSBO.upload(0, instanceData);
+		glInstanceSSBO.bind(7);
+
+		for (int batch = 0; batch < instanceBatcher.getBatchCount(); batch++) {
+			Mesh mesh = instanceBatcher.getBatchMesh(batch);
+			mesh.bindTextures(0, 1, 2, 3, glsl_textureFlags);
+			GLFacade.glUniform1i(glsl_instanceOffset, instanceBatcher.getBatchOffset(batch));
+			mesh.getMeshData().getGeometryBuffer().drawInstanced(instanceBatcher.getBatchSize(batch));
+		}
 	}
 }
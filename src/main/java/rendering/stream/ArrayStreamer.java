@@ -0,0 +1,66 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+import rendering.GpuArrayManager;
+import rendering.gl.GLFacade;
+
+/**
+ * Streams the whole content of a {@link GpuArrayManager} into a {@link StreamingRingBuffer} once per frame and binds the written range.
+ * The ring is recreated with twice the needed frame capacity whenever the array outgrows it.
+ */
+public class ArrayStreamer {
+	private static final int minFrameCapacity = 4096;
+	private static final int bindAlignment = 256;
+
+	private final int target;
+	private final Supplier<IStreamingStorage> storageFactory;
+	private StreamingRingBuffer ring = null;
+	private long streamedFrame = -1;
+	private long streamedOffset = 0;
+	private int streamedBytes = 0;
+
+	/**
+	 * @param target buffer target the written range is bound to, e.g. GL_SHADER_STORAGE_BUFFER
+	 */
+	public ArrayStreamer(int target, Supplier<IStreamingStorage> storageFactory) {
+		this.target = target;
+		this.storageFactory = storageFactory;
+	}
+
+	/**
+	 * Writes the array if it was not written yet this frame, see {@link GLFacade#getFrameIndex()}, and binds it
+	 */
+	public void bind(GpuArrayManager<?> array, int bindIndex) {
+		long frame = GLFacade.getFrameIndex();
+		if (frame != streamedFrame) {
+			int bytes = array.getByteSize();
+			if (ring == null || ring.getFrameCapacity() < bytes) {
+				if (ring != null) {
+					ring.delete();
+				}
+				ring = new StreamingRingBuffer(storageFactory.get(), Math.max(minFrameCapacity, 2 * bytes), StreamingRingBuffer.defaultFramesInFlight, bindAlignment);
+			} else {
+				ring.endFrame();
+			}
+			ByteBuffer region = ring.allocate(bytes);
+			array.writeTo(region);
+			streamedOffset = ring.getLastOffset();
+			streamedBytes = bytes;
+			streamedFrame = frame;
+		}
+		ring.bindRange(target, bindIndex, streamedOffset, streamedBytes);
+	}
+
+	public StreamingRingBuffer getRing() {
+		return ring;
+	}
+
+	public void delete() {
+		if (ring != null) {
+			ring.delete();
+			ring = null;
+		}
+		streamedFrame = -1;
+	}
+}
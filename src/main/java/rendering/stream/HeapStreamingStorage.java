@@ -0,0 +1,93 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stand-in storage without a GPU: memory lives on the heap and fences only signal when told to, or when they are waited on.
+ * Lets tests and benchmarks drive the ring buffer allocation, wrap-around and fence logic headless.
+ */
+public class HeapStreamingStorage implements IStreamingStorage {
+	/**
+	 * Last range passed to {@link #bindRange(int, int, long, long)}
+	 */
+	public record Binding(int target, int bindIndex, long offset, long bytes) {
+	}
+
+	private ByteBuffer memory;
+	private long nextFence = 1;
+	private long signaledFence = 0;
+	private int liveFences = 0;
+	private int waitCount = 0;
+	private Binding lastBinding = null;
+
+	@Override
+	public ByteBuffer create(long bytes) {
+		memory = ByteBuffer.allocate((int) bytes);
+		return memory;
+	}
+
+	public ByteBuffer getMemory() {
+		return memory;
+	}
+
+	@Override
+	public long insertFence() {
+		liveFences++;
+		return nextFence++;
+	}
+
+	/**
+	 * Signals the fence and all fences inserted before it, like the GPU completing commands in order
+	 */
+	public void signal(long fence) {
+		signaledFence = Math.max(signaledFence, fence);
+	}
+
+	public void signalAll() {
+		signaledFence = nextFence - 1;
+	}
+
+	@Override
+	public boolean isSignaled(long fence) {
+		return fence <= signaledFence;
+	}
+
+	/**
+	 * Counts the wait and treats it as the GPU finishing up to the fence
+	 */
+	@Override
+	public void waitFence(long fence) {
+		waitCount++;
+		signal(fence);
+	}
+
+	@Override
+	public void deleteFence(long fence) {
+		liveFences--;
+	}
+
+	@Override
+	public void bindRange(int target, int bindIndex, long offset, long bytes) {
+		lastBinding = new Binding(target, bindIndex, offset, bytes);
+	}
+
+	@Override
+	public void delete() {
+		memory = null;
+	}
+
+	/**
+	 * @return amount of inserted fences that were not deleted yet
+	 */
+	public int getLiveFences() {
+		return liveFences;
+	}
+
+	public int getWaitCount() {
+		return waitCount;
+	}
+
+	public Binding getLastBinding() {
+		return lastBinding;
+	}
+}
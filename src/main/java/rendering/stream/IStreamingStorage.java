@@ -0,0 +1,31 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Memory and fences behind a {@link StreamingRingBuffer}, keeps the GL calls out of the ring so it can be tested without a context.
+ */
+public interface IStreamingStorage {
+	/**
+	 * Creates the storage and maps all of it, the mapping stays valid until {@link #delete()}
+	 */
+	ByteBuffer create(long bytes);
+
+	/**
+	 * @return fence that signals once all commands submitted so far are done
+	 */
+	long insertFence();
+
+	boolean isSignaled(long fence);
+
+	/**
+	 * Blocks until the fence is signaled
+	 */
+	void waitFence(long fence);
+
+	void deleteFence(long fence);
+
+	void bindRange(int target, int bindIndex, long offset, long bytes);
+
+	void delete();
+}
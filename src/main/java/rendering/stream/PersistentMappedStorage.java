@@ -0,0 +1,74 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
+
+/**
+ * Immutable buffer storage that stays mapped for writing while the GPU reads it, with GL sync objects as fences.
+ * The mapping is coherent, so written bytes are visible to commands submitted afterwards without an explicit flush.
+ */
+public class PersistentMappedStorage implements IStreamingStorage {
+	private static final int mapFlags = GL45.GL_MAP_WRITE_BIT | GL45.GL_MAP_PERSISTENT_BIT | GL45.GL_MAP_COHERENT_BIT;
+	private static final long waitTimeoutNanos = 1_000_000L;
+
+	private int bufferID = 0;
+
+	@Override
+	public ByteBuffer create(long bytes) {
+		bufferID = GLFacade.glGenBuffers();
+		GLFacade.glBindBuffer(GL45.GL_COPY_WRITE_BUFFER, bufferID);
+		GLFacade.glBufferStorage(GL45.GL_COPY_WRITE_BUFFER, bytes, mapFlags);
+		ByteBuffer mapping = GLFacade.glMapBufferRange(GL45.GL_COPY_WRITE_BUFFER, 0, bytes, mapFlags);
+		if (mapping == null) {
+			throw new IllegalStateException("could not map streaming buffer of " + bytes + " bytes");
+		}
+		return mapping;
+	}
+
+	@Override
+	public long insertFence() {
+		return GLFacade.glFenceSync(GL45.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+	}
+
+	@Override
+	public boolean isSignaled(long fence) {
+		return isDone(GLFacade.glClientWaitSync(fence, 0, 0));
+	}
+
+	@Override
+	public void waitFence(long fence) {
+		int flags = GL45.GL_SYNC_FLUSH_COMMANDS_BIT;
+		while (true) {
+			int result = GLFacade.glClientWaitSync(fence, flags, waitTimeoutNanos);
+			if (isDone(result)) {
+				return;
+			}
+			if (result == GL45.GL_WAIT_FAILED) {
+				throw new IllegalStateException("waiting for streaming buffer fence failed");
+			}
+			flags = 0;
+		}
+	}
+
+	private static boolean isDone(int waitResult) {
+		return waitResult == GL45.GL_ALREADY_SIGNALED || waitResult == GL45.GL_CONDITION_SATISFIED;
+	}
+
+	@Override
+	public void deleteFence(long fence) {
+		GLFacade.glDeleteSync(fence);
+	}
+
+	@Override
+	public void bindRange(int target, int bindIndex, long offset, long bytes) {
+		GLFacade.glBindBufferRange(target, bindIndex, bufferID, offset, bytes);
+	}
+
+	@Override
+	public void delete() {
+		// deleting the buffer also releases the persistent mapping
+		GLFacade.glDeleteBuffers(bufferID);
+		bufferID = 0;
+	}
+}
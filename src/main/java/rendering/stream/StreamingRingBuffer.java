@@ -0,0 +1,150 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Ring buffer for per-frame dynamic data in persistently mapped memory, producers write straight into the mapped region
+ * instead of handing the driver a staging copy.
+ * <p>
+ * Allocations of a frame are placed behind each other and wrap around to the start once the end is reached.
+ * {@link #endFrame()} puts a fence behind the frame, the frame's bytes are only reused after that fence signaled.
+ * At most framesInFlight frames are written or read at the same time, so the CPU never runs further ahead of the GPU than that.
+ */
+public class StreamingRingBuffer {
+	public static final int defaultFramesInFlight = 3;
+
+	private record PendingFrame(long fence, long bytes) {
+	}
+
+	private final IStreamingStorage storage;
+	private final ByteBuffer mapping;
+	private final int frameCapacity;
+	private final int framesInFlight;
+	private final int alignment;
+	private final long capacity;
+	private final ArrayDeque<PendingFrame> pendingFrames = new ArrayDeque<>();
+
+	private long head = 0;
+	private long usedBytes = 0;
+	private long frameBytes = 0;
+	private long lastOffset = 0;
+	private long frameIndex = 0;
+	private int stallCount = 0;
+
+	/**
+	 * @param frameCapacity  bytes one frame is expected to write, the ring holds framesInFlight times as much
+	 * @param framesInFlight frames that may be in use at once, 3 for triple buffering
+	 * @param alignment      power of two every allocation starts at, e.g. the buffer offset alignment of the bind target
+	 */
+	public StreamingRingBuffer(IStreamingStorage storage, int frameCapacity, int framesInFlight, int alignment) {
+		if (frameCapacity <= 0 || framesInFlight <= 0 || alignment <= 0 || Integer.bitCount(alignment) != 1) {
+			throw new IllegalArgumentException("invalid ring layout, frameCapacity: " + frameCapacity + ", framesInFlight: " + framesInFlight + ", alignment: " + alignment);
+		}
+		this.storage = storage;
+		this.frameCapacity = frameCapacity;
+		this.framesInFlight = framesInFlight;
+		this.alignment = alignment;
+		capacity = (long) frameCapacity * framesInFlight;
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("ring of " + capacity + " bytes exceeds the maximum mapping size");
+		}
+		mapping = storage.create(capacity);
+	}
+
+	/**
+	 * Reserves bytes in the current frame, waiting for the GPU to release old frames if the ring is full.
+	 * The returned view is meant for writing only, reads from mapped memory are slow.
+	 *
+	 * @return little endian view of the reserved bytes, its offset in the buffer is available through {@link #getLastOffset()}
+	 */
+	public ByteBuffer allocate(int bytes) {
+		long start = (head + alignment - 1) & -alignment;
+		if (start + bytes > capacity) {
+			start = 0;
+		}
+		long needed = (start < head ? capacity - head : start - head) + bytes;
+		while (capacity - usedBytes < needed) {
+			if (pendingFrames.isEmpty()) {
+				throw new IllegalStateException("frame needs more than the streaming buffer capacity of " + capacity + " bytes");
+			}
+			retireOldestFrame();
+		}
+		usedBytes += needed;
+		frameBytes += needed;
+		head = start + bytes;
+		lastOffset = start;
+		return mapping.slice((int) start, bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * @return byte offset of the last allocation in the buffer
+	 */
+	public long getLastOffset() {
+		return lastOffset;
+	}
+
+	public void bindRange(int target, int bindIndex, long offset, long bytes) {
+		storage.bindRange(target, bindIndex, offset, bytes);
+	}
+
+	/**
+	 * Fences the current frame after all commands reading it were submitted and recycles frames the GPU is done with.
+	 * Blocks if framesInFlight frames are still in use.
+	 */
+	public void endFrame() {
+		if (frameBytes > 0) {
+			pendingFrames.add(new PendingFrame(storage.insertFence(), frameBytes));
+			frameBytes = 0;
+		}
+		frameIndex++;
+		while (!pendingFrames.isEmpty() && (pendingFrames.size() >= framesInFlight || storage.isSignaled(pendingFrames.peek().fence()))) {
+			retireOldestFrame();
+		}
+	}
+
+	private void retireOldestFrame() {
+		PendingFrame frame = pendingFrames.poll();
+		if (!storage.isSignaled(frame.fence())) {
+			stallCount++;
+			storage.waitFence(frame.fence());
+		}
+		storage.deleteFence(frame.fence());
+		usedBytes -= frame.bytes();
+	}
+
+	public int getFrameCapacity() {
+		return frameCapacity;
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return bytes written by the current and all unretired frames, including alignment and wrap-around padding
+	 */
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	public long getFrameIndex() {
+		return frameIndex;
+	}
+
+	/**
+	 * @return amount of times the CPU had to wait for the GPU to release a frame
+	 */
+	public int getStallCount() {
+		return stallCount;
+	}
+
+	public void delete() {
+		for (PendingFrame frame : pendingFrames) {
+			storage.deleteFence(frame.fence());
+		}
+		pendingFrames.clear();
+		storage.delete();
+	}
+}
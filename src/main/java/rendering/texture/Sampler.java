@@ -1,6 +1,7 @@
 package rendering.texture;
 
 import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 
 public class Sampler {
 
@@ -36,29 +37,29 @@ public class Sampler {
 	}
 
 	public Sampler(Filter minFilter, Filter magFilter, Filter mipFilter, Border borderHandling, boolean mipMap) {
-		samplerID = GL45.glGenSamplers();
-		GL45.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_S, borderHandling.glWrapType);
-		GL45.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_T, borderHandling.glWrapType);
-		GL45.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_R, borderHandling.glWrapType);
+		samplerID = GLFacade.glGenSamplers();
+		GLFacade.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_S, borderHandling.glWrapType);
+		GLFacade.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_T, borderHandling.glWrapType);
+		GLFacade.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_WRAP_R, borderHandling.glWrapType);
 
 		int glMinFilter = mipMap ?
 				minFilter == Filter.Point
 						? mipFilter == Filter.Point ? GL45.GL_NEAREST_MIPMAP_NEAREST : GL45.GL_NEAREST_MIPMAP_LINEAR
 						: mipFilter == Filter.Point ? GL45.GL_LINEAR_MIPMAP_NEAREST : GL45.GL_LINEAR_MIPMAP_LINEAR
 				: minFilter == Filter.Point ? GL45.GL_NEAREST : GL45.GL_LINEAR;
-		GL45.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_MIN_FILTER, glMinFilter);
-		GL45.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_MAG_FILTER, magFilter == Filter.Point ? GL45.GL_NEAREST : GL45.GL_LINEAR);
+		GLFacade.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_MIN_FILTER, glMinFilter);
+		GLFacade.glSamplerParameteri(samplerID, GL45.GL_TEXTURE_MAG_FILTER, magFilter == Filter.Point ? GL45.GL_NEAREST : GL45.GL_LINEAR);
 	}
 
 	public void bind(int textureSlot) {
-		GL45.glBindSampler(textureSlot, samplerID);
+		GLFacade.glBindSampler(textureSlot, samplerID);
 	}
 
 	public void deleteSampler() {
 		if (isDeleted) {
 			return;
 		}
-		GL45.glDeleteSamplers(samplerID);
+		GLFacade.glDeleteSamplers(samplerID);
 		isDeleted = true;
 	}
 }
@@ -9,6 +9,7 @@ import javax.imageio.ImageIO;
 import logging.LogbackLoggerProvider;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 
 public class ShortDataTexture2D implements ITexture {
 	private static final Logger logger = LogbackLoggerProvider.getLogger(ShortDataTexture2D.class);
@@ -34,18 +35,18 @@ public class ShortDataTexture2D implements ITexture {
 	private boolean isDeleted = false;
 
 	public ShortDataTexture2D(BufferedImage image, Sampler sampler) {
-		textureID = GL45.glGenTextures();
+		textureID = GLFacade.glGenTextures();
 		this.sampler = sampler;
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 
 		int height = image.getHeight();
 		int width = image.getWidth();
 		DataBufferUShort shortBuffer = (DataBufferUShort) image.getRaster().getDataBuffer();
 		short[] data = shortBuffer.getData();
 
-		GL45.glPixelStorei(GL45.GL_UNPACK_ALIGNMENT, 2);
-		GL45.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_R16I, width, height, 0, GL45.GL_RED_INTEGER, GL45.GL_SHORT, data);
-		GL45.glGenerateMipmap(GL45.GL_TEXTURE_2D);
+		GLFacade.glPixelStorei(GL45.GL_UNPACK_ALIGNMENT, 2);
+		GLFacade.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_R16I, width, height, 0, GL45.GL_RED_INTEGER, GL45.GL_SHORT, data);
+		GLFacade.glGenerateMipmap(GL45.GL_TEXTURE_2D);
 	}
 
 	@Override
@@ -61,8 +62,8 @@ public class ShortDataTexture2D implements ITexture {
 		if (isDeleted) {
 			throw new IllegalStateException("cannot call 'bindTexture' of deleted Texture!");
 		}
-		GL45.glActiveTexture(GL45.GL_TEXTURE0 + slot);
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glActiveTexture(GL45.GL_TEXTURE0 + slot);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 		sampler.bind(slot);
 	}
 
@@ -71,8 +72,8 @@ public class ShortDataTexture2D implements ITexture {
 		if (isDeleted) {
 			return;
 		}
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, 0);
-		GL45.glDeleteTextures(textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, 0);
+		GLFacade.glDeleteTextures(textureID);
 		isDeleted = true;
 	}
 }
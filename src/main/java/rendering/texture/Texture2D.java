@@ -10,6 +10,7 @@ import javax.imageio.ImageIO;
 import logging.LogbackLoggerProvider;
 import org.lwjgl.opengl.GL45;
 import org.slf4j.Logger;
+import rendering.gl.GLFacade;
 
 public class Texture2D implements ITexture {
 	private static final Logger logger = LogbackLoggerProvider.getLogger(Texture2D.class);
@@ -35,9 +36,9 @@ public class Texture2D implements ITexture {
 	private boolean isDeleted = false;
 
 	private Texture2D(BufferedImage image, Sampler sampler) {
-		textureID = GL45.glGenTextures();
+		textureID = GLFacade.glGenTextures();
 		this.sampler = sampler;
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 
 		//int[] rgb = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
 		ColorModel colorModel = image.getColorModel();
@@ -56,8 +57,8 @@ public class Texture2D implements ITexture {
 			}
 		}
 
-		GL45.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, image.getWidth(), image.getHeight(), 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
-		GL45.glGenerateMipmap(GL45.GL_TEXTURE_2D);
+		GLFacade.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, image.getWidth(), image.getHeight(), 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
+		GLFacade.glGenerateMipmap(GL45.GL_TEXTURE_2D);
 	}
 
 	@Override
@@ -73,8 +74,8 @@ public class Texture2D implements ITexture {
 		if (isDeleted) {
 			throw new IllegalStateException("cannot call 'bindTexture' of deleted Texture!");
 		}
-		GL45.glActiveTexture(GL45.GL_TEXTURE0 + slot);
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glActiveTexture(GL45.GL_TEXTURE0 + slot);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 		sampler.bind(slot);
 	}
 
@@ -83,8 +84,8 @@ public class Texture2D implements ITexture {
 		if (isDeleted) {
 			return;
 		}
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, 0);
-		GL45.glDeleteTextures(textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, 0);
+		GLFacade.glDeleteTextures(textureID);
 		isDeleted = true;
 	}
 
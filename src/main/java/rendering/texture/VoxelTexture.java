@@ -2,6 +2,7 @@ package rendering.texture;
 
 import java.util.Map;
 import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import utils.MathF;
 import utils.noise.twodim.IVoxelGrid2D;
 
@@ -37,7 +38,7 @@ public class VoxelTexture implements ITexture {
 
 	public VoxelTexture(IVoxelGrid2D voxelGrid, Sampler sampler) {
 		this.voxelGrid = voxelGrid;
-		textureID = GL45.glGenTextures();
+		textureID = GLFacade.glGenTextures();
 		this.sampler = sampler;
 	}
 
@@ -51,7 +52,7 @@ public class VoxelTexture implements ITexture {
 
 		assert !colorMapping.isEmpty();
 
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 
 		float[] mappedVoxelValues = new float[colorMapping.size()];
 		int[] mappedColorValues = new int[colorMapping.size()];
@@ -105,8 +106,8 @@ public class VoxelTexture implements ITexture {
 			}
 		}
 
-		GL45.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, width, height, 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
-		GL45.glGenerateMipmap(GL45.GL_TEXTURE_2D);
+		GLFacade.glTexImage2D(GL45.GL_TEXTURE_2D, 0, GL45.GL_RGBA8, width, height, 0, GL45.GL_RGBA, GL45.GL_UNSIGNED_INT_8_8_8_8_REV, rgbArray);
+		GLFacade.glGenerateMipmap(GL45.GL_TEXTURE_2D);
 	}
 
 	@Override
@@ -122,8 +123,8 @@ public class VoxelTexture implements ITexture {
 		if (isDeleted) {
 			throw new IllegalStateException("cannot call 'bindTexture' of deleted Texture!");
 		}
-		GL45.glActiveTexture(GL45.GL_TEXTURE0 + slot);
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
+		GLFacade.glActiveTexture(GL45.GL_TEXTURE0 + slot);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, textureID);
 		sampler.bind(slot);
 	}
 
@@ -132,8 +133,8 @@ public class VoxelTexture implements ITexture {
 		if (isDeleted) {
 			return;
 		}
-		GL45.glBindTexture(GL45.GL_TEXTURE_2D, 0);
-		GL45.glDeleteTextures(textureID);
+		GLFacade.glBindTexture(GL45.GL_TEXTURE_2D, 0);
+		GLFacade.glDeleteTextures(textureID);
 		isDeleted = true;
 	}
 }
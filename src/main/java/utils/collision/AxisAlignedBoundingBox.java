@@ -1,6 +1,5 @@
 package utils.collision;
 
-import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public record AxisAlignedBoundingBox(Vec3f min, Vec3f max) {
@@ -10,7 +9,7 @@ public record AxisAlignedBoundingBox(Vec3f min, Vec3f max) {
 	}
 
 	public Vec3f size() {
-		return max.copy().apply(Operator.Sub, min);
+		return max.copy().subInPlace(min);
 	}
 
 	public float averageSize() {
@@ -0,0 +1,305 @@
+package utils.collision;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Octree over point masses for O(N log N) gravity (Barnes-Hut).
+ * <p>
+ * Unlike {@link OcTree}, every node stores the total mass and center of mass of its subtree, so distant nodes can be
+ * treated as a single body. Nodes are kept in flat arrays and reused between builds.
+ * Bodies are inserted in index order and every body reads the tree in a fixed order, so results are deterministic.
+ */
+public class BarnesHutTree {
+	/**
+	 * bodies that still share a leaf at this depth (nearly coincident positions) are chained instead of subdivided
+	 */
+	private static final int maxDepth = 32;
+	private static final int stackSize = 7 * maxDepth + 8;
+	/**
+	 * below this many bodies the fork/join overhead outweighs the work, running on the caller also avoids allocations
+	 */
+	private static final int parallelThreshold = 256;
+
+	private int nodeCapacity = 64;
+	private double[] nodeCenter = new double[nodeCapacity * 3];
+	private double[] nodeHalfSize = new double[nodeCapacity];
+	private double[] nodeCenterOfMass = new double[nodeCapacity * 3];
+	private double[] nodeMass = new double[nodeCapacity];
+	/**
+	 * index of the first of 8 consecutive children, -1 for leaves
+	 */
+	private int[] nodeFirstChild = new int[nodeCapacity];
+	/**
+	 * first body of a leaf, further bodies are linked through {@link #nextBodyInLeaf}, -1 if empty
+	 */
+	private int[] nodeFirstBody = new int[nodeCapacity];
+	private int nodeCount = 0;
+
+	private int[] nextBodyInLeaf = new int[0];
+	private double[] positions;
+	private double[] masses;
+	private int bodyCount = 0;
+
+	private final ThreadLocal<int[]> traversalStack = ThreadLocal.withInitial(() -> new int[stackSize]);
+
+	/**
+	 * @param positions packed x, y, z per body
+	 * @param masses    mass per body
+	 * @param bodyCount amount of bodies to insert, the arrays may be larger
+	 */
+	public void build(double[] positions, double[] masses, int bodyCount) {
+		this.positions = positions;
+		this.masses = masses;
+		this.bodyCount = bodyCount;
+		if (nextBodyInLeaf.length < bodyCount) {
+			nextBodyInLeaf = new int[Math.max(bodyCount, nextBodyInLeaf.length * 2)];
+		}
+		nodeCount = 0;
+		if (bodyCount == 0) {
+			return;
+		}
+
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+		for (int i = 0; i < bodyCount; i++) {
+			minX = Math.min(minX, positions[i * 3]);
+			minY = Math.min(minY, positions[i * 3 + 1]);
+			minZ = Math.min(minZ, positions[i * 3 + 2]);
+			maxX = Math.max(maxX, positions[i * 3]);
+			maxY = Math.max(maxY, positions[i * 3 + 1]);
+			maxZ = Math.max(maxZ, positions[i * 3 + 2]);
+		}
+		double halfSize = Math.max(Math.max(maxX - minX, maxY - minY), Math.max(maxZ - minZ, 1e-9)) * 0.5 * 1.0001;
+		allocateNode((minX + maxX) * 0.5, (minY + maxY) * 0.5, (minZ + maxZ) * 0.5, halfSize);
+
+		for (int body = 0; body < bodyCount; body++) {
+			insert(body);
+		}
+		computeMassDistribution();
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	private int allocateNode(double centerX, double centerY, double centerZ, double halfSize) {
+		if (nodeCount == nodeCapacity) {
+			nodeCapacity *= 2;
+			nodeCenter = Arrays.copyOf(nodeCenter, nodeCapacity * 3);
+			nodeHalfSize = Arrays.copyOf(nodeHalfSize, nodeCapacity);
+			nodeCenterOfMass = Arrays.copyOf(nodeCenterOfMass, nodeCapacity * 3);
+			nodeMass = Arrays.copyOf(nodeMass, nodeCapacity);
+			nodeFirstChild = Arrays.copyOf(nodeFirstChild, nodeCapacity);
+			nodeFirstBody = Arrays.copyOf(nodeFirstBody, nodeCapacity);
+		}
+		int node = nodeCount;
+		nodeCount++;
+		nodeCenter[node * 3] = centerX;
+		nodeCenter[node * 3 + 1] = centerY;
+		nodeCenter[node * 3 + 2] = centerZ;
+		nodeHalfSize[node] = halfSize;
+		nodeFirstChild[node] = -1;
+		nodeFirstBody[node] = -1;
+		return node;
+	}
+
+	private int childIndex(int node, int body) {
+		int index = 0;
+		for (int axis = 0; axis < 3; axis++) {
+			if (positions[body * 3 + axis] >= nodeCenter[node * 3 + axis]) {
+				index |= 1 << axis;
+			}
+		}
+		return index;
+	}
+
+	private void subdivide(int node) {
+		double childHalfSize = nodeHalfSize[node] * 0.5;
+		double centerX = nodeCenter[node * 3], centerY = nodeCenter[node * 3 + 1], centerZ = nodeCenter[node * 3 + 2];
+		int firstChild = nodeCount;
+		for (int i = 0; i < 8; i++) {
+			allocateNode(
+					centerX + ((i & 1) != 0 ? childHalfSize : -childHalfSize),
+					centerY + ((i & 2) != 0 ? childHalfSize : -childHalfSize),
+					centerZ + ((i & 4) != 0 ? childHalfSize : -childHalfSize),
+					childHalfSize
+			);
+		}
+		nodeFirstChild[node] = firstChild;
+	}
+
+	private void insert(int body) {
+		nextBodyInLeaf[body] = -1;
+		int node = 0;
+		for (int depth = 0; ; depth++) {
+			if (nodeFirstChild[node] >= 0) {
+				node = nodeFirstChild[node] + childIndex(node, body);
+				continue;
+			}
+			int residentBody = nodeFirstBody[node];
+			if (residentBody < 0) {
+				nodeFirstBody[node] = body;
+				return;
+			}
+			if (depth >= maxDepth) {
+				nextBodyInLeaf[body] = residentBody;
+				nodeFirstBody[node] = body;
+				return;
+			}
+			subdivide(node);
+			nodeFirstBody[node] = -1;
+			int firstChild = nodeFirstChild[node];
+			nodeFirstBody[firstChild + childIndex(node, residentBody)] = residentBody;
+			node = firstChild + childIndex(node, body);
+		}
+	}
+
+	/**
+	 * Children are always allocated after their parent, so a reverse sweep visits children first.
+	 */
+	private void computeMassDistribution() {
+		for (int node = nodeCount - 1; node >= 0; node--) {
+			double mass = 0, weightedX = 0, weightedY = 0, weightedZ = 0;
+			int firstChild = nodeFirstChild[node];
+			if (firstChild >= 0) {
+				for (int child = firstChild; child < firstChild + 8; child++) {
+					double childMass = nodeMass[child];
+					mass += childMass;
+					weightedX += nodeCenterOfMass[child * 3] * childMass;
+					weightedY += nodeCenterOfMass[child * 3 + 1] * childMass;
+					weightedZ += nodeCenterOfMass[child * 3 + 2] * childMass;
+				}
+			} else {
+				for (int body = nodeFirstBody[node]; body >= 0; body = nextBodyInLeaf[body]) {
+					double bodyMass = masses[body];
+					mass += bodyMass;
+					weightedX += positions[body * 3] * bodyMass;
+					weightedY += positions[body * 3 + 1] * bodyMass;
+					weightedZ += positions[body * 3 + 2] * bodyMass;
+				}
+			}
+			nodeMass[node] = mass;
+			if (mass > 0) {
+				nodeCenterOfMass[node * 3] = weightedX / mass;
+				nodeCenterOfMass[node * 3 + 1] = weightedY / mass;
+				nodeCenterOfMass[node * 3 + 2] = weightedZ / mass;
+			} else {
+				System.arraycopy(nodeCenter, node * 3, nodeCenterOfMass, node * 3, 3);
+			}
+		}
+	}
+
+	/**
+	 * Computes the gravitational acceleration of every body in parallel, each body only writes its own entry.
+	 *
+	 * @param gravConstant    gravitational constant
+	 * @param openingAngle    nodes with size / distance below this value are approximated, 0 is exact
+	 * @param softeningLength added to every distance to avoid singularities, 0 to disable
+	 * @param accelerations   packed x, y, z per body, overwritten
+	 */
+	public void computeAccelerations(double gravConstant, double openingAngle, double softeningLength, double[] accelerations) {
+		double openingAngleSquared = openingAngle * openingAngle;
+		double softeningSquared = softeningLength * softeningLength;
+		if (bodyCount < parallelThreshold) {
+			for (int body = 0; body < bodyCount; body++) {
+				computeAcceleration(body, gravConstant, openingAngleSquared, softeningSquared, accelerations);
+			}
+			return;
+		}
+		IntStream.range(0, bodyCount).parallel().forEach(body ->
+				computeAcceleration(body, gravConstant, openingAngleSquared, softeningSquared, accelerations));
+	}
+
+	private void computeAcceleration(int body, double gravConstant, double openingAngleSquared, double softeningSquared, double[] accelerations) {
+		double x = positions[body * 3], y = positions[body * 3 + 1], z = positions[body * 3 + 2];
+		double accelerationX = 0, accelerationY = 0, accelerationZ = 0;
+		if (nodeCount > 0) {
+			int[] stack = traversalStack.get();
+			int stackSize = 0;
+			stack[stackSize++] = 0;
+			while (stackSize > 0) {
+				int node = stack[--stackSize];
+				double mass = nodeMass[node];
+				if (mass == 0) {
+					continue;
+				}
+				int firstChild = nodeFirstChild[node];
+				if (firstChild < 0) {
+					for (int other = nodeFirstBody[node]; other >= 0; other = nextBodyInLeaf[other]) {
+						if (other == body) {
+							continue;
+						}
+						double dx = positions[other * 3] - x, dy = positions[other * 3 + 1] - y, dz = positions[other * 3 + 2] - z;
+						double scale = gravityScale(gravConstant * masses[other], dx * dx + dy * dy + dz * dz + softeningSquared);
+						accelerationX += dx * scale;
+						accelerationY += dy * scale;
+						accelerationZ += dz * scale;
+					}
+					continue;
+				}
+				double dx = nodeCenterOfMass[node * 3] - x, dy = nodeCenterOfMass[node * 3 + 1] - y, dz = nodeCenterOfMass[node * 3 + 2] - z;
+				double distanceSquared = dx * dx + dy * dy + dz * dz;
+				double size = nodeHalfSize[node] * 2;
+				if (size * size < openingAngleSquared * distanceSquared) {
+					double scale = gravityScale(gravConstant * mass, distanceSquared + softeningSquared);
+					accelerationX += dx * scale;
+					accelerationY += dy * scale;
+					accelerationZ += dz * scale;
+				} else {
+					for (int child = firstChild + 7; child >= firstChild; child--) {
+						stack[stackSize++] = child;
+					}
+				}
+			}
+		}
+		accelerations[body * 3] = accelerationX;
+		accelerations[body * 3 + 1] = accelerationY;
+		accelerations[body * 3 + 2] = accelerationZ;
+	}
+
+	/**
+	 * @return factor that turns the (not normalized) vector to the attracting mass into the acceleration
+	 */
+	private static double gravityScale(double gravConstantTimesMass, double distanceSquared) {
+		if (distanceSquared == 0) {
+			return 0;
+		}
+		return gravConstantTimesMass / (distanceSquared * Math.sqrt(distanceSquared));
+	}
+
+	/**
+	 * O(N²) pairwise reference with the same conventions as {@link #computeAccelerations}, parallel over bodies.
+	 */
+	public static void computeExactAccelerations(double[] positions, double[] masses, int bodyCount,
+												 double gravConstant, double softeningLength, double[] accelerations) {
+		double softeningSquared = softeningLength * softeningLength;
+		if (bodyCount < parallelThreshold) {
+			for (int body = 0; body < bodyCount; body++) {
+				computeExactAcceleration(body, positions, masses, bodyCount, gravConstant, softeningSquared, accelerations);
+			}
+			return;
+		}
+		IntStream.range(0, bodyCount).parallel().forEach(body ->
+				computeExactAcceleration(body, positions, masses, bodyCount, gravConstant, softeningSquared, accelerations));
+	}
+
+	private static void computeExactAcceleration(int body, double[] positions, double[] masses, int bodyCount,
+												 double gravConstant, double softeningSquared, double[] accelerations) {
+		double x = positions[body * 3], y = positions[body * 3 + 1], z = positions[body * 3 + 2];
+		double accelerationX = 0, accelerationY = 0, accelerationZ = 0;
+		for (int other = 0; other < bodyCount; other++) {
+			if (other == body) {
+				continue;
+			}
+			double dx = positions[other * 3] - x, dy = positions[other * 3 + 1] - y, dz = positions[other * 3 + 2] - z;
+			double scale = gravityScale(gravConstant * masses[other], dx * dx + dy * dy + dz * dz + softeningSquared);
+			accelerationX += dx * scale;
+			accelerationY += dy * scale;
+			accelerationZ += dz * scale;
+		}
+		accelerations[body * 3] = accelerationX;
+		accelerations[body * 3 + 1] = accelerationY;
+		accelerations[body * 3 + 2] = accelerationZ;
+	}
+}
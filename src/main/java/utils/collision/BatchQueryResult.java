@@ -0,0 +1,151 @@
+package utils.collision;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Reusable output of the {@link ISpatialIndex} batch queries.
+ * The results of all queries share one array, the results of query `q` are the indices from {@link #getStart(int)} to {@link #getEnd(int)}.
+ */
+public class BatchQueryResult<T> {
+	/**
+	 * queries per parallel task, each task collects its results into its own chunk before they are packed
+	 */
+	private static final int chunkSize = 64;
+
+	@FunctionalInterface
+	interface Query<QueryT> {
+		void run(int queryIndex, SpatialQueryResult<QueryT> result);
+	}
+
+	private static class Chunk<ChunkT> {
+		public final SpatialQueryResult<ChunkT> queryResult = new SpatialQueryResult<>();
+		public Object[] elements = new Object[64];
+		public float[] distances = new float[64];
+		public int size = 0;
+
+		public void append(SpatialQueryResult<ChunkT> result) {
+			if (size + result.size() > elements.length) {
+				int capacity = Math.max(elements.length * 2, size + result.size());
+				elements = Arrays.copyOf(elements, capacity);
+				distances = Arrays.copyOf(distances, capacity);
+			}
+			for (int i = 0; i < result.size(); i++) {
+				elements[size] = result.get(i);
+				distances[size] = result.getDistance(i);
+				size++;
+			}
+		}
+
+		public void clear() {
+			Arrays.fill(elements, 0, size, null);
+			size = 0;
+		}
+	}
+
+	private Object[] elements = new Object[0];
+	private float[] distances = new float[0];
+	private int size = 0;
+	/**
+	 * start index per query, with the total result count appended
+	 */
+	private int[] offsets = new int[1];
+	private int queryCount = 0;
+	@SuppressWarnings("unchecked")
+	private Chunk<T>[] chunks = (Chunk<T>[]) new Chunk[0];
+
+	/**
+	 * @return amount of queries of the last batch
+	 */
+	public int getQueryCount() {
+		return queryCount;
+	}
+
+	/**
+	 * @return total amount of results of the last batch
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return index of the first result of the query
+	 */
+	public int getStart(int queryIndex) {
+		return offsets[queryIndex];
+	}
+
+	/**
+	 * @return index after the last result of the query
+	 */
+	public int getEnd(int queryIndex) {
+		return offsets[queryIndex + 1];
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int resultIndex) {
+		return (T) elements[resultIndex];
+	}
+
+	/**
+	 * @return distance as reported by the single query, see {@link SpatialQueryResult#getDistance(int)}
+	 */
+	public float getDistance(int resultIndex) {
+		return distances[resultIndex];
+	}
+
+	/**
+	 * Runs all queries, in parallel if there is more than one chunk, and packs their results.
+	 * The queried structure must not be modified until this returns.
+	 */
+	void execute(int count, Query<T> query) {
+		Arrays.fill(elements, 0, size, null);
+		queryCount = count;
+		if (offsets.length < count + 1) {
+			offsets = new int[count + 1];
+		}
+		int chunkCount = (count + chunkSize - 1) / chunkSize;
+		if (chunks.length < chunkCount) {
+			int oldLength = chunks.length;
+			chunks = Arrays.copyOf(chunks, chunkCount);
+			for (int i = oldLength; i < chunkCount; i++) {
+				chunks[i] = new Chunk<>();
+			}
+		}
+
+		if (chunkCount > 1) {
+			IntStream.range(0, chunkCount).parallel().forEach(chunk -> runChunk(chunk, query));
+		} else if (chunkCount == 1) {
+			runChunk(0, query);
+		}
+
+		// query result counts were stored in offsets[q + 1], turn them into start indices
+		offsets[0] = 0;
+		for (int i = 1; i <= count; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+		size = offsets[count];
+		if (elements.length < size) {
+			elements = new Object[size];
+			distances = new float[size];
+		}
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			Chunk<T> chunkData = chunks[chunk];
+			int start = offsets[chunk * chunkSize];
+			System.arraycopy(chunkData.elements, 0, elements, start, chunkData.size);
+			System.arraycopy(chunkData.distances, 0, distances, start, chunkData.size);
+			chunkData.clear();
+		}
+	}
+
+	private void runChunk(int chunk, Query<T> query) {
+		Chunk<T> chunkData = chunks[chunk];
+		int end = Math.min(queryCount, (chunk + 1) * chunkSize);
+		for (int queryIndex = chunk * chunkSize; queryIndex < end; queryIndex++) {
+			query.run(queryIndex, chunkData.queryResult);
+			chunkData.append(chunkData.queryResult);
+			offsets[queryIndex + 1] = chunkData.queryResult.size();
+		}
+		chunkData.queryResult.clear();
+	}
+}
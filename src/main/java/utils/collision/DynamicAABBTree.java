@@ -0,0 +1,498 @@
+package utils.collision;
+
+import java.util.Arrays;
+
+/**
+ * Persistent bounding volume hierarchy for moving objects.
+ * <p>
+ * Every proxy is stored with bounds enlarged by a margin, it is only re-inserted once its tight bounds leave them.
+ * Insertion picks the sibling with the smallest surface area increase, and the tree is kept height balanced by rotations.
+ * Nodes live in flat arrays and are recycled through a free list, so updates and queries do not allocate.
+ * <p>
+ * Overlapping pairs are kept between calls to {@link #computeOverlappingPairs()}, only proxies that were created or re-inserted since the last call are queried again.
+ *
+ * @param <T> payload stored per proxy
+ */
+public class DynamicAABBTree<T> {
+	private static final int nullNode = -1;
+
+	private final float fatMargin;
+
+	private int nodeCapacity = 16;
+	/**
+	 * minX, minY, minZ, maxX, maxY, maxZ per node
+	 */
+	private float[] bounds = new float[nodeCapacity * 6];
+	/**
+	 * parent node, or next free node while the node is unused
+	 */
+	private int[] parent = new int[nodeCapacity];
+	private int[] child1 = new int[nodeCapacity];
+	private int[] child2 = new int[nodeCapacity];
+	/**
+	 * 0 for leaves, -1 for unused nodes
+	 */
+	private int[] height = new int[nodeCapacity];
+	private Object[] userData = new Object[nodeCapacity];
+	private int root = nullNode;
+	private int freeList = nullNode;
+	private int allocatedNodeCount = 0;
+	private int proxyCount = 0;
+
+	private int[] stack = new int[64];
+	private int[] pairBuffer = new int[64];
+	private int pairCount = 0;
+	/**
+	 * nodes created, re-inserted or destroyed since the last pair computation, flagged in {@link #moved}
+	 */
+	private int[] moveBuffer = new int[16];
+	private int moveCount = 0;
+	private boolean[] moved = new boolean[nodeCapacity];
+
+	/**
+	 * @param fatMargin distance the stored bounds extend beyond the tight bounds on every side
+	 */
+	public DynamicAABBTree(float fatMargin) {
+		this.fatMargin = fatMargin;
+		linkFreeNodes(0);
+	}
+
+	private void linkFreeNodes(int firstNode) {
+		for (int node = firstNode; node < nodeCapacity - 1; node++) {
+			parent[node] = node + 1;
+			height[node] = -1;
+		}
+		parent[nodeCapacity - 1] = nullNode;
+		height[nodeCapacity - 1] = -1;
+		freeList = firstNode;
+	}
+
+	private int allocateNode() {
+		if (freeList == nullNode) {
+			int oldCapacity = nodeCapacity;
+			nodeCapacity *= 2;
+			bounds = Arrays.copyOf(bounds, nodeCapacity * 6);
+			parent = Arrays.copyOf(parent, nodeCapacity);
+			child1 = Arrays.copyOf(child1, nodeCapacity);
+			child2 = Arrays.copyOf(child2, nodeCapacity);
+			height = Arrays.copyOf(height, nodeCapacity);
+			userData = Arrays.copyOf(userData, nodeCapacity);
+			moved = Arrays.copyOf(moved, nodeCapacity);
+			linkFreeNodes(oldCapacity);
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = nullNode;
+		child1[node] = nullNode;
+		child2[node] = nullNode;
+		height[node] = 0;
+		userData[node] = null;
+		allocatedNodeCount++;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		parent[node] = freeList;
+		height[node] = -1;
+		userData[node] = null;
+		freeList = node;
+		allocatedNodeCount--;
+	}
+
+	private boolean isLeaf(int node) {
+		return child1[node] == nullNode;
+	}
+
+	private void setFatBounds(int node, AxisAlignedBoundingBox aabb) {
+		for (int axis = 0; axis < 3; axis++) {
+			bounds[node * 6 + axis] = aabb.min().data[axis] - fatMargin;
+			bounds[node * 6 + 3 + axis] = aabb.max().data[axis] + fatMargin;
+		}
+	}
+
+	private void setUnion(int target, int nodeA, int nodeB) {
+		for (int axis = 0; axis < 3; axis++) {
+			bounds[target * 6 + axis] = Math.min(bounds[nodeA * 6 + axis], bounds[nodeB * 6 + axis]);
+			bounds[target * 6 + 3 + axis] = Math.max(bounds[nodeA * 6 + 3 + axis], bounds[nodeB * 6 + 3 + axis]);
+		}
+	}
+
+	/**
+	 * @return half the surface area of the node bounds
+	 */
+	private float area(int node) {
+		float dx = bounds[node * 6 + 3] - bounds[node * 6];
+		float dy = bounds[node * 6 + 4] - bounds[node * 6 + 1];
+		float dz = bounds[node * 6 + 5] - bounds[node * 6 + 2];
+		return dx * dy + dy * dz + dz * dx;
+	}
+
+	/**
+	 * @return half the surface area of the bounds enclosing both nodes
+	 */
+	private float unionArea(int nodeA, int nodeB) {
+		float dx = Math.max(bounds[nodeA * 6 + 3], bounds[nodeB * 6 + 3]) - Math.min(bounds[nodeA * 6], bounds[nodeB * 6]);
+		float dy = Math.max(bounds[nodeA * 6 + 4], bounds[nodeB * 6 + 4]) - Math.min(bounds[nodeA * 6 + 1], bounds[nodeB * 6 + 1]);
+		float dz = Math.max(bounds[nodeA * 6 + 5], bounds[nodeB * 6 + 5]) - Math.min(bounds[nodeA * 6 + 2], bounds[nodeB * 6 + 2]);
+		return dx * dy + dy * dz + dz * dx;
+	}
+
+	private boolean isOverlapping(int nodeA, int nodeB) {
+		for (int axis = 0; axis < 3; axis++) {
+			if (bounds[nodeA * 6 + axis] > bounds[nodeB * 6 + 3 + axis] || bounds[nodeA * 6 + 3 + axis] < bounds[nodeB * 6 + axis]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean containsFatBounds(int node, AxisAlignedBoundingBox aabb) {
+		for (int axis = 0; axis < 3; axis++) {
+			if (aabb.min().data[axis] < bounds[node * 6 + axis] || aabb.max().data[axis] > bounds[node * 6 + 3 + axis]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return id of the new proxy, stays valid until {@link #destroyProxy(int)}
+	 */
+	public int createProxy(AxisAlignedBoundingBox aabb, T data) {
+		int proxy = allocateNode();
+		setFatBounds(proxy, aabb);
+		userData[proxy] = data;
+		insertLeaf(proxy);
+		proxyCount++;
+		markMoved(proxy);
+		return proxy;
+	}
+
+	public void destroyProxy(int proxy) {
+		removeLeaf(proxy);
+		freeNode(proxy);
+		proxyCount--;
+		// drops its pairs, the id may come back as another proxy or as an internal node
+		markMoved(proxy);
+	}
+
+	/**
+	 * @return true if the proxy left its fat bounds and was re-inserted
+	 */
+	public boolean moveProxy(int proxy, AxisAlignedBoundingBox aabb) {
+		if (containsFatBounds(proxy, aabb)) {
+			return false;
+		}
+		removeLeaf(proxy);
+		setFatBounds(proxy, aabb);
+		insertLeaf(proxy);
+		markMoved(proxy);
+		return true;
+	}
+
+	private void markMoved(int proxy) {
+		if (moved[proxy]) {
+			return;
+		}
+		moved[proxy] = true;
+		if (moveCount == moveBuffer.length) {
+			moveBuffer = Arrays.copyOf(moveBuffer, moveBuffer.length * 2);
+		}
+		moveBuffer[moveCount++] = proxy;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T getUserData(int proxy) {
+		return (T) userData[proxy];
+	}
+
+	public int getProxyCount() {
+		return proxyCount;
+	}
+
+	/**
+	 * @return height of the tree, 0 if it is empty or contains a single proxy
+	 */
+	public int getHeight() {
+		return root == nullNode ? 0 : height[root];
+	}
+
+	/**
+	 * @return amount of nodes in use, leaves and internal nodes
+	 */
+	public int getNodeCount() {
+		return allocatedNodeCount;
+	}
+
+	private void insertLeaf(int leaf) {
+		if (root == nullNode) {
+			root = leaf;
+			parent[root] = nullNode;
+			return;
+		}
+
+		// descend towards the sibling with the cheapest surface area increase
+		int index = root;
+		while (!isLeaf(index)) {
+			int childA = child1[index];
+			int childB = child2[index];
+			float combinedArea = unionArea(index, leaf);
+			float cost = 2 * combinedArea;
+			float inheritanceCost = 2 * (combinedArea - area(index));
+			float costA = descendCost(childA, leaf) + inheritanceCost;
+			float costB = descendCost(childB, leaf) + inheritanceCost;
+			if (cost < costA && cost < costB) {
+				break;
+			}
+			index = costA < costB ? childA : childB;
+		}
+
+		int sibling = index;
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		parent[newParent] = oldParent;
+		setUnion(newParent, leaf, sibling);
+		height[newParent] = height[sibling] + 1;
+		if (oldParent != nullNode) {
+			if (child1[oldParent] == sibling) {
+				child1[oldParent] = newParent;
+			} else {
+				child2[oldParent] = newParent;
+			}
+		} else {
+			root = newParent;
+		}
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refitAncestors(parent[leaf]);
+	}
+
+	private float descendCost(int child, int leaf) {
+		if (isLeaf(child)) {
+			return unionArea(child, leaf);
+		}
+		return unionArea(child, leaf) - area(child);
+	}
+
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = nullNode;
+			return;
+		}
+		int leafParent = parent[leaf];
+		int grandParent = parent[leafParent];
+		int sibling = child1[leafParent] == leaf ? child2[leafParent] : child1[leafParent];
+		if (grandParent != nullNode) {
+			if (child1[grandParent] == leafParent) {
+				child1[grandParent] = sibling;
+			} else {
+				child2[grandParent] = sibling;
+			}
+			parent[sibling] = grandParent;
+			freeNode(leafParent);
+			refitAncestors(grandParent);
+		} else {
+			root = sibling;
+			parent[sibling] = nullNode;
+			freeNode(leafParent);
+		}
+	}
+
+	private void refitAncestors(int node) {
+		while (node != nullNode) {
+			node = balance(node);
+			setUnion(node, child1[node], child2[node]);
+			height[node] = 1 + Math.max(height[child1[node]], height[child2[node]]);
+			node = parent[node];
+		}
+	}
+
+	private void replaceChild(int oldChild, int newChild) {
+		int parentNode = parent[newChild];
+		if (parentNode == nullNode) {
+			root = newChild;
+		} else if (child1[parentNode] == oldChild) {
+			child1[parentNode] = newChild;
+		} else {
+			child2[parentNode] = newChild;
+		}
+	}
+
+	/**
+	 * Rotates the higher child of `nodeA` up if the subtree is unbalanced.
+	 *
+	 * @return the node now at the position of `nodeA`
+	 */
+	private int balance(int nodeA) {
+		if (isLeaf(nodeA) || height[nodeA] < 2) {
+			return nodeA;
+		}
+		int nodeB = child1[nodeA];
+		int nodeC = child2[nodeA];
+		int heightDifference = height[nodeC] - height[nodeB];
+
+		if (heightDifference > 1) {
+			int nodeF = child1[nodeC];
+			int nodeG = child2[nodeC];
+			child1[nodeC] = nodeA;
+			parent[nodeC] = parent[nodeA];
+			parent[nodeA] = nodeC;
+			replaceChild(nodeA, nodeC);
+			int keep = height[nodeF] > height[nodeG] ? nodeF : nodeG;
+			int move = keep == nodeF ? nodeG : nodeF;
+			child2[nodeC] = keep;
+			child2[nodeA] = move;
+			parent[move] = nodeA;
+			setUnion(nodeA, nodeB, move);
+			setUnion(nodeC, nodeA, keep);
+			height[nodeA] = 1 + Math.max(height[nodeB], height[move]);
+			height[nodeC] = 1 + Math.max(height[nodeA], height[keep]);
+			return nodeC;
+		}
+
+		if (heightDifference < -1) {
+			int nodeD = child1[nodeB];
+			int nodeE = child2[nodeB];
+			child1[nodeB] = nodeA;
+			parent[nodeB] = parent[nodeA];
+			parent[nodeA] = nodeB;
+			replaceChild(nodeA, nodeB);
+			int keep = height[nodeD] > height[nodeE] ? nodeD : nodeE;
+			int move = keep == nodeD ? nodeE : nodeD;
+			child2[nodeB] = keep;
+			child1[nodeA] = move;
+			parent[move] = nodeA;
+			setUnion(nodeA, nodeC, move);
+			setUnion(nodeB, nodeA, keep);
+			height[nodeA] = 1 + Math.max(height[nodeC], height[move]);
+			height[nodeB] = 1 + Math.max(height[nodeA], height[keep]);
+			return nodeB;
+		}
+
+		return nodeA;
+	}
+
+	private void pushStack(int stackSize, int node) {
+		if (stackSize == stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+		}
+		stack[stackSize] = node;
+	}
+
+	/**
+	 * Collects every pair of proxies with overlapping fat bounds, each pair once with the smaller id first.
+	 * <p>
+	 * Fat bounds only change on re-insertion, so pairs between proxies that did not move are kept from the last call,
+	 * pairs of moved or destroyed proxies are dropped and the moved proxies are queried against the tree.
+	 *
+	 * @return amount of pairs, see {@link #getPairBuffer()}
+	 */
+	public int computeOverlappingPairs() {
+		int keptCount = 0;
+		for (int pair = 0; pair < pairCount; pair++) {
+			int proxyA = pairBuffer[pair * 2];
+			int proxyB = pairBuffer[pair * 2 + 1];
+			if (!moved[proxyA] && !moved[proxyB]) {
+				pairBuffer[keptCount * 2] = proxyA;
+				pairBuffer[keptCount * 2 + 1] = proxyB;
+				keptCount++;
+			}
+		}
+		pairCount = keptCount;
+
+		for (int i = 0; i < moveCount; i++) {
+			int proxy = moveBuffer[i];
+			if (height[proxy] == 0 && root != nullNode) {
+				queryMovedProxy(proxy);
+			}
+		}
+		for (int i = 0; i < moveCount; i++) {
+			moved[moveBuffer[i]] = false;
+		}
+		moveCount = 0;
+		return pairCount;
+	}
+
+	private void queryMovedProxy(int proxy) {
+		int stackSize = 0;
+		pushStack(stackSize++, root);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			if (!isOverlapping(node, proxy)) {
+				continue;
+			}
+			if (isLeaf(node)) {
+				// a pair of two moved proxies is reported by the query of the smaller one
+				if (node != proxy && !(moved[node] && node < proxy)) {
+					addPair(Math.min(proxy, node), Math.max(proxy, node));
+				}
+			} else {
+				pushStack(stackSize++, child1[node]);
+				pushStack(stackSize++, child2[node]);
+			}
+		}
+	}
+
+	private void addPair(int proxyA, int proxyB) {
+		if (pairCount * 2 == pairBuffer.length) {
+			pairBuffer = Arrays.copyOf(pairBuffer, pairBuffer.length * 2);
+		}
+		pairBuffer[pairCount * 2] = proxyA;
+		pairBuffer[pairCount * 2 + 1] = proxyB;
+		pairCount++;
+	}
+
+	/**
+	 * @return proxy ids written by {@link #computeOverlappingPairs()}, two per pair, reused between calls
+	 */
+	public int[] getPairBuffer() {
+		return pairBuffer;
+	}
+
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * Checks parent links, heights and bounds of the whole tree, intended for tests.
+	 *
+	 * @throws IllegalStateException if the tree is inconsistent
+	 */
+	public void validate() {
+		if (root != nullNode && parent[root] != nullNode) {
+			throw new IllegalStateException("root has a parent");
+		}
+		int leafCount = root == nullNode ? 0 : validateSubtree(root);
+		if (leafCount != proxyCount) {
+			throw new IllegalStateException("reachable leaves " + leafCount + " != proxies " + proxyCount);
+		}
+	}
+
+	private int validateSubtree(int node) {
+		if (isLeaf(node)) {
+			if (height[node] != 0) {
+				throw new IllegalStateException("leaf " + node + " has height " + height[node]);
+			}
+			return 1;
+		}
+		int childA = child1[node];
+		int childB = child2[node];
+		if (parent[childA] != node || parent[childB] != node) {
+			throw new IllegalStateException("broken parent link below " + node);
+		}
+		if (height[node] != 1 + Math.max(height[childA], height[childB])) {
+			throw new IllegalStateException("bad height at " + node);
+		}
+		for (int axis = 0; axis < 3; axis++) {
+			float min = Math.min(bounds[childA * 6 + axis], bounds[childB * 6 + axis]);
+			float max = Math.max(bounds[childA * 6 + 3 + axis], bounds[childB * 6 + 3 + axis]);
+			if (bounds[node * 6 + axis] != min || bounds[node * 6 + 3 + axis] != max) {
+				throw new IllegalStateException("bounds of " + node + " do not enclose its children");
+			}
+		}
+		return validateSubtree(childA) + validateSubtree(childB);
+	}
+}
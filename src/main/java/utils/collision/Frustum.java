@@ -0,0 +1,90 @@
+package utils.collision;
+
+import camera.BaseCamera;
+import utils.matrix.Mat4f;
+
+/**
+ * Six clip planes extracted from a view projection matrix, normals point inwards.
+ * Uses the OpenGL clip space convention (-w <= z <= w), so for projections mapping depth to [0, 1] the near plane is conservative.
+ */
+public class Frustum {
+	public enum Containment {
+		Outside,
+		Intersecting,
+		Inside
+	}
+
+	private static final int planeCount = 6;
+
+	/**
+	 * a, b, c, d per plane, a point p is inside if dot(abc, p) + d >= 0
+	 */
+	private final float[] planes = new float[planeCount * 4];
+
+	public Frustum() {
+	}
+
+	public Frustum(Mat4f viewProjection) {
+		set(viewProjection);
+	}
+
+	public Frustum set(BaseCamera camera) {
+		return set(camera.getWorldToCameraMatrix());
+	}
+
+	/**
+	 * @param viewProjection row major matrix transforming world space to clip space
+	 */
+	public Frustum set(Mat4f viewProjection) {
+		float[] m = viewProjection.data;
+		for (int i = 0; i < planeCount; i++) {
+			int row = i >> 1;
+			float sign = (i & 1) == 0 ? 1f : -1f;
+			float a = m[12] + sign * m[row * 4];
+			float b = m[13] + sign * m[row * 4 + 1];
+			float c = m[14] + sign * m[row * 4 + 2];
+			float d = m[15] + sign * m[row * 4 + 3];
+			float inverseLength = 1f / (float) Math.sqrt(a * a + b * b + c * c);
+			planes[i * 4] = a * inverseLength;
+			planes[i * 4 + 1] = b * inverseLength;
+			planes[i * 4 + 2] = c * inverseLength;
+			planes[i * 4 + 3] = d * inverseLength;
+		}
+		return this;
+	}
+
+	public boolean isIntersecting(AxisAlignedBoundingBox box) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		return classify(min[0], min[1], min[2], max[0], max[1], max[2]) != Containment.Outside;
+	}
+
+	public Containment classify(AxisAlignedBoundingBox box) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		return classify(min[0], min[1], min[2], max[0], max[1], max[2]);
+	}
+
+	/**
+	 * Tests the corner furthest along and furthest against each plane normal.
+	 * Boxes near the frustum edges may be reported as intersecting although they are outside.
+	 */
+	public Containment classify(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		Containment result = Containment.Inside;
+		for (int i = 0; i < planeCount * 4; i += 4) {
+			float a = planes[i];
+			float b = planes[i + 1];
+			float c = planes[i + 2];
+			float d = planes[i + 3];
+			float furthest = a * (a >= 0f ? maxX : minX) + b * (b >= 0f ? maxY : minY) + c * (c >= 0f ? maxZ : minZ) + d;
+			if (furthest < 0f) {
+				return Containment.Outside;
+			}
+			float nearest = a * (a >= 0f ? minX : maxX) + b * (b >= 0f ? minY : maxY) + c * (c >= 0f ? minZ : maxZ) + d;
+			if (nearest < 0f) {
+				result = Containment.Intersecting;
+			}
+		}
+		return result;
+	}
+}
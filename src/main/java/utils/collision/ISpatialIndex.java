@@ -0,0 +1,57 @@
+package utils.collision;
+
+import utils.vector.Vec3f;
+
+/**
+ * Queries shared by the spatial structures, results are written into caller owned buffers.
+ * Queries only read the structure, different result buffers can be used concurrently as long as the structure is not modified.
+ */
+public interface ISpatialIndex<T> {
+	/**
+	 * Collects all elements whose bounds touch the box, in no particular order.
+	 */
+	void queryBox(AxisAlignedBoundingBox box, SpatialQueryResult<T> result);
+
+	/**
+	 * Collects all elements whose bounds touch the sphere, in no particular order.
+	 */
+	void querySphere(Vec3f center, float radius, SpatialQueryResult<T> result);
+
+	/**
+	 * Finds the `count` elements whose bounds are closest to the point, ordered by distance.
+	 */
+	void queryNearest(Vec3f point, int count, SpatialQueryResult<T> result);
+
+	/**
+	 * Casts a ray and collects the first `maxHits` element bounds it enters, ordered by distance.
+	 * Distances are measured in multiples of the direction length, a direction from start to end with a max distance of 1 casts a segment.
+	 */
+	void raycast(Vec3f origin, Vec3f direction, float maxDistance, int maxHits, SpatialQueryResult<T> result);
+
+	/**
+	 * Collects all elements whose bounds are potentially visible, in no particular order.
+	 */
+	void queryFrustum(Frustum frustum, SpatialQueryResult<T> result);
+
+	/**
+	 * Runs {@link #queryBox} for each box, in parallel for larger batches.
+	 * The structure is read concurrently and must not be modified until this returns.
+	 */
+	default void queryBoxes(AxisAlignedBoundingBox[] boxes, int count, BatchQueryResult<T> result) {
+		result.execute(count, (queryIndex, queryResult) -> queryBox(boxes[queryIndex], queryResult));
+	}
+
+	/**
+	 * Runs {@link #querySphere} for each center and radius, see {@link #queryBoxes}.
+	 */
+	default void querySpheres(Vec3f[] centers, float[] radii, int count, BatchQueryResult<T> result) {
+		result.execute(count, (queryIndex, queryResult) -> querySphere(centers[queryIndex], radii[queryIndex], queryResult));
+	}
+
+	/**
+	 * Runs {@link #raycast} for each origin and direction, see {@link #queryBoxes}.
+	 */
+	default void raycasts(Vec3f[] origins, Vec3f[] directions, float maxDistance, int maxHits, int count, BatchQueryResult<T> result) {
+		result.execute(count, (queryIndex, queryResult) -> raycast(origins[queryIndex], directions[queryIndex], maxDistance, maxHits, queryResult));
+	}
+}
@@ -0,0 +1,21 @@
+package utils.collision;
+
+/**
+ * Common interface of the octree implementations, so they can be swapped and compared.
+ */
+public interface ISpatialTree<T> {
+	void insert(AxisAlignedBoundingBox box, T element);
+
+	/**
+	 * @param box bounds the element was inserted with
+	 * @return true if the element was found and removed
+	 */
+	boolean remove(AxisAlignedBoundingBox box, T element);
+
+	/**
+	 * Remove all elements while maintaining current rootSize
+	 */
+	void clear();
+
+	void traverse(ITreeProcessor<T> processor);
+}
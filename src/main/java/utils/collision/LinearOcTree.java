@@ -0,0 +1,482 @@
+package utils.collision;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import utils.vector.Vec3f;
+
+/**
+ * Octree stored in flat arrays ordered by Morton code, an alternative to {@link OcTree} for trees that are rebuilt often.
+ * <p>
+ * Like {@link OcTree}, every element lives in the smallest cell that fully contains its box.
+ * That cell is encoded as a 64-bit key (Morton code of the cell followed by its depth),
+ * so sorting the keys with a radix sort puts the elements in depth first order.
+ * Nodes are emitted in the same order together with the index of the node after their subtree,
+ * which turns traversal into a forward scan that jumps over rejected subtrees.
+ * <p>
+ * Insertions and removals only mark the tree dirty, it is rebuilt by the next traversal.
+ */
+public class LinearOcTree<T> implements ISpatialTree<T> {
+	/**
+	 * 3 * 19 bits of Morton code followed by 5 bits of depth fit into a positive long
+	 */
+	private static final int maxDepth = 19;
+	private static final int depthBits = 5;
+	private static final long depthMask = (1L << depthBits) - 1;
+	private static final int radixBits = 8;
+	private static final int radixBuckets = 1 << radixBits;
+	private static final int parallelThreshold = 1 << 14;
+
+	private final float initialRootSize;
+	private final float[] rootMin = new float[3];
+	private float rootSize;
+	private int depthLimit;
+
+	// elements in insertion order, bounds are minX, minY, minZ, maxX, maxY, maxZ
+	private float[] elementBounds = new float[16 * 6];
+	private Object[] elements = new Object[16];
+	private int elementCount = 0;
+	private boolean isDirty = true;
+
+	// elements in key order
+	private long[] sortedKeys = new long[16];
+	private int[] sortedIndices = new int[16];
+	private long[] keyScratch = new long[16];
+	private int[] indexScratch = new int[16];
+	private Object[] sortedElements = new Object[16];
+	private int[] radixOffsets = new int[radixBuckets];
+
+	// nodes in depth first order
+	private int nodeCapacity = 16;
+	private long[] nodeKeys = new long[nodeCapacity];
+	private float[] nodeMin = new float[nodeCapacity * 3];
+	private float[] nodeSize = new float[nodeCapacity];
+	private int[] nodeElementStart = new int[nodeCapacity];
+	private int[] nodeElementEnd = new int[nodeCapacity];
+	/**
+	 * index of the first node that is not part of this node's subtree
+	 */
+	private int[] nodeSkip = new int[nodeCapacity];
+	private int nodeCount = 0;
+	private final int[] nodeStack = new int[maxDepth + 1];
+
+	/**
+	 * @param initialRootSize initial edge length of the root node
+	 */
+	public LinearOcTree(float initialRootSize) {
+		this.initialRootSize = initialRootSize;
+		initRootNode(initialRootSize);
+	}
+
+	private void initRootNode(float size) {
+		Arrays.fill(rootMin, size * -0.5f);
+		setRootSize(size);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, elementCount, null);
+		elementCount = 0;
+		isDirty = true;
+	}
+
+	/**
+	 * Remove all elements and reset root size
+	 */
+	public void reset() {
+		clear();
+		initRootNode(initialRootSize);
+	}
+
+	/**
+	 * Replaces the content of the tree with the given elements and rebuilds it immediately.
+	 * The root is fitted around the boxes instead of grown from its current size.
+	 */
+	public void build(AxisAlignedBoundingBox[] boxes, T[] elements, int count) {
+		clear();
+		if (count == 0) {
+			return;
+		}
+		ensureElementCapacity(count);
+		float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+		float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+		for (int i = 0; i < count; i++) {
+			for (int axis = 0; axis < 3; axis++) {
+				float boxMin = boxes[i].min().data[axis];
+				float boxMax = boxes[i].max().data[axis];
+				elementBounds[i * 6 + axis] = boxMin;
+				elementBounds[i * 6 + 3 + axis] = boxMax;
+				min[axis] = Math.min(min[axis], boxMin);
+				max[axis] = Math.max(max[axis], boxMax);
+			}
+			this.elements[i] = elements[i];
+		}
+		elementCount = count;
+		float extent = Math.max(Math.max(max[0] - min[0], max[1] - min[1]), max[2] - min[2]);
+		System.arraycopy(min, 0, rootMin, 0, 3);
+		setRootSize(Math.max(extent * 1.0001f, OcTree.minBoxSize));
+		rebuild();
+	}
+
+	private boolean isInRoot(AxisAlignedBoundingBox box) {
+		for (int axis = 0; axis < 3; axis++) {
+			if (box.min().data[axis] < rootMin[axis] || box.max().data[axis] >= rootMin[axis] + rootSize) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void insert(AxisAlignedBoundingBox box, T element) {
+		// enlarge top, in the same direction as OcTree would
+		while (!isInRoot(box)) {
+			for (int axis = 0; axis < 3; axis++) {
+				if (rootMin[axis] > box.min().data[axis]) {
+					rootMin[axis] -= rootSize;
+				}
+			}
+			setRootSize(rootSize * 2);
+		}
+		ensureElementCapacity(elementCount + 1);
+		for (int axis = 0; axis < 3; axis++) {
+			elementBounds[elementCount * 6 + axis] = box.min().data[axis];
+			elementBounds[elementCount * 6 + 3 + axis] = box.max().data[axis];
+		}
+		elements[elementCount] = element;
+		elementCount++;
+		isDirty = true;
+	}
+
+	@Override
+	public boolean remove(AxisAlignedBoundingBox box, T element) {
+		if (!isInRoot(box)) {
+			return false;
+		}
+		if (isDirty) {
+			for (int i = 0; i < elementCount; i++) {
+				if (Objects.equals(elements[i], element) && computeKey(i) == computeKey(box)) {
+					removeAt(i);
+					return true;
+				}
+			}
+			return false;
+		}
+		long key = computeKey(box);
+		int index = Arrays.binarySearch(sortedKeys, 0, elementCount, key);
+		if (index < 0) {
+			return false;
+		}
+		while (index > 0 && sortedKeys[index - 1] == key) {
+			index--;
+		}
+		for (; index < elementCount && sortedKeys[index] == key; index++) {
+			if (Objects.equals(sortedElements[index], element)) {
+				removeAt(sortedIndices[index]);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void removeAt(int index) {
+		int last = elementCount - 1;
+		System.arraycopy(elementBounds, last * 6, elementBounds, index * 6, 6);
+		elements[index] = elements[last];
+		elements[last] = null;
+		elementCount--;
+		isDirty = true;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	/**
+	 * @return amount of nodes after the last rebuild, cells containing elements and their ancestors
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Rebuilds the tree if needed, the processor must not modify the tree.
+	 * The offered node box is reused between calls.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void traverse(ITreeProcessor<T> processor) {
+		if (isDirty) {
+			rebuild();
+		}
+		AxisAlignedBoundingBox nodeBox = new AxisAlignedBoundingBox(Vec3f.zero(), Vec3f.zero());
+		float[] boxMin = nodeBox.min().data;
+		float[] boxMax = nodeBox.max().data;
+		int node = 0;
+		while (node < nodeCount) {
+			float size = nodeSize[node];
+			for (int axis = 0; axis < 3; axis++) {
+				boxMin[axis] = nodeMin[node * 3 + axis];
+				boxMax[axis] = boxMin[axis] + size;
+			}
+			if (!processor.descend(nodeBox)) {
+				node = nodeSkip[node];
+				continue;
+			}
+			for (int i = nodeElementStart[node]; i < nodeElementEnd[node]; i++) {
+				processor.process((T) sortedElements[i]);
+			}
+			node++;
+		}
+	}
+
+	private void ensureElementCapacity(int capacity) {
+		if (elements.length >= capacity) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, elements.length * 2);
+		elementBounds = Arrays.copyOf(elementBounds, newCapacity * 6);
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
+	/**
+	 * Cells are not subdivided below {@link OcTree#minBoxSize}, like in {@link OcTree}.
+	 */
+	private void setRootSize(float size) {
+		rootSize = size;
+		depthLimit = 0;
+		for (float cellSize = rootSize; cellSize > OcTree.minBoxSize && depthLimit < maxDepth; cellSize *= 0.5f) {
+			depthLimit++;
+		}
+		isDirty = true;
+	}
+
+	private void rebuild() {
+		if (sortedKeys.length < elementCount) {
+			int capacity = Math.max(elementCount, sortedKeys.length * 2);
+			sortedKeys = new long[capacity];
+			sortedIndices = new int[capacity];
+			keyScratch = new long[capacity];
+			indexScratch = new int[capacity];
+			sortedElements = new Object[capacity];
+		}
+		if (elementCount >= parallelThreshold) {
+			IntStream.range(0, elementCount).parallel().forEach(this::initSortEntry);
+		} else {
+			for (int i = 0; i < elementCount; i++) {
+				initSortEntry(i);
+			}
+		}
+		radixSort();
+		Arrays.fill(sortedElements, elementCount, sortedElements.length, null);
+		for (int i = 0; i < elementCount; i++) {
+			sortedElements[i] = elements[sortedIndices[i]];
+		}
+		buildNodes();
+		isDirty = false;
+	}
+
+	private void initSortEntry(int element) {
+		sortedKeys[element] = computeKey(element);
+		sortedIndices[element] = element;
+	}
+
+	private long computeKey(int element) {
+		int offset = element * 6;
+		return computeKey(elementBounds[offset], elementBounds[offset + 1], elementBounds[offset + 2],
+				elementBounds[offset + 3], elementBounds[offset + 4], elementBounds[offset + 5]);
+	}
+
+	private long computeKey(AxisAlignedBoundingBox box) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		return computeKey(min[0], min[1], min[2], max[0], max[1], max[2]);
+	}
+
+	/**
+	 * @return Morton code of the smallest cell containing the box, followed by the depth of that cell
+	 */
+	private long computeKey(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float scale = (1 << depthLimit) / rootSize;
+		int cellLimit = (1 << depthLimit) - 1;
+		int minCellX = quantize(minX - rootMin[0], scale, cellLimit);
+		int minCellY = quantize(minY - rootMin[1], scale, cellLimit);
+		int minCellZ = quantize(minZ - rootMin[2], scale, cellLimit);
+		int differingBits = (minCellX ^ quantize(maxX - rootMin[0], scale, cellLimit))
+				| (minCellY ^ quantize(maxY - rootMin[1], scale, cellLimit))
+				| (minCellZ ^ quantize(maxZ - rootMin[2], scale, cellLimit));
+		int levelsUp = 32 - Integer.numberOfLeadingZeros(differingBits);
+		long code = interleave(minCellX >> levelsUp << levelsUp, minCellY >> levelsUp << levelsUp, minCellZ >> levelsUp << levelsUp);
+		return code << depthBits | (depthLimit - levelsUp);
+	}
+
+	private static int quantize(float offset, float scale, int cellLimit) {
+		return (int) Math.min(Math.max(offset * scale, 0f), cellLimit);
+	}
+
+	private static long spreadBits(int value) {
+		long bits = value & 0x1fffffL;
+		bits = (bits | bits << 32) & 0x1f00000000ffffL;
+		bits = (bits | bits << 16) & 0x1f0000ff0000ffL;
+		bits = (bits | bits << 8) & 0x100f00f00f00f00fL;
+		bits = (bits | bits << 4) & 0x10c30c30c30c30c3L;
+		bits = (bits | bits << 2) & 0x1249249249249249L;
+		return bits;
+	}
+
+	private static int compactBits(long code) {
+		long bits = code & 0x1249249249249249L;
+		bits = (bits ^ (bits >>> 2)) & 0x10c30c30c30c30c3L;
+		bits = (bits ^ (bits >>> 4)) & 0x100f00f00f00f00fL;
+		bits = (bits ^ (bits >>> 8)) & 0x1f0000ff0000ffL;
+		bits = (bits ^ (bits >>> 16)) & 0x1f00000000ffffL;
+		bits = (bits ^ (bits >>> 32)) & 0x1fffffL;
+		return (int) bits;
+	}
+
+	/**
+	 * x occupies the lowest bit of every triple, matching the child index order of {@link OcTree}
+	 */
+	private static long interleave(int x, int y, int z) {
+		return spreadBits(x) | spreadBits(y) << 1 | spreadBits(z) << 2;
+	}
+
+	/**
+	 * Stable least significant digit radix sort of the keys, carrying the element indices along.
+	 * Large inputs are split into blocks that are counted and scattered in parallel.
+	 */
+	private void radixSort() {
+		int count = elementCount;
+		long allKeyBits = 0;
+		for (int i = 0; i < count; i++) {
+			allKeyBits |= sortedKeys[i];
+		}
+		int keyBits = 64 - Long.numberOfLeadingZeros(allKeyBits);
+		int blockCount = count >= parallelThreshold ? ForkJoinPool.getCommonPoolParallelism() * 4 : 1;
+		int blockSize = (count + blockCount - 1) / blockCount;
+		if (radixOffsets.length < blockCount * radixBuckets) {
+			radixOffsets = new int[blockCount * radixBuckets];
+		}
+
+		for (int shift = 0; shift < keyBits; shift += radixBits) {
+			Arrays.fill(radixOffsets, 0, blockCount * radixBuckets, 0);
+			int passShift = shift;
+			if (blockCount > 1) {
+				IntStream.range(0, blockCount).parallel().forEach(block -> countBlock(block, blockSize, count, passShift));
+			} else {
+				countBlock(0, blockSize, count, passShift);
+			}
+			if (!computeBucketOffsets(blockCount, count)) {
+				continue;
+			}
+			if (blockCount > 1) {
+				IntStream.range(0, blockCount).parallel().forEach(block -> scatterBlock(block, blockSize, count, passShift));
+			} else {
+				scatterBlock(0, blockSize, count, passShift);
+			}
+			long[] swapKeys = sortedKeys;
+			sortedKeys = keyScratch;
+			keyScratch = swapKeys;
+			int[] swapIndices = sortedIndices;
+			sortedIndices = indexScratch;
+			indexScratch = swapIndices;
+		}
+	}
+
+	private void countBlock(int block, int blockSize, int count, int shift) {
+		int offset = block * radixBuckets;
+		for (int i = block * blockSize, end = Math.min(count, i + blockSize); i < end; i++) {
+			radixOffsets[offset + (int) ((sortedKeys[i] >>> shift) & (radixBuckets - 1))]++;
+		}
+	}
+
+	/**
+	 * Turns the per block counts into scatter offsets, bucket major so the sort stays stable.
+	 *
+	 * @return false if all keys share the same digit and the pass can be skipped
+	 */
+	private boolean computeBucketOffsets(int blockCount, int count) {
+		int runningOffset = 0;
+		for (int bucket = 0; bucket < radixBuckets; bucket++) {
+			int bucketStart = runningOffset;
+			for (int block = 0; block < blockCount; block++) {
+				int blockCountInBucket = radixOffsets[block * radixBuckets + bucket];
+				radixOffsets[block * radixBuckets + bucket] = runningOffset;
+				runningOffset += blockCountInBucket;
+			}
+			if (runningOffset - bucketStart == count) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void scatterBlock(int block, int blockSize, int count, int shift) {
+		int offset = block * radixBuckets;
+		for (int i = block * blockSize, end = Math.min(count, i + blockSize); i < end; i++) {
+			int target = radixOffsets[offset + (int) ((sortedKeys[i] >>> shift) & (radixBuckets - 1))]++;
+			keyScratch[target] = sortedKeys[i];
+			indexScratch[target] = sortedIndices[i];
+		}
+	}
+
+	private int addNode(long code, int depth) {
+		if (nodeCount == nodeCapacity) {
+			nodeCapacity *= 2;
+			nodeKeys = Arrays.copyOf(nodeKeys, nodeCapacity);
+			nodeMin = Arrays.copyOf(nodeMin, nodeCapacity * 3);
+			nodeSize = Arrays.copyOf(nodeSize, nodeCapacity);
+			nodeElementStart = Arrays.copyOf(nodeElementStart, nodeCapacity);
+			nodeElementEnd = Arrays.copyOf(nodeElementEnd, nodeCapacity);
+			nodeSkip = Arrays.copyOf(nodeSkip, nodeCapacity);
+		}
+		int node = nodeCount;
+		nodeCount++;
+		float cellSize = rootSize / (1 << depthLimit);
+		nodeKeys[node] = code << depthBits | depth;
+		nodeMin[node * 3] = rootMin[0] + compactBits(code) * cellSize;
+		nodeMin[node * 3 + 1] = rootMin[1] + compactBits(code >>> 1) * cellSize;
+		nodeMin[node * 3 + 2] = rootMin[2] + compactBits(code >>> 2) * cellSize;
+		nodeSize[node] = rootSize / (1 << depth);
+		nodeElementStart[node] = 0;
+		nodeElementEnd[node] = 0;
+		nodeSkip[node] = node + 1;
+		return node;
+	}
+
+	private boolean containsCell(int node, long code, int depth) {
+		int nodeDepth = (int) (nodeKeys[node] & depthMask);
+		long nodeCode = nodeKeys[node] >>> depthBits;
+		return nodeDepth <= depth && ((code ^ nodeCode) >>> (3 * (depthLimit - nodeDepth))) == 0;
+	}
+
+	/**
+	 * Emits the cells of all elements and their ancestors in depth first order, the elements are already sorted that way.
+	 */
+	private void buildNodes() {
+		nodeCount = 0;
+		int stackSize = 0;
+		nodeStack[stackSize++] = addNode(0L, 0);
+		for (int i = 0; i < elementCount; i++) {
+			long code = sortedKeys[i] >>> depthBits;
+			int depth = (int) (sortedKeys[i] & depthMask);
+			while (!containsCell(nodeStack[stackSize - 1], code, depth)) {
+				nodeSkip[nodeStack[--stackSize]] = nodeCount;
+			}
+			int parentDepth = (int) (nodeKeys[nodeStack[stackSize - 1]] & depthMask);
+			for (int childDepth = parentDepth + 1; childDepth <= depth; childDepth++) {
+				long cellCode = code & -(1L << (3 * (depthLimit - childDepth)));
+				nodeStack[stackSize++] = addNode(cellCode, childDepth);
+			}
+			int node = nodeStack[stackSize - 1];
+			if (nodeElementEnd[node] == 0) {
+				nodeElementStart[node] = i;
+			}
+			nodeElementEnd[node] = i + 1;
+		}
+		while (stackSize > 0) {
+			nodeSkip[nodeStack[--stackSize]] = nodeCount;
+		}
+	}
+}
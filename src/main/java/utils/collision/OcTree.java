@@ -1,15 +1,34 @@
 package utils.collision;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
 import utils.vector.Vec3f;
 
-public class OcTree<T> {
+/**
+ * The tree keeps a reference to the box of each element and tests it in the queries,
+ * so a box that changes has to be passed to {@link #update(int, AxisAlignedBoundingBox)} before the next query.
+ */
+public class OcTree<T> implements ISpatialTree<T>, ISpatialIndex<T> {
 
 	public static final float minBoxSize = 1f / (1 << 4);
 
 	private final float initialRootSize;
 
 	private Node<T> rootNode;
+	private final ArrayList<Node<T>> nodePool = new ArrayList<>();
+
+	/**
+	 * node containing the element of each handle, null for unused handles
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<T>[] handleNodes = (Node<T>[]) new Node[16];
+	/**
+	 * index of the element within its node, or the next free handle for unused handles
+	 */
+	private int[] handleSlots = new int[16];
+	private int handleCount = 0;
+	private int freeHandle = -1;
 
 	/**
 	 * @param initialRootSize initial edge length of the root node
@@ -19,130 +38,672 @@ public class OcTree<T> {
 		initRootNode(initialRootSize);
 	}
 
+	/**
+	 * @param initialRootBox bounds of the initial root node, copied because nodes are recycled through the pool
+	 */
 	public OcTree(AxisAlignedBoundingBox initialRootBox) {
 		initialRootSize = initialRootBox.averageSize();
-		rootNode = new Node<>(initialRootBox);
+		float[] min = initialRootBox.min().data;
+		float[] max = initialRootBox.max().data;
+		rootNode = obtainNode(null, -1, min[0], min[1], min[2], max[0], max[1], max[2]);
 	}
 
 	/**
-	 * Remove all elements while maintaining current rootSize
+	 * Child nodes are left to the garbage collector instead of the pool, a fresh allocation keeps the rebuilt tree compact in memory.
 	 */
+	@Override
 	public void clear() {
-		rootNode.clear();
+		Arrays.fill(rootNode.children, null);
+		rootNode.clearElements();
+		clearHandles();
 	}
 
 	/**
 	 * Remove all elements and reset root size
 	 */
 	public void reset() {
+		clearHandles();
 		initRootNode(initialRootSize);
 	}
 
+	@Override
 	public void traverse(ITreeProcessor<T> processor) {
 		rootNode.traverse(processor);
 	}
 
+	@Override
 	public void insert(AxisAlignedBoundingBox box, T element) {
+		growRoot(box);
+		addElement(findOrCreateNode(rootNode, box), element, -1, box);
+	}
+
+	/**
+	 * Like {@link #insert}, but returns a handle for {@link #update(int, AxisAlignedBoundingBox)} and {@link #remove(int)}.
+	 *
+	 * @return handle of the element, valid until it is removed or the tree is cleared
+	 */
+	public int insertTracked(AxisAlignedBoundingBox box, T element) {
+		growRoot(box);
+		int handle = allocateHandle();
+		addElement(findOrCreateNode(rootNode, box), element, handle, box);
+		return handle;
+	}
+
+	/**
+	 * Moves a tracked element to the cell matching its new bounds.
+	 * Only the part of the tree between the old and new cell is touched, nodes that become empty are recycled.
+	 *
+	 * @return true if the element changed its cell
+	 */
+	public boolean update(int handle, AxisAlignedBoundingBox newBox) {
+		Node<T> currentNode = handleNodes[handle];
+		Node<T> searchStart = currentNode;
+		while (searchStart.parent != null && !searchStart.fitsInside(newBox)) {
+			searchStart = searchStart.parent;
+		}
+		if (searchStart.parent == null && !rootNode.nodeBox.containsFully(newBox)) {
+			growRoot(newBox);
+			searchStart = rootNode;
+		}
+		Node<T> targetNode = findOrCreateNode(searchStart, newBox);
+		int slot = handleSlots[handle];
+		if (targetNode == currentNode) {
+			currentNode.entries[slot * 2 + 1] = newBox;
+			return false;
+		}
+		Object element = currentNode.entries[slot * 2];
+		removeElementAt(currentNode, slot);
+		addElement(targetNode, element, handle, newBox);
+		pruneUpwards(currentNode);
+		return true;
+	}
+
+	/**
+	 * Removes a tracked element in O(1), nodes that become empty are recycled.
+	 */
+	public void remove(int handle) {
+		Node<T> node = handleNodes[handle];
+		removeElementAt(node, handleSlots[handle]);
+		releaseHandle(handle);
+		pruneUpwards(node);
+	}
+
+	/**
+	 * Empty nodes are kept, see {@link #compact()}.
+	 */
+	@Override
+	public boolean remove(AxisAlignedBoundingBox box, T element) {
+		Node<T> node = findNode(box);
+		if (node == null) {
+			return false;
+		}
+		for (int i = 0; i < node.elementCount; i++) {
+			if (Objects.equals(node.entries[i * 2], element)) {
+				int handle = node.getHandle(i);
+				removeElementAt(node, i);
+				if (handle >= 0) {
+					releaseHandle(handle);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Recycles all empty subtrees and shrinks the root back towards its initial size while it only has a single child.
+	 * An empty tree gets its initial root back, like after {@link #reset()}.
+	 */
+	public void compact() {
+		pruneEmptyChildren(rootNode);
+		while (rootNode.elementCount == 0) {
+			Node<T> onlyChild = null;
+			int childCount = 0;
+			for (Node<T> child : rootNode.children) {
+				if (child != null) {
+					onlyChild = child;
+					childCount++;
+				}
+			}
+			if (childCount == 0 && rootNode.edgeLength() > initialRootSize) {
+				releaseNode(rootNode);
+				initRootNode(initialRootSize);
+				return;
+			}
+			if (childCount != 1 || onlyChild.edgeLength() < initialRootSize) {
+				return;
+			}
+			rootNode.children[onlyChild.childIndex] = null;
+			releaseNode(rootNode);
+			onlyChild.parent = null;
+			rootNode = onlyChild;
+		}
+	}
+
+	/**
+	 * @return amount of nodes currently part of the tree
+	 */
+	public int getNodeCount() {
+		return rootNode.countNodes();
+	}
+
+	/**
+	 * @return amount of released nodes waiting for reuse
+	 */
+	public int getPooledNodeCount() {
+		return nodePool.size();
+	}
+
+	public AxisAlignedBoundingBox getRootBox() {
+		return rootNode.nodeBox;
+	}
+
+	/**
+	 * Nodes are visited closest first and the search ends once no remaining node can hold a closer element.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void queryNearest(Vec3f point, int count, SpatialQueryResult<T> result) {
+		result.clear();
+		if (count <= 0) {
+			return;
+		}
+		final float px = point.data[0];
+		final float py = point.data[1];
+		final float pz = point.data[2];
+		result.pushNode(rootNode, distanceSquared(rootNode.nodeBox, px, py, pz));
+		while (result.hasNodes() && result.peekNodeKey() < result.boundingDistance(count)) {
+			Node<T> node = (Node<T>) result.popNode();
+			for (int i = 0; i < node.elementCount; i++) {
+				float distance = distanceSquared(node.getBox(i), px, py, pz);
+				if (distance < result.boundingDistance(count)) {
+					result.offerBounded(node.entries[i * 2], distance, count);
+				}
+			}
+			for (Node<T> child : node.children) {
+				if (child != null) {
+					float distance = distanceSquared(child.nodeBox, px, py, pz);
+					if (distance < result.boundingDistance(count)) {
+						result.pushNode(child, distance);
+					}
+				}
+			}
+		}
+		result.clearNodes();
+		result.sortByDistance();
+		for (int i = 0; i < result.size(); i++) {
+			result.setDistance(i, (float) Math.sqrt(result.getDistance(i)));
+		}
+	}
+
+	@Override
+	public void queryBox(AxisAlignedBoundingBox box, SpatialQueryResult<T> result) {
+		result.clear();
+		queryBox(rootNode, box, result);
+	}
+
+	@Override
+	public void querySphere(Vec3f center, float radius, SpatialQueryResult<T> result) {
+		result.clear();
+		querySphere(rootNode, center.data[0], center.data[1], center.data[2], radius * radius, result);
+	}
+
+	/**
+	 * Nodes are visited in the order the ray enters them, so the cast ends as soon as the closest hits are known.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void raycast(Vec3f origin, Vec3f direction, float maxDistance, int maxHits, SpatialQueryResult<T> result) {
+		result.clear();
+		if (maxHits <= 0) {
+			return;
+		}
+		final float ox = origin.data[0];
+		final float oy = origin.data[1];
+		final float oz = origin.data[2];
+		final float ix = inverse(direction.data[0]);
+		final float iy = inverse(direction.data[1]);
+		final float iz = inverse(direction.data[2]);
+		float rootEntry = rayEntry(rootNode.nodeBox, ox, oy, oz, ix, iy, iz, maxDistance);
+		if (rootEntry >= 0f) {
+			result.pushNode(rootNode, rootEntry);
+		}
+		while (result.hasNodes() && result.peekNodeKey() <= Math.min(maxDistance, result.boundingDistance(maxHits))) {
+			Node<T> node = (Node<T>) result.popNode();
+			for (int i = 0; i < node.elementCount; i++) {
+				float entry = rayEntry(node.getBox(i), ox, oy, oz, ix, iy, iz, maxDistance);
+				if (entry >= 0f && entry < result.boundingDistance(maxHits)) {
+					result.offerBounded(node.entries[i * 2], entry, maxHits);
+				}
+			}
+			for (Node<T> child : node.children) {
+				if (child != null) {
+					float entry = rayEntry(child.nodeBox, ox, oy, oz, ix, iy, iz, maxDistance);
+					if (entry >= 0f && entry < result.boundingDistance(maxHits)) {
+						result.pushNode(child, entry);
+					}
+				}
+			}
+		}
+		result.clearNodes();
+		result.sortByDistance();
+	}
+
+	/**
+	 * Subtrees fully inside the frustum are collected without testing their elements.
+	 */
+	@Override
+	public void queryFrustum(Frustum frustum, SpatialQueryResult<T> result) {
+		result.clear();
+		queryFrustum(rootNode, frustum, result);
+	}
+
+	private void queryBox(Node<T> node, AxisAlignedBoundingBox box, SpatialQueryResult<T> result) {
+		if (!box.isIntersecting(node.nodeBox)) {
+			return;
+		}
+		if (node.liesWithin(box)) {
+			node.collectAll(result);
+			return;
+		}
+		for (int i = 0; i < node.elementCount; i++) {
+			if (box.isIntersecting(node.getBox(i))) {
+				result.add(node.entries[i * 2], 0f);
+			}
+		}
+		for (Node<T> child : node.children) {
+			if (child != null) {
+				queryBox(child, box, result);
+			}
+		}
+	}
+
+	private void querySphere(Node<T> node, float cx, float cy, float cz, float radiusSquared, SpatialQueryResult<T> result) {
+		float[] nodeMin = node.nodeBox.min().data;
+		float[] nodeMax = node.nodeBox.max().data;
+		if (distanceSquared(cx, cy, cz, nodeMin[0], nodeMin[1], nodeMin[2], nodeMax[0], nodeMax[1], nodeMax[2]) > radiusSquared) {
+			return;
+		}
+		float farX = Math.max(cx - nodeMin[0], nodeMax[0] - cx);
+		float farY = Math.max(cy - nodeMin[1], nodeMax[1] - cy);
+		float farZ = Math.max(cz - nodeMin[2], nodeMax[2] - cz);
+		if (farX * farX + farY * farY + farZ * farZ <= radiusSquared) {
+			node.collectAll(result);
+			return;
+		}
+		for (int i = 0; i < node.elementCount; i++) {
+			if (distanceSquared(node.getBox(i), cx, cy, cz) <= radiusSquared) {
+				result.add(node.entries[i * 2], 0f);
+			}
+		}
+		for (Node<T> child : node.children) {
+			if (child != null) {
+				querySphere(child, cx, cy, cz, radiusSquared, result);
+			}
+		}
+	}
+
+	private void queryFrustum(Node<T> node, Frustum frustum, SpatialQueryResult<T> result) {
+		switch (frustum.classify(node.nodeBox)) {
+			case Outside:
+				return;
+			case Inside:
+				node.collectAll(result);
+				return;
+			default:
+				break;
+		}
+		for (int i = 0; i < node.elementCount; i++) {
+			if (frustum.isIntersecting(node.getBox(i))) {
+				result.add(node.entries[i * 2], 0f);
+			}
+		}
+		for (Node<T> child : node.children) {
+			if (child != null) {
+				queryFrustum(child, frustum, result);
+			}
+		}
+	}
+
+	private static float distanceSquared(AxisAlignedBoundingBox box, float px, float py, float pz) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		return distanceSquared(px, py, pz, min[0], min[1], min[2], max[0], max[1], max[2]);
+	}
+
+	/**
+	 * @return squared distance between the point and the closest point of the box, 0 if the point is inside
+	 */
+	static float distanceSquared(float px, float py, float pz,
+										 float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float dx = Math.max(0f, Math.max(minX - px, px - maxX));
+		float dy = Math.max(0f, Math.max(minY - py, py - maxY));
+		float dz = Math.max(0f, Math.max(minZ - pz, pz - maxZ));
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Zero components get a huge but finite inverse, so the slab test never multiplies zero by infinity.
+	 */
+	static float inverse(float directionComponent) {
+		return 1f / (directionComponent != 0f ? directionComponent : Float.MIN_NORMAL);
+	}
+
+	private static float rayEntry(AxisAlignedBoundingBox box, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		return rayEntry(ox, oy, oz, ix, iy, iz, min[0], min[1], min[2], max[0], max[1], max[2], maxDistance);
+	}
+
+	/**
+	 * Slab test.
+	 *
+	 * @return distance at which the ray enters the box, 0 if it starts inside, -1 if it misses the box within max distance
+	 */
+	static float rayEntry(float ox, float oy, float oz, float ix, float iy, float iz,
+								  float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float maxDistance) {
+		float x1 = (minX - ox) * ix;
+		float x2 = (maxX - ox) * ix;
+		float y1 = (minY - oy) * iy;
+		float y2 = (maxY - oy) * iy;
+		float z1 = (minZ - oz) * iz;
+		float z2 = (maxZ - oz) * iz;
+		float entry = Math.max(0f, Math.max(Math.min(x1, x2), Math.max(Math.min(y1, y2), Math.min(z1, z2))));
+		float exit = Math.min(maxDistance, Math.min(Math.max(x1, x2), Math.min(Math.max(y1, y2), Math.max(z1, z2))));
+		return entry <= exit ? entry : -1f;
+	}
+
+	private void initRootNode(float size) {
+		final float halfSize = size * 0.5f;
+		rootNode = obtainNode(null, -1, -halfSize, -halfSize, -halfSize, halfSize, halfSize, halfSize);
+	}
+
+	private void growRoot(AxisAlignedBoundingBox box) {
 		// enlarge top
 		while (!rootNode.nodeBox.containsFully(box)) {
 			int childIndex = 0;
-			AxisAlignedBoundingBox newRootBox = rootNode.nodeBox.copy();
-			float currentRootSize = newRootBox.max().data[0] - newRootBox.min().data[0];
+			float[] rootMin = rootNode.nodeBox.min().data;
+			float[] rootMax = rootNode.nodeBox.max().data;
+			float currentRootSize = rootNode.edgeLength();
+			float[] newMin = {rootMin[0], rootMin[1], rootMin[2]};
+			float[] newMax = {rootMax[0], rootMax[1], rootMax[2]};
 			for (int i = 0; i < Vec3f.DATA_LEN; i++) {
-				if (newRootBox.min().data[i] > box.min().data[i]) {
-					newRootBox.min().data[i] -= currentRootSize;
+				if (newMin[i] > box.min().data[i]) {
+					newMin[i] -= currentRootSize;
 					childIndex |= (0b1 << i);
 				} else {
-					newRootBox.max().data[i] += currentRootSize;
+					newMax[i] += currentRootSize;
 				}
 			}
-			Node<T> newRoot = new Node<>(newRootBox);
+			Node<T> newRoot = obtainNode(null, -1, newMin[0], newMin[1], newMin[2], newMax[0], newMax[1], newMax[2]);
 			newRoot.children[childIndex] = rootNode;
+			rootNode.parent = newRoot;
+			rootNode.childIndex = childIndex;
 			rootNode = newRoot;
 		}
-		rootNode.insert(box, element);
 	}
 
-	public boolean remove(AxisAlignedBoundingBox box, T element) {
-		return rootNode.remove(box, element);
+	/**
+	 * Descends from `node` to the cell the box belongs to, creating missing nodes on the way.
+	 */
+	private Node<T> findOrCreateNode(Node<T> node, AxisAlignedBoundingBox box) {
+		while (true) {
+			int childIndex = node.getChildIndex(box);
+			if (childIndex < 0) {
+				return node;
+			}
+			Node<T> child = node.children[childIndex];
+			if (child == null) {
+				float[] nodeMin = node.nodeBox.min().data;
+				float[] nodeMax = node.nodeBox.max().data;
+				final float centerX = nodeMin[0] + ((nodeMax[0] - nodeMin[0]) * 0.5f);
+				final float centerY = nodeMin[1] + ((nodeMax[1] - nodeMin[1]) * 0.5f);
+				final float centerZ = nodeMin[2] + ((nodeMax[2] - nodeMin[2]) * 0.5f);
+				final boolean greaterX = (childIndex & 0b001) != 0;
+				final boolean greaterY = (childIndex & 0b010) != 0;
+				final boolean greaterZ = (childIndex & 0b100) != 0;
+				child = obtainNode(node, childIndex,
+						greaterX ? centerX : nodeMin[0],
+						greaterY ? centerY : nodeMin[1],
+						greaterZ ? centerZ : nodeMin[2],
+						greaterX ? nodeMax[0] : centerX,
+						greaterY ? nodeMax[1] : centerY,
+						greaterZ ? nodeMax[2] : centerZ
+				);
+				node.children[childIndex] = child;
+			}
+			node = child;
+		}
 	}
 
-	private void initRootNode(float size) {
-		final float halfSize = size * 0.5f;
-		rootNode = new Node<>(new AxisAlignedBoundingBox(new Vec3f(-halfSize), new Vec3f(halfSize)));
+	/**
+	 * @return the existing cell the box belongs to, or null if it was never created
+	 */
+	private Node<T> findNode(AxisAlignedBoundingBox box) {
+		Node<T> node = rootNode;
+		while (node != null) {
+			int childIndex = node.getChildIndex(box);
+			if (childIndex < 0) {
+				return node;
+			}
+			node = node.children[childIndex];
+		}
+		return null;
+	}
+
+	private void addElement(Node<T> node, Object element, int handle, AxisAlignedBoundingBox box) {
+		if (node.elementCount * 2 == node.entries.length) {
+			node.entries = Arrays.copyOf(node.entries, Math.max(8, node.entries.length * 2));
+		}
+		int slot = node.elementCount;
+		node.entries[slot * 2] = element;
+		node.entries[slot * 2 + 1] = box;
+		if (handle >= 0 && node.elementHandles == null) {
+			node.elementHandles = new int[0];
+		}
+		if (node.elementHandles != null) {
+			int oldLength = node.elementHandles.length;
+			if (oldLength * 2 < node.entries.length) {
+				node.elementHandles = Arrays.copyOf(node.elementHandles, node.entries.length / 2);
+				Arrays.fill(node.elementHandles, oldLength, node.elementHandles.length, -1);
+			}
+			node.elementHandles[slot] = handle;
+		}
+		node.elementCount++;
+		if (handle >= 0) {
+			handleNodes[handle] = node;
+			handleSlots[handle] = slot;
+		}
+	}
+
+	/**
+	 * Swaps the last element into the gap, so the order of elements within a node is not stable.
+	 */
+	private void removeElementAt(Node<T> node, int slot) {
+		int lastSlot = node.elementCount - 1;
+		if (slot != lastSlot) {
+			node.entries[slot * 2] = node.entries[lastSlot * 2];
+			node.entries[slot * 2 + 1] = node.entries[lastSlot * 2 + 1];
+			int movedHandle = node.getHandle(lastSlot);
+			if (movedHandle >= 0) {
+				node.elementHandles[slot] = movedHandle;
+				handleSlots[movedHandle] = slot;
+			} else if (node.elementHandles != null) {
+				node.elementHandles[slot] = -1;
+			}
+		}
+		node.entries[lastSlot * 2] = null;
+		node.entries[lastSlot * 2 + 1] = null;
+		node.elementCount--;
+	}
+
+	private int allocateHandle() {
+		if (freeHandle >= 0) {
+			int handle = freeHandle;
+			freeHandle = handleSlots[handle];
+			return handle;
+		}
+		if (handleCount == handleNodes.length) {
+			handleNodes = Arrays.copyOf(handleNodes, handleCount * 2);
+			handleSlots = Arrays.copyOf(handleSlots, handleCount * 2);
+		}
+		return handleCount++;
+	}
+
+	private void releaseHandle(int handle) {
+		handleNodes[handle] = null;
+		handleSlots[handle] = freeHandle;
+		freeHandle = handle;
+	}
+
+	private void clearHandles() {
+		Arrays.fill(handleNodes, 0, handleCount, null);
+		handleCount = 0;
+		freeHandle = -1;
+	}
+
+	private Node<T> obtainNode(Node<T> parent, int childIndex, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		Node<T> node = nodePool.isEmpty()
+				? new Node<>(new AxisAlignedBoundingBox(Vec3f.zero(), Vec3f.zero()))
+				: nodePool.remove(nodePool.size() - 1);
+		node.nodeBox.min().set(minX, minY, minZ);
+		node.nodeBox.max().set(maxX, maxY, maxZ);
+		node.parent = parent;
+		node.childIndex = childIndex;
+		return node;
+	}
+
+	private void releaseNode(Node<T> node) {
+		node.clearElements();
+		node.parent = null;
+		nodePool.add(node);
+	}
+
+	private void pruneUpwards(Node<T> node) {
+		while (node.parent != null && node.isEmptyLeaf()) {
+			Node<T> parent = node.parent;
+			parent.children[node.childIndex] = null;
+			releaseNode(node);
+			node = parent;
+		}
+	}
+
+	private void pruneEmptyChildren(Node<T> node) {
+		for (int i = 0; i < 8; i++) {
+			Node<T> child = node.children[i];
+			if (child != null) {
+				pruneEmptyChildren(child);
+				if (child.isEmptyLeaf()) {
+					node.children[i] = null;
+					releaseNode(child);
+				}
+			}
+		}
 	}
 
 	private static class Node<NodeT> {
-		public final ArrayList<NodeT> elements = new ArrayList<>();
+		/**
+		 * element and its bounds as passed to insert or update, interleaved
+		 */
+		public Object[] entries = new Object[0];
+		/**
+		 * handle per element, -1 for elements inserted without handle, null until the node gets a tracked element
+		 */
+		public int[] elementHandles = null;
+		public int elementCount = 0;
 		public final AxisAlignedBoundingBox nodeBox;
 		@SuppressWarnings("unchecked")
 		public final Node<NodeT>[] children = (Node<NodeT>[]) new Node[8];
+		public Node<NodeT> parent = null;
+		/**
+		 * index of this node in the children of its parent
+		 */
+		public int childIndex = -1;
 
 		public Node(AxisAlignedBoundingBox box) {
 			this.nodeBox = box;
 		}
 
-		public void clear() {
-			elements.clear();
-			for (int i = 0; i < 8; i++) {
-				children[i] = null;
+		public int countNodes() {
+			int count = 1;
+			for (Node<NodeT> child : children) {
+				if (child != null) {
+					count += child.countNodes();
+				}
 			}
+			return count;
 		}
 
-		public void traverse(ITreeProcessor<NodeT> processor) {
-			if (processor.descend(nodeBox)) {
-				for (NodeT element : elements) {
-					processor.process(element);
-				}
-				for (Node<NodeT> child : children) {
-					if (child != null) {
-						child.traverse(processor);
-					}
+		public float edgeLength() {
+			return nodeBox.max().data[0] - nodeBox.min().data[0];
+		}
+
+		public void clearElements() {
+			Arrays.fill(entries, 0, elementCount * 2, null);
+			elementCount = 0;
+		}
+
+		public AxisAlignedBoundingBox getBox(int slot) {
+			return (AxisAlignedBoundingBox) entries[slot * 2 + 1];
+		}
+
+		public int getHandle(int slot) {
+			return elementHandles == null ? -1 : elementHandles[slot];
+		}
+
+		public void collectAll(SpatialQueryResult<?> result) {
+			for (int i = 0; i < elementCount; i++) {
+				result.add(entries[i * 2], 0f);
+			}
+			for (Node<NodeT> child : children) {
+				if (child != null) {
+					child.collectAll(result);
 				}
 			}
 		}
 
-		public void insert(AxisAlignedBoundingBox box, NodeT element) {
-			if (nodeBox.max().data[0] - nodeBox.min().data[0] <= minBoxSize) {
-				elements.add(element);
-				return;
+		public boolean isEmptyLeaf() {
+			if (elementCount != 0) {
+				return false;
 			}
+			for (Node<NodeT> child : children) {
+				if (child != null) {
+					return false;
+				}
+			}
+			return true;
+		}
 
-			final float centerX = nodeBox.min().data[0] + ((nodeBox.max().data[0] - nodeBox.min().data[0]) * 0.5f);
-			final float centerY = nodeBox.min().data[1] + ((nodeBox.max().data[1] - nodeBox.min().data[1]) * 0.5f);
-			final float centerZ = nodeBox.min().data[2] + ((nodeBox.max().data[2] - nodeBox.min().data[2]) * 0.5f);
-			if ((box.min().data[0] < centerX && box.max().data[0] > centerX)
-					|| (box.min().data[1] < centerY && box.max().data[1] > centerY)
-					|| (box.min().data[2] < centerZ && box.max().data[2] > centerZ)) {
-				elements.add(element);
-				return;
+		/**
+		 * @return true if the node bounds lie within the box
+		 */
+		public boolean liesWithin(AxisAlignedBoundingBox box) {
+			for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+				if (nodeBox.min().data[i] < box.min().data[i] || nodeBox.max().data[i] > box.max().data[i]) {
+					return false;
+				}
 			}
+			return true;
+		}
 
-			final boolean greaterX = box.min().data[0] >= centerX;
-			final boolean greaterY = box.min().data[1] >= centerY;
-			final boolean greaterZ = box.min().data[2] >= centerZ;
-			final int childIndex = (greaterX ? 0b001 : 0) | (greaterY ? 0b010 : 0) | (greaterZ ? 0b100 : 0);
-			Node<NodeT> targetNode = children[childIndex];
-			if (targetNode == null) {
-				Vec3f newBoxMin = new Vec3f(
-						greaterX ? centerX : nodeBox.min().data[0],
-						greaterY ? centerY : nodeBox.min().data[1],
-						greaterZ ? centerZ : nodeBox.min().data[2]
-				);
-				Vec3f newBoxMax = new Vec3f(
-						greaterX ? nodeBox.max().data[0] : centerX,
-						greaterY ? nodeBox.max().data[1] : centerY,
-						greaterZ ? nodeBox.max().data[2] : centerZ
-				);
-				targetNode = new Node<>(new AxisAlignedBoundingBox(newBoxMin, newBoxMax));
-				children[childIndex] = targetNode;
+		/**
+		 * @return true if the box lies within the node bounds, touching the bounds counts as inside
+		 */
+		public boolean fitsInside(AxisAlignedBoundingBox box) {
+			for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+				if (box.min().data[i] < nodeBox.min().data[i] || box.max().data[i] > nodeBox.max().data[i]) {
+					return false;
+				}
 			}
-			targetNode.insert(box, element);
+			return true;
 		}
 
-		public boolean remove(AxisAlignedBoundingBox box, NodeT element) {
-			if ((nodeBox.max().data[0] - nodeBox.min().data[0]) <= minBoxSize) {
-				return elements.remove(element);
+		/**
+		 * @return index of the child the box belongs to, -1 if it belongs to this node
+		 */
+		public int getChildIndex(AxisAlignedBoundingBox box) {
+			if (edgeLength() <= minBoxSize) {
+				return -1;
 			}
 
 			final float centerX = nodeBox.min().data[0] + ((nodeBox.max().data[0] - nodeBox.min().data[0]) * 0.5f);
@@ -151,15 +712,27 @@ public class OcTree<T> {
 			if ((box.min().data[0] < centerX && box.max().data[0] > centerX)
 					|| (box.min().data[1] < centerY && box.max().data[1] > centerY)
 					|| (box.min().data[2] < centerZ && box.max().data[2] > centerZ)) {
-				return elements.remove(element);
+				return -1;
 			}
 
 			final boolean greaterX = box.min().data[0] >= centerX;
 			final boolean greaterY = box.min().data[1] >= centerY;
 			final boolean greaterZ = box.min().data[2] >= centerZ;
-			final int childIndex = (greaterX ? 0b001 : 0) | (greaterY ? 0b010 : 0) | (greaterZ ? 0b100 : 0);
-			Node<NodeT> child = children[childIndex];
-			return child != null && child.remove(box, element);
+			return (greaterX ? 0b001 : 0) | (greaterY ? 0b010 : 0) | (greaterZ ? 0b100 : 0);
+		}
+
+		@SuppressWarnings("unchecked")
+		public void traverse(ITreeProcessor<NodeT> processor) {
+			if (processor.descend(nodeBox)) {
+				for (int i = 0; i < elementCount; i++) {
+					processor.process((NodeT) entries[i * 2]);
+				}
+				for (Node<NodeT> child : children) {
+					if (child != null) {
+						child.traverse(processor);
+					}
+				}
+			}
 		}
 	}
 }
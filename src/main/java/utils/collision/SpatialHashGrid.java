@@ -0,0 +1,756 @@
+package utils.collision;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import utils.vector.Vec3f;
+
+/**
+ * Uniform grid for many elements of similar size, like particles, an alternative to {@link OcTree} when a hierarchy doesn't pay off.
+ * <p>
+ * Every element is binned into the cell containing the center of its box, queries widen their search by the largest element half extent.
+ * Occupied cells live in an open addressing hash table of their integer coordinates.
+ * A rebuild counts the elements per cell, turns the counts into offsets with a prefix sum and scatters the elements,
+ * so the elements of a cell are contiguous and rebuilding is linear in the element count.
+ * <p>
+ * Cells should be about as large as the elements. Smaller cells make queries visit many cells, larger cells put many elements into each cell.
+ * Like {@link LinearOcTree}, insertions and removals only mark the grid dirty, it is rebuilt by the next query.
+ */
+public class SpatialHashGrid<T> implements ISpatialTree<T>, ISpatialIndex<T> {
+	private static final int parallelThreshold = 1 << 14;
+	private static final int prefixSumBlockSize = 1 << 12;
+	/**
+	 * fraction of a cell ignored when computing how many neighbour cells elements can reach,
+	 * so rounding errors in the bounds of elements exactly as large as a cell don't double the neighbourhood
+	 */
+	private static final float haloTolerance = 1e-4f;
+
+	private final float cellSize;
+	private final float inverseCellSize;
+
+	// elements in insertion order, bounds are minX, minY, minZ, maxX, maxY, maxZ
+	private float[] elementBounds = new float[16 * 6];
+	private Object[] elements = new Object[16];
+	private int elementCount = 0;
+	private boolean isDirty = true;
+	private int[] elementCells = new int[16 * 3];
+	private int[] elementSlots = new int[16];
+
+	// elements in cell order
+	private float[] sortedBounds = new float[16 * 6];
+	private Object[] sortedElements = new Object[16];
+	private int[] sortedIndices = new int[16];
+
+	/**
+	 * hash table of the occupied cells, slots with a count of 0 are empty
+	 */
+	private int tableMask = 15;
+	private int[] slotCellX = new int[16];
+	private int[] slotCellY = new int[16];
+	private int[] slotCellZ = new int[16];
+	private int[] slotCount = new int[16];
+	private int[] slotStart = new int[16];
+	private int[] occupiedSlots = new int[16];
+	private int cellCount = 0;
+	private int[] blockSums = new int[0];
+	private final int[] occupiedCellMin = new int[3];
+	private final int[] occupiedCellMax = new int[3];
+	private float maxHalfExtent = 0f;
+	/**
+	 * cell bounds offered by {@link #traverse}, per thread because traversals may run concurrently like the queries
+	 */
+	private final ThreadLocal<AxisAlignedBoundingBox> traversalBox = ThreadLocal.withInitial(() -> new AxisAlignedBoundingBox(Vec3f.zero(), Vec3f.zero()));
+
+	private int[] pairBuffer = new int[64];
+	private int pairCount = 0;
+
+	public SpatialHashGrid(float cellSize) {
+		this.cellSize = cellSize;
+		this.inverseCellSize = 1f / cellSize;
+	}
+
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, elementCount, null);
+		elementCount = 0;
+		isDirty = true;
+	}
+
+	/**
+	 * Replaces the content of the grid with the given elements and rebuilds it immediately.
+	 */
+	public void build(AxisAlignedBoundingBox[] boxes, T[] elements, int count) {
+		clear();
+		ensureElementCapacity(count);
+		for (int i = 0; i < count; i++) {
+			setElement(i, boxes[i], elements[i]);
+		}
+		elementCount = count;
+		rebuild();
+	}
+
+	@Override
+	public void insert(AxisAlignedBoundingBox box, T element) {
+		ensureElementCapacity(elementCount + 1);
+		setElement(elementCount, box, element);
+		elementCount++;
+		isDirty = true;
+	}
+
+	@Override
+	public boolean remove(AxisAlignedBoundingBox box, T element) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		int cellX = cellOf(min[0], max[0]);
+		int cellY = cellOf(min[1], max[1]);
+		int cellZ = cellOf(min[2], max[2]);
+		if (isDirty) {
+			for (int i = 0; i < elementCount; i++) {
+				if (Objects.equals(elements[i], element)
+						&& cellOf(elementBounds[i * 6], elementBounds[i * 6 + 3]) == cellX
+						&& cellOf(elementBounds[i * 6 + 1], elementBounds[i * 6 + 4]) == cellY
+						&& cellOf(elementBounds[i * 6 + 2], elementBounds[i * 6 + 5]) == cellZ) {
+					removeAt(i);
+					return true;
+				}
+			}
+			return false;
+		}
+		int slot = findSlot(cellX, cellY, cellZ);
+		if (slot < 0) {
+			return false;
+		}
+		for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+			if (Objects.equals(sortedElements[i], element)) {
+				removeAt(sortedIndices[i]);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void removeAt(int index) {
+		int last = elementCount - 1;
+		System.arraycopy(elementBounds, last * 6, elementBounds, index * 6, 6);
+		elements[index] = elements[last];
+		elements[last] = null;
+		elementCount--;
+		isDirty = true;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	/**
+	 * @return amount of occupied cells after the last rebuild
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	/**
+	 * Rebuilds the grid if needed, the processor must not modify the grid.
+	 * Every occupied cell is offered widened by the largest element half extent,
+	 * the offered box is reused between cells and calls of the same thread, so processors must not keep it.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void traverse(ITreeProcessor<T> processor) {
+		ensureBuilt();
+		AxisAlignedBoundingBox cellBox = traversalBox.get();
+		for (int cell = 0; cell < cellCount; cell++) {
+			int slot = occupiedSlots[cell];
+			setLooseCellBox(slot, cellBox);
+			if (processor.descend(cellBox)) {
+				for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+					processor.process((T) sortedElements[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the grid if needed, so it can be queried concurrently afterwards.
+	 */
+	public void ensureBuilt() {
+		if (isDirty) {
+			rebuild();
+		}
+	}
+
+	@Override
+	public void queryBox(AxisAlignedBoundingBox box, SpatialQueryResult<T> result) {
+		float[] min = box.min().data;
+		float[] max = box.max().data;
+		collectRange(min[0], min[1], min[2], max[0], max[1], max[2], 0f, 0f, 0f, -1f, result);
+	}
+
+	@Override
+	public void querySphere(Vec3f center, float radius, SpatialQueryResult<T> result) {
+		float x = center.data[0];
+		float y = center.data[1];
+		float z = center.data[2];
+		collectRange(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x, y, z, radius * radius, result);
+	}
+
+	/**
+	 * Visits the cells in growing shells around the cell of the point, until no unvisited cell can hold a closer element.
+	 */
+	@Override
+	public void queryNearest(Vec3f point, int count, SpatialQueryResult<T> result) {
+		ensureBuilt();
+		result.clear();
+		if (count <= 0 || cellCount == 0) {
+			return;
+		}
+		final float px = point.data[0];
+		final float py = point.data[1];
+		final float pz = point.data[2];
+		int cellX = (int) Math.floor(px * inverseCellSize);
+		int cellY = (int) Math.floor(py * inverseCellSize);
+		int cellZ = (int) Math.floor(pz * inverseCellSize);
+		int firstShell = Math.max(0, Math.max(shellDistance(cellX, 0), Math.max(shellDistance(cellY, 1), shellDistance(cellZ, 2))));
+		int lastShell = Math.max(coverDistance(cellX, 0), Math.max(coverDistance(cellY, 1), coverDistance(cellZ, 2)));
+		for (int shell = firstShell; shell <= lastShell; shell++) {
+			int minZ = Math.max(-shell, occupiedCellMin[2] - cellZ);
+			int maxZ = Math.min(shell, occupiedCellMax[2] - cellZ);
+			int minY = Math.max(-shell, occupiedCellMin[1] - cellY);
+			int maxY = Math.min(shell, occupiedCellMax[1] - cellY);
+			for (int dz = minZ; dz <= maxZ; dz++) {
+				for (int dy = minY; dy <= maxY; dy++) {
+					// inner cells of the cube were visited by earlier shells
+					int step = Math.abs(dz) == shell || Math.abs(dy) == shell ? 1 : Math.max(1, shell * 2);
+					for (int dx = -shell; dx <= shell; dx += step) {
+						int slot = findSlot(cellX + dx, cellY + dy, cellZ + dz);
+						if (slot >= 0) {
+							offerNearest(slot, px, py, pz, count, result);
+						}
+					}
+				}
+			}
+			// elements centered outside of this shell are at least this far away
+			float bound = shell * cellSize - maxHalfExtent;
+			if (bound > 0f && bound * bound >= result.boundingDistance(count)) {
+				break;
+			}
+		}
+		result.sortByDistance();
+		for (int i = 0; i < result.size(); i++) {
+			result.setDistance(i, (float) Math.sqrt(result.getDistance(i)));
+		}
+	}
+
+	/**
+	 * Walks the cells along the ray in order, testing the elements of the surrounding cells that can reach into them,
+	 * and ends once the remaining cells are behind the closest hits.
+	 */
+	@Override
+	public void raycast(Vec3f origin, Vec3f direction, float maxDistance, int maxHits, SpatialQueryResult<T> result) {
+		ensureBuilt();
+		result.clear();
+		if (maxHits <= 0 || cellCount == 0) {
+			return;
+		}
+		final int halo = haloCells(maxHalfExtent);
+		final int minCellX = occupiedCellMin[0] - halo;
+		final int minCellY = occupiedCellMin[1] - halo;
+		final int minCellZ = occupiedCellMin[2] - halo;
+		final int maxCellX = occupiedCellMax[0] + halo;
+		final int maxCellY = occupiedCellMax[1] + halo;
+		final int maxCellZ = occupiedCellMax[2] + halo;
+		final float ox = origin.data[0];
+		final float oy = origin.data[1];
+		final float oz = origin.data[2];
+		final float dx = direction.data[0];
+		final float dy = direction.data[1];
+		final float dz = direction.data[2];
+		final float ix = OcTree.inverse(dx);
+		final float iy = OcTree.inverse(dy);
+		final float iz = OcTree.inverse(dz);
+		float entry = OcTree.rayEntry(ox, oy, oz, ix, iy, iz,
+				minCellX * cellSize, minCellY * cellSize, minCellZ * cellSize,
+				(maxCellX + 1) * cellSize, (maxCellY + 1) * cellSize, (maxCellZ + 1) * cellSize,
+				maxDistance);
+		if (entry < 0f) {
+			return;
+		}
+
+		int cellX = clamp((int) Math.floor((ox + dx * entry) * inverseCellSize), minCellX, maxCellX);
+		int cellY = clamp((int) Math.floor((oy + dy * entry) * inverseCellSize), minCellY, maxCellY);
+		int cellZ = clamp((int) Math.floor((oz + dz * entry) * inverseCellSize), minCellZ, maxCellZ);
+		final int stepX = dx > 0f ? 1 : dx < 0f ? -1 : 0;
+		final int stepY = dy > 0f ? 1 : dy < 0f ? -1 : 0;
+		final int stepZ = dz > 0f ? 1 : dz < 0f ? -1 : 0;
+		float nextX = stepX == 0 ? Float.POSITIVE_INFINITY : ((cellX + (stepX > 0 ? 1 : 0)) * cellSize - ox) / dx;
+		float nextY = stepY == 0 ? Float.POSITIVE_INFINITY : ((cellY + (stepY > 0 ? 1 : 0)) * cellSize - oy) / dy;
+		float nextZ = stepZ == 0 ? Float.POSITIVE_INFINITY : ((cellZ + (stepZ > 0 ? 1 : 0)) * cellSize - oz) / dz;
+		final float deltaX = stepX == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(dx);
+		final float deltaY = stepY == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(dy);
+		final float deltaZ = stepZ == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(dz);
+
+		boolean hasPrevious = false;
+		int previousX = 0;
+		int previousY = 0;
+		int previousZ = 0;
+		float cellEntry = entry;
+		while (cellEntry <= result.boundingDistance(maxHits)) {
+			// the cells along the ray only move forward per axis, so skipping the neighbourhood of the previous cell visits every cell once
+			for (int z = cellZ - halo; z <= cellZ + halo; z++) {
+				for (int y = cellY - halo; y <= cellY + halo; y++) {
+					for (int x = cellX - halo; x <= cellX + halo; x++) {
+						if (hasPrevious && Math.abs(x - previousX) <= halo && Math.abs(y - previousY) <= halo && Math.abs(z - previousZ) <= halo) {
+							continue;
+						}
+						int slot = findSlot(x, y, z);
+						if (slot >= 0) {
+							offerRayHits(slot, ox, oy, oz, ix, iy, iz, maxDistance, maxHits, result);
+						}
+					}
+				}
+			}
+			hasPrevious = true;
+			previousX = cellX;
+			previousY = cellY;
+			previousZ = cellZ;
+
+			if (nextX <= nextY && nextX <= nextZ) {
+				cellEntry = nextX;
+				cellX += stepX;
+				nextX += deltaX;
+			} else if (nextY <= nextZ) {
+				cellEntry = nextY;
+				cellY += stepY;
+				nextY += deltaY;
+			} else {
+				cellEntry = nextZ;
+				cellZ += stepZ;
+				nextZ += deltaZ;
+			}
+			if (cellEntry > maxDistance
+					|| cellX < minCellX || cellX > maxCellX
+					|| cellY < minCellY || cellY > maxCellY
+					|| cellZ < minCellZ || cellZ > maxCellZ) {
+				break;
+			}
+		}
+		result.sortByDistance();
+	}
+
+	/**
+	 * Cells fully inside the frustum are collected without testing their elements.
+	 */
+	@Override
+	public void queryFrustum(Frustum frustum, SpatialQueryResult<T> result) {
+		ensureBuilt();
+		result.clear();
+		for (int cell = 0; cell < cellCount; cell++) {
+			int slot = occupiedSlots[cell];
+			float minX = slotCellX[slot] * cellSize - maxHalfExtent;
+			float minY = slotCellY[slot] * cellSize - maxHalfExtent;
+			float minZ = slotCellZ[slot] * cellSize - maxHalfExtent;
+			float looseSize = cellSize + 2f * maxHalfExtent;
+			Frustum.Containment containment = frustum.classify(minX, minY, minZ, minX + looseSize, minY + looseSize, minZ + looseSize);
+			if (containment == Frustum.Containment.Outside) {
+				continue;
+			}
+			for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+				int offset = i * 6;
+				if (containment == Frustum.Containment.Inside
+						|| frustum.classify(sortedBounds[offset], sortedBounds[offset + 1], sortedBounds[offset + 2],
+						sortedBounds[offset + 3], sortedBounds[offset + 4], sortedBounds[offset + 5]) != Frustum.Containment.Outside) {
+					result.add(sortedElements[i], 0f);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void queryBoxes(AxisAlignedBoundingBox[] boxes, int count, BatchQueryResult<T> result) {
+		ensureBuilt();
+		ISpatialIndex.super.queryBoxes(boxes, count, result);
+	}
+
+	@Override
+	public void querySpheres(Vec3f[] centers, float[] radii, int count, BatchQueryResult<T> result) {
+		ensureBuilt();
+		ISpatialIndex.super.querySpheres(centers, radii, count, result);
+	}
+
+	@Override
+	public void raycasts(Vec3f[] origins, Vec3f[] directions, float maxDistance, int maxHits, int count, BatchQueryResult<T> result) {
+		ensureBuilt();
+		ISpatialIndex.super.raycasts(origins, directions, maxDistance, maxHits, count, result);
+	}
+
+	/**
+	 * Finds all pairs of elements with intersecting bounds, each pair is reported once.
+	 * Every cell is only compared with itself and the half of its neighbourhood that comes after it.
+	 *
+	 * @return amount of pairs in {@link #getPairBuffer()}
+	 */
+	public int computeOverlappingPairs() {
+		ensureBuilt();
+		pairCount = 0;
+		int halo = haloCells(2f * maxHalfExtent);
+		for (int cell = 0; cell < cellCount; cell++) {
+			int slot = occupiedSlots[cell];
+			int start = slotStart[slot];
+			int end = start + slotCount[slot];
+			for (int i = start; i < end; i++) {
+				for (int j = i + 1; j < end; j++) {
+					addPairIfOverlapping(i, j);
+				}
+			}
+			for (int dz = 0; dz <= halo; dz++) {
+				for (int dy = dz == 0 ? 0 : -halo; dy <= halo; dy++) {
+					for (int dx = dz == 0 && dy == 0 ? 1 : -halo; dx <= halo; dx++) {
+						int neighbour = findSlot(slotCellX[slot] + dx, slotCellY[slot] + dy, slotCellZ[slot] + dz);
+						if (neighbour < 0) {
+							continue;
+						}
+						int neighbourStart = slotStart[neighbour];
+						int neighbourEnd = neighbourStart + slotCount[neighbour];
+						for (int i = start; i < end; i++) {
+							for (int j = neighbourStart; j < neighbourEnd; j++) {
+								addPairIfOverlapping(i, j);
+							}
+						}
+					}
+				}
+			}
+		}
+		return pairCount;
+	}
+
+	/**
+	 * @return two element indices per pair, resolve them with {@link #getElement(int)}
+	 */
+	public int[] getPairBuffer() {
+		return pairBuffer;
+	}
+
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * @param index element index in cell order, as used by the pair buffer
+	 */
+	@SuppressWarnings("unchecked")
+	public T getElement(int index) {
+		return (T) sortedElements[index];
+	}
+
+	private void addPairIfOverlapping(int a, int b) {
+		int offsetA = a * 6;
+		int offsetB = b * 6;
+		for (int axis = 0; axis < 3; axis++) {
+			if (sortedBounds[offsetA + axis] > sortedBounds[offsetB + 3 + axis] || sortedBounds[offsetA + 3 + axis] < sortedBounds[offsetB + axis]) {
+				return;
+			}
+		}
+		if (pairCount * 2 == pairBuffer.length) {
+			pairBuffer = Arrays.copyOf(pairBuffer, pairBuffer.length * 2);
+		}
+		pairBuffer[pairCount * 2] = a;
+		pairBuffer[pairCount * 2 + 1] = b;
+		pairCount++;
+	}
+
+	/**
+	 * Collects the elements overlapping the box, or the sphere if the squared radius is not negative.
+	 * Small ranges look up each cell, large ranges scan the occupied cells instead.
+	 */
+	private void collectRange(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+							  float sphereX, float sphereY, float sphereZ, float radiusSquared, SpatialQueryResult<T> result) {
+		ensureBuilt();
+		result.clear();
+		if (cellCount == 0) {
+			return;
+		}
+		int minCellX = Math.max(occupiedCellMin[0], (int) Math.floor((minX - maxHalfExtent) * inverseCellSize));
+		int minCellY = Math.max(occupiedCellMin[1], (int) Math.floor((minY - maxHalfExtent) * inverseCellSize));
+		int minCellZ = Math.max(occupiedCellMin[2], (int) Math.floor((minZ - maxHalfExtent) * inverseCellSize));
+		int maxCellX = Math.min(occupiedCellMax[0], (int) Math.floor((maxX + maxHalfExtent) * inverseCellSize));
+		int maxCellY = Math.min(occupiedCellMax[1], (int) Math.floor((maxY + maxHalfExtent) * inverseCellSize));
+		int maxCellZ = Math.min(occupiedCellMax[2], (int) Math.floor((maxZ + maxHalfExtent) * inverseCellSize));
+		if (minCellX > maxCellX || minCellY > maxCellY || minCellZ > maxCellZ) {
+			return;
+		}
+		long rangeCells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1);
+		if (rangeCells > cellCount) {
+			for (int cell = 0; cell < cellCount; cell++) {
+				int slot = occupiedSlots[cell];
+				if (slotCellX[slot] >= minCellX && slotCellX[slot] <= maxCellX
+						&& slotCellY[slot] >= minCellY && slotCellY[slot] <= maxCellY
+						&& slotCellZ[slot] >= minCellZ && slotCellZ[slot] <= maxCellZ) {
+					collectCell(slot, minX, minY, minZ, maxX, maxY, maxZ, sphereX, sphereY, sphereZ, radiusSquared, result);
+				}
+			}
+			return;
+		}
+		for (int z = minCellZ; z <= maxCellZ; z++) {
+			for (int y = minCellY; y <= maxCellY; y++) {
+				for (int x = minCellX; x <= maxCellX; x++) {
+					int slot = findSlot(x, y, z);
+					if (slot >= 0) {
+						collectCell(slot, minX, minY, minZ, maxX, maxY, maxZ, sphereX, sphereY, sphereZ, radiusSquared, result);
+					}
+				}
+			}
+		}
+	}
+
+	private void collectCell(int slot, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+							 float sphereX, float sphereY, float sphereZ, float radiusSquared, SpatialQueryResult<T> result) {
+		for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+			int offset = i * 6;
+			if (sortedBounds[offset] > maxX || sortedBounds[offset + 3] < minX
+					|| sortedBounds[offset + 1] > maxY || sortedBounds[offset + 4] < minY
+					|| sortedBounds[offset + 2] > maxZ || sortedBounds[offset + 5] < minZ) {
+				continue;
+			}
+			if (radiusSquared >= 0f && OcTree.distanceSquared(sphereX, sphereY, sphereZ,
+					sortedBounds[offset], sortedBounds[offset + 1], sortedBounds[offset + 2],
+					sortedBounds[offset + 3], sortedBounds[offset + 4], sortedBounds[offset + 5]) > radiusSquared) {
+				continue;
+			}
+			result.add(sortedElements[i], 0f);
+		}
+	}
+
+	private void offerNearest(int slot, float px, float py, float pz, int count, SpatialQueryResult<T> result) {
+		for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+			int offset = i * 6;
+			float distance = OcTree.distanceSquared(px, py, pz,
+					sortedBounds[offset], sortedBounds[offset + 1], sortedBounds[offset + 2],
+					sortedBounds[offset + 3], sortedBounds[offset + 4], sortedBounds[offset + 5]);
+			if (distance < result.boundingDistance(count)) {
+				result.offerBounded(sortedElements[i], distance, count);
+			}
+		}
+	}
+
+	private void offerRayHits(int slot, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance, int maxHits,
+							  SpatialQueryResult<T> result) {
+		for (int i = slotStart[slot], end = i + slotCount[slot]; i < end; i++) {
+			int offset = i * 6;
+			float entry = OcTree.rayEntry(ox, oy, oz, ix, iy, iz,
+					sortedBounds[offset], sortedBounds[offset + 1], sortedBounds[offset + 2],
+					sortedBounds[offset + 3], sortedBounds[offset + 4], sortedBounds[offset + 5],
+					maxDistance);
+			if (entry >= 0f && entry < result.boundingDistance(maxHits)) {
+				result.offerBounded(sortedElements[i], entry, maxHits);
+			}
+		}
+	}
+
+	/**
+	 * @return shells between the cell and the occupied cells on this axis, 0 if the cell is within their range
+	 */
+	private int shellDistance(int cell, int axis) {
+		return Math.max(occupiedCellMin[axis] - cell, cell - occupiedCellMax[axis]);
+	}
+
+	/**
+	 * @return shell around the cell that covers all occupied cells on this axis
+	 */
+	private int coverDistance(int cell, int axis) {
+		return Math.max(Math.abs(occupiedCellMin[axis] - cell), Math.abs(occupiedCellMax[axis] - cell));
+	}
+
+	private void setLooseCellBox(int slot, AxisAlignedBoundingBox box) {
+		box.min().set(slotCellX[slot] * cellSize - maxHalfExtent, slotCellY[slot] * cellSize - maxHalfExtent, slotCellZ[slot] * cellSize - maxHalfExtent);
+		box.max().set(box.min().data[0] + cellSize + 2f * maxHalfExtent,
+				box.min().data[1] + cellSize + 2f * maxHalfExtent,
+				box.min().data[2] + cellSize + 2f * maxHalfExtent);
+	}
+
+	private void setElement(int index, AxisAlignedBoundingBox box, Object element) {
+		for (int axis = 0; axis < 3; axis++) {
+			elementBounds[index * 6 + axis] = box.min().data[axis];
+			elementBounds[index * 6 + 3 + axis] = box.max().data[axis];
+		}
+		elements[index] = element;
+	}
+
+	private void ensureElementCapacity(int capacity) {
+		if (elements.length >= capacity) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, elements.length * 2);
+		elementBounds = Arrays.copyOf(elementBounds, newCapacity * 6);
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
+	/**
+	 * @return amount of neighbour cells an element centered in a cell can reach with the given extent
+	 */
+	private int haloCells(float extent) {
+		return Math.max(0, (int) Math.ceil(extent * inverseCellSize - haloTolerance));
+	}
+
+	private int cellOf(float min, float max) {
+		return (int) Math.floor((min + max) * 0.5f * inverseCellSize);
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	private static int hash(int x, int y, int z) {
+		int hash = x * 0x8da6b343 ^ y * 0xd8163841 ^ z * 0xcb1ab31f;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * @return slot of the cell, -1 if it is not occupied
+	 */
+	private int findSlot(int x, int y, int z) {
+		int slot = hash(x, y, z) & tableMask;
+		while (slotCount[slot] != 0) {
+			if (slotCellX[slot] == x && slotCellY[slot] == y && slotCellZ[slot] == z) {
+				return slot;
+			}
+			slot = (slot + 1) & tableMask;
+		}
+		return -1;
+	}
+
+	private int findOrAddSlot(int x, int y, int z) {
+		int slot = hash(x, y, z) & tableMask;
+		while (slotCount[slot] != 0) {
+			if (slotCellX[slot] == x && slotCellY[slot] == y && slotCellZ[slot] == z) {
+				return slot;
+			}
+			slot = (slot + 1) & tableMask;
+		}
+		slotCellX[slot] = x;
+		slotCellY[slot] = y;
+		slotCellZ[slot] = z;
+		occupiedSlots[cellCount++] = slot;
+		occupiedCellMin[0] = Math.min(occupiedCellMin[0], x);
+		occupiedCellMin[1] = Math.min(occupiedCellMin[1], y);
+		occupiedCellMin[2] = Math.min(occupiedCellMin[2], z);
+		occupiedCellMax[0] = Math.max(occupiedCellMax[0], x);
+		occupiedCellMax[1] = Math.max(occupiedCellMax[1], y);
+		occupiedCellMax[2] = Math.max(occupiedCellMax[2], z);
+		return slot;
+	}
+
+	private void rebuild() {
+		if (sortedElements.length < elementCount) {
+			int capacity = Math.max(elementCount, sortedElements.length * 2);
+			sortedBounds = new float[capacity * 6];
+			sortedElements = new Object[capacity];
+			sortedIndices = new int[capacity];
+			elementCells = new int[capacity * 3];
+			elementSlots = new int[capacity];
+		}
+		// at most half of the table is used, which keeps the probe sequences short
+		int tableSize = Math.max(16, Integer.highestOneBit(Math.max(1, elementCount) * 2 - 1) << 1);
+		if (slotCount.length != tableSize) {
+			slotCellX = new int[tableSize];
+			slotCellY = new int[tableSize];
+			slotCellZ = new int[tableSize];
+			slotCount = new int[tableSize];
+			slotStart = new int[tableSize];
+			occupiedSlots = new int[tableSize];
+		} else {
+			Arrays.fill(slotCount, 0);
+		}
+		tableMask = tableSize - 1;
+
+		if (elementCount >= parallelThreshold) {
+			IntStream.range(0, elementCount).parallel().forEach(this::computeElementCell);
+		} else {
+			for (int i = 0; i < elementCount; i++) {
+				computeElementCell(i);
+			}
+		}
+
+		// count the elements per cell
+		cellCount = 0;
+		Arrays.fill(occupiedCellMin, Integer.MAX_VALUE);
+		Arrays.fill(occupiedCellMax, Integer.MIN_VALUE);
+		float halfExtent = 0f;
+		for (int i = 0; i < elementCount; i++) {
+			int slot = findOrAddSlot(elementCells[i * 3], elementCells[i * 3 + 1], elementCells[i * 3 + 2]);
+			slotCount[slot]++;
+			elementSlots[i] = slot;
+			for (int axis = 0; axis < 3; axis++) {
+				halfExtent = Math.max(halfExtent, (elementBounds[i * 6 + 3 + axis] - elementBounds[i * 6 + axis]) * 0.5f);
+			}
+		}
+		maxHalfExtent = halfExtent;
+
+		computeCellStarts();
+
+		// scatter, using the cell starts as cursors and moving them back afterwards
+		Arrays.fill(sortedElements, elementCount, sortedElements.length, null);
+		for (int i = 0; i < elementCount; i++) {
+			int target = slotStart[elementSlots[i]]++;
+			System.arraycopy(elementBounds, i * 6, sortedBounds, target * 6, 6);
+			sortedElements[target] = elements[i];
+			sortedIndices[target] = i;
+		}
+		for (int cell = 0; cell < cellCount; cell++) {
+			int slot = occupiedSlots[cell];
+			slotStart[slot] -= slotCount[slot];
+		}
+		isDirty = false;
+	}
+
+	private void computeElementCell(int element) {
+		int offset = element * 6;
+		elementCells[element * 3] = cellOf(elementBounds[offset], elementBounds[offset + 3]);
+		elementCells[element * 3 + 1] = cellOf(elementBounds[offset + 1], elementBounds[offset + 4]);
+		elementCells[element * 3 + 2] = cellOf(elementBounds[offset + 2], elementBounds[offset + 5]);
+	}
+
+	/**
+	 * Exclusive prefix sum of the cell counts in order of the occupied cells.
+	 * Many cells are summed in blocks, the block totals are scanned sequentially before the blocks are finished in parallel.
+	 */
+	private void computeCellStarts() {
+		if (cellCount < parallelThreshold) {
+			int runningStart = 0;
+			for (int cell = 0; cell < cellCount; cell++) {
+				int slot = occupiedSlots[cell];
+				slotStart[slot] = runningStart;
+				runningStart += slotCount[slot];
+			}
+			return;
+		}
+		int blockCount = (cellCount + prefixSumBlockSize - 1) / prefixSumBlockSize;
+		if (blockSums.length < blockCount) {
+			blockSums = new int[blockCount];
+		}
+		IntStream.range(0, blockCount).parallel().forEach(block -> {
+			int sum = 0;
+			for (int cell = block * prefixSumBlockSize, end = Math.min(cellCount, cell + prefixSumBlockSize); cell < end; cell++) {
+				sum += slotCount[occupiedSlots[cell]];
+			}
+			blockSums[block] = sum;
+		});
+		int runningStart = 0;
+		for (int block = 0; block < blockCount; block++) {
+			int sum = blockSums[block];
+			blockSums[block] = runningStart;
+			runningStart += sum;
+		}
+		IntStream.range(0, blockCount).parallel().forEach(block -> {
+			int blockStart = blockSums[block];
+			for (int cell = block * prefixSumBlockSize, end = Math.min(cellCount, cell + prefixSumBlockSize); cell < end; cell++) {
+				int slot = occupiedSlots[cell];
+				slotStart[slot] = blockStart;
+				blockStart += slotCount[slot];
+			}
+		});
+	}
+}
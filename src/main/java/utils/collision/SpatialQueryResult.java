@@ -0,0 +1,188 @@
+package utils.collision;
+
+import java.util.Arrays;
+
+/**
+ * Reusable result buffer of the {@link ISpatialIndex} queries, it also holds the traversal scratch space of a query.
+ * Different buffers can be used to query the same structure concurrently, as long as it is not modified.
+ */
+public class SpatialQueryResult<T> {
+	private Object[] elements = new Object[16];
+	private float[] distances = new float[16];
+	private int size = 0;
+
+	/**
+	 * min heap of nodes still to visit, keyed by their distance
+	 */
+	private Object[] nodeHeap = new Object[32];
+	private float[] nodeHeapKeys = new float[32];
+	private int nodeHeapSize = 0;
+
+	public void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		clearNodes();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) elements[index];
+	}
+
+	/**
+	 * @return distance of the result for nearest and ray queries, 0 for sphere and frustum queries
+	 */
+	public float getDistance(int index) {
+		return distances[index];
+	}
+
+	void add(Object element, float distance) {
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+			distances = Arrays.copyOf(distances, size * 2);
+		}
+		elements[size] = element;
+		distances[size] = distance;
+		size++;
+	}
+
+	void setDistance(int index, float distance) {
+		distances[index] = distance;
+	}
+
+	/**
+	 * Keeps the results as a max heap of at most `capacity` entries, call {@link #sortByDistance()} once done.
+	 */
+	void offerBounded(Object element, float distance, int capacity) {
+		if (size < capacity) {
+			add(element, distance);
+			int child = size - 1;
+			while (child > 0) {
+				int parent = (child - 1) >> 1;
+				if (distances[parent] >= distances[child]) {
+					break;
+				}
+				swapResults(parent, child);
+				child = parent;
+			}
+		} else if (distance < distances[0]) {
+			elements[0] = element;
+			distances[0] = distance;
+			siftDownResult(0, size);
+		}
+	}
+
+	/**
+	 * @return largest kept distance if `capacity` results are kept, infinity otherwise
+	 */
+	float boundingDistance(int capacity) {
+		return size < capacity ? Float.POSITIVE_INFINITY : distances[0];
+	}
+
+	/**
+	 * Turns the max heap built by {@link #offerBounded} into ascending order.
+	 */
+	void sortByDistance() {
+		for (int end = size - 1; end > 0; end--) {
+			swapResults(0, end);
+			siftDownResult(0, end);
+		}
+	}
+
+	private void siftDownResult(int parent, int heapSize) {
+		while (true) {
+			int largest = parent;
+			int left = parent * 2 + 1;
+			int right = left + 1;
+			if (left < heapSize && distances[left] > distances[largest]) {
+				largest = left;
+			}
+			if (right < heapSize && distances[right] > distances[largest]) {
+				largest = right;
+			}
+			if (largest == parent) {
+				return;
+			}
+			swapResults(parent, largest);
+			parent = largest;
+		}
+	}
+
+	private void swapResults(int a, int b) {
+		Object element = elements[a];
+		elements[a] = elements[b];
+		elements[b] = element;
+		float distance = distances[a];
+		distances[a] = distances[b];
+		distances[b] = distance;
+	}
+
+	void clearNodes() {
+		Arrays.fill(nodeHeap, 0, nodeHeapSize, null);
+		nodeHeapSize = 0;
+	}
+
+	boolean hasNodes() {
+		return nodeHeapSize > 0;
+	}
+
+	float peekNodeKey() {
+		return nodeHeapKeys[0];
+	}
+
+	void pushNode(Object node, float key) {
+		if (nodeHeapSize == nodeHeap.length) {
+			nodeHeap = Arrays.copyOf(nodeHeap, nodeHeapSize * 2);
+			nodeHeapKeys = Arrays.copyOf(nodeHeapKeys, nodeHeapSize * 2);
+		}
+		int child = nodeHeapSize++;
+		while (child > 0) {
+			int parent = (child - 1) >> 1;
+			if (nodeHeapKeys[parent] <= key) {
+				break;
+			}
+			nodeHeap[child] = nodeHeap[parent];
+			nodeHeapKeys[child] = nodeHeapKeys[parent];
+			child = parent;
+		}
+		nodeHeap[child] = node;
+		nodeHeapKeys[child] = key;
+	}
+
+	Object popNode() {
+		Object node = nodeHeap[0];
+		nodeHeapSize--;
+		Object last = nodeHeap[nodeHeapSize];
+		float lastKey = nodeHeapKeys[nodeHeapSize];
+		nodeHeap[nodeHeapSize] = null;
+		int parent = 0;
+		while (true) {
+			int child = parent * 2 + 1;
+			if (child >= nodeHeapSize) {
+				break;
+			}
+			if (child + 1 < nodeHeapSize && nodeHeapKeys[child + 1] < nodeHeapKeys[child]) {
+				child++;
+			}
+			if (nodeHeapKeys[child] >= lastKey) {
+				break;
+			}
+			nodeHeap[parent] = nodeHeap[child];
+			nodeHeapKeys[parent] = nodeHeapKeys[child];
+			parent = child;
+		}
+		if (nodeHeapSize > 0) {
+			nodeHeap[parent] = last;
+			nodeHeapKeys[parent] = lastKey;
+		}
+		return node;
+	}
+}
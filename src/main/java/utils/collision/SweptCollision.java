@@ -0,0 +1,87 @@
+package utils.collision;
+
+import utils.vector.Vec3f;
+
+/**
+ * Time of impact solvers for shapes moving linearly during one tick.
+ * Times are fractions of the tick, 0 is the start and 1 the end of the movement.
+ */
+public final class SweptCollision {
+	public static final float noImpact = -1f;
+
+	private SweptCollision() {
+	}
+
+	/**
+	 * Both boxes are given at the end of the tick, they started `displacement` earlier.
+	 * Solved as slab test of the relative motion against the static other box.
+	 *
+	 * @return first time the boxes touch, 0 if they already overlap at the start, {@link #noImpact} if they never touch
+	 */
+	public static float timeOfImpact(AxisAlignedBoundingBox endA, Vec3f displacementA, AxisAlignedBoundingBox endB, Vec3f displacementB) {
+		float entry = Float.NEGATIVE_INFINITY;
+		float exit = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			float relativeDisplacement = displacementA.data[i] - displacementB.data[i];
+			// start of A relative to B at its start
+			float minA = endA.min().data[i] - displacementA.data[i];
+			float maxA = endA.max().data[i] - displacementA.data[i];
+			float minB = endB.min().data[i] - displacementB.data[i];
+			float maxB = endB.max().data[i] - displacementB.data[i];
+			if (relativeDisplacement == 0f) {
+				if (maxA < minB || minA > maxB) {
+					return noImpact;
+				}
+				continue;
+			}
+			float axisEntry;
+			float axisExit;
+			if (relativeDisplacement > 0f) {
+				axisEntry = (minB - maxA) / relativeDisplacement;
+				axisExit = (maxB - minA) / relativeDisplacement;
+			} else {
+				axisEntry = (maxB - minA) / relativeDisplacement;
+				axisExit = (minB - maxA) / relativeDisplacement;
+			}
+			entry = Math.max(entry, axisEntry);
+			exit = Math.min(exit, axisExit);
+		}
+		if (entry > exit || entry > 1f || exit < 0f) {
+			return noImpact;
+		}
+		return Math.max(0f, entry);
+	}
+
+	/**
+	 * Both spheres are given at the start of the tick and move by their displacement.
+	 *
+	 * @return first time the spheres touch, 0 if they already overlap at the start, {@link #noImpact} if they never touch
+	 */
+	public static float timeOfImpact(Vec3f startA, float radiusA, Vec3f displacementA, Vec3f startB, float radiusB, Vec3f displacementB) {
+		float px = startB.data[0] - startA.data[0];
+		float py = startB.data[1] - startA.data[1];
+		float pz = startB.data[2] - startA.data[2];
+		float vx = displacementB.data[0] - displacementA.data[0];
+		float vy = displacementB.data[1] - displacementA.data[1];
+		float vz = displacementB.data[2] - displacementA.data[2];
+		float radius = radiusA + radiusB;
+
+		// |p + v * t| = radius
+		float c = px * px + py * py + pz * pz - radius * radius;
+		if (c <= 0f) {
+			return 0f;
+		}
+		float a = vx * vx + vy * vy + vz * vz;
+		float b = px * vx + py * vy + pz * vz;
+		if (a == 0f || b >= 0f) {
+			// not moving or moving apart
+			return noImpact;
+		}
+		float discriminant = b * b - a * c;
+		if (discriminant < 0f) {
+			return noImpact;
+		}
+		float time = (-b - (float) Math.sqrt(discriminant)) / a;
+		return time <= 1f ? time : noImpact;
+	}
+}
@@ -2,9 +2,10 @@ package utils.matrix;
 
 import java.nio.FloatBuffer;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
+import utils.operator.OperatorKernels;
 import utils.vector.Vec2f;
 import utils.vector.Vec4f;
 
@@ -72,6 +73,32 @@ public class Mat2f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link OperatorKernels}
+	 */
+	public Mat2f addInPlace(Mat2f other) {
+		OperatorKernels.addInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat2f subInPlace(Mat2f other) {
+		OperatorKernels.subInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat2f mulInPlace(float scalar) {
+		OperatorKernels.mulInPlace(data, 0, DATA_LEN, scalar);
+		return this;
+	}
+
+	/**
+	 * this += other * scalar, element wise
+	 */
+	public Mat2f scaleAdd(Mat2f other, float scalar) {
+		OperatorKernels.scaleAdd(data, 0, DATA_LEN, other.data, 0, scalar);
+		return this;
+	}
+
 	public float determinant() {
 		return data[0] * data[3] - data[1] * data[2];
 	}
@@ -120,6 +147,6 @@ public class Mat2f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return (location, buffer) -> GL45.glUniformMatrix2fv(location, true, buffer);
+		return (location, buffer) -> GLFacade.glUniformMatrix2fv(location, true, buffer);
 	}
 }
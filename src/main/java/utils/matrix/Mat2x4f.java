@@ -2,9 +2,10 @@ package utils.matrix;
 
 import java.nio.FloatBuffer;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
+import utils.operator.OperatorKernels;
 import utils.vector.Vec2f;
 import utils.vector.Vec4f;
 
@@ -93,6 +94,32 @@ public class Mat2x4f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link OperatorKernels}
+	 */
+	public Mat2x4f addInPlace(Mat2x4f other) {
+		OperatorKernels.addInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat2x4f subInPlace(Mat2x4f other) {
+		OperatorKernels.subInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat2x4f mulInPlace(float scalar) {
+		OperatorKernels.mulInPlace(data, 0, DATA_LEN, scalar);
+		return this;
+	}
+
+	/**
+	 * this += other * scalar, element wise
+	 */
+	public Mat2x4f scaleAdd(Mat2x4f other, float scalar) {
+		OperatorKernels.scaleAdd(data, 0, DATA_LEN, other.data, 0, scalar);
+		return this;
+	}
+
 	public Mat4x2f transpose() {
 		return new Mat4x2f(
 				data[0], data[2], data[4], data[6],
@@ -122,6 +149,6 @@ public class Mat2x4f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return (location, buffer) -> GL45.glUniformMatrix2x4fv(location, true, buffer);
+		return (location, buffer) -> GLFacade.glUniformMatrix2x4fv(location, true, buffer);
 	}
 }
@@ -2,9 +2,10 @@ package utils.matrix;
 
 import java.nio.FloatBuffer;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
+import utils.operator.OperatorKernels;
 import utils.vector.Vec3f;
 
 /**
@@ -87,6 +88,32 @@ public class Mat3f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link OperatorKernels}
+	 */
+	public Mat3f addInPlace(Mat3f other) {
+		OperatorKernels.addInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat3f subInPlace(Mat3f other) {
+		OperatorKernels.subInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat3f mulInPlace(float scalar) {
+		OperatorKernels.mulInPlace(data, 0, DATA_LEN, scalar);
+		return this;
+	}
+
+	/**
+	 * this += other * scalar, element wise
+	 */
+	public Mat3f scaleAdd(Mat3f other, float scalar) {
+		OperatorKernels.scaleAdd(data, 0, DATA_LEN, other.data, 0, scalar);
+		return this;
+	}
+
 	public float determinant() {
 		return data[0] * (data[4] * data[8] - data[5] * data[7])
 				+ data[1] * (data[5] * data[6] - data[3] * data[8])
@@ -153,6 +180,6 @@ public class Mat3f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return (location, buffer) -> GL45.glUniformMatrix3fv(location, true, buffer);
+		return (location, buffer) -> GLFacade.glUniformMatrix3fv(location, true, buffer);
 	}
 }
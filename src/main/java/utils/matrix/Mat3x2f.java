@@ -2,9 +2,10 @@ package utils.matrix;
 
 import java.nio.FloatBuffer;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
+import utils.operator.OperatorKernels;
 import utils.vector.Vec2f;
 import utils.vector.Vec3f;
 
@@ -81,6 +82,32 @@ public class Mat3x2f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link OperatorKernels}
+	 */
+	public Mat3x2f addInPlace(Mat3x2f other) {
+		OperatorKernels.addInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat3x2f subInPlace(Mat3x2f other) {
+		OperatorKernels.subInPlace(data, 0, DATA_LEN, other.data, 0);
+		return this;
+	}
+
+	public Mat3x2f mulInPlace(float scalar) {
+		OperatorKernels.mulInPlace(data, 0, DATA_LEN, scalar);
+		return this;
+	}
+
+	/**
+	 * this += other * scalar, element wise
+	 */
+	public Mat3x2f scaleAdd(Mat3x2f other, float scalar) {
+		OperatorKernels.scaleAdd(data, 0, DATA_LEN, other.data, 0, scalar);
+		return this;
+	}
+
 	public Mat2x3f transpose() {
 		return new Mat2x3f(
 				data[0], data[3],
@@ -109,6 +136,6 @@ public class Mat3x2f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return (location, buffer) -> GL45.glUniformMatrix3x2fv(location, true, buffer);
+		return (location, buffer) -> GLFacade.glUniformMatrix3x2fv(location, true, buffer);
 	}
 }
@@ -0,0 +1,92 @@
+package utils.operator;
+
+/**
+ * Specialized loops for the common element wise operations.
+ * <p>
+ * Every {@link IOperator} call site that sees more than two of the operators becomes megamorphic, the JIT then stops inlining the loop.
+ * These static methods have exactly one implementation per operation, so they are always inlined into hot paths.
+ * {@link IOperator} stays the generic API for code that picks the operation at runtime.
+ */
+public final class OperatorKernels {
+
+	public static void addInPlace(float[] data, int start, int length, float scalar) {
+		for (int i = start, end = start + length; i < end; i++) {
+			data[i] += scalar;
+		}
+	}
+
+	public static void addInPlace(float[] data, int start, int length, float[] other, int otherStart) {
+		for (int i = 0; i < length; i++) {
+			data[start + i] += other[otherStart + i];
+		}
+	}
+
+	public static void subInPlace(float[] data, int start, int length, float scalar) {
+		for (int i = start, end = start + length; i < end; i++) {
+			data[i] -= scalar;
+		}
+	}
+
+	public static void subInPlace(float[] data, int start, int length, float[] other, int otherStart) {
+		for (int i = 0; i < length; i++) {
+			data[start + i] -= other[otherStart + i];
+		}
+	}
+
+	public static void mulInPlace(float[] data, int start, int length, float scalar) {
+		for (int i = start, end = start + length; i < end; i++) {
+			data[i] *= scalar;
+		}
+	}
+
+	public static void mulInPlace(float[] data, int start, int length, float[] other, int otherStart) {
+		for (int i = 0; i < length; i++) {
+			data[start + i] *= other[otherStart + i];
+		}
+	}
+
+	public static void divInPlace(float[] data, int start, int length, float scalar) {
+		for (int i = start, end = start + length; i < end; i++) {
+			data[i] /= scalar;
+		}
+	}
+
+	/**
+	 * data += other * scalar
+	 */
+	public static void scaleAdd(float[] data, int start, int length, float[] other, int otherStart, float scalar) {
+		for (int i = 0; i < length; i++) {
+			data[start + i] += other[otherStart + i] * scalar;
+		}
+	}
+
+	/**
+	 * target = a * b + c, rounded after the multiply like the operator versions, not a fused multiply add instruction
+	 */
+	public static void fma(float[] target, int targetStart, float[] a, int aStart, float[] b, int bStart, float[] c, int cStart, int length) {
+		for (int i = 0; i < length; i++) {
+			target[targetStart + i] = a[aStart + i] * b[bStart + i] + c[cStart + i];
+		}
+	}
+
+	/**
+	 * target = a + b
+	 */
+	public static void add(float[] target, int targetStart, float[] a, int aStart, float[] b, int bStart, int length) {
+		for (int i = 0; i < length; i++) {
+			target[targetStart + i] = a[aStart + i] + b[bStart + i];
+		}
+	}
+
+	/**
+	 * target = a - b
+	 */
+	public static void sub(float[] target, int targetStart, float[] a, int aStart, float[] b, int bStart, int length) {
+		for (int i = 0; i < length; i++) {
+			target[targetStart + i] = a[aStart + i] - b[bStart + i];
+		}
+	}
+
+	private OperatorKernels() {
+	}
+}
@@ -0,0 +1,124 @@
+package utils.physics;
+
+import java.util.Arrays;
+
+/**
+ * Double precision state of a set of point masses, advanced by a {@link SymplecticIntegrator}.
+ * All buffers are packed (x, y, z per body for vectors) and reused, stepping does not allocate.
+ */
+public class NBodyIntegrator {
+
+	@FunctionalInterface
+	public interface AccelerationSolver {
+		/**
+		 * @param accelerations packed x, y, z per body, must be overwritten
+		 */
+		void computeAccelerations(double[] positions, double[] masses, int bodyCount, double[] accelerations);
+	}
+
+	private double[] positions = new double[0];
+	private double[] velocities = new double[0];
+	private double[] masses = new double[0];
+	private double[] accelerations = new double[0];
+	private int bodyCount = 0;
+	private boolean accelerationsValid = false;
+	private long forceEvaluations = 0;
+
+	/**
+	 * Resizes the buffers, the state of the first `bodyCount` bodies is kept.
+	 */
+	public void setBodyCount(int bodyCount) {
+		if (masses.length < bodyCount) {
+			int capacity = Math.max(bodyCount, masses.length * 2);
+			positions = Arrays.copyOf(positions, capacity * 3);
+			velocities = Arrays.copyOf(velocities, capacity * 3);
+			masses = Arrays.copyOf(masses, capacity);
+			accelerations = Arrays.copyOf(accelerations, capacity * 3);
+		}
+		if (this.bodyCount != bodyCount) {
+			this.bodyCount = bodyCount;
+			accelerationsValid = false;
+		}
+	}
+
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	public double[] getPositions() {
+		return positions;
+	}
+
+	public double[] getVelocities() {
+		return velocities;
+	}
+
+	public double[] getMasses() {
+		return masses;
+	}
+
+	/**
+	 * @return accelerations at the current positions, only valid if no positions or masses changed since the last step
+	 */
+	public double[] getAccelerations() {
+		return accelerations;
+	}
+
+	/**
+	 * Must be called after positions or masses were modified outside of {@link #step}.
+	 */
+	public void invalidateAccelerations() {
+		accelerationsValid = false;
+	}
+
+	/**
+	 * @return total number of acceleration evaluations, useful to compare the cost of the schemes
+	 */
+	public long getForceEvaluations() {
+		return forceEvaluations;
+	}
+
+	/**
+	 * @param deltaSeconds total time to advance
+	 * @param subSteps     amount of equally sized steps `deltaSeconds` is divided into
+	 */
+	public void step(SymplecticIntegrator integrator, double deltaSeconds, int subSteps, AccelerationSolver solver) {
+		if (subSteps < 1) {
+			throw new IllegalArgumentException("subSteps must be at least 1, got " + subSteps);
+		}
+		double stepSeconds = deltaSeconds / subSteps;
+		double[] driftCoefficients = integrator.driftCoefficients;
+		double[] kickCoefficients = integrator.kickCoefficients;
+		for (int subStep = 0; subStep < subSteps; subStep++) {
+			for (int stage = 0; stage < kickCoefficients.length; stage++) {
+				drift(driftCoefficients[stage] * stepSeconds);
+				kick(kickCoefficients[stage] * stepSeconds, solver);
+			}
+			drift(driftCoefficients[kickCoefficients.length] * stepSeconds);
+		}
+	}
+
+	private void drift(double seconds) {
+		if (seconds == 0) {
+			return;
+		}
+		for (int i = 0; i < bodyCount * 3; i++) {
+			positions[i] += velocities[i] * seconds;
+		}
+		accelerationsValid = false;
+	}
+
+	private void kick(double seconds, AccelerationSolver solver) {
+		if (seconds == 0) {
+			return;
+		}
+		if (!accelerationsValid) {
+			solver.computeAccelerations(positions, masses, bodyCount, accelerations);
+			accelerationsValid = true;
+			forceEvaluations++;
+		}
+		for (int i = 0; i < bodyCount * 3; i++) {
+			velocities[i] += accelerations[i] * seconds;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package utils.physics;
+
+/**
+ * Fixed step symplectic schemes expressed as alternating drift (position) and kick (velocity) coefficients.
+ * A step starts with drift 0, followed by kick 0, drift 1, kick 1, ... and ends with the last drift.
+ * Unlike explicit Euler these conserve a modified energy, so orbits stay closed at much larger timesteps.
+ */
+public enum SymplecticIntegrator {
+	/**
+	 * drift-kick-drift, second order, one force evaluation per step
+	 */
+	Leapfrog(new double[]{0.5, 0.5}, new double[]{1}),
+	/**
+	 * kick-drift-kick, second order, the closing kick reuses the accelerations of the next step
+	 */
+	VelocityVerlet(new double[]{0, 1, 0}, new double[]{0.5, 0.5}),
+	/**
+	 * fourth order composition of three leapfrog steps, three force evaluations per step
+	 */
+	Yoshida4(yoshidaDriftCoefficients(), yoshidaKickCoefficients());
+
+	final double[] driftCoefficients;
+	final double[] kickCoefficients;
+
+	SymplecticIntegrator(double[] driftCoefficients, double[] kickCoefficients) {
+		this.driftCoefficients = driftCoefficients;
+		this.kickCoefficients = kickCoefficients;
+	}
+
+	private static double[] yoshidaKickCoefficients() {
+		double cubeRootOfTwo = Math.cbrt(2);
+		double w1 = 1 / (2 - cubeRootOfTwo);
+		double w0 = -cubeRootOfTwo * w1;
+		return new double[]{w1, w0, w1};
+	}
+
+	private static double[] yoshidaDriftCoefficients() {
+		double[] kicks = yoshidaKickCoefficients();
+		return new double[]{kicks[0] / 2, (kicks[0] + kicks[1]) / 2, (kicks[1] + kicks[2]) / 2, kicks[2] / 2};
+	}
+}
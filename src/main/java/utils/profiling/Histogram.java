@@ -0,0 +1,94 @@
+package utils.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of non-negative long values (HdrHistogram layout) with a relative precision of about 1%.
+ * Recording is O(1) and allocation free. Not thread-safe.
+ */
+public class Histogram {
+	private static final int subBucketHalfCountMagnitude = 6;
+	private static final int subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+	private static final long subBucketMask = (subBucketHalfCount << 1) - 1;
+	/**
+	 * values above 2^40 (about 18 minutes in nanoseconds) are clamped
+	 */
+	private static final long maxTrackableValue = (1L << 40) - 1;
+
+	private final long[] counts = new long[countsIndex(maxTrackableValue) + 1];
+	private long totalCount = 0;
+	private long totalSum = 0;
+	private long minValue = Long.MAX_VALUE;
+	private long maxValue = 0;
+
+	private static int countsIndex(long value) {
+		int bucketIndex = (63 - Long.numberOfLeadingZeros(value | subBucketMask)) - subBucketHalfCountMagnitude;
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+	}
+
+	/**
+	 * @return the highest value that maps to the same slot as `index`
+	 */
+	private static long highestEquivalentValue(int index) {
+		int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+		long subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+		if (bucketIndex < 0) {
+			subBucketIndex -= subBucketHalfCount;
+			bucketIndex = 0;
+		}
+		return (subBucketIndex << bucketIndex) + (1L << bucketIndex) - 1;
+	}
+
+	public void record(long value) {
+		long clamped = Math.max(0, Math.min(value, maxTrackableValue));
+		counts[countsIndex(clamped)]++;
+		totalCount++;
+		totalSum += clamped;
+		minValue = Math.min(minValue, clamped);
+		maxValue = Math.max(maxValue, clamped);
+	}
+
+	/**
+	 * @param percentile in range [0, 100]
+	 * @return the value below which `percentile` percent of the recorded values fall, accurate to the slot width
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long targetCount = Math.max(1, (long) Math.ceil((percentile / 100d) * totalCount));
+		long seenCount = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seenCount += counts[i];
+			if (seenCount >= targetCount) {
+				return Math.min(highestEquivalentValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public long getMin() {
+		return totalCount == 0 ? 0 : minValue;
+	}
+
+	public long getMax() {
+		return maxValue;
+	}
+
+	public double getMean() {
+		return totalCount == 0 ? 0 : ((double) totalSum / totalCount);
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		totalSum = 0;
+		minValue = Long.MAX_VALUE;
+		maxValue = 0;
+	}
+}
@@ -0,0 +1,244 @@
+package utils.profiling;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects per-section timings of the game loop (systems, game states, erase queue).
+ * <p>
+ * Disabled by default, start with `-Dprofiler.enabled=true` or call {@link #setEnabled(boolean)}.
+ * While enabled, a summary is logged every report interval and optionally appended to a CSV file (`-Dprofiler.csv=path`),
+ * after which all sections are reset.
+ * <p>
+ * Durations are wall times, the cpu columns are the CPU times summed over all threads, see {@link ProfilerSection}.
+ * Values a section does not record are reported as n/a, or -1 in the CSV.
+ */
+public class Profiler {
+	private static final Logger logger = LoggerFactory.getLogger(Profiler.class);
+	private static final String csvHeader = "timestampMillis,section,samples,p50Nanos,p99Nanos,maxNanos,meanNanos,cpuP50Nanos,cpuP99Nanos,cpuMeanNanos,entitiesProcessed,allocatedBytes";
+
+	private static Profiler instance;
+
+	public static Profiler getInstance() {
+		if (instance == null) {
+			instance = new Profiler();
+		}
+		return instance;
+	}
+
+	private final ConcurrentHashMap<String, ProfilerSection> sections = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, ConcurrentHashMap<Class<?>, ProfilerSection>> sectionsByOwner = new ConcurrentHashMap<>();
+	private final com.sun.management.ThreadMXBean allocationBean;
+
+	private boolean enabled;
+	private long reportIntervalNanos = 5_000_000_000L;
+	private long lastReportNanos = System.nanoTime();
+	private Path csvOutput = null;
+
+	private Profiler() {
+		enabled = Boolean.getBoolean("profiler.enabled");
+		String csvPath = System.getProperty("profiler.csv");
+		if (csvPath != null) {
+			csvOutput = Path.of(csvPath);
+		}
+
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean && sunThreadBean.isThreadAllocatedMemorySupported()) {
+			sunThreadBean.setThreadAllocatedMemoryEnabled(true);
+			allocationBean = sunThreadBean;
+		} else {
+			allocationBean = null;
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		lastReportNanos = System.nanoTime();
+	}
+
+	/**
+	 * @param reportIntervalMillis interval between periodic reports, values &lt;= 0 disable periodic reports
+	 */
+	public void setReportInterval(long reportIntervalMillis) {
+		reportIntervalNanos = reportIntervalMillis * 1_000_000L;
+	}
+
+	/**
+	 * @param csvOutput file the periodic reports are appended to, or null to only log them
+	 */
+	public void setCsvOutput(Path csvOutput) {
+		this.csvOutput = csvOutput;
+	}
+
+	public ProfilerSection getSection(String name) {
+		return sections.computeIfAbsent(name, ProfilerSection::new);
+	}
+
+	/**
+	 * @return the section named `category/OwnerClass`, cached per class to avoid building the name every tick
+	 */
+	public ProfilerSection getSection(String category, Object owner) {
+		return sectionsByOwner.computeIfAbsent(category, c -> new ConcurrentHashMap<>())
+				.computeIfAbsent(owner.getClass(), ownerClass -> getSection(category + "/" + getName(ownerClass)));
+	}
+
+	private static String getName(Class<?> type) {
+		String simpleName = type.getSimpleName();
+		return simpleName.isEmpty() ? type.getName() : simpleName;
+	}
+
+	/**
+	 * @return all sections, sorted by name
+	 */
+	public List<ProfilerSection> getSections() {
+		ArrayList<ProfilerSection> result = new ArrayList<>(sections.values());
+		result.sort(Comparator.comparing(ProfilerSection::getName));
+		return result;
+	}
+
+	/**
+	 * @return bytes allocated by the calling thread so far, or -1 if the JVM does not report allocations
+	 */
+	public long getCurrentThreadAllocatedBytes() {
+		return allocationBean == null ? -1 : allocationBean.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * @param startBytes result of {@link #getCurrentThreadAllocatedBytes()} at the start of the section
+	 */
+	public long getAllocatedBytesSince(long startBytes) {
+		return startBytes < 0 ? -1 : (getCurrentThreadAllocatedBytes() - startBytes);
+	}
+
+	/**
+	 * Runs the action and, if enabled, records it to the section `category/OwnerClass`.
+	 */
+	public void profile(String category, Object owner, Runnable action) {
+		if (!enabled) {
+			action.run();
+			return;
+		}
+		long startBytes = getCurrentThreadAllocatedBytes();
+		long startNanos = System.nanoTime();
+		action.run();
+		long durationNanos = System.nanoTime() - startNanos;
+		getSection(category, owner).record(durationNanos, 0, getAllocatedBytesSince(startBytes));
+	}
+
+	/**
+	 * Logs (and writes to csv) a report of all sections once per report interval, then resets them.
+	 * Call once per tick from the game loop.
+	 */
+	public void reportIfDue() {
+		if (!enabled || reportIntervalNanos <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (now - lastReportNanos < reportIntervalNanos) {
+			return;
+		}
+		lastReportNanos = now;
+		List<ProfilerSection> sortedSections = getSections();
+		logger.info(getReport(sortedSections));
+		if (csvOutput != null) {
+			writeCsv(sortedSections);
+		}
+		reset();
+	}
+
+	public String getReport() {
+		return getReport(getSections());
+	}
+
+	private static String getReport(List<ProfilerSection> sortedSections) {
+		StringBuilder builder = new StringBuilder("profiler report (ms, cpu summed over threads):");
+		builder.append(System.lineSeparator())
+				.append(String.format("%-48s %8s %9s %9s %9s %9s %9s %12s %14s", "section", "samples", "p50", "p99", "max", "cpuP50", "cpuP99", "entities", "allocatedKB"));
+		for (ProfilerSection section : sortedSections) {
+			Histogram wall = section.getDurationNanos();
+			Histogram cpu = section.getCpuNanos();
+			long sampleCount = getSampleCount(section);
+			if (sampleCount == 0) {
+				continue;
+			}
+			long allocatedBytes = section.getAllocatedBytes();
+			builder.append(System.lineSeparator()).append(String.format("%-48s %8d %9s %9s %9s %9s %9s %12d %14s",
+					section.getName(),
+					sampleCount,
+					formatMillis(wall, wall.getValueAtPercentile(50)),
+					formatMillis(wall, wall.getValueAtPercentile(99)),
+					formatMillis(wall, wall.getMax()),
+					formatMillis(cpu, cpu.getValueAtPercentile(50)),
+					formatMillis(cpu, cpu.getValueAtPercentile(99)),
+					section.getEntitiesProcessed(),
+					allocatedBytes < 0 ? "n/a" : String.valueOf(allocatedBytes / 1024)));
+		}
+		return builder.toString();
+	}
+
+	private static long getSampleCount(ProfilerSection section) {
+		return Math.max(section.getDurationNanos().getTotalCount(), section.getCpuNanos().getTotalCount());
+	}
+
+	private static String formatMillis(Histogram histogram, long nanos) {
+		return histogram.getTotalCount() == 0 ? "n/a" : String.format("%.3f", nanos / 1_000_000d);
+	}
+
+	private static long csvValue(Histogram histogram, long nanos) {
+		return histogram.getTotalCount() == 0 ? -1 : nanos;
+	}
+
+	private void writeCsv(List<ProfilerSection> sortedSections) {
+		long timestampMillis = System.currentTimeMillis();
+		StringBuilder builder = new StringBuilder();
+		if (!Files.exists(csvOutput)) {
+			builder.append(csvHeader).append('\n');
+		}
+		for (ProfilerSection section : sortedSections) {
+			Histogram wall = section.getDurationNanos();
+			Histogram cpu = section.getCpuNanos();
+			long sampleCount = getSampleCount(section);
+			if (sampleCount == 0) {
+				continue;
+			}
+			builder.append(timestampMillis).append(',')
+					.append(section.getName()).append(',')
+					.append(sampleCount).append(',')
+					.append(csvValue(wall, wall.getValueAtPercentile(50))).append(',')
+					.append(csvValue(wall, wall.getValueAtPercentile(99))).append(',')
+					.append(csvValue(wall, wall.getMax())).append(',')
+					.append(csvValue(wall, (long) wall.getMean())).append(',')
+					.append(csvValue(cpu, cpu.getValueAtPercentile(50))).append(',')
+					.append(csvValue(cpu, cpu.getValueAtPercentile(99))).append(',')
+					.append(csvValue(cpu, (long) cpu.getMean())).append(',')
+					.append(section.getEntitiesProcessed()).append(',')
+					.append(section.getAllocatedBytes()).append('\n');
+		}
+		try {
+			Files.writeString(csvOutput, builder, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			logger.error("Failed to write profiler csv to '{}'", csvOutput, e);
+		}
+	}
+
+	public void reset() {
+		for (ProfilerSection section : sections.values()) {
+			section.reset();
+		}
+	}
+}
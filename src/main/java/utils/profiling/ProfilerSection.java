@@ -0,0 +1,124 @@
+package utils.profiling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing statistics of one instrumented code section (a system, a game state, the erase queue, ...).
+ * <p>
+ * Two times are kept per sample: the wall time the section took in the frame, and the CPU time summed over all threads that worked on it.
+ * They are equal for sections that run on one thread, for parallel sections the CPU time is larger.
+ * <p>
+ * Worker threads add partial CPU times with {@link #accumulate(long, long, long)},
+ * the owning thread then turns them into one sample with {@link #commit(long)} or {@link #commitCpuTime()}.
+ * {@link #record(long, long, long)} must only be called from the owning (main) thread.
+ */
+public class ProfilerSection {
+	private final String name;
+	private final Histogram durationNanos = new Histogram();
+	private final Histogram cpuNanos = new Histogram();
+	private long entitiesProcessed = 0;
+	private long allocatedBytes = 0;
+	private boolean allocationsReported = false;
+
+	private final LongAdder pendingCpuNanos = new LongAdder();
+	private final LongAdder pendingEntities = new LongAdder();
+	private final LongAdder pendingAllocatedBytes = new LongAdder();
+	private volatile boolean hasPendingAllocations = false;
+
+	ProfilerSection(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Records a sample of a section that ran on the calling thread only, its CPU time is its wall time.
+	 *
+	 * @param allocatedBytes bytes allocated during the section, or a negative value if unknown
+	 */
+	public void record(long durationNanos, long entitiesProcessed, long allocatedBytes) {
+		this.durationNanos.record(durationNanos);
+		cpuNanos.record(durationNanos);
+		addCounts(entitiesProcessed, allocatedBytes);
+	}
+
+	/**
+	 * Records the wall time of a section whose CPU time is recorded by the sections it contains, like a stage of systems.
+	 */
+	public void recordWallTime(long durationNanos) {
+		this.durationNanos.record(durationNanos);
+	}
+
+	private void addCounts(long entitiesProcessed, long allocatedBytes) {
+		this.entitiesProcessed += entitiesProcessed;
+		if (allocatedBytes >= 0) {
+			this.allocatedBytes += allocatedBytes;
+			allocationsReported = true;
+		}
+	}
+
+	/**
+	 * Thread-safe, adds CPU time to the sample that is recorded by the next {@link #commit(long)} or {@link #commitCpuTime()}.
+	 */
+	public void accumulate(long cpuNanos, long entitiesProcessed, long allocatedBytes) {
+		pendingCpuNanos.add(cpuNanos);
+		pendingEntities.add(entitiesProcessed);
+		if (allocatedBytes >= 0) {
+			pendingAllocatedBytes.add(allocatedBytes);
+			hasPendingAllocations = true;
+		}
+	}
+
+	/**
+	 * Records the accumulated CPU time together with the wall time the section took.
+	 */
+	public void commit(long wallNanos) {
+		durationNanos.record(wallNanos);
+		commitCpuTime();
+	}
+
+	/**
+	 * Records only the accumulated CPU time, for sections that share their wall time with others, see {@link #recordWallTime(long)}.
+	 */
+	public void commitCpuTime() {
+		long allocated = hasPendingAllocations ? pendingAllocatedBytes.sumThenReset() : -1;
+		hasPendingAllocations = false;
+		cpuNanos.record(pendingCpuNanos.sumThenReset());
+		addCounts(pendingEntities.sumThenReset(), allocated);
+	}
+
+	/**
+	 * @return wall time per sample, empty for sections that only record CPU time
+	 */
+	public Histogram getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return CPU time per sample summed over all threads, empty for sections that only record wall time
+	 */
+	public Histogram getCpuNanos() {
+		return cpuNanos;
+	}
+
+	public long getEntitiesProcessed() {
+		return entitiesProcessed;
+	}
+
+	/**
+	 * @return allocated bytes, or -1 if the JVM did not report allocations for this section
+	 */
+	public long getAllocatedBytes() {
+		return allocationsReported ? allocatedBytes : -1;
+	}
+
+	void reset() {
+		durationNanos.reset();
+		cpuNanos.reset();
+		entitiesProcessed = 0;
+		allocatedBytes = 0;
+		allocationsReported = false;
+	}
+}
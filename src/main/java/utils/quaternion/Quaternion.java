@@ -2,7 +2,7 @@ package utils.quaternion;
 
 import java.nio.FloatBuffer;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
 import utils.vector.Vec2f;
@@ -140,6 +140,6 @@ public class Quaternion implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return GL45::glUniform4fv;
+		return GLFacade::glUniform4fv;
 	}
 }
@@ -1,6 +1,7 @@
 package utils.quaternion;
 
-import utils.operator.Operator;
+import utils.matrix.Mat3f;
+import utils.matrix.Mat4f;
 import utils.vector.Vec3f;
 
 public class QuaternionMathIP {
@@ -9,12 +10,34 @@ public class QuaternionMathIP {
 	 * @param vector     Vector to be rotated in-place
 	 */
 	public static Vec3f rotate(Quaternion quaternion, Vec3f vector) {
-		Vec3f uv = new Vec3f(quaternion).cross(vector);
-		Vec3f uuv = new Vec3f(quaternion).cross(uv);
+		return rotate(vector, quaternion, vector);
+	}
+
+	/**
+	 * @param target     receives the rotated vector, may be the input vector
+	 * @param quaternion Quaternion to rotate by
+	 * @param vector     Vector to be rotated
+	 */
+	public static Vec3f rotate(Vec3f target, Quaternion quaternion, Vec3f vector) {
+		float qx = quaternion.data[0];
+		float qy = quaternion.data[1];
+		float qz = quaternion.data[2];
+		float qw = quaternion.data[3];
+		float x = vector.data[0];
+		float y = vector.data[1];
+		float z = vector.data[2];
 
-		Vec3f offset = uv.apply(Operator.Mul, quaternion.data[3]).apply(Operator.Add, uuv).apply(Operator.Mul, 2f);
-		vector.apply(Operator.Add, offset);
-		return vector;
+		float uvX = qy * z - qz * y;
+		float uvY = qz * x - qx * z;
+		float uvZ = qx * y - qy * x;
+		float uuvX = qy * uvZ - qz * uvY;
+		float uuvY = qz * uvX - qx * uvZ;
+		float uuvZ = qx * uvY - qy * uvX;
+		return target.set(
+				x + (uvX * qw + uuvX) * 2f,
+				y + (uvY * qw + uuvY) * 2f,
+				z + (uvZ * qw + uuvZ) * 2f
+		);
 	}
 
 	public static Quaternion rotate(Quaternion target, Quaternion a, Quaternion b) {
@@ -26,4 +49,92 @@ public class QuaternionMathIP {
 		);
 		return target;
 	}
+
+	private static Quaternion _euler(Quaternion target, float cosX, float cosY, float cosZ, float sinX, float sinY, float sinZ) {
+		return target.set(
+				(sinX * cosY * cosZ) - (cosX * sinY * sinZ),
+				(cosX * sinY * cosZ) + (sinX * cosY * sinZ),
+				(cosX * cosY * sinZ) - (sinX * sinY * cosZ),
+				(cosX * cosY * cosZ) + (sinX * sinY * sinZ)
+		);
+	}
+
+	/**
+	 * @param eulerAngles euler angles in degrees
+	 */
+	public static Quaternion eulerDeg(Quaternion target, Vec3f eulerAngles) {
+		double x = Math.toRadians(eulerAngles.data[0]) * 0.5f;
+		double y = Math.toRadians(eulerAngles.data[1]) * 0.5f;
+		double z = Math.toRadians(eulerAngles.data[2]) * 0.5f;
+		return _euler(target,
+				(float) Math.cos(x), (float) Math.cos(y), (float) Math.cos(z),
+				(float) Math.sin(x), (float) Math.sin(y), (float) Math.sin(z)
+		);
+	}
+
+	public static Quaternion eulerRad(Quaternion target, Vec3f eulerAngles) {
+		float x = eulerAngles.data[0] * 0.5f;
+		float y = eulerAngles.data[1] * 0.5f;
+		float z = eulerAngles.data[2] * 0.5f;
+		return _euler(target,
+				(float) Math.cos(x), (float) Math.cos(y), (float) Math.cos(z),
+				(float) Math.sin(x), (float) Math.sin(y), (float) Math.sin(z)
+		);
+	}
+
+	/**
+	 * Convert quaternion to rotation matrix
+	 */
+	public static Mat3f toMat3(Mat3f target, Quaternion quaternion) {
+		QuaternionMathOOP._toMat(target.data, 0, quaternion);
+		return target;
+	}
+
+	/**
+	 * Rotates (0, 0, 1) by the quaternion without allocating, same result as {@link #rotate(Quaternion, Vec3f)}.
+	 */
+	public static Vec3f forward(Quaternion quaternion, Vec3f target) {
+		float x = quaternion.data[0];
+		float y = quaternion.data[1];
+		float z = quaternion.data[2];
+		float w = quaternion.data[3];
+		return target.set(2f * (x * z + w * y), 2f * (y * z - w * x), 1f - 2f * (x * x + y * y));
+	}
+
+	/**
+	 * Writes translate(translation) * toMat4(rotation) * scale(scale) into the target without allocating intermediate matrices.
+	 */
+	public static Mat4f toTransformMatrix(Mat4f target, Vec3f translation, Quaternion rotation, Vec3f scale) {
+		float qxx = rotation.data[0] * rotation.data[0];
+		float qyy = rotation.data[1] * rotation.data[1];
+		float qzz = rotation.data[2] * rotation.data[2];
+		float qxz = rotation.data[0] * rotation.data[2];
+		float qxy = rotation.data[0] * rotation.data[1];
+		float qyz = rotation.data[1] * rotation.data[2];
+		float qwx = rotation.data[3] * rotation.data[0];
+		float qwy = rotation.data[3] * rotation.data[1];
+		float qwz = rotation.data[3] * rotation.data[2];
+		float scaleX = scale.data[0];
+		float scaleY = scale.data[1];
+		float scaleZ = scale.data[2];
+
+		float[] m = target.data;
+		m[0] = (1f - (2f * (qyy + qzz))) * scaleX;
+		m[1] = (2f * (qxy - qwz)) * scaleY;
+		m[2] = (2f * (qxz + qwy)) * scaleZ;
+		m[3] = translation.data[0];
+		m[4] = (2f * (qxy + qwz)) * scaleX;
+		m[5] = (1f - (2f * (qxx + qzz))) * scaleY;
+		m[6] = (2f * (qyz - qwx)) * scaleZ;
+		m[7] = translation.data[1];
+		m[8] = (2f * (qxz - qwy)) * scaleX;
+		m[9] = (2f * (qyz + qwx)) * scaleY;
+		m[10] = (1f - (2f * (qxx + qyy))) * scaleZ;
+		m[11] = translation.data[2];
+		m[12] = 0f;
+		m[13] = 0f;
+		m[14] = 0f;
+		m[15] = 1f;
+		return target;
+	}
 }
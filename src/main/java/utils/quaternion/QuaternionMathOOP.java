@@ -2,11 +2,10 @@ package utils.quaternion;
 
 import utils.matrix.Mat3f;
 import utils.matrix.Mat4f;
-import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public class QuaternionMathOOP {
-	private static void _toMat(float[] target, int rowPadding, Quaternion quaternion) {
+	static void _toMat(float[] target, int rowPadding, Quaternion quaternion) {
 		float qxx = quaternion.data[0] * quaternion.data[0];
 		float qyy = quaternion.data[1] * quaternion.data[1];
 		float qzz = quaternion.data[2] * quaternion.data[2];
@@ -118,23 +117,15 @@ public class QuaternionMathOOP {
 	 * @return rotation result
 	 */
 	public static Vec3f rotate(Quaternion quaternion, Vec3f vector) {
-		Vec3f uv = new Vec3f(quaternion).cross(vector);
-		Vec3f uuv = new Vec3f(quaternion).cross(uv);
-
-		Vec3f offset = uv.apply(Operator.Mul, quaternion.data[3]).apply(Operator.Add, uuv).apply(Operator.Mul, 2f);
-		return vector.copy().apply(Operator.Add, offset);
+		return QuaternionMathIP.rotate(new Vec3f(), quaternion, vector);
 	}
 
 	/**
 	 * @param quaternion Quaternion to rotate by
 	 * @param vector     Vector to be rotated out-of-place
 	 */
-	public static void rotate(Vec3f target, Quaternion quaternion, Vec3f vector) {
-		Vec3f uv = new Vec3f(quaternion).cross(vector);
-		Vec3f uuv = new Vec3f(quaternion).cross(uv);
-
-		Vec3f offset = uv.apply(Operator.Mul, quaternion.data[3]).apply(Operator.Add, uuv).apply(Operator.Mul, 2f);
-		Operator.Add.apply(target.data, 0, vector.data, 0, offset.data, 0, 3);
+	public static Vec3f rotate(Vec3f target, Quaternion quaternion, Vec3f vector) {
+		return QuaternionMathIP.rotate(target, quaternion, vector);
 	}
 
 	public static Quaternion rotate(Quaternion a, Quaternion b) {
@@ -146,27 +137,14 @@ public class QuaternionMathOOP {
 		);
 	}
 
-	private static Quaternion _euler(Vec3f cos, Vec3f sin) {
-		return new Quaternion(
-				(sin.data[0] * cos.data[1] * cos.data[2]) - (cos.data[0] * sin.data[1] * sin.data[2]),
-				(cos.data[0] * sin.data[1] * cos.data[2]) + (sin.data[0] * cos.data[1] * sin.data[2]),
-				(cos.data[0] * cos.data[1] * sin.data[2]) - (sin.data[0] * sin.data[1] * cos.data[2]),
-				(cos.data[0] * cos.data[1] * cos.data[2]) + (sin.data[0] * sin.data[1] * sin.data[2])
-		);
-	}
-
 	/**
 	 * @param eulerAngles euler angles in degrees
 	 */
 	public static Quaternion eulerDeg(Vec3f eulerAngles) {
-		Vec3f cos = eulerAngles.copy().apply(x -> (float) Math.cos(Math.toRadians(x) * 0.5f));
-		Vec3f sin = eulerAngles.copy().apply(x -> (float) Math.sin(Math.toRadians(x) * 0.5f));
-		return _euler(cos, sin);
+		return QuaternionMathIP.eulerDeg(new Quaternion(), eulerAngles);
 	}
 
 	public static Quaternion eulerRad(Vec3f eulerAngles) {
-		Vec3f cos = eulerAngles.copy().apply(x -> (float) Math.cos(x * 0.5f));
-		Vec3f sin = eulerAngles.copy().apply(x -> (float) Math.sin(x * 0.5f));
-		return _euler(cos, sin);
+		return QuaternionMathIP.eulerRad(new Quaternion(), eulerAngles);
 	}
 }
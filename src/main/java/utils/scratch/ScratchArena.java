@@ -0,0 +1,277 @@
+package utils.scratch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.matrix.Mat3f;
+import utils.matrix.Mat4f;
+import utils.quaternion.Quaternion;
+import utils.vector.Vec2f;
+import utils.vector.Vec3f;
+import utils.vector.Vec4f;
+
+/**
+ * Per-thread pool of reusable math temporaries, so hot code does not have to allocate short-lived vectors and matrices.
+ * <p>
+ * Temporaries are valid until the enclosing {@link Scope} is closed, or until {@link #reset()} if they were taken outside of any scope.
+ * The game loop resets the arena of its own thread once per update and draw, code running on worker threads has to use scopes:
+ * <pre>{@code
+ * ScratchArena arena = ScratchArena.get();
+ * try (ScratchArena.Scope scope = arena.push()) {
+ *     Vec3f offset = arena.vec3(velocity).mulInPlace(deltaSeconds);
+ *     ...
+ * }
+ * }</pre>
+ * Start with `-Dscratch.debug=true` or call {@link #setDebug(boolean)} to detect misuse: released temporaries are filled with NaN,
+ * so escaped references show up immediately, scopes left open at {@link #reset()} throw with the location they were opened at
+ * and arenas used from a foreign thread throw as well.
+ */
+public final class ScratchArena {
+	private static final Logger logger = LoggerFactory.getLogger(ScratchArena.class);
+	private static final int initialCapacity = 16;
+	private static final int poolCount = 6;
+	private static final ThreadLocal<ScratchArena> arenas = ThreadLocal.withInitial(ScratchArena::new);
+
+	private static volatile boolean debug = Boolean.getBoolean("scratch.debug");
+
+	/**
+	 * @return arena of the calling thread
+	 */
+	public static ScratchArena get() {
+		return arenas.get();
+	}
+
+	public static boolean isDebug() {
+		return debug;
+	}
+
+	public static void setDebug(boolean debug) {
+		ScratchArena.debug = debug;
+	}
+
+	private final Thread owner = Thread.currentThread();
+	private final Pool<Vec2f> vec2Pool = new Pool<>(Vec2f::new, vector -> vector.data);
+	private final Pool<Vec3f> vec3Pool = new Pool<>(Vec3f::new, vector -> vector.data);
+	private final Pool<Vec4f> vec4Pool = new Pool<>(Vec4f::new, vector -> vector.data);
+	private final Pool<Quaternion> quaternionPool = new Pool<>(Quaternion::new, quaternion -> quaternion.data);
+	private final Pool<Mat3f> mat3Pool = new Pool<>(Mat3f::new, matrix -> matrix.data);
+	private final Pool<Mat4f> mat4Pool = new Pool<>(Mat4f::new, matrix -> matrix.data);
+	private final Pool<?>[] pools = new Pool<?>[]{vec2Pool, vec3Pool, vec4Pool, quaternionPool, mat3Pool, mat4Pool};
+
+	private final ArrayList<Scope> scopes = new ArrayList<>();
+	private int depth = 0;
+	private boolean leakReported = false;
+
+	private ScratchArena() {
+	}
+
+	/**
+	 * Opens a scope, every temporary taken until it is closed is released again on {@link Scope#close()}.
+	 * Scopes nest and have to be closed in reverse order, ideally through try-with-resources.
+	 */
+	public Scope push() {
+		checkOwner();
+		if (depth == scopes.size()) {
+			scopes.add(new Scope(depth));
+		}
+		Scope scope = scopes.get(depth++);
+		for (int i = 0; i < poolCount; i++) {
+			scope.cursors[i] = pools[i].cursor;
+		}
+		scope.openedAt = debug ? new Throwable("scratch scope opened here") : null;
+		return scope;
+	}
+
+	private void pop(Scope scope) {
+		if (scope.depth != depth - 1) {
+			throw new IllegalStateException("scratch scope closed out of order, depth " + scope.depth + " while " + depth + " are open");
+		}
+		depth--;
+		for (int i = 0; i < poolCount; i++) {
+			pools[i].release(scope.cursors[i]);
+		}
+	}
+
+	/**
+	 * Releases all temporaries of this thread, called once per frame.
+	 * Open scopes at this point are leaks, they throw in debug mode and are reported once otherwise.
+	 */
+	public void reset() {
+		checkOwner();
+		int leakedScopes = depth;
+		Throwable openedAt = depth != 0 ? scopes.get(depth - 1).openedAt : null;
+		depth = 0;
+		for (Pool<?> pool : pools) {
+			pool.release(0);
+		}
+		if (leakedScopes != 0) {
+			if (debug) {
+				throw new IllegalStateException(leakedScopes + " scratch scope(s) were not closed", openedAt);
+			}
+			if (!leakReported) {
+				leakReported = true;
+				logger.warn("{} scratch scope(s) were not closed before the frame reset, enable -Dscratch.debug=true to find them", leakedScopes);
+			}
+		}
+	}
+
+	/**
+	 * @return amount of scratch objects this arena created, stays constant once the working set is warmed up
+	 */
+	public int getCreatedCount() {
+		int count = 0;
+		for (Pool<?> pool : pools) {
+			count += pool.size;
+		}
+		return count;
+	}
+
+	public int getOpenScopes() {
+		return depth;
+	}
+
+	/**
+	 * @return whether the value is a scratch object of this arena that was already released, i.e. an escaped reference
+	 */
+	public boolean isReleased(Object value) {
+		for (Pool<?> pool : pools) {
+			for (int i = pool.cursor; i < pool.size; i++) {
+				if (pool.elements[i] == value) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public Vec2f vec2() {
+		return vec2Pool.acquire().set(0f, 0f);
+	}
+
+	public Vec2f vec2(Vec2f other) {
+		return vec2Pool.acquire().set(other.data);
+	}
+
+	public Vec3f vec3() {
+		return vec3Pool.acquire().set(0f, 0f, 0f);
+	}
+
+	public Vec3f vec3(float x, float y, float z) {
+		return vec3Pool.acquire().set(x, y, z);
+	}
+
+	public Vec3f vec3(Vec3f other) {
+		return vec3Pool.acquire().set(other.data);
+	}
+
+	public Vec4f vec4() {
+		return vec4Pool.acquire().set(0f, 0f, 0f, 0f);
+	}
+
+	public Vec4f vec4(float x, float y, float z, float w) {
+		return vec4Pool.acquire().set(x, y, z, w);
+	}
+
+	/**
+	 * @return identity quaternion
+	 */
+	public Quaternion quaternion() {
+		return quaternionPool.acquire().set(0f, 0f, 0f, 1f);
+	}
+
+	public Quaternion quaternion(Quaternion other) {
+		return quaternionPool.acquire().set(other.data);
+	}
+
+	/**
+	 * @return identity matrix
+	 */
+	public Mat3f mat3() {
+		Mat3f matrix = mat3Pool.acquire();
+		identity(matrix.data, 3);
+		return matrix;
+	}
+
+	/**
+	 * @return identity matrix
+	 */
+	public Mat4f mat4() {
+		Mat4f matrix = mat4Pool.acquire();
+		identity(matrix.data, 4);
+		return matrix;
+	}
+
+	private static void identity(float[] data, int size) {
+		Arrays.fill(data, 0f);
+		for (int i = 0; i < size; i++) {
+			data[i * size + i] = 1f;
+		}
+	}
+
+	private void checkOwner() {
+		if (debug && Thread.currentThread() != owner) {
+			throw new IllegalStateException("scratch arena of " + owner.getName() + " used from " + Thread.currentThread().getName());
+		}
+	}
+
+	/**
+	 * Marker returned by {@link #push()}, instances are reused per nesting depth.
+	 */
+	public final class Scope implements AutoCloseable {
+		private final int depth;
+		private final int[] cursors = new int[poolCount];
+		private Throwable openedAt;
+
+		private Scope(int depth) {
+			this.depth = depth;
+		}
+
+		@Override
+		public void close() {
+			checkOwner();
+			pop(this);
+		}
+	}
+
+	private final class Pool<T> {
+		private final Supplier<T> factory;
+		private final Function<T, float[]> dataAccess;
+		private Object[] elements = new Object[initialCapacity];
+		private float[][] data = new float[initialCapacity][];
+		private int size = 0;
+		private int cursor = 0;
+
+		private Pool(Supplier<T> factory, Function<T, float[]> dataAccess) {
+			this.factory = factory;
+			this.dataAccess = dataAccess;
+		}
+
+		@SuppressWarnings("unchecked")
+		private T acquire() {
+			checkOwner();
+			if (cursor == size) {
+				if (size == elements.length) {
+					elements = Arrays.copyOf(elements, size * 2);
+					data = Arrays.copyOf(data, size * 2);
+				}
+				T element = factory.get();
+				elements[size] = element;
+				data[size] = dataAccess.apply(element);
+				size++;
+			}
+			return (T) elements[cursor++];
+		}
+
+		private void release(int newCursor) {
+			if (debug) {
+				for (int i = newCursor; i < cursor; i++) {
+					Arrays.fill(data[i], Float.NaN);
+				}
+			}
+			cursor = newCursor;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package utils.simd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects the {@link IBatchMath} implementation once.
+ * The Vector API kernels are only used if the JVM was started with `--add-modules jdk.incubator.vector`,
+ * otherwise the scalar kernels are used and the incubator classes are never loaded.
+ */
+public final class BatchMath {
+	private static final Logger logger = LoggerFactory.getLogger(BatchMath.class);
+	private static final String vectorModule = "jdk.incubator.vector";
+
+	private static IBatchMath instance;
+
+	public static synchronized IBatchMath getInstance() {
+		if (instance == null) {
+			instance = createInstance();
+		}
+		return instance;
+	}
+
+	/**
+	 * @return whether {@link #getInstance()} uses the Vector API
+	 */
+	public static boolean isVectorized() {
+		return getInstance().getClass() != ScalarBatchMath.class;
+	}
+
+	private static IBatchMath createInstance() {
+		if (ModuleLayer.boot().findModule(vectorModule).isEmpty()) {
+			logger.info("Module {} not present, batch math falls back to scalar code", vectorModule);
+			return new ScalarBatchMath();
+		}
+		try {
+			// loaded by name, so the incubator classes are only resolved when the module is present
+			return (IBatchMath) Class.forName("utils.simd.VectorBatchMath").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			logger.warn("Failed to load vectorized batch math, falling back to scalar code", e);
+			return new ScalarBatchMath();
+		}
+	}
+
+	private BatchMath() {
+	}
+}
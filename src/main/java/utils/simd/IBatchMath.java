@@ -0,0 +1,50 @@
+package utils.simd;
+
+import utils.matrix.Mat4f;
+
+/**
+ * Math kernels over whole batches of vectors and matrices, see {@link BatchMath#getInstance()}.
+ * Targets are resized to the size of the inputs and may be the same batch as an input unless stated otherwise,
+ * inputs of element wise kernels must have the same size.
+ */
+public interface IBatchMath {
+	/**
+	 * target[i] = matrix * vectors[i]
+	 */
+	void mul(Mat4f matrix, Vec4Batch vectors, Vec4Batch target);
+
+	/**
+	 * target[i] = a[i] * b[i], target must be a different batch than `a` and `b`
+	 */
+	void mul(Mat4Batch a, Mat4Batch b, Mat4Batch target);
+
+	/**
+	 * Rotates every vector by the quaternion with the same index, quaternions are stored as x, y, z, w.
+	 */
+	void rotate(Vec4Batch quaternions, Vec3Batch vectors, Vec3Batch target);
+
+	/**
+	 * Scales every vector to unit length, zero vectors stay zero.
+	 */
+	void normalize(Vec3Batch vectors, Vec3Batch target);
+
+	/**
+	 * target[i] = a[i] · b[i], the target array must hold at least as many elements as the batches
+	 */
+	void dot(Vec3Batch a, Vec3Batch b, float[] target);
+
+	/**
+	 * target[i] = a[i] × b[i]
+	 */
+	void cross(Vec3Batch a, Vec3Batch b, Vec3Batch target);
+
+	/**
+	 * target[i] = a[i] + b[i] * scale, e.g. integrating positions by their velocities
+	 */
+	void addScaled(Vec3Batch a, Vec3Batch b, float scale, Vec3Batch target);
+
+	/**
+	 * Computes the bounds of the boxes transformed by an affine matrix, boxes are given by their min and max corners.
+	 */
+	void transformAABBs(Mat4f matrix, Vec3Batch min, Vec3Batch max, Vec3Batch targetMin, Vec3Batch targetMax);
+}
@@ -0,0 +1,50 @@
+package utils.simd;
+
+import java.util.Arrays;
+import utils.matrix.Mat4f;
+
+/**
+ * 4x4 matrices stored as one array per matrix element, `data[row * 4 + column][index]`, matching the order of {@link Mat4f#data}.
+ */
+public class Mat4Batch {
+	public final float[][] data = new float[16][];
+	private int size = 0;
+
+	public Mat4Batch(int capacity) {
+		for (int element = 0; element < data.length; element++) {
+			data[element] = new float[capacity];
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Resizes the batch, elements up to the old size are kept.
+	 */
+	public Mat4Batch setSize(int size) {
+		if (size > data[0].length) {
+			int capacity = Math.max(size, data[0].length * 2);
+			for (int element = 0; element < data.length; element++) {
+				data[element] = Arrays.copyOf(data[element], capacity);
+			}
+		}
+		this.size = size;
+		return this;
+	}
+
+	public Mat4Batch set(int index, Mat4f matrix) {
+		for (int element = 0; element < data.length; element++) {
+			data[element][index] = matrix.data[element];
+		}
+		return this;
+	}
+
+	public Mat4f get(int index, Mat4f target) {
+		for (int element = 0; element < data.length; element++) {
+			target.data[element] = data[element][index];
+		}
+		return target;
+	}
+}
@@ -0,0 +1,196 @@
+package utils.simd;
+
+import utils.matrix.Mat4f;
+
+/**
+ * Plain loops over the batches, used when the Vector API is not available.
+ * The loops are written as static methods over an index range, so {@link VectorBatchMath} can process the remainder of its batches with them.
+ */
+public class ScalarBatchMath implements IBatchMath {
+
+	static int sizeOf(int a, int b) {
+		if (a != b) {
+			throw new IllegalArgumentException("batch sizes differ: " + a + " != " + b);
+		}
+		return a;
+	}
+
+	static void checkDistinct(Mat4Batch a, Mat4Batch b, Mat4Batch target) {
+		if (target == a || target == b) {
+			throw new IllegalArgumentException("matrix products can't be computed in place");
+		}
+	}
+
+	@Override
+	public void mul(Mat4f matrix, Vec4Batch vectors, Vec4Batch target) {
+		target.setSize(vectors.size());
+		mul(matrix.data, vectors, target, 0, vectors.size());
+	}
+
+	static void mul(float[] m, Vec4Batch vectors, Vec4Batch target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			float x = vectors.x[i];
+			float y = vectors.y[i];
+			float z = vectors.z[i];
+			float w = vectors.w[i];
+			target.x[i] = m[0] * x + m[1] * y + m[2] * z + m[3] * w;
+			target.y[i] = m[4] * x + m[5] * y + m[6] * z + m[7] * w;
+			target.z[i] = m[8] * x + m[9] * y + m[10] * z + m[11] * w;
+			target.w[i] = m[12] * x + m[13] * y + m[14] * z + m[15] * w;
+		}
+	}
+
+	@Override
+	public void mul(Mat4Batch a, Mat4Batch b, Mat4Batch target) {
+		checkDistinct(a, b, target);
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		mul(a, b, target, 0, size);
+	}
+
+	static void mul(Mat4Batch a, Mat4Batch b, Mat4Batch target, int from, int to) {
+		for (int row = 0; row < 4; row++) {
+			float[] a0 = a.data[row * 4];
+			float[] a1 = a.data[row * 4 + 1];
+			float[] a2 = a.data[row * 4 + 2];
+			float[] a3 = a.data[row * 4 + 3];
+			for (int column = 0; column < 4; column++) {
+				float[] b0 = b.data[column];
+				float[] b1 = b.data[4 + column];
+				float[] b2 = b.data[8 + column];
+				float[] b3 = b.data[12 + column];
+				float[] t = target.data[row * 4 + column];
+				for (int i = from; i < to; i++) {
+					t[i] = a0[i] * b0[i] + a1[i] * b1[i] + a2[i] * b2[i] + a3[i] * b3[i];
+				}
+			}
+		}
+	}
+
+	@Override
+	public void rotate(Vec4Batch quaternions, Vec3Batch vectors, Vec3Batch target) {
+		int size = sizeOf(quaternions.size(), vectors.size());
+		target.setSize(size);
+		rotate(quaternions, vectors, target, 0, size);
+	}
+
+	/**
+	 * v + 2 * (w * (q × v) + q × (q × v)), like {@link utils.quaternion.QuaternionMathOOP#rotate}
+	 */
+	static void rotate(Vec4Batch quaternions, Vec3Batch vectors, Vec3Batch target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			float qx = quaternions.x[i];
+			float qy = quaternions.y[i];
+			float qz = quaternions.z[i];
+			float qw = quaternions.w[i];
+			float vx = vectors.x[i];
+			float vy = vectors.y[i];
+			float vz = vectors.z[i];
+			float uvx = qy * vz - qz * vy;
+			float uvy = qz * vx - qx * vz;
+			float uvz = qx * vy - qy * vx;
+			float uuvx = qy * uvz - qz * uvy;
+			float uuvy = qz * uvx - qx * uvz;
+			float uuvz = qx * uvy - qy * uvx;
+			target.x[i] = vx + (uvx * qw + uuvx) * 2f;
+			target.y[i] = vy + (uvy * qw + uuvy) * 2f;
+			target.z[i] = vz + (uvz * qw + uuvz) * 2f;
+		}
+	}
+
+	@Override
+	public void normalize(Vec3Batch vectors, Vec3Batch target) {
+		target.setSize(vectors.size());
+		normalize(vectors, target, 0, vectors.size());
+	}
+
+	static void normalize(Vec3Batch vectors, Vec3Batch target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			float x = vectors.x[i];
+			float y = vectors.y[i];
+			float z = vectors.z[i];
+			float lengthSquared = x * x + y * y + z * z;
+			float scalar = lengthSquared > 0f ? 1f / (float) Math.sqrt(lengthSquared) : 0f;
+			target.x[i] = x * scalar;
+			target.y[i] = y * scalar;
+			target.z[i] = z * scalar;
+		}
+	}
+
+	@Override
+	public void dot(Vec3Batch a, Vec3Batch b, float[] target) {
+		dot(a, b, target, 0, sizeOf(a.size(), b.size()));
+	}
+
+	static void dot(Vec3Batch a, Vec3Batch b, float[] target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			target[i] = a.x[i] * b.x[i] + a.y[i] * b.y[i] + a.z[i] * b.z[i];
+		}
+	}
+
+	@Override
+	public void cross(Vec3Batch a, Vec3Batch b, Vec3Batch target) {
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		cross(a, b, target, 0, size);
+	}
+
+	static void cross(Vec3Batch a, Vec3Batch b, Vec3Batch target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			float ax = a.x[i];
+			float ay = a.y[i];
+			float az = a.z[i];
+			float bx = b.x[i];
+			float by = b.y[i];
+			float bz = b.z[i];
+			target.x[i] = ay * bz - az * by;
+			target.y[i] = az * bx - ax * bz;
+			target.z[i] = ax * by - ay * bx;
+		}
+	}
+
+	@Override
+	public void addScaled(Vec3Batch a, Vec3Batch b, float scale, Vec3Batch target) {
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		addScaled(a, b, scale, target, 0, size);
+	}
+
+	static void addScaled(Vec3Batch a, Vec3Batch b, float scale, Vec3Batch target, int from, int to) {
+		for (int i = from; i < to; i++) {
+			target.x[i] = a.x[i] + b.x[i] * scale;
+			target.y[i] = a.y[i] + b.y[i] * scale;
+			target.z[i] = a.z[i] + b.z[i] * scale;
+		}
+	}
+
+	@Override
+	public void transformAABBs(Mat4f matrix, Vec3Batch min, Vec3Batch max, Vec3Batch targetMin, Vec3Batch targetMax) {
+		int size = sizeOf(min.size(), max.size());
+		targetMin.setSize(size);
+		targetMax.setSize(size);
+		transformAABBs(matrix.data, min, max, targetMin, targetMax, 0, size);
+	}
+
+	/**
+	 * Transforms the center and projects the extents onto the absolute rotation and scale, which gives the same bounds as transforming all corners.
+	 */
+	static void transformAABBs(float[] m, Vec3Batch min, Vec3Batch max, Vec3Batch targetMin, Vec3Batch targetMax, int from, int to) {
+		for (int i = from; i < to; i++) {
+			float centerX = (min.x[i] + max.x[i]) * 0.5f;
+			float centerY = (min.y[i] + max.y[i]) * 0.5f;
+			float centerZ = (min.z[i] + max.z[i]) * 0.5f;
+			float extentX = (max.x[i] - min.x[i]) * 0.5f;
+			float extentY = (max.y[i] - min.y[i]) * 0.5f;
+			float extentZ = (max.z[i] - min.z[i]) * 0.5f;
+			float newCenterX = m[0] * centerX + m[1] * centerY + m[2] * centerZ + m[3];
+			float newCenterY = m[4] * centerX + m[5] * centerY + m[6] * centerZ + m[7];
+			float newCenterZ = m[8] * centerX + m[9] * centerY + m[10] * centerZ + m[11];
+			float newExtentX = Math.abs(m[0]) * extentX + Math.abs(m[1]) * extentY + Math.abs(m[2]) * extentZ;
+			float newExtentY = Math.abs(m[4]) * extentX + Math.abs(m[5]) * extentY + Math.abs(m[6]) * extentZ;
+			float newExtentZ = Math.abs(m[8]) * extentX + Math.abs(m[9]) * extentY + Math.abs(m[10]) * extentZ;
+			targetMin.set(i, newCenterX - newExtentX, newCenterY - newExtentY, newCenterZ - newExtentZ);
+			targetMax.set(i, newCenterX + newExtentX, newCenterY + newExtentY, newCenterZ + newExtentZ);
+		}
+	}
+}
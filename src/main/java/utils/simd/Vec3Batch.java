@@ -0,0 +1,54 @@
+package utils.simd;
+
+import java.util.Arrays;
+import utils.vector.Vec3f;
+
+/**
+ * Vectors stored as separate x, y and z arrays, the layout the kernels of {@link IBatchMath} process.
+ * The arrays may be longer than the batch, they are replaced when the batch grows.
+ */
+public class Vec3Batch {
+	public float[] x;
+	public float[] y;
+	public float[] z;
+	private int size = 0;
+
+	public Vec3Batch(int capacity) {
+		x = new float[capacity];
+		y = new float[capacity];
+		z = new float[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Resizes the batch, elements up to the old size are kept.
+	 */
+	public Vec3Batch setSize(int size) {
+		if (size > x.length) {
+			int capacity = Math.max(size, x.length * 2);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			z = Arrays.copyOf(z, capacity);
+		}
+		this.size = size;
+		return this;
+	}
+
+	public Vec3Batch set(int index, float x, float y, float z) {
+		this.x[index] = x;
+		this.y[index] = y;
+		this.z[index] = z;
+		return this;
+	}
+
+	public Vec3Batch set(int index, Vec3f vector) {
+		return set(index, vector.data[0], vector.data[1], vector.data[2]);
+	}
+
+	public Vec3f get(int index, Vec3f target) {
+		return target.set(x[index], y[index], z[index]);
+	}
+}
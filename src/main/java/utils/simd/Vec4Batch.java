@@ -0,0 +1,66 @@
+package utils.simd;
+
+import java.util.Arrays;
+import utils.quaternion.Quaternion;
+import utils.vector.Vec4f;
+
+/**
+ * Four component vectors or quaternions stored as separate x, y, z and w arrays, see {@link Vec3Batch}.
+ */
+public class Vec4Batch {
+	public float[] x;
+	public float[] y;
+	public float[] z;
+	public float[] w;
+	private int size = 0;
+
+	public Vec4Batch(int capacity) {
+		x = new float[capacity];
+		y = new float[capacity];
+		z = new float[capacity];
+		w = new float[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Resizes the batch, elements up to the old size are kept.
+	 */
+	public Vec4Batch setSize(int size) {
+		if (size > x.length) {
+			int capacity = Math.max(size, x.length * 2);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			z = Arrays.copyOf(z, capacity);
+			w = Arrays.copyOf(w, capacity);
+		}
+		this.size = size;
+		return this;
+	}
+
+	public Vec4Batch set(int index, float x, float y, float z, float w) {
+		this.x[index] = x;
+		this.y[index] = y;
+		this.z[index] = z;
+		this.w[index] = w;
+		return this;
+	}
+
+	public Vec4Batch set(int index, Vec4f vector) {
+		return set(index, vector.data[0], vector.data[1], vector.data[2], vector.data[3]);
+	}
+
+	public Vec4Batch set(int index, Quaternion quaternion) {
+		return set(index, quaternion.data[0], quaternion.data[1], quaternion.data[2], quaternion.data[3]);
+	}
+
+	public Vec4f get(int index, Vec4f target) {
+		target.data[0] = x[index];
+		target.data[1] = y[index];
+		target.data[2] = z[index];
+		target.data[3] = w[index];
+		return target;
+	}
+}
@@ -0,0 +1,209 @@
+package utils.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import utils.matrix.Mat4f;
+
+/**
+ * {@link IBatchMath} on the incubating Vector API, every instruction processes as many elements as the preferred species holds.
+ * Only instantiated by {@link BatchMath} when the module is present, the remainder of each batch runs through the scalar loops.
+ * Operations are evaluated in the same order as the scalar loops, so both produce the same results.
+ */
+class VectorBatchMath extends ScalarBatchMath {
+	private static final VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+
+	@Override
+	public void mul(Mat4f matrix, Vec4Batch vectors, Vec4Batch target) {
+		int size = vectors.size();
+		target.setSize(size);
+		float[] m = matrix.data;
+		FloatVector[] columns = new FloatVector[16];
+		for (int element = 0; element < 16; element++) {
+			columns[element] = FloatVector.broadcast(species, m[element]);
+		}
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector x = FloatVector.fromArray(species, vectors.x, i);
+			FloatVector y = FloatVector.fromArray(species, vectors.y, i);
+			FloatVector z = FloatVector.fromArray(species, vectors.z, i);
+			FloatVector w = FloatVector.fromArray(species, vectors.w, i);
+			dot4(columns, 0, x, y, z, w).intoArray(target.x, i);
+			dot4(columns, 4, x, y, z, w).intoArray(target.y, i);
+			dot4(columns, 8, x, y, z, w).intoArray(target.z, i);
+			dot4(columns, 12, x, y, z, w).intoArray(target.w, i);
+		}
+		mul(m, vectors, target, bound, size);
+	}
+
+	private static FloatVector dot4(FloatVector[] row, int start, FloatVector x, FloatVector y, FloatVector z, FloatVector w) {
+		return row[start].mul(x).add(row[start + 1].mul(y)).add(row[start + 2].mul(z)).add(row[start + 3].mul(w));
+	}
+
+	@Override
+	public void mul(Mat4Batch a, Mat4Batch b, Mat4Batch target) {
+		checkDistinct(a, b, target);
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		float[][] bData = b.data;
+		int bound = species.loopBound(size);
+		for (int row = 0; row < 4; row++) {
+			float[] a0 = a.data[row * 4];
+			float[] a1 = a.data[row * 4 + 1];
+			float[] a2 = a.data[row * 4 + 2];
+			float[] a3 = a.data[row * 4 + 3];
+			for (int i = 0; i < bound; i += species.length()) {
+				FloatVector x = FloatVector.fromArray(species, a0, i);
+				FloatVector y = FloatVector.fromArray(species, a1, i);
+				FloatVector z = FloatVector.fromArray(species, a2, i);
+				FloatVector w = FloatVector.fromArray(species, a3, i);
+				for (int column = 0; column < 4; column++) {
+					x.mul(FloatVector.fromArray(species, bData[column], i))
+							.add(y.mul(FloatVector.fromArray(species, bData[4 + column], i)))
+							.add(z.mul(FloatVector.fromArray(species, bData[8 + column], i)))
+							.add(w.mul(FloatVector.fromArray(species, bData[12 + column], i)))
+							.intoArray(target.data[row * 4 + column], i);
+				}
+			}
+		}
+		mul(a, b, target, bound, size);
+	}
+
+	@Override
+	public void rotate(Vec4Batch quaternions, Vec3Batch vectors, Vec3Batch target) {
+		int size = sizeOf(quaternions.size(), vectors.size());
+		target.setSize(size);
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector qx = FloatVector.fromArray(species, quaternions.x, i);
+			FloatVector qy = FloatVector.fromArray(species, quaternions.y, i);
+			FloatVector qz = FloatVector.fromArray(species, quaternions.z, i);
+			FloatVector qw = FloatVector.fromArray(species, quaternions.w, i);
+			FloatVector vx = FloatVector.fromArray(species, vectors.x, i);
+			FloatVector vy = FloatVector.fromArray(species, vectors.y, i);
+			FloatVector vz = FloatVector.fromArray(species, vectors.z, i);
+			FloatVector uvx = qy.mul(vz).sub(qz.mul(vy));
+			FloatVector uvy = qz.mul(vx).sub(qx.mul(vz));
+			FloatVector uvz = qx.mul(vy).sub(qy.mul(vx));
+			FloatVector uuvx = qy.mul(uvz).sub(qz.mul(uvy));
+			FloatVector uuvy = qz.mul(uvx).sub(qx.mul(uvz));
+			FloatVector uuvz = qx.mul(uvy).sub(qy.mul(uvx));
+			vx.add(uvx.mul(qw).add(uuvx).mul(2f)).intoArray(target.x, i);
+			vy.add(uvy.mul(qw).add(uuvy).mul(2f)).intoArray(target.y, i);
+			vz.add(uvz.mul(qw).add(uuvz).mul(2f)).intoArray(target.z, i);
+		}
+		rotate(quaternions, vectors, target, bound, size);
+	}
+
+	@Override
+	public void normalize(Vec3Batch vectors, Vec3Batch target) {
+		int size = vectors.size();
+		target.setSize(size);
+		int bound = species.loopBound(size);
+		FloatVector zero = FloatVector.zero(species);
+		FloatVector one = FloatVector.broadcast(species, 1f);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector x = FloatVector.fromArray(species, vectors.x, i);
+			FloatVector y = FloatVector.fromArray(species, vectors.y, i);
+			FloatVector z = FloatVector.fromArray(species, vectors.z, i);
+			FloatVector lengthSquared = x.mul(x).add(y.mul(y)).add(z.mul(z));
+			VectorMask<Float> isZero = lengthSquared.compare(VectorOperators.LE, 0f);
+			FloatVector scalar = one.div(lengthSquared.sqrt()).blend(zero, isZero);
+			x.mul(scalar).intoArray(target.x, i);
+			y.mul(scalar).intoArray(target.y, i);
+			z.mul(scalar).intoArray(target.z, i);
+		}
+		normalize(vectors, target, bound, size);
+	}
+
+	@Override
+	public void dot(Vec3Batch a, Vec3Batch b, float[] target) {
+		int size = sizeOf(a.size(), b.size());
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector.fromArray(species, a.x, i).mul(FloatVector.fromArray(species, b.x, i))
+					.add(FloatVector.fromArray(species, a.y, i).mul(FloatVector.fromArray(species, b.y, i)))
+					.add(FloatVector.fromArray(species, a.z, i).mul(FloatVector.fromArray(species, b.z, i)))
+					.intoArray(target, i);
+		}
+		dot(a, b, target, bound, size);
+	}
+
+	@Override
+	public void cross(Vec3Batch a, Vec3Batch b, Vec3Batch target) {
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector ax = FloatVector.fromArray(species, a.x, i);
+			FloatVector ay = FloatVector.fromArray(species, a.y, i);
+			FloatVector az = FloatVector.fromArray(species, a.z, i);
+			FloatVector bx = FloatVector.fromArray(species, b.x, i);
+			FloatVector by = FloatVector.fromArray(species, b.y, i);
+			FloatVector bz = FloatVector.fromArray(species, b.z, i);
+			FloatVector x = ay.mul(bz).sub(az.mul(by));
+			FloatVector y = az.mul(bx).sub(ax.mul(bz));
+			FloatVector z = ax.mul(by).sub(ay.mul(bx));
+			x.intoArray(target.x, i);
+			y.intoArray(target.y, i);
+			z.intoArray(target.z, i);
+		}
+		cross(a, b, target, bound, size);
+	}
+
+	@Override
+	public void addScaled(Vec3Batch a, Vec3Batch b, float scale, Vec3Batch target) {
+		int size = sizeOf(a.size(), b.size());
+		target.setSize(size);
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector.fromArray(species, a.x, i).add(FloatVector.fromArray(species, b.x, i).mul(scale)).intoArray(target.x, i);
+			FloatVector.fromArray(species, a.y, i).add(FloatVector.fromArray(species, b.y, i).mul(scale)).intoArray(target.y, i);
+			FloatVector.fromArray(species, a.z, i).add(FloatVector.fromArray(species, b.z, i).mul(scale)).intoArray(target.z, i);
+		}
+		addScaled(a, b, scale, target, bound, size);
+	}
+
+	@Override
+	public void transformAABBs(Mat4f matrix, Vec3Batch min, Vec3Batch max, Vec3Batch targetMin, Vec3Batch targetMax) {
+		int size = sizeOf(min.size(), max.size());
+		targetMin.setSize(size);
+		targetMax.setSize(size);
+		float[] m = matrix.data;
+		FloatVector[] rows = new FloatVector[12];
+		FloatVector[] absoluteRows = new FloatVector[12];
+		for (int element = 0; element < 12; element++) {
+			rows[element] = FloatVector.broadcast(species, m[element]);
+			absoluteRows[element] = FloatVector.broadcast(species, Math.abs(m[element]));
+		}
+		int bound = species.loopBound(size);
+		for (int i = 0; i < bound; i += species.length()) {
+			FloatVector minX = FloatVector.fromArray(species, min.x, i);
+			FloatVector minY = FloatVector.fromArray(species, min.y, i);
+			FloatVector minZ = FloatVector.fromArray(species, min.z, i);
+			FloatVector maxX = FloatVector.fromArray(species, max.x, i);
+			FloatVector maxY = FloatVector.fromArray(species, max.y, i);
+			FloatVector maxZ = FloatVector.fromArray(species, max.z, i);
+			FloatVector centerX = minX.add(maxX).mul(0.5f);
+			FloatVector centerY = minY.add(maxY).mul(0.5f);
+			FloatVector centerZ = minZ.add(maxZ).mul(0.5f);
+			FloatVector extentX = maxX.sub(minX).mul(0.5f);
+			FloatVector extentY = maxY.sub(minY).mul(0.5f);
+			FloatVector extentZ = maxZ.sub(minZ).mul(0.5f);
+			FloatVector newCenterX = rows[0].mul(centerX).add(rows[1].mul(centerY)).add(rows[2].mul(centerZ)).add(rows[3]);
+			FloatVector newCenterY = rows[4].mul(centerX).add(rows[5].mul(centerY)).add(rows[6].mul(centerZ)).add(rows[7]);
+			FloatVector newCenterZ = rows[8].mul(centerX).add(rows[9].mul(centerY)).add(rows[10].mul(centerZ)).add(rows[11]);
+			FloatVector newExtentX = absoluteRows[0].mul(extentX).add(absoluteRows[1].mul(extentY)).add(absoluteRows[2].mul(extentZ));
+			FloatVector newExtentY = absoluteRows[4].mul(extentX).add(absoluteRows[5].mul(extentY)).add(absoluteRows[6].mul(extentZ));
+			FloatVector newExtentZ = absoluteRows[8].mul(extentX).add(absoluteRows[9].mul(extentY)).add(absoluteRows[10].mul(extentZ));
+			newCenterX.sub(newExtentX).intoArray(targetMin.x, i);
+			newCenterY.sub(newExtentY).intoArray(targetMin.y, i);
+			newCenterZ.sub(newExtentZ).intoArray(targetMin.z, i);
+			newCenterX.add(newExtentX).intoArray(targetMax.x, i);
+			newCenterY.add(newExtentY).intoArray(targetMax.y, i);
+			newCenterZ.add(newExtentZ).intoArray(targetMax.z, i);
+		}
+		transformAABBs(m, min, max, targetMin, targetMax, bound, size);
+	}
+}
@@ -3,7 +3,7 @@ package utils.vector;
 import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
 
@@ -82,6 +82,82 @@ public class Vec2f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link utils.operator.OperatorKernels}
+	 */
+	public Vec2f addInPlace(Vec2f other) {
+		data[0] += other.data[0];
+		data[1] += other.data[1];
+		return this;
+	}
+
+	public Vec2f addInPlace(float scalar) {
+		data[0] += scalar;
+		data[1] += scalar;
+		return this;
+	}
+
+	public Vec2f addInPlace(float x, float y) {
+		data[0] += x;
+		data[1] += y;
+		return this;
+	}
+
+	public Vec2f subInPlace(Vec2f other) {
+		data[0] -= other.data[0];
+		data[1] -= other.data[1];
+		return this;
+	}
+
+	public Vec2f subInPlace(float scalar) {
+		data[0] -= scalar;
+		data[1] -= scalar;
+		return this;
+	}
+
+	public Vec2f subInPlace(float x, float y) {
+		data[0] -= x;
+		data[1] -= y;
+		return this;
+	}
+
+	public Vec2f mulInPlace(float scalar) {
+		data[0] *= scalar;
+		data[1] *= scalar;
+		return this;
+	}
+
+	public Vec2f mulInPlace(Vec2f other) {
+		data[0] *= other.data[0];
+		data[1] *= other.data[1];
+		return this;
+	}
+
+	public Vec2f divInPlace(float scalar) {
+		data[0] /= scalar;
+		data[1] /= scalar;
+		return this;
+	}
+
+	/**
+	 * this += other * scalar
+	 */
+	public Vec2f scaleAdd(Vec2f other, float scalar) {
+		data[0] += other.data[0] * scalar;
+		data[1] += other.data[1] * scalar;
+		return this;
+	}
+
+	/**
+	 * this = this * multiplier + addend, element wise and rounded after the multiply.
+	 * This vector is the multiplicand, so the argument order is not interchangeable with {@link #scaleAdd}.
+	 */
+	public Vec2f fma(Vec2f multiplier, Vec2f addend) {
+		data[0] = data[0] * multiplier.data[0] + addend.data[0];
+		data[1] = data[1] * multiplier.data[1] + addend.data[1];
+		return this;
+	}
+
 	public float dot(float x, float y) {
 		return data[0] * x
 				+ data[1] * y;
@@ -140,6 +216,6 @@ public class Vec2f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return GL45::glUniform2fv;
+		return GLFacade::glUniform2fv;
 	}
 }
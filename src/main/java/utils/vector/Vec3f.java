@@ -4,7 +4,7 @@ import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.MathF;
 import utils.operator.IOperator;
@@ -124,6 +124,93 @@ public class Vec3f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link utils.operator.OperatorKernels}
+	 */
+	public Vec3f addInPlace(Vec3f other) {
+		data[0] += other.data[0];
+		data[1] += other.data[1];
+		data[2] += other.data[2];
+		return this;
+	}
+
+	public Vec3f addInPlace(float scalar) {
+		data[0] += scalar;
+		data[1] += scalar;
+		data[2] += scalar;
+		return this;
+	}
+
+	public Vec3f addInPlace(float x, float y, float z) {
+		data[0] += x;
+		data[1] += y;
+		data[2] += z;
+		return this;
+	}
+
+	public Vec3f subInPlace(Vec3f other) {
+		data[0] -= other.data[0];
+		data[1] -= other.data[1];
+		data[2] -= other.data[2];
+		return this;
+	}
+
+	public Vec3f subInPlace(float scalar) {
+		data[0] -= scalar;
+		data[1] -= scalar;
+		data[2] -= scalar;
+		return this;
+	}
+
+	public Vec3f subInPlace(float x, float y, float z) {
+		data[0] -= x;
+		data[1] -= y;
+		data[2] -= z;
+		return this;
+	}
+
+	public Vec3f mulInPlace(float scalar) {
+		data[0] *= scalar;
+		data[1] *= scalar;
+		data[2] *= scalar;
+		return this;
+	}
+
+	public Vec3f mulInPlace(Vec3f other) {
+		data[0] *= other.data[0];
+		data[1] *= other.data[1];
+		data[2] *= other.data[2];
+		return this;
+	}
+
+	public Vec3f divInPlace(float scalar) {
+		data[0] /= scalar;
+		data[1] /= scalar;
+		data[2] /= scalar;
+		return this;
+	}
+
+	/**
+	 * this += other * scalar
+	 */
+	public Vec3f scaleAdd(Vec3f other, float scalar) {
+		data[0] += other.data[0] * scalar;
+		data[1] += other.data[1] * scalar;
+		data[2] += other.data[2] * scalar;
+		return this;
+	}
+
+	/**
+	 * this = this * multiplier + addend, element wise and rounded after the multiply.
+	 * This vector is the multiplicand, so the argument order is not interchangeable with {@link #scaleAdd}.
+	 */
+	public Vec3f fma(Vec3f multiplier, Vec3f addend) {
+		data[0] = data[0] * multiplier.data[0] + addend.data[0];
+		data[1] = data[1] * multiplier.data[1] + addend.data[1];
+		data[2] = data[2] * multiplier.data[2] + addend.data[2];
+		return this;
+	}
+
 	public Vec3f apply(Function<Float, Float> function) {
 		data[0] = function.apply(data[0]);
 		data[1] = function.apply(data[1]);
@@ -218,6 +305,6 @@ public class Vec3f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return GL45::glUniform3fv;
+		return GLFacade::glUniform3fv;
 	}
 }
@@ -3,7 +3,7 @@ package utils.vector;
 import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
-import org.lwjgl.opengl.GL45;
+import rendering.gl.GLFacade;
 import rendering.shaderdata.IBufferData;
 import utils.operator.IOperator;
 import utils.quaternion.Quaternion;
@@ -111,6 +111,104 @@ public class Vec4f implements IBufferData {
 		return this;
 	}
 
+	/**
+	 * Same as apply(Operator.Add, other) without the operator dispatch, see {@link utils.operator.OperatorKernels}
+	 */
+	public Vec4f addInPlace(Vec4f other) {
+		data[0] += other.data[0];
+		data[1] += other.data[1];
+		data[2] += other.data[2];
+		data[3] += other.data[3];
+		return this;
+	}
+
+	public Vec4f addInPlace(float scalar) {
+		data[0] += scalar;
+		data[1] += scalar;
+		data[2] += scalar;
+		data[3] += scalar;
+		return this;
+	}
+
+	public Vec4f addInPlace(float x, float y, float z, float w) {
+		data[0] += x;
+		data[1] += y;
+		data[2] += z;
+		data[3] += w;
+		return this;
+	}
+
+	public Vec4f subInPlace(Vec4f other) {
+		data[0] -= other.data[0];
+		data[1] -= other.data[1];
+		data[2] -= other.data[2];
+		data[3] -= other.data[3];
+		return this;
+	}
+
+	public Vec4f subInPlace(float scalar) {
+		data[0] -= scalar;
+		data[1] -= scalar;
+		data[2] -= scalar;
+		data[3] -= scalar;
+		return this;
+	}
+
+	public Vec4f subInPlace(float x, float y, float z, float w) {
+		data[0] -= x;
+		data[1] -= y;
+		data[2] -= z;
+		data[3] -= w;
+		return this;
+	}
+
+	public Vec4f mulInPlace(float scalar) {
+		data[0] *= scalar;
+		data[1] *= scalar;
+		data[2] *= scalar;
+		data[3] *= scalar;
+		return this;
+	}
+
+	public Vec4f mulInPlace(Vec4f other) {
+		data[0] *= other.data[0];
+		data[1] *= other.data[1];
+		data[2] *= other.data[2];
+		data[3] *= other.data[3];
+		return this;
+	}
+
+	public Vec4f divInPlace(float scalar) {
+		data[0] /= scalar;
+		data[1] /= scalar;
+		data[2] /= scalar;
+		data[3] /= scalar;
+		return this;
+	}
+
+	/**
+	 * this += other * scalar
+	 */
+	public Vec4f scaleAdd(Vec4f other, float scalar) {
+		data[0] += other.data[0] * scalar;
+		data[1] += other.data[1] * scalar;
+		data[2] += other.data[2] * scalar;
+		data[3] += other.data[3] * scalar;
+		return this;
+	}
+
+	/**
+	 * this = this * multiplier + addend, element wise and rounded after the multiply.
+	 * This vector is the multiplicand, so the argument order is not interchangeable with {@link #scaleAdd}.
+	 */
+	public Vec4f fma(Vec4f multiplier, Vec4f addend) {
+		data[0] = data[0] * multiplier.data[0] + addend.data[0];
+		data[1] = data[1] * multiplier.data[1] + addend.data[1];
+		data[2] = data[2] * multiplier.data[2] + addend.data[2];
+		data[3] = data[3] * multiplier.data[3] + addend.data[3];
+		return this;
+	}
+
 	public float dot(float x, float y, float z, float w) {
 		return data[0] * x
 				+ data[1] * y
@@ -177,6 +275,6 @@ public class Vec4f implements IBufferData {
 
 	@Override
 	public BiConsumer<Integer, FloatBuffer> getBindBufferFunction() {
-		return GL45::glUniform4fv;
+		return GLFacade::glUniform4fv;
 	}
 }
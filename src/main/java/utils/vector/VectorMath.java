@@ -1,11 +1,10 @@
 package utils.vector;
 
-import utils.operator.Operator;
 
 public class VectorMath {
 
 	public static float distanceLinePoint(Vec3f rayOrigin, Vec3f rayDirectionNormalized, Vec3f point) {
-		Vec3f pointToOrigin = rayOrigin.copy().apply(Operator.Sub, point);
+		Vec3f pointToOrigin = rayOrigin.copy().subInPlace(point);
 		return rayDirectionNormalized.copy().cross(pointToOrigin).length();
 	}
 
@@ -16,7 +15,7 @@ public class VectorMath {
 	 * @return distance between point and plane, positive if point is on the side the normal vector points out of, negative otherwise
 	 */
 	public static float distancePlanePoint(Vec3f pointInPlane, Vec3f planeNormal, Vec3f point) {
-		return planeNormal.dot(point.copy().apply(Operator.Sub, pointInPlane));
+		return planeNormal.dot(point.copy().subInPlace(pointInPlane));
 	}
 
 	/**
@@ -33,7 +32,7 @@ public class VectorMath {
 		}
 
 		float k = (planeNormal.dot(pointInPlane) - planeNormal.dot(lineOrigin)) / dotPlaneLine;
-		return lineDirectionNormalized.copy().apply(Operator.Mul, k).apply(Operator.Add, lineOrigin);
+		return lineDirectionNormalized.copy().mulInPlace(k).addInPlace(lineOrigin);
 	}
 
 }
@@ -39,6 +39,50 @@ layout(binding = 4) buffer LightBuffer{
     LightData allLights[];
 };
 
+// lights binned into view space clusters on the CPU, see LightClusterGrid
+layout(binding = 6) buffer LightClusterBuffer{
+    uvec4 cluster_grid;// tiles x, tiles y, depth slices, global light count
+    vec4 cluster_depth;// near plane, far plane, depth slice scale
+    vec4 cluster_tile_scale;// tiles per pixel in x and y
+    uint cluster_data[];// first index and length per cluster, followed by the global light indices and the cluster lists
+};
+
+vec3 diffuseColor = vec3(0.0f, 0.0f, 0.0f);
+vec3 specularColor = vec3(0.0f, 0.0f, 0.0f);
+
+uint findCluster() {
+    float near = cluster_depth.x;
+    float far = cluster_depth.y;
+    float ndc_depth = gl_FragCoord.z * 2.0f - 1.0f;
+    float view_depth = 2.0f * near * far / (far + near - ndc_depth * (far - near));
+    uint slice = uint(clamp(floor(log(view_depth / near) * cluster_depth.z), 0.0f, float(cluster_grid.z - 1)));
+    uvec2 tile = min(uvec2(gl_FragCoord.xy * cluster_tile_scale.xy), cluster_grid.xy - 1);
+    return (slice * cluster_grid.y + tile.y) * cluster_grid.x + tile.x;
+}
+
+void applyLight(LightData lightData, vec4 phongData, vec3 normal_vec, vec3 vec_to_eye_normalized) {
+    if (lightData.type == LIGHT_TYPE_DIRECTIONAL){
+        // direction, color, intensity
+        float diffuseDot = max(dot(-lightData.direction, normal_vec), 0.0f);
+        float specularDot = max(dot(reflect(lightData.direction, normal_vec), vec_to_eye_normalized), 0.0f);
+        diffuseColor += phongData.g * diffuseDot * lightData.color * lightData.intensity;
+        specularColor += phongData.b * 8 * pow(specularDot, phongData.a * 255) * lightData.color * lightData.intensity;
+    } else {
+        vec3 vec_to_light_normalized = normalize(fragment.world_position - lightData.position);
+        float lightDistance = length(fragment.world_position - lightData.position);
+        if (lightDistance <= lightData.range
+        && (lightData.type != LIGHT_TYPE_SPOT || dot(lightData.direction, vec_to_light_normalized) > lightData.spot_angle_cosine))
+        {
+            // 4 is the distanceFactor at 'distance == 0.05 * range'
+            float distanceFactor = min(0.01f / pow(lightDistance / lightData.range, 2), 4);
+            float diffuseDot = max(dot(-vec_to_light_normalized, normal_vec), 0.0f);
+            float specularDot = max(dot(reflect(vec_to_light_normalized, normal_vec), vec_to_eye_normalized), 0.0f);
+            diffuseColor += phongData.g * diffuseDot * lightData.color * lightData.intensity * distanceFactor;
+            specularColor += phongData.b * 8 * pow(specularDot, phongData.a * 255) * lightData.color * lightData.intensity * distanceFactor;
+        }
+    }
+}
+
 void main() {
     vec3 vec_to_eye_normalized = normalize(camera_position - fragment.world_position);
     vec2 currentUV = fragment.uv_coord;
@@ -87,33 +131,18 @@ void main() {
         normal_vec = fragment.tbn_matrix[2];
     }
     vec3 ambientColor = max(phongData.r * ambient_light, 0.0f);
-    vec3 diffuseColor = vec3(0.0f, 0.0f, 0.0f);
-    vec3 specularColor = vec3(0.0f, 0.0f, 0.0f);
 
     // TODO light bounces? occlusion?
     // TODO rewrite x/distance stuff to use (1+(x/distance)) instead of clamping (?).
-    for (int lightIndex = 0; lightIndex < light_count; lightIndex++){
-        LightData lightData = allLights[lightIndex];
-        if (lightData.type == LIGHT_TYPE_DIRECTIONAL){
-            // direction, color, intensity
-            float diffuseDot = max(dot(-lightData.direction, normal_vec), 0.0f);
-            float specularDot = max(dot(reflect(lightData.direction, normal_vec), vec_to_eye_normalized), 0.0f);
-            diffuseColor += phongData.g * diffuseDot * lightData.color * lightData.intensity;
-            specularColor += phongData.b * 8 * pow(specularDot, phongData.a * 255) * lightData.color * lightData.intensity;
-        } else {
-            vec3 vec_to_light_normalized = normalize(fragment.world_position - lightData.position);
-            float lightDistance = length(fragment.world_position - lightData.position);
-            if (lightDistance <= lightData.range
-            && (lightData.type != LIGHT_TYPE_SPOT || dot(lightData.direction, vec_to_light_normalized) > lightData.spot_angle_cosine))
-            {
-                // 4 is the distanceFactor at 'distance == 0.05 * range'
-                float distanceFactor = min(0.01f / pow(lightDistance / lightData.range, 2), 4);
-                float diffuseDot = max(dot(-vec_to_light_normalized, normal_vec), 0.0f);
-                float specularDot = max(dot(reflect(vec_to_light_normalized, normal_vec), vec_to_eye_normalized), 0.0f);
-                diffuseColor += phongData.g * diffuseDot * lightData.color * lightData.intensity * distanceFactor;
-                specularColor += phongData.b * 8 * pow(specularDot, phongData.a * 255) * lightData.color * lightData.intensity * distanceFactor;
-            }
-        }
+    uint clusterCount = cluster_grid.x * cluster_grid.y * cluster_grid.z;
+    for (uint i = 0; i < cluster_grid.w; i++){
+        applyLight(allLights[cluster_data[2 * clusterCount + i]], phongData, normal_vec, vec_to_eye_normalized);
+    }
+    uint cluster = findCluster();
+    uint clusterStart = cluster_data[2 * cluster];
+    uint clusterEnd = clusterStart + cluster_data[2 * cluster + 1];
+    for (uint i = clusterStart; i < clusterEnd; i++){
+        applyLight(allLights[cluster_data[i]], phongData, normal_vec, vec_to_eye_normalized);
     }
 
     out_color = texColor * vec4(ambientColor + diffuseColor + specularColor, 1.0f);
@@ -10,10 +10,16 @@ out vertexData{
     vec3 world_position;
 }vertex;
 
-uniform mat4 object_to_world_matrix;
+// object to world matrices of all instances, the instances of one draw call start at instance_offset
+layout(std430, row_major, binding = 7) readonly buffer InstanceBuffer{
+    mat4 instance_matrices[];
+};
+
+uniform int instance_offset;
 uniform mat4 world_to_camera_matrix;
 
 void main() {
+    mat4 object_to_world_matrix = instance_matrices[instance_offset + gl_InstanceID];
     vec4 worldPosition = object_to_world_matrix * vec4(in_position, 1.0f);
     gl_Position = world_to_camera_matrix * worldPosition;
 
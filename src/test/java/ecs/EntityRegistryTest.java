@@ -1,13 +1,24 @@
 package ecs;
 
+import ecs.components.LifeTime;
+import ecs.components.Transform;
+import ecs.components.Velocity;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import utils.matrix.MatrixArithmeticIP;
 import utils.matrix.Mat4f;
 import utils.operator.Operator;
+import utils.quaternion.Quaternion;
 import utils.vector.Vec2f;
 import utils.vector.Vec3f;
 import utils.vector.Vec4f;
@@ -35,7 +46,7 @@ public class EntityRegistryTest {
 		}
 	}
 
-	static class Entity {
+	static class BenchEntity {
 		Components.TestComponent testComponent;
 		Vec3f position;
 		Vec3f velocity;
@@ -80,9 +91,9 @@ public class EntityRegistryTest {
 	}
 
 	private static void benchmark(BenchResult result, int targetEntityCount) {
-		ArrayList<Entity> entities = new ArrayList<>();
+		ArrayList<BenchEntity> entities = new ArrayList<>();
 		for (int i = 0; i < targetEntityCount; i++) {
-			entities.add(new Entity());
+			entities.add(new BenchEntity());
 		}
 
 		Timer timer = new Timer();
@@ -90,7 +101,7 @@ public class EntityRegistryTest {
 		{
 			timer.start();
 			for (int i = 0; i < targetEntityCount; i++) {
-				Entity entity = entities.get(i);
+				BenchEntity entity = entities.get(i);
 				entity.position = new Vec3f(i);
 				entity.velocity = new Vec3f(1, 0, i);
 			}
@@ -101,7 +112,7 @@ public class EntityRegistryTest {
 			timer.start();
 			IntStream.range(0, targetEntityCount).parallel()
 					.forEach(i -> {
-						Entity entity = entities.get(i);
+						BenchEntity entity = entities.get(i);
 						entity.positionAlt = new Vec3f(i);
 						entity.velocityAlt = new Vec3f(1, 0, i);
 					});
@@ -115,7 +126,7 @@ public class EntityRegistryTest {
 			timer.start();
 			IntStream.range(0, targetEntityCount).parallel()
 					.forEach(i -> {
-						Entity entity = entities.get(i);
+						BenchEntity entity = entities.get(i);
 						if (i % 7 == 0) {
 							entity.testComponent = new Components.TestComponent("" + i + "2poipnrpuipo");
 						}
@@ -156,7 +167,7 @@ public class EntityRegistryTest {
 
 		{
 			timer.start();
-			for (Entity entity : entities) {
+			for (BenchEntity entity : entities) {
 				entity.positionAlt = null;
 				entity.velocityAlt = null;
 			}
@@ -190,4 +201,363 @@ public class EntityRegistryTest {
 		}
 		result.printStats(numRuns);
 	}
+
+	/**
+	 * Remembers the entities it was executed on, executing twice on the same entity fails the test
+	 */
+	static class RecordingSystem implements UpdateSystem {
+		private final ComponentSignature requiredComponents;
+		final Set<Entity> executed = ConcurrentHashMap.newKeySet();
+
+		RecordingSystem(ComponentType... requiredComponents) {
+			this.requiredComponents = ComponentSignature.of(requiredComponents);
+		}
+
+		@Override
+		public ComponentSignature getRequiredComponents() {
+			return requiredComponents;
+		}
+
+		@Override
+		public boolean isTargetEntity_updateTick(Entity entity) {
+			return true;
+		}
+
+		@Override
+		public void execute_updateTick(Entity entity) {
+			Assertions.assertTrue(executed.add(entity), "entity executed twice");
+		}
+
+		@Override
+		public void onExecuteUpdateDone() {
+		}
+	}
+
+	private static Transform newTransform() {
+		return new Transform(new Vec3f(0f), Quaternion.identity(), new Vec3f(1f));
+	}
+
+	@Test
+	public void testArchetypeAssignment() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		Entity moving = registry.createEntity();
+		moving.transform = newTransform();
+		moving.velocityComponent = new Velocity();
+		Entity still = registry.createEntity();
+		still.transform = newTransform();
+		Entity other = registry.createEntity();
+		other.transform = newTransform();
+		other.velocityComponent = new Velocity();
+
+		registry.executeUpdateSystem(new RecordingSystem());
+		long transformVelocity = ComponentType.transform.bit | ComponentType.velocity.bit;
+		Assertions.assertSame(moving.archetype, other.archetype);
+		Assertions.assertEquals(transformVelocity, moving.archetype.getSignature());
+		Assertions.assertEquals(ComponentType.transform.bit, still.archetype.getSignature());
+		Assertions.assertEquals(2, registry.getArchetypes().size());
+
+		// structural changes of the command buffer move the entities before the next system run
+		registry.getCommandBuffer().addComponent(still, ComponentType.velocity, new Velocity());
+		registry.getCommandBuffer().removeComponent(moving, ComponentType.velocity);
+		registry.executeUpdate();
+		registry.executeUpdateSystem(new RecordingSystem());
+		Assertions.assertSame(other.archetype, still.archetype);
+		Assertions.assertEquals(ComponentType.transform.bit, moving.archetype.getSignature());
+		Assertions.assertEquals(2, other.archetype.size());
+
+		// fields assigned on existing entities are only picked up once reported
+		other.lifeTimeComponent = new LifeTime(1f);
+		registry.executeUpdateSystem(new RecordingSystem());
+		Assertions.assertEquals(transformVelocity, other.archetype.getSignature());
+		registry.markComponentsChanged(other);
+		RecordingSystem lifeTimeSystem = new RecordingSystem(ComponentType.lifeTime);
+		registry.executeUpdateSystem(lifeTimeSystem);
+		Assertions.assertEquals(transformVelocity | ComponentType.lifeTime.bit, other.archetype.getSignature());
+		Assertions.assertEquals(Set.of(other), lifeTimeSystem.executed);
+
+		Archetype stillArchetype = still.archetype;
+		registry.eraseEntity(still);
+		Assertions.assertNull(still.archetype);
+		Assertions.assertEquals(0, stillArchetype.size());
+		registry.reset();
+	}
+
+	@Test
+	public void testChunkMatching() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		for (int i = 0; i < 3500; i++) {
+			Entity entity = registry.createEntity();
+			entity.transform = newTransform();
+			if (i < 2800) {
+				entity.velocityComponent = new Velocity();
+			}
+			if (i >= 2500 && i < 2800) {
+				entity.lifeTimeComponent = new LifeTime(1f);
+			}
+		}
+
+		RecordingSystem velocitySystem = new RecordingSystem(ComponentType.velocity);
+		registry.executeUpdateSystem(velocitySystem);
+		Assertions.assertEquals(2800, velocitySystem.executed.size());
+		Assertions.assertEquals(3, registry.getArchetypes().size());
+		for (Archetype archetype : registry.getArchetypes()) {
+			Assertions.assertEquals((archetype.size() + Archetype.chunkSize - 1) / Archetype.chunkSize, archetype.chunkCount());
+		}
+
+		// registered systems run in stages, every chunk is only handed to the systems that match its archetype
+		RecordingSystem transformSystem = new RecordingSystem(ComponentType.transform);
+		RecordingSystem lifeTimeSystem = new RecordingSystem(ComponentType.velocity, ComponentType.lifeTime);
+		RecordingSystem orbitalSystem = new RecordingSystem(ComponentType.orbital);
+		registry.registerSystem(transformSystem);
+		registry.registerSystem(lifeTimeSystem);
+		registry.registerSystem(orbitalSystem);
+		registry.executeUpdate();
+		Assertions.assertEquals(3500, transformSystem.executed.size());
+		Assertions.assertEquals(300, lifeTimeSystem.executed.size());
+		Assertions.assertTrue(lifeTimeSystem.executed.stream().allMatch(entity -> entity.lifeTimeComponent != null));
+		Assertions.assertTrue(orbitalSystem.executed.isEmpty());
+		registry.reset();
+	}
+
+	@Test
+	public void testComponentColumns() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		Entity[] entities = new Entity[2100];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = registry.createEntity();
+			entities[i].transform = newTransform();
+			entities[i].velocityComponent = new Velocity();
+		}
+		registry.executeUpdateSystem(new RecordingSystem(ComponentType.velocity));
+		Archetype archetype = entities[0].archetype;
+		ArrayList<ArchetypeChunk> chunks = archetype.getChunks();
+		Assertions.assertEquals(3, chunks.size());
+		Assertions.assertSame(chunks, archetype.getChunks());
+		ArchetypeChunk firstChunk = chunks.get(0);
+
+		// replaced components and the entity moved by an erase show up in the columns
+		Velocity replacedVelocity = new Velocity();
+		registry.getCommandBuffer().addComponent(entities[5], ComponentType.velocity, replacedVelocity);
+		registry.eraseEntity(entities[1]);
+		registry.executeUpdate();
+		registry.executeUpdateSystem(new RecordingSystem(ComponentType.velocity));
+		Assertions.assertEquals(entities.length - 1, archetype.size());
+		Assertions.assertNull(archetype.getColumn(ComponentType.orbital));
+		Object[] transforms = archetype.getColumn(ComponentType.transform);
+		Object[] velocities = archetype.getColumn(ComponentType.velocity);
+		for (int i = 0; i < archetype.size(); i++) {
+			Assertions.assertSame(archetype.get(i).transform, transforms[i]);
+			Assertions.assertSame(archetype.get(i).velocityComponent, velocities[i]);
+		}
+		Assertions.assertSame(replacedVelocity, velocities[entities[5].archetypeIndex]);
+		Assertions.assertNull(velocities[archetype.size()]);
+
+		// only the changed tail chunk is rebuilt
+		Assertions.assertSame(firstChunk, archetype.getChunks().get(0));
+		Assertions.assertEquals(archetype.size(), archetype.getChunks().get(2).end());
+		registry.reset();
+	}
+
+	@Test
+	public void testStaleHandles() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		Entity first = registry.createEntity();
+		Entity second = registry.createEntity();
+		Entity third = registry.createEntity();
+		long firstHandle = first.getHandle();
+		long secondHandle = second.getHandle();
+		long thirdHandle = third.getHandle();
+		Assertions.assertSame(second, registry.getEntity(secondHandle));
+
+		registry.eraseEntity(second);
+		Assertions.assertFalse(registry.isAlive(secondHandle));
+		Assertions.assertNull(registry.getEntity(secondHandle));
+
+		// the freed slot is reused with the next generation, the old handle stays stale
+		Entity reused = registry.createEntity();
+		Assertions.assertEquals(EntityHandle.slot(secondHandle), EntityHandle.slot(reused.getHandle()));
+		Assertions.assertEquals(EntityHandle.generation(secondHandle) + 1, EntityHandle.generation(reused.getHandle()));
+		Assertions.assertNull(registry.getEntity(secondHandle));
+		Assertions.assertSame(reused, registry.getEntity(reused.getHandle()));
+		Assertions.assertSame(first, registry.getEntity(firstHandle));
+		Assertions.assertSame(third, registry.getEntity(thirdHandle));
+
+		// deferred erases keep the handle valid until playback
+		registry.enqueueEraseEntity(first);
+		Assertions.assertTrue(registry.isAlive(firstHandle));
+		registry.executeUpdate();
+		Assertions.assertFalse(registry.isAlive(firstHandle));
+		Assertions.assertTrue(first.isExpired());
+
+		Assertions.assertNull(registry.getEntity(EntityHandle.invalid));
+		Assertions.assertNull(registry.getEntity(EntityHandle.of(EntityHandle.slot(thirdHandle) + 1000, 0)));
+		registry.reset();
+		Assertions.assertFalse(registry.isAlive(thirdHandle));
+	}
+
+	@Test
+	public void testGenerationWrap() throws ReflectiveOperationException {
+		for (int generation : new int[]{0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+			long handle = EntityHandle.of(123_456, generation);
+			Assertions.assertEquals(123_456, EntityHandle.slot(handle));
+			Assertions.assertEquals(generation, EntityHandle.generation(handle));
+			Assertions.assertNotEquals(EntityHandle.invalid, handle);
+		}
+
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		Entity entity = registry.createEntity();
+		int slot = EntityHandle.slot(entity.getHandle());
+		registry.eraseEntity(entity);
+		// fast forward the generation of the free slot instead of erasing 2^32 times
+		Field slotGenerations = EntityRegistry.class.getDeclaredField("slotGenerations");
+		slotGenerations.setAccessible(true);
+		((int[]) slotGenerations.get(registry))[slot] = Integer.MAX_VALUE;
+
+		Entity lastBeforeWrap = registry.createEntity();
+		long lastBeforeWrapHandle = lastBeforeWrap.getHandle();
+		Assertions.assertEquals(slot, EntityHandle.slot(lastBeforeWrapHandle));
+		Assertions.assertEquals(Integer.MAX_VALUE, EntityHandle.generation(lastBeforeWrapHandle));
+		Assertions.assertSame(lastBeforeWrap, registry.getEntity(lastBeforeWrapHandle));
+		registry.eraseEntity(lastBeforeWrap);
+
+		Entity wrapped = registry.createEntity();
+		Assertions.assertEquals(slot, EntityHandle.slot(wrapped.getHandle()));
+		Assertions.assertEquals(Integer.MIN_VALUE, EntityHandle.generation(wrapped.getHandle()));
+		Assertions.assertSame(wrapped, registry.getEntity(wrapped.getHandle()));
+		Assertions.assertNull(registry.getEntity(lastBeforeWrapHandle));
+		registry.reset();
+	}
+
+	private static String describeEntity(Entity entity) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(entity.isExpired() ? "expired" : Long.toHexString(entity.computeSignature()));
+		if (!entity.isExpired() && entity.archetype != null) {
+			builder.append(" in ").append(Long.toHexString(entity.archetype.getSignature()));
+		}
+		if (entity.velocityComponent != null) {
+			builder.append(" velocity ").append(entity.velocityComponent.getVelocity().data[0]);
+		}
+		if (entity.lifeTimeComponent != null) {
+			builder.append(" lifeTime ").append(entity.lifeTimeComponent.lifeTime);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Records structural changes for every entity from a parallel stream and plays them back
+	 *
+	 * @return the resulting state of the base entities followed by the created entities in creation order
+	 */
+	private static ArrayList<String> recordAndPlayback(int threadCount) {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		int entityCount = 5000;
+		Entity[] entities = new Entity[entityCount];
+		for (int i = 0; i < entityCount; i++) {
+			entities[i] = registry.createEntity();
+			entities[i].transform = newTransform();
+		}
+		registry.executeUpdate();
+
+		EntityCommandBuffer commandBuffer = registry.getCommandBuffer();
+		ArrayList<Entity> createdEntities = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(threadCount);
+		pool.submit(() -> IntStream.range(0, entityCount).parallel().forEach(i -> {
+			Entity entity = entities[i];
+			if (i % 3 == 0) {
+				// the last recorded change wins
+				commandBuffer.addComponent(entity, ComponentType.velocity, new Velocity(new Vec3f(-i)));
+				commandBuffer.addComponent(entity, ComponentType.velocity, new Velocity(new Vec3f(i)));
+			}
+			if (i % 5 == 0) {
+				commandBuffer.removeComponent(entity, ComponentType.transform);
+			}
+			if (i % 7 == 0) {
+				// erases are applied after the other commands on the entity, no matter when they were recorded
+				commandBuffer.erase(entity);
+				commandBuffer.addComponent(entity, ComponentType.lifeTime, new LifeTime(i));
+			}
+			if (i % 4 == 0) {
+				// handles differ between runs, reset keeps the slot generations, so the order keys are taken from the index
+				commandBuffer.create(i, created -> {
+					created.lifeTimeComponent = new LifeTime(i);
+					createdEntities.add(created);
+				});
+				commandBuffer.create(i, created -> {
+					created.velocityComponent = new Velocity(new Vec3f(i));
+					createdEntities.add(created);
+				});
+			}
+		})).join();
+		pool.shutdown();
+		registry.executeUpdate();
+		// moves the entities into their new archetypes
+		registry.executeUpdateSystem(new RecordingSystem());
+
+		ArrayList<String> state = new ArrayList<>();
+		for (Entity entity : entities) {
+			state.add(describeEntity(entity));
+		}
+		for (Entity entity : createdEntities) {
+			state.add(describeEntity(entity));
+		}
+		return state;
+	}
+
+	@Test
+	public void testDeterministicPlayback() {
+		ArrayList<String> expected = recordAndPlayback(1);
+		Assertions.assertEquals(5000 + 2 * 1250, expected.size());
+		Assertions.assertEquals("expired lifeTime 7.0", expected.get(7));
+		Assertions.assertEquals(Long.toHexString(ComponentType.velocity.bit) + " in " + Long.toHexString(ComponentType.velocity.bit) + " velocity 15.0", expected.get(15));
+		Assertions.assertEquals(Long.toHexString(ComponentType.lifeTime.bit) + " in " + Long.toHexString(ComponentType.lifeTime.bit) + " lifeTime 4.0", expected.get(5002));
+		Assertions.assertEquals(Long.toHexString(ComponentType.velocity.bit) + " in " + Long.toHexString(ComponentType.velocity.bit) + " velocity 4.0", expected.get(5003));
+		for (int run = 0; run < 4; run++) {
+			Assertions.assertEquals(expected, recordAndPlayback(4));
+		}
+
+		// order keys compare signed
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		ArrayList<Long> creationOrder = new ArrayList<>();
+		for (long orderKey : new long[]{5L, Long.MAX_VALUE, -3L, Long.MIN_VALUE, 0L}) {
+			registry.getCommandBuffer().create(orderKey, created -> creationOrder.add(orderKey));
+		}
+		registry.executeUpdate();
+		Assertions.assertEquals(List.of(Long.MIN_VALUE, -3L, 0L, 5L, Long.MAX_VALUE), creationOrder);
+		registry.reset();
+	}
+
+	@Test
+	public void testSegmentsOfTerminatedThreadsAreDropped() throws InterruptedException {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		EntityCommandBuffer commandBuffer = registry.getCommandBuffer();
+		AtomicInteger createdCount = new AtomicInteger();
+		commandBuffer.create(0L, created -> createdCount.incrementAndGet());
+		registry.executeUpdate();
+		int segmentCount = commandBuffer.getSegmentCount();
+
+		Thread[] threads = new Thread[3];
+		for (int i = 0; i < threads.length; i++) {
+			long orderKey = i;
+			threads[i] = new Thread(() -> commandBuffer.create(orderKey, created -> createdCount.incrementAndGet()));
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assertions.assertFalse(commandBuffer.isEmpty(), "pending commands keep their segment");
+
+		// played back, the segments of the terminated threads are empty and dropped, idle pool threads may have terminated meanwhile as well
+		registry.executeUpdate();
+		Assertions.assertTrue(commandBuffer.getSegmentCount() <= segmentCount, "segments " + commandBuffer.getSegmentCount());
+		Assertions.assertEquals(4, createdCount.get());
+		registry.reset();
+	}
 }
@@ -0,0 +1,159 @@
+package ecs;
+
+import ecs.systems.ApplyScaleVelocitySystem;
+import ecs.systems.ApplyVelocitySystem;
+import ecs.systems.CollisionSystem;
+import ecs.systems.ComputeDataSystem;
+import ecs.systems.LifeTimeLightIntensitySystem;
+import ecs.systems.LifeTimeSystem;
+import ecs.systems.LightManagerSystem;
+import ecs.systems.OrbitalSystem;
+import ecs.systems.RotationalVelocitySystem;
+import ecs.systems.ShockwaveExpandingAnimatorSystem;
+import ecs.systems.ShockwaveManagerSystem;
+import ecs.systems.SphereParticleManagerSystem;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rendering.gl.GLFacade;
+import rendering.gl.IGLBackend;
+import rendering.gl.RecordingBackend;
+
+public class SystemSchedulerTest {
+	private static class UndeclaredSystem implements UpdateSystem {
+		@Override
+		public boolean isTargetEntity_updateTick(Entity entity) {
+			return false;
+		}
+
+		@Override
+		public void execute_updateTick(Entity entity) {
+		}
+
+		@Override
+		public void onExecuteUpdateDone() {
+		}
+	}
+
+	private IGLBackend previousBackend;
+
+	// the manager systems allocate their buffers on construction
+	@BeforeEach
+	public void installRecordingBackend() {
+		previousBackend = GLFacade.getBackend();
+		GLFacade.setBackend(new RecordingBackend());
+	}
+
+	@AfterEach
+	public void restoreBackend() {
+		GLFacade.setBackend(previousBackend);
+	}
+
+	/**
+	 * @return the update systems in the order Main registers them
+	 */
+	private static List<UpdateSystem> mainSystems() {
+		return List.of(
+				ApplyVelocitySystem.getInstance(),
+				ApplyScaleVelocitySystem.getInstance(),
+				OrbitalSystem.getInstance(),
+				ShockwaveExpandingAnimatorSystem.getInstance(),
+				RotationalVelocitySystem.getInstance(),
+				LifeTimeLightIntensitySystem.getInstance(),
+				LifeTimeSystem.getInstance(),
+				CollisionSystem.getInstance(),
+				ComputeDataSystem.getInstance(),
+				LightManagerSystem.getInstance(),
+				SphereParticleManagerSystem.getInstance(),
+				ShockwaveManagerSystem.getInstance()
+		);
+	}
+
+	private static void assertConflict(boolean expected, UpdateSystem a, UpdateSystem b) {
+		Assertions.assertEquals(expected, SystemScheduler.conflicts(a, b));
+		Assertions.assertEquals(expected, SystemScheduler.conflicts(b, a), "conflicts are symmetric");
+	}
+
+	@Test
+	public void testConflicts() {
+		// write / write
+		assertConflict(true, ApplyVelocitySystem.getInstance(), RotationalVelocitySystem.getInstance());
+		// write / read
+		assertConflict(true, ApplyVelocitySystem.getInstance(), CollisionSystem.getInstance());
+		assertConflict(true, LifeTimeLightIntensitySystem.getInstance(), LifeTimeSystem.getInstance());
+		assertConflict(true, ComputeDataSystem.getInstance(), LightManagerSystem.getInstance());
+		// read / read and disjoint accesses
+		assertConflict(false, LightManagerSystem.getInstance(), SphereParticleManagerSystem.getInstance());
+		assertConflict(false, RotationalVelocitySystem.getInstance(), LifeTimeSystem.getInstance());
+		assertConflict(false, ApplyVelocitySystem.getInstance(), ShockwaveExpandingAnimatorSystem.getInstance());
+		// systems without declared accesses conflict with everything, even with themselves
+		UndeclaredSystem undeclaredSystem = new UndeclaredSystem();
+		assertConflict(true, undeclaredSystem, LifeTimeSystem.getInstance());
+		assertConflict(true, undeclaredSystem, undeclaredSystem);
+
+		Assertions.assertTrue(ComponentSignature.any.isMatchedBy(ComponentType.transform.bit));
+		Assertions.assertFalse(ComponentSignature.none.intersects(ComponentSignature.of(ComponentType.values())));
+	}
+
+	@Test
+	public void testMainSchedule() {
+		SystemScheduler scheduler = new SystemScheduler(mainSystems());
+		List<List<UpdateSystem>> expectedStages = List.of(
+				List.of(ApplyVelocitySystem.getInstance(), ShockwaveExpandingAnimatorSystem.getInstance(), LifeTimeLightIntensitySystem.getInstance()),
+				List.of(ApplyScaleVelocitySystem.getInstance(), LifeTimeSystem.getInstance()),
+				List.of(OrbitalSystem.getInstance()),
+				List.of(RotationalVelocitySystem.getInstance()),
+				List.of(CollisionSystem.getInstance()),
+				List.of(ComputeDataSystem.getInstance()),
+				List.of(LightManagerSystem.getInstance(), SphereParticleManagerSystem.getInstance(), ShockwaveManagerSystem.getInstance())
+		);
+		ArrayList<List<UpdateSystem>> stages = new ArrayList<>();
+		for (SystemScheduler.Stage stage : scheduler.getStages()) {
+			stages.add(stage.getSystems());
+		}
+		Assertions.assertEquals(expectedStages, stages);
+
+		// independent systems share a stage unless an earlier conflicting system pushes one of them back
+		SystemScheduler independent = new SystemScheduler(List.of(RotationalVelocitySystem.getInstance(), LifeTimeSystem.getInstance()));
+		Assertions.assertEquals(1, independent.getStages().size());
+		Assertions.assertEquals(2, independent.getStages().get(0).getSystems().size());
+
+		// a barrier gets a stage of its own and everything after it is placed behind it
+		ArrayList<UpdateSystem> withBarrier = new ArrayList<>(mainSystems());
+		UndeclaredSystem undeclaredSystem = new UndeclaredSystem();
+		withBarrier.add(1, undeclaredSystem);
+		SystemScheduler barrierScheduler = new SystemScheduler(withBarrier);
+		Assertions.assertEquals(List.of(undeclaredSystem), barrierScheduler.getStages().get(1).getSystems());
+		Assertions.assertEquals(List.of(ApplyVelocitySystem.getInstance()), barrierScheduler.getStages().get(0).getSystems());
+	}
+
+	@Test
+	public void testStageMatchesArchetypes() {
+		SystemScheduler.Stage firstStage = new SystemScheduler(mainSystems()).getStages().get(0);
+		long particle = ComponentType.transform.bit | ComponentType.velocity.bit | ComponentType.lifeTime.bit | ComponentType.sphereParticle.bit;
+		Assertions.assertEquals(0b001L, firstStage.getMatchingSystems(particle));
+		long fadingLight = ComponentType.lifeTime.bit | ComponentType.lifeTimeLightIntensity.bit | ComponentType.light.bit;
+		Assertions.assertEquals(0b101L, firstStage.getMatchingSystems(fadingLight | ComponentType.transform.bit | ComponentType.velocity.bit));
+		Assertions.assertEquals(0L, firstStage.getMatchingSystems(ComponentType.mesh.bit));
+	}
+
+	@Test
+	public void testDescribe() {
+		ArrayList<UpdateSystem> systems = new ArrayList<>(mainSystems());
+		systems.add(new UndeclaredSystem());
+		String description = new SystemScheduler(systems).describe();
+		String[] lines = description.split(System.lineSeparator());
+		Assertions.assertEquals("Update schedule: 13 systems in 8 stages", lines[0]);
+		Assertions.assertTrue(lines[1].startsWith("Stage 0 (last run: "), lines[1]);
+		Assertions.assertEquals("  ApplyVelocitySystem reads ComponentSignature{velocity} writes ComponentSignature{transform}", lines[2]);
+		Assertions.assertTrue(description.contains("  LifeTimeSystem reads ComponentSignature{} writes ComponentSignature{lifeTime}"
+				+ System.lineSeparator() + "    after LifeTimeLightIntensitySystem (ComponentSignature{lifeTime})"), description);
+		Assertions.assertTrue(description.contains("  ComputeDataSystem reads ComponentSignature{transform} writes ComponentSignature{transform}"
+				+ System.lineSeparator() + "    after CollisionSystem (ComponentSignature{transform})"), description);
+		Assertions.assertTrue(description.contains("  UndeclaredSystem [barrier: no declared accesses]"
+				+ System.lineSeparator() + "    after LightManagerSystem (barrier)"), description);
+	}
+}
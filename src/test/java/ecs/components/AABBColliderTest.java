@@ -0,0 +1,28 @@
+package ecs.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.collision.AxisAlignedBoundingBox;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+
+public class AABBColliderTest {
+
+	@Test
+	public void testBoundsScaleOffsetsAroundPosition() {
+		AABBCollider collider = new AABBCollider(new Vec3f(1f, 2f, 3f), new Vec3f(-0.5f, -1f, -1.5f));
+		Transform transform = new Transform(new Vec3f(10f, 20f, 30f), QuaternionMathOOP.eulerRad(new Vec3f(0f)), new Vec3f(2f, -3f, 4f));
+
+		// |scale| * offset + position, the fma order getAABB relies on
+		AxisAlignedBoundingBox aabb = collider.getAABB(transform);
+		Assertions.assertArrayEquals(new float[]{9f, 17f, 24f}, aabb.min().data);
+		Assertions.assertArrayEquals(new float[]{12f, 26f, 42f}, aabb.max().data);
+
+		// the collider follows the change id, which only moves once the previous change was recomputed
+		transform.checkRecompute();
+		transform.setPosition(new Vec3f(0f));
+		aabb = collider.getAABB(transform);
+		Assertions.assertArrayEquals(new float[]{-1f, -3f, -6f}, aabb.min().data);
+		Assertions.assertArrayEquals(new float[]{2f, 6f, 12f}, aabb.max().data);
+	}
+}
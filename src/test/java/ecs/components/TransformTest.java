@@ -0,0 +1,93 @@
+package ecs.components;
+
+import ecs.Entity;
+import ecs.EntityRegistry;
+import ecs.systems.ComputeDataSystem;
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.Mat4f;
+import utils.matrix.MatrixArithmeticIP;
+import utils.matrix.MatrixMath;
+import utils.quaternion.Quaternion;
+import utils.quaternion.QuaternionMathIP;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+
+public class TransformTest {
+
+	private static Transform randomTransform(Random random) {
+		return new Transform(
+				new Vec3f(random.nextFloat() * 10f, random.nextFloat() * 10f, random.nextFloat() * 10f),
+				QuaternionMathOOP.eulerRad(new Vec3f(random.nextFloat() * 6f, random.nextFloat() * 6f, random.nextFloat() * 6f)),
+				new Vec3f(0.5f + random.nextFloat(), 0.5f + random.nextFloat(), 0.5f + random.nextFloat())
+		);
+	}
+
+	/**
+	 * the composition through full matrix multiplies the fused version replaces
+	 */
+	private static void assertRecomputed(Transform transform) {
+		Mat4f expected = MatrixArithmeticIP.mul(new Mat4f(),
+				MatrixMath.translate(transform.getPosition()),
+				MatrixArithmeticIP.mul(QuaternionMathOOP.toMat4(transform.getRotation()), MatrixMath.scale(transform.getScale()))
+		);
+		Vec3f expectedForward = QuaternionMathIP.rotate(transform.getRotation(), new Vec3f(0f, 0f, 1f));
+		Assertions.assertFalse(transform.isDirty());
+		for (int i = 0; i < expected.data.length; i++) {
+			Assertions.assertEquals(expected.data[i], transform.getTransformMatrix().data[i], 1e-5f, "element " + i);
+		}
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			Assertions.assertEquals(expectedForward.data[i], transform.getForward().data[i], 1e-5f);
+		}
+	}
+
+	@Test
+	public void testFusedRecompute() {
+		Random random = new Random(47);
+		for (int i = 0; i < 20; i++) {
+			Transform transform = randomTransform(random);
+			Assertions.assertTrue(transform.isDirty());
+			transform.checkRecompute();
+			assertRecomputed(transform);
+
+			transform.setRotation(new Quaternion(0.3f, -0.2f, 0.1f, 0.9f));
+			transform.checkRecompute();
+			assertRecomputed(transform);
+		}
+	}
+
+	@Test
+	public void testBatchedRecomputesOnlyDirtyTransforms() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		ComputeDataSystem system = ComputeDataSystem.getInstance().setBatched(true);
+		try {
+			registry.registerSystem(system);
+			Random random = new Random(53);
+			ArrayList<Transform> transforms = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				Entity entity = registry.createEntity();
+				entity.transform = randomTransform(random);
+				transforms.add(entity.transform);
+			}
+			registry.executeUpdate();
+			Assertions.assertEquals(transforms.size(), system.getLastBatchSize());
+			transforms.forEach(TransformTest::assertRecomputed);
+
+			for (int i = 0; i < transforms.size(); i += 3) {
+				transforms.get(i).setPosition(new Vec3f(i, -i, 1f));
+			}
+			registry.executeUpdate();
+			Assertions.assertEquals((transforms.size() + 2) / 3, system.getLastBatchSize());
+			transforms.forEach(TransformTest::assertRecomputed);
+
+			registry.executeUpdate();
+			Assertions.assertEquals(0, system.getLastBatchSize());
+		} finally {
+			system.setBatched(ComputeDataSystem.batchedByDefault);
+			registry.reset();
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package ecs.soa;
+
+import ecs.Entity;
+import ecs.EntityRegistry;
+import ecs.components.Transform;
+import ecs.components.Velocity;
+import ecs.systems.ApplyVelocitySystem;
+import ecs.systems.ComputeDataSystem;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.Mat4f;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+
+public class TransformStoreTest {
+
+	private static Transform randomTransform(Random random) {
+		return new Transform(
+				new Vec3f(random.nextFloat() * 10f, random.nextFloat() * 10f, random.nextFloat() * 10f),
+				QuaternionMathOOP.eulerRad(new Vec3f(random.nextFloat() * 6f, random.nextFloat() * 6f, random.nextFloat() * 6f)),
+				new Vec3f(0.5f + random.nextFloat(), 0.5f + random.nextFloat(), 0.5f + random.nextFloat())
+		);
+	}
+
+	private static void assertMatrixEquals(Mat4f expected, Mat4f actual) {
+		for (int i = 0; i < expected.data.length; i++) {
+			Assertions.assertEquals(expected.data[i], actual.data[i], 1e-4f, "element " + i);
+		}
+	}
+
+	@Test
+	public void testIntegrate() {
+		// large enough for the parallel path
+		int count = 20_000;
+		TransformStore store = new TransformStore(16);
+		TransformView[] views = new TransformView[count];
+		for (int i = 0; i < count; i++) {
+			views[i] = store.allocate().setPosition(i, -i, 0.5f * i).setVelocity(1f, 2f * i, -3f);
+		}
+		Assertions.assertEquals(count, store.size());
+		store.integrate(0.5f);
+		for (int i = 0; i < count; i++) {
+			Assertions.assertEquals(i + 0.5f, views[i].getPositionX(), 1e-3f);
+			Assertions.assertEquals(-i + (float) i, views[i].getPositionY(), 1e-3f);
+			Assertions.assertEquals(0.5f * i - 1.5f, views[i].getPositionZ(), 1e-3f);
+		}
+	}
+
+	@Test
+	public void testRecomputeMatrices() {
+		Random random = new Random(61);
+		TransformStore store = new TransformStore(16);
+		for (int i = 0; i < 50; i++) {
+			Transform transform = randomTransform(random);
+			TransformView view = store.allocate().copyFrom(transform);
+			store.recomputeMatrices();
+			transform.checkRecompute();
+			assertMatrixEquals(transform.getTransformMatrix(), view.getTransformMatrix(new Mat4f()));
+
+			// only the position changes with the velocity
+			view.setVelocity(1f, 0f, -1f);
+			store.integrate(2f);
+			store.recomputeMatrices();
+			transform.setPosition(transform.getPosition().addInPlace(new Vec3f(2f, 0f, -2f))).checkRecompute();
+			assertMatrixEquals(transform.getTransformMatrix(), view.getTransformMatrix(new Mat4f()));
+		}
+	}
+
+	@Test
+	public void testViewsStayValidAcrossRelease() {
+		TransformStore store = new TransformStore(16);
+		TransformView[] views = new TransformView[40];
+		for (int i = 0; i < views.length; i++) {
+			views[i] = store.allocate().setPosition(i, 0f, 0f).setVelocity(0f, i, 0f);
+		}
+		for (int i = 0; i < views.length; i += 3) {
+			store.release(views[i]);
+			Assertions.assertTrue(views[i].isReleased());
+		}
+		Assertions.assertEquals(26, store.size());
+		boolean[] usedSlots = new boolean[store.size()];
+		for (int i = 0; i < views.length; i++) {
+			if (i % 3 == 0) {
+				continue;
+			}
+			Assertions.assertFalse(usedSlots[views[i].getSlot()], "slots are unique");
+			usedSlots[views[i].getSlot()] = true;
+			Assertions.assertEquals(i, views[i].getPositionX());
+			Assertions.assertEquals(i, views[i].getVelocityY());
+		}
+
+		TransformView foreignView = new TransformStore(16).allocate();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> store.release(foreignView));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> store.release(views[0]));
+	}
+
+	@Test
+	public void testStoreBackedEntitiesMatchPlainEntities() {
+		EntityRegistry registry = EntityRegistry.getInstance();
+		registry.reset();
+		ApplyVelocitySystem applyVelocitySystem = ApplyVelocitySystem.getInstance();
+		TransformStore store = applyVelocitySystem.getTransformStore();
+		int storeSize = store.size();
+		try {
+			registry.registerSystem(applyVelocitySystem);
+			registry.registerSystem(ComputeDataSystem.getInstance());
+			Random random = new Random(67);
+			Entity[] plainEntities = new Entity[100];
+			Entity[] storeEntities = new Entity[plainEntities.length];
+			for (int i = 0; i < plainEntities.length; i++) {
+				Vec3f velocity = new Vec3f(random.nextFloat(), random.nextFloat(), random.nextFloat());
+				Transform transform = randomTransform(random);
+				plainEntities[i] = registry.createEntity();
+				plainEntities[i].transform = new Transform(transform.getPosition().copy(), transform.getRotation().copy(), transform.getScale().copy());
+				plainEntities[i].velocityComponent = new Velocity(velocity.copy());
+				storeEntities[i] = registry.createEntity();
+				storeEntities[i].transform = transform;
+				storeEntities[i].velocityComponent = new Velocity(velocity);
+				applyVelocitySystem.registerInStore(storeEntities[i]);
+			}
+			Assertions.assertEquals(storeSize + storeEntities.length, store.size());
+
+			FloatBuffer writtenMatrix = FloatBuffer.allocate(Mat4f.DATA_LEN);
+			for (int tick = 0; tick < 3; tick++) {
+				registry.executeUpdate();
+				for (int i = 0; i < plainEntities.length; i++) {
+					// the store recomputes the matrices, ComputeDataSystem leaves the transforms alone
+					Assertions.assertFalse(storeEntities[i].transform.isDirty());
+					Assertions.assertFalse(ComputeDataSystem.getInstance().isTargetEntity_updateTick(storeEntities[i]));
+					storeEntities[i].transform.getStoreView().writeTransformMatrix(writtenMatrix, 0);
+					Assertions.assertArrayEquals(plainEntities[i].transform.getTransformMatrix().data, writtenMatrix.array(), 1e-4f);
+					assertMatrixEquals(plainEntities[i].transform.getTransformMatrix(), storeEntities[i].transform.getTransformMatrix());
+					for (int axis = 0; axis < Vec3f.DATA_LEN; axis++) {
+						Assertions.assertEquals(plainEntities[i].transform.getPosition().data[axis], storeEntities[i].transform.getPosition().data[axis], 1e-4f);
+					}
+				}
+			}
+
+			// setters write through to the store slot
+			Transform movedTransform = storeEntities[0].transform;
+			movedTransform.setPosition(new Vec3f(1f, 2f, 3f));
+			Assertions.assertEquals(2f, movedTransform.getStoreView().getPositionY());
+			Assertions.assertEquals(3f, movedTransform.getTransformMatrix().data[11]);
+
+			for (Entity entity : storeEntities) {
+				registry.eraseEntity(entity);
+				Assertions.assertNull(entity.transform.getStoreView());
+			}
+			// erased transforms keep their last state
+			Assertions.assertEquals(3f, movedTransform.getPosition().data[2]);
+			movedTransform.checkRecompute();
+			Assertions.assertEquals(3f, movedTransform.getTransformMatrix().data[11], 1e-5f);
+			Assertions.assertEquals(storeSize, store.size());
+		} finally {
+			registry.reset();
+		}
+	}
+}
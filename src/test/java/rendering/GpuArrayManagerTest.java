@@ -0,0 +1,137 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GpuArrayManagerTest {
+	private static final int elementBytes = 2 * Float.BYTES;
+	private static final int headerBytes = 16;
+
+	/**
+	 * Keeps the uploaded bytes like the GPU buffer would and records every call
+	 */
+	private static class RecordingBackend implements IGpuArrayBackend {
+		private final ArrayList<long[]> uploads = new ArrayList<>();
+		private byte[] memory = new byte[0];
+		private int allocations = 0;
+		private int elementCount = -1;
+
+		@Override
+		public void allocate(long bytes) {
+			memory = new byte[(int) bytes];
+			allocations++;
+		}
+
+		@Override
+		public void upload(long offset, ByteBuffer data) {
+			uploads.add(new long[]{offset, data.remaining()});
+			data.get(data.position(), memory, (int) offset, data.remaining());
+		}
+
+		@Override
+		public void setElementCount(int count) {
+			elementCount = count;
+		}
+
+		private ByteBuffer view() {
+			return ByteBuffer.wrap(memory).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	private static GpuArrayManager<float[]> createManager(RecordingBackend backend, int initialCapacity) {
+		return new GpuArrayManager<>(backend, elementBytes, headerBytes, initialCapacity, (element, target) -> target.put(element));
+	}
+
+	private static void assertContent(RecordingBackend backend, GpuArrayManager<float[]> manager) {
+		ByteBuffer view = backend.view();
+		Assertions.assertEquals(manager.size(), view.getInt(0));
+		Assertions.assertEquals(manager.size(), backend.elementCount);
+		for (int slot = 0; slot < manager.size(); slot++) {
+			int offset = headerBytes + slot * elementBytes;
+			float[] actual = new float[]{view.getFloat(offset), view.getFloat(offset + Float.BYTES)};
+			Assertions.assertArrayEquals(manager.get(slot), actual, "slot " + slot);
+		}
+	}
+
+	@Test
+	public void testCoalescedUploads() {
+		RecordingBackend backend = new RecordingBackend();
+		GpuArrayManager<float[]> manager = createManager(backend, 16);
+		float[][] elements = new float[10][];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new float[]{i, -i};
+			manager.add(elements[i]);
+		}
+		manager.flush();
+		Assertions.assertEquals(1, backend.allocations);
+		Assertions.assertEquals(1, backend.uploads.size());
+		Assertions.assertArrayEquals(new long[]{0, headerBytes + 10 * elementBytes}, backend.uploads.get(0));
+		assertContent(backend, manager);
+
+		// slots 2-4 and 7 turn into two ranges
+		backend.uploads.clear();
+		for (int slot : new int[]{3, 7, 2, 4}) {
+			elements[slot][0] += 100f;
+			manager.markDirty(slot);
+		}
+		manager.flush();
+		Assertions.assertEquals(2, manager.getLastUploadCount());
+		Assertions.assertArrayEquals(new long[]{headerBytes + 2 * elementBytes, 3 * elementBytes}, backend.uploads.get(0));
+		Assertions.assertArrayEquals(new long[]{headerBytes + 7 * elementBytes, elementBytes}, backend.uploads.get(1));
+		assertContent(backend, manager);
+
+		// nothing changed, nothing uploaded
+		manager.flush();
+		Assertions.assertEquals(0, manager.getLastUploadCount());
+
+		// removing slot 0 moves the last element there, header and slot share one upload
+		backend.uploads.clear();
+		Assertions.assertSame(elements[9], manager.remove(0));
+		Assertions.assertNull(manager.remove(8));
+		manager.flush();
+		Assertions.assertEquals(1, backend.uploads.size());
+		Assertions.assertArrayEquals(new long[]{0, headerBytes + elementBytes}, backend.uploads.get(0));
+		Assertions.assertEquals(8, manager.size());
+		assertContent(backend, manager);
+
+		// only the count changed
+		backend.uploads.clear();
+		manager.remove(7);
+		manager.flush();
+		Assertions.assertArrayEquals(new long[]{0, headerBytes}, backend.uploads.get(0));
+		assertContent(backend, manager);
+	}
+
+	@Test
+	public void testGeometricGrowth() {
+		RecordingBackend backend = new RecordingBackend();
+		GpuArrayManager<float[]> manager = createManager(backend, 4);
+		ArrayList<Integer> capacities = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			manager.add(new float[]{i, i});
+			if (capacities.isEmpty() || capacities.get(capacities.size() - 1) != manager.getCapacity()) {
+				capacities.add(manager.getCapacity());
+			}
+		}
+		Assertions.assertEquals(Arrays.asList(4, 6, 9, 13, 19, 28, 42, 63, 94, 141), capacities);
+
+		// reallocation happens once per flush, with all elements in a single upload
+		manager.flush();
+		Assertions.assertEquals(1, backend.allocations);
+		Assertions.assertEquals(headerBytes + 141 * elementBytes, backend.memory.length);
+		Assertions.assertEquals(1, backend.uploads.size());
+		assertContent(backend, manager);
+	}
+
+	@Test
+	public void testWriterSizeIsChecked() {
+		GpuArrayManager<float[]> manager = createManager(new RecordingBackend(), 4);
+		manager.add(new float[]{1f});
+		Assertions.assertThrows(IllegalStateException.class, manager::flush);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GpuArrayManager<float[]>(new RecordingBackend(), 6, 0, 4, null));
+	}
+}
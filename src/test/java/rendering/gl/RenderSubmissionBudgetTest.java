@@ -0,0 +1,86 @@
+package rendering.gl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL45;
+import rendering.GeometryBuffer;
+import rendering.GpuArrayManager;
+import utils.vector.Vec3f;
+
+public class RenderSubmissionBudgetTest {
+	private static final int particleCount = 1000;
+	private static final int particleFloats = 12;
+	private static final int particleBytes = particleFloats * Float.BYTES;
+
+	private IGLBackend previousBackend;
+	private RecordingBackend recording;
+
+	@BeforeEach
+	public void installRecordingBackend() {
+		previousBackend = GLFacade.getBackend();
+		recording = new RecordingBackend();
+		GLFacade.setBackend(recording);
+	}
+
+	@AfterEach
+	public void restoreBackend() {
+		GLFacade.setBackend(previousBackend);
+	}
+
+	@Test
+	public void testParticleSubmissionBudget() {
+		GeometryBuffer particleBuffer = new GeometryBuffer(GL45.GL_POINTS, 0, new int[]{4, 4, 4}, false, 0);
+		GpuArrayManager<float[]> particles = new GpuArrayManager<>(particleBuffer, particleBytes, 0, 64, (particle, target) -> target.put(particle));
+		for (int i = 0; i < particleCount; i++) {
+			particles.add(new float[particleFloats]);
+		}
+		GLFacade.endFrame();
+
+		// first frame uploads everything at once
+		particles.flush();
+		particleBuffer.draw();
+		GLFacade.endFrame();
+		RecordingBackend.FrameStats initialFrame = recording.getLastFrame();
+		Assertions.assertEquals(1, initialFrame.drawCalls());
+		Assertions.assertEquals(1, initialFrame.uploads());
+		Assertions.assertEquals((long) particleCount * particleBytes, initialFrame.uploadedBytes());
+
+		// ten scattered runs of five particles
+		for (int run = 0; run < 10; run++) {
+			for (int i = 0; i < 5; i++) {
+				particles.markDirty(run * 97 + i);
+			}
+		}
+		particles.flush();
+		particleBuffer.draw();
+		GLFacade.endFrame();
+		RecordingBackend.FrameStats updateFrame = recording.getLastFrame();
+		Assertions.assertEquals(10, updateFrame.uploads());
+		Assertions.assertEquals(50L * particleBytes, updateFrame.uploadedBytes());
+		Assertions.assertTrue(updateFrame.stateChanges() <= updateFrame.uploads() + 1, "state changes: " + updateFrame.stateChanges());
+		Assertions.assertTrue(updateFrame.calls() <= 2 * updateFrame.uploads() + 2, "calls: " + updateFrame.calls());
+
+		// idle frame only draws
+		particles.flush();
+		particleBuffer.draw();
+		GLFacade.endFrame();
+		Assertions.assertEquals(new RecordingBackend.FrameStats(2, 1, 1, 0, 0, 0), recording.getLastFrame());
+		Assertions.assertEquals(4, recording.getFrameCount());
+	}
+
+	@Test
+	public void testUniformsAreRecorded() {
+		FloatBuffer buffer = ByteBuffer.allocateDirect(Vec3f.DATA_LEN * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		Vec3f vector = new Vec3f(1f, 2f, 3f);
+		vector.writeToBuffer(buffer);
+		buffer.rewind();
+		vector.getBindBufferFunction().accept(3, buffer);
+		Assertions.assertEquals(1, recording.getCurrentFrame().uniformUpdates());
+		Assertions.assertEquals(1, recording.getCurrentFrame().calls());
+	}
+}
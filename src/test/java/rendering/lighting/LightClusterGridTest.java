@@ -0,0 +1,137 @@
+package rendering.lighting;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.Mat4f;
+import utils.matrix.MatrixMath;
+import utils.vector.Vec3f;
+
+public class LightClusterGridTest {
+	private static final int tilesX = 16;
+	private static final int tilesY = 9;
+	private static final int slices = 24;
+	private static final float zNear = 0.1f;
+	private static final float zFar = 500f;
+
+	private final Mat4f worldToView = MatrixMath.lookAt(new Vec3f(0f, 0f, 0f), new Vec3f(0f, 0f, 1f), new Vec3f(0f, 1f, 0f));
+	private final Mat4f projection = MatrixMath.perspective(90f, 16f / 9f, zNear, zFar);
+
+	/**
+	 * @return cluster of a world position the way the shader looks it up, -1 outside of the frustum
+	 */
+	private int findCluster(LightClusterGrid grid, float x, float y, float z) {
+		float[] m = worldToView.data;
+		float viewX = m[0] * x + m[1] * y + m[2] * z + m[3];
+		float viewY = m[4] * x + m[5] * y + m[6] * z + m[7];
+		float depth = -(m[8] * x + m[9] * y + m[10] * z + m[11]);
+		float ndcX = projection.data[0] * viewX / depth;
+		float ndcY = projection.data[5] * viewY / depth;
+		if (depth < zNear || depth > zFar || Math.abs(ndcX) > 1f || Math.abs(ndcY) > 1f) {
+			return -1;
+		}
+		int tileX = Math.min(tilesX - 1, (int) ((ndcX + 1f) * 0.5f * tilesX));
+		int tileY = Math.min(tilesY - 1, (int) ((ndcY + 1f) * 0.5f * tilesY));
+		return grid.getClusterIndex(tileX, tileY, grid.getSlice(depth));
+	}
+
+	private static boolean containsLight(LightClusterGrid grid, int cluster, int light) {
+		for (int i = 0; i < grid.getClusterLightCount(cluster); i++) {
+			if (grid.getClusterLight(cluster, i) == light) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testLightsReachEveryClusterTheyTouch() {
+		Random random = new Random(5);
+		int lightCount = 5000;
+		float[] positions = new float[lightCount * 3];
+		float[] ranges = new float[lightCount];
+		for (int light = 0; light < lightCount; light++) {
+			positions[light * 3] = random.nextFloat() * 400f - 200f;
+			positions[light * 3 + 1] = random.nextFloat() * 200f - 100f;
+			positions[light * 3 + 2] = random.nextFloat() * 450f - 50f;
+			ranges[light] = light % 100 == 0 ? 0f : 0.5f + random.nextFloat() * 20f;
+		}
+		LightClusterGrid grid = new LightClusterGrid(tilesX, tilesY, slices).setCamera(worldToView, projection);
+		grid.build(positions, ranges, lightCount);
+
+		Assertions.assertEquals(lightCount / 100, grid.getGlobalLightCount());
+		for (int i = 0; i < grid.getGlobalLightCount(); i++) {
+			Assertions.assertEquals(i * 100, grid.getGlobalLight(i));
+		}
+		for (int cluster = 0; cluster < grid.getClusterCount(); cluster++) {
+			for (int i = 1; i < grid.getClusterLightCount(cluster); i++) {
+				Assertions.assertTrue(grid.getClusterLight(cluster, i - 1) < grid.getClusterLight(cluster, i), "cluster lists are ordered");
+			}
+		}
+
+		// points sampled inside every light sphere have to find the light in their cluster
+		for (int light = 0; light < lightCount; light++) {
+			if (ranges[light] == 0f) {
+				continue;
+			}
+			for (int sample = 0; sample < 20; sample++) {
+				float x;
+				float y;
+				float z;
+				do {
+					x = random.nextFloat() * 2f - 1f;
+					y = random.nextFloat() * 2f - 1f;
+					z = random.nextFloat() * 2f - 1f;
+				} while (x * x + y * y + z * z > 1f);
+				int cluster = findCluster(grid, positions[light * 3] + x * ranges[light], positions[light * 3 + 1] + y * ranges[light], positions[light * 3 + 2] + z * ranges[light]);
+				if (cluster >= 0) {
+					Assertions.assertTrue(containsLight(grid, cluster, light), "light " + light + " missing in cluster " + cluster);
+				}
+			}
+		}
+
+		// culling keeps the lists far below all lights per cluster
+		Assertions.assertTrue(grid.getIndexCount() < lightCount * 8, "index count: " + grid.getIndexCount());
+	}
+
+	@Test
+	public void testCullingAndFallback() {
+		float[] positions = new float[]{
+				0f, 0f, 10f,
+				0f, 0f, -10f,
+				0f, 0f, 1000f,
+				0f, 0f, 0f
+		};
+		float[] ranges = new float[]{1f, 1f, 1f, 0f};
+		LightClusterGrid grid = new LightClusterGrid(tilesX, tilesY, slices).setCamera(worldToView, projection);
+		grid.build(positions, ranges, 4);
+		Assertions.assertEquals(1, grid.getGlobalLightCount());
+		Assertions.assertEquals(3, grid.getGlobalLight(0));
+		int cluster = findCluster(grid, 0f, 0f, 10f);
+		Assertions.assertEquals(1, grid.getClusterLightCount(cluster));
+		Assertions.assertEquals(0, grid.getClusterLight(cluster, 0));
+		int binnedEntries = grid.getIndexCount();
+		for (int c = 0; c < grid.getClusterCount(); c++) {
+			Assertions.assertFalse(containsLight(grid, c, 1), "light behind the camera");
+			Assertions.assertFalse(containsLight(grid, c, 2), "light beyond the far plane");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(grid.getByteSize()).order(ByteOrder.LITTLE_ENDIAN);
+		grid.writeTo(buffer, 1600, 900);
+		Assertions.assertFalse(buffer.hasRemaining());
+		int listBase = 2 * grid.getClusterCount() + 1;
+		int data = LightClusterGrid.headerBytes / Integer.BYTES;
+		Assertions.assertEquals(1, buffer.getInt(3 * Integer.BYTES));
+		Assertions.assertEquals(3, buffer.getInt((data + listBase - 1) * Integer.BYTES));
+		int clusterListStart = buffer.getInt((data + 2 * cluster) * Integer.BYTES);
+		Assertions.assertEquals(0, buffer.getInt((data + clusterListStart) * Integer.BYTES));
+		Assertions.assertEquals(listBase + binnedEntries, buffer.capacity() / Integer.BYTES - data);
+
+		// without a perspective camera every light is global
+		grid.clearCamera().build(positions, ranges, 4);
+		Assertions.assertEquals(4, grid.getGlobalLightCount());
+		Assertions.assertEquals(0, grid.getIndexCount());
+	}
+}
@@ -0,0 +1,85 @@
+package rendering.mesh;
+
+import ecs.components.Mesh;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import rendering.texture.ITexture;
+import utils.matrix.Mat4f;
+
+public class MeshInstanceBatcherTest {
+	private static final ITexture texture = new ITexture() {
+		@Override
+		public int getTextureID() {
+			return 1;
+		}
+
+		@Override
+		public void bindTexture(int slot) {
+		}
+
+		@Override
+		public void deleteTexture() {
+		}
+	};
+
+	private static Mat4f translation(float x) {
+		Mat4f matrix = new Mat4f();
+		matrix.data[3] = x;
+		return matrix;
+	}
+
+	@Test
+	public void testInstancesAreGroupedByGeometryAndTextures() {
+		MeshData sphere = new MeshData();
+		MeshData cube = new MeshData();
+		// every entity owns its mesh component, batches are formed by what the components reference
+		Mesh[] meshes = new Mesh[]{
+				new Mesh(sphere, texture, null, null, null),
+				new Mesh(cube, texture, null, null, null),
+				new Mesh(sphere, texture, null, null, null),
+				new Mesh(sphere, null, null, null, null),
+				new Mesh(cube, texture, null, null, null),
+				new Mesh(sphere, texture, null, null, null)
+		};
+		Mat4f[] matrices = new Mat4f[meshes.length];
+		for (int i = 0; i < meshes.length; i++) {
+			matrices[i] = translation(i);
+		}
+
+		MeshInstanceBatcher batcher = new MeshInstanceBatcher();
+		batcher.begin();
+		for (int i = 0; i < meshes.length; i++) {
+			batcher.add(meshes[i], matrices[i]);
+		}
+		batcher.finish();
+
+		Assertions.assertEquals(3, batcher.getBatchCount());
+		Assertions.assertSame(meshes[0], batcher.getBatchMesh(0));
+		Assertions.assertSame(meshes[1], batcher.getBatchMesh(1));
+		Assertions.assertSame(meshes[3], batcher.getBatchMesh(2));
+		Assertions.assertArrayEquals(new int[]{0, 3, 5}, new int[]{batcher.getBatchOffset(0), batcher.getBatchOffset(1), batcher.getBatchOffset(2)});
+		Assertions.assertArrayEquals(new int[]{3, 2, 1}, new int[]{batcher.getBatchSize(0), batcher.getBatchSize(1), batcher.getBatchSize(2)});
+
+		ByteBuffer instanceData = batcher.getInstanceData();
+		Assertions.assertEquals(meshes.length * MeshInstanceBatcher.matrixBytes, instanceData.remaining());
+		float[] translations = new float[meshes.length];
+		for (int instance = 0; instance < meshes.length; instance++) {
+			translations[instance] = instanceData.getFloat(instance * MeshInstanceBatcher.matrixBytes + 3 * Float.BYTES);
+		}
+		Assertions.assertArrayEquals(new float[]{0f, 2f, 5f, 1f, 4f, 3f}, translations);
+
+		// a batch that is gone is dropped, the others keep their order of appearance
+		meshes[3].setTextureData(texture);
+		batcher.begin();
+		for (int i = meshes.length - 1; i >= 0; i--) {
+			batcher.add(meshes[i], matrices[i]);
+		}
+		batcher.finish();
+		Assertions.assertEquals(2, batcher.getBatchCount());
+		Assertions.assertSame(meshes[5], batcher.getBatchMesh(0));
+		Assertions.assertEquals(4, batcher.getBatchSize(0));
+		Assertions.assertEquals(2, batcher.getBatchSize(1));
+		Assertions.assertEquals(3f, batcher.getInstanceData().getFloat(MeshInstanceBatcher.matrixBytes + 3 * Float.BYTES));
+	}
+}
@@ -0,0 +1,125 @@
+package rendering.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL45;
+import rendering.GpuArrayManager;
+import rendering.IGpuArrayBackend;
+import rendering.gl.GLFacade;
+
+public class StreamingRingBufferTest {
+	private static final int frameCapacity = 1024;
+	private static final int alignment = 256;
+
+	@Test
+	public void testAllocationAndWrapAround() {
+		HeapStreamingStorage storage = new HeapStreamingStorage();
+		StreamingRingBuffer ring = new StreamingRingBuffer(storage, frameCapacity, 3, alignment);
+		Assertions.assertEquals(3 * frameCapacity, ring.getCapacity());
+
+		ByteBuffer first = ring.allocate(100);
+		Assertions.assertEquals(0, ring.getLastOffset());
+		first.putInt(0, 42);
+		Assertions.assertEquals(42, storage.getMemory().order(ByteOrder.LITTLE_ENDIAN).getInt(0));
+		ring.allocate(10);
+		Assertions.assertEquals(256, ring.getLastOffset());
+		Assertions.assertEquals(266, ring.getUsedBytes());
+		ring.endFrame();
+
+		// fences of the first frames are not signaled, the ring fills up without waiting
+		ring.allocate(1000);
+		Assertions.assertEquals(512, ring.getLastOffset());
+		ring.endFrame();
+		ring.allocate(1500);
+		Assertions.assertEquals(1536, ring.getLastOffset());
+		Assertions.assertEquals(0, ring.getStallCount());
+
+		// does not fit behind the last allocation, wraps to the start once the first frame was released
+		storage.signal(1);
+		ring.allocate(200);
+		Assertions.assertEquals(0, ring.getLastOffset());
+		Assertions.assertEquals(0, ring.getStallCount());
+		Assertions.assertEquals(1, storage.getLiveFences());
+		// the 36 bytes skipped at the end count towards the current frame
+		Assertions.assertEquals(3036 - 266 + 36 + 200, ring.getUsedBytes());
+
+		// the second frame is still in use, the next allocation has to wait for it
+		ring.allocate(600);
+		Assertions.assertEquals(256, ring.getLastOffset());
+		Assertions.assertEquals(1, ring.getStallCount());
+		Assertions.assertEquals(1, storage.getWaitCount());
+		Assertions.assertEquals(0, storage.getLiveFences());
+
+		Assertions.assertThrows(IllegalStateException.class, () -> ring.allocate(3 * frameCapacity + 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new StreamingRingBuffer(storage, frameCapacity, 3, 100));
+	}
+
+	@Test
+	public void testFramesInFlightAreLimited() {
+		HeapStreamingStorage storage = new HeapStreamingStorage();
+		StreamingRingBuffer ring = new StreamingRingBuffer(storage, frameCapacity, 3, alignment);
+		for (int frame = 0; frame < 2; frame++) {
+			ring.allocate(frameCapacity);
+			ring.endFrame();
+		}
+		Assertions.assertEquals(0, ring.getStallCount());
+
+		// the CPU may not start a fourth frame before the first one is done
+		ring.allocate(frameCapacity);
+		ring.endFrame();
+		Assertions.assertEquals(1, ring.getStallCount());
+		Assertions.assertEquals(2, storage.getLiveFences());
+
+		// a GPU keeping up never stalls
+		for (int frame = 0; frame < 10; frame++) {
+			storage.signalAll();
+			ring.allocate(frameCapacity / 2);
+			ring.allocate(frameCapacity / 2);
+			ring.endFrame();
+		}
+		Assertions.assertEquals(1, ring.getStallCount());
+		Assertions.assertEquals(1, storage.getLiveFences());
+		Assertions.assertEquals(13, ring.getFrameIndex());
+
+		ring.delete();
+		Assertions.assertEquals(0, storage.getLiveFences());
+	}
+
+	@Test
+	public void testArrayStreamedOncePerFrame() {
+		HeapStreamingStorage storage = new HeapStreamingStorage();
+		ArrayStreamer streamer = new ArrayStreamer(GL45.GL_SHADER_STORAGE_BUFFER, () -> storage);
+		GpuArrayManager<float[]> array = new GpuArrayManager<>(new IGpuArrayBackend() {
+			@Override
+			public void allocate(long bytes) {
+			}
+
+			@Override
+			public void upload(long offset, ByteBuffer data) {
+			}
+		}, 2 * Float.BYTES, 16, 4, (element, target) -> target.put(element));
+		array.add(new float[]{1f, 2f});
+		array.add(new float[]{3f, 4f});
+
+		streamer.bind(array, 5);
+		Assertions.assertEquals(new HeapStreamingStorage.Binding(GL45.GL_SHADER_STORAGE_BUFFER, 5, 0, 32), storage.getLastBinding());
+		ByteBuffer memory = storage.getMemory().order(ByteOrder.LITTLE_ENDIAN);
+		Assertions.assertEquals(2, memory.getInt(0));
+		Assertions.assertEquals(4f, memory.getFloat(28));
+
+		// binding again in the same frame reuses the written range
+		array.get(1)[1] = 5f;
+		streamer.bind(array, 6);
+		Assertions.assertEquals(0, storage.getLastBinding().offset());
+		Assertions.assertEquals(4f, memory.getFloat(28));
+
+		GLFacade.endFrame();
+		streamer.bind(array, 5);
+		Assertions.assertEquals(256, storage.getLastBinding().offset());
+		Assertions.assertEquals(5f, memory.getFloat(256 + 28));
+		Assertions.assertEquals(1, streamer.getRing().getFrameIndex());
+		streamer.delete();
+	}
+}
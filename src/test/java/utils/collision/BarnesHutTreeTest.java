@@ -0,0 +1,69 @@
+package utils.collision;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BarnesHutTreeTest {
+	private static final double gravConstant = 6.6743e-5;
+
+	private static double relativeError(double[] expected, double[] actual, int body) {
+		double dx = expected[body * 3] - actual[body * 3];
+		double dy = expected[body * 3 + 1] - actual[body * 3 + 1];
+		double dz = expected[body * 3 + 2] - actual[body * 3 + 2];
+		double expectedLength = Math.sqrt(expected[body * 3] * expected[body * 3]
+				+ expected[body * 3 + 1] * expected[body * 3 + 1]
+				+ expected[body * 3 + 2] * expected[body * 3 + 2]);
+		return Math.sqrt(dx * dx + dy * dy + dz * dz) / expectedLength;
+	}
+
+	@Test
+	public void testMatchesExactSolution() {
+		int bodyCount = 2000;
+		Random random = new Random(7);
+		double[] positions = new double[bodyCount * 3];
+		double[] masses = new double[bodyCount];
+		for (int i = 0; i < bodyCount; i++) {
+			positions[i * 3] = random.nextGaussian() * 100;
+			positions[i * 3 + 1] = random.nextGaussian() * 100;
+			positions[i * 3 + 2] = random.nextGaussian() * 10;
+			masses[i] = 1 + random.nextDouble() * 1000;
+		}
+		double[] exact = new double[bodyCount * 3];
+		BarnesHutTree.computeExactAccelerations(positions, masses, bodyCount, gravConstant, 0, exact);
+
+		BarnesHutTree tree = new BarnesHutTree();
+		tree.build(positions, masses, bodyCount);
+		double[] approximated = new double[bodyCount * 3];
+
+		tree.computeAccelerations(gravConstant, 0, 0, approximated);
+		for (int i = 0; i < bodyCount; i++) {
+			Assertions.assertEquals(0, relativeError(exact, approximated, i), 1e-9, "opening angle 0 must be exact");
+		}
+
+		tree.computeAccelerations(gravConstant, 0.5, 0, approximated);
+		double errorSum = 0;
+		for (int i = 0; i < bodyCount; i++) {
+			errorSum += relativeError(exact, approximated, i);
+		}
+		Assertions.assertTrue(errorSum / bodyCount < 0.01, "mean relative error with opening angle 0.5: " + (errorSum / bodyCount));
+
+		double[] repeated = new double[bodyCount * 3];
+		tree.build(positions, masses, bodyCount);
+		tree.computeAccelerations(gravConstant, 0.5, 0, repeated);
+		Assertions.assertArrayEquals(approximated, repeated, "results must be deterministic");
+	}
+
+	@Test
+	public void testCoincidentBodies() {
+		double[] positions = {1, 1, 1, 1, 1, 1, 1, 1, 1, 5, 1, 1};
+		double[] masses = {10, 10, 10, 10};
+		BarnesHutTree tree = new BarnesHutTree();
+		tree.build(positions, masses, 4);
+		double[] accelerations = new double[4 * 3];
+		tree.computeAccelerations(gravConstant, 0.5, 0, accelerations);
+		// coincident bodies exert no force on each other, only the body at x=5 pulls them
+		Assertions.assertEquals(gravConstant * 10 / 16, accelerations[0], 1e-12);
+		Assertions.assertEquals(-gravConstant * 30 / 16, accelerations[9], 1e-12);
+	}
+}
@@ -0,0 +1,124 @@
+package utils.collision;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.operator.Operator;
+import utils.vector.Vec3f;
+
+public class DynamicAABBTreeTest {
+
+	private static AxisAlignedBoundingBox randomBox(Random random) {
+		Vec3f min = new Vec3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+		Vec3f max = min.copy().apply(Operator.Add, 0.5f + random.nextFloat() * 3);
+		return new AxisAlignedBoundingBox(min, max);
+	}
+
+	@Test
+	public void testPairsContainAllOverlaps() {
+		int boxCount = 1000;
+		Random random = new Random(3);
+		DynamicAABBTree<Integer> tree = new DynamicAABBTree<>(0.25f);
+		AxisAlignedBoundingBox[] boxes = new AxisAlignedBoundingBox[boxCount];
+		int[] proxies = new int[boxCount];
+		for (int i = 0; i < boxCount; i++) {
+			boxes[i] = randomBox(random);
+			proxies[i] = tree.createProxy(boxes[i], i);
+		}
+		tree.validate();
+
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < boxCount; i++) {
+				if (proxies[i] >= 0 && random.nextInt(10) == 0) {
+					tree.destroyProxy(proxies[i]);
+					proxies[i] = -1;
+				} else if (proxies[i] < 0) {
+					boxes[i] = randomBox(random);
+					proxies[i] = tree.createProxy(boxes[i], i);
+				} else {
+					float offset = random.nextFloat() - 0.5f;
+					boxes[i].min().apply(Operator.Add, offset);
+					boxes[i].max().apply(Operator.Add, offset);
+					tree.moveProxy(proxies[i], boxes[i]);
+				}
+			}
+			tree.validate();
+
+			HashSet<Long> candidates = new HashSet<>();
+			int pairCount = tree.computeOverlappingPairs();
+			int[] pairBuffer = tree.getPairBuffer();
+			for (int pair = 0; pair < pairCount; pair++) {
+				int a = tree.getUserData(pairBuffer[pair * 2]);
+				int b = tree.getUserData(pairBuffer[pair * 2 + 1]);
+				// kept pairs must not outlive their proxies
+				Assertions.assertEquals(proxies[a], pairBuffer[pair * 2]);
+				Assertions.assertEquals(proxies[b], pairBuffer[pair * 2 + 1]);
+				Assertions.assertTrue(candidates.add(((long) Math.min(a, b) << 32) | Math.max(a, b)), "duplicate pair");
+			}
+			for (int a = 0; a < boxCount; a++) {
+				for (int b = a + 1; b < boxCount; b++) {
+					if (proxies[a] >= 0 && proxies[b] >= 0 && boxes[a].isIntersecting(boxes[b])) {
+						Assertions.assertTrue(candidates.contains(((long) a << 32) | b), "missing pair " + a + ", " + b);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSmallMovesStayInFatBounds() {
+		DynamicAABBTree<String> tree = new DynamicAABBTree<>(0.5f);
+		AxisAlignedBoundingBox box = new AxisAlignedBoundingBox(new Vec3f(0f), new Vec3f(1f));
+		int proxy = tree.createProxy(box, "box");
+		tree.createProxy(new AxisAlignedBoundingBox(new Vec3f(5f), new Vec3f(6f)), "other");
+
+		box.min().apply(Operator.Add, 0.4f);
+		box.max().apply(Operator.Add, 0.4f);
+		Assertions.assertFalse(tree.moveProxy(proxy, box));
+
+		box.min().apply(Operator.Add, 0.4f);
+		box.max().apply(Operator.Add, 0.4f);
+		Assertions.assertTrue(tree.moveProxy(proxy, box));
+		Assertions.assertEquals(3, tree.getNodeCount());
+		tree.validate();
+	}
+
+	@Test
+	public void testPairsPersistUntilMoved() {
+		DynamicAABBTree<String> tree = new DynamicAABBTree<>(0.5f);
+		AxisAlignedBoundingBox boxA = new AxisAlignedBoundingBox(new Vec3f(0f), new Vec3f(1f));
+		AxisAlignedBoundingBox boxB = new AxisAlignedBoundingBox(new Vec3f(0.5f), new Vec3f(1.5f));
+		int proxyA = tree.createProxy(boxA, "a");
+		int proxyB = tree.createProxy(boxB, "b");
+		tree.createProxy(new AxisAlignedBoundingBox(new Vec3f(10f), new Vec3f(11f)), "far");
+		Assertions.assertEquals(1, tree.computeOverlappingPairs());
+
+		// nothing moved, the pair is kept without querying
+		Assertions.assertEquals(1, tree.computeOverlappingPairs());
+		Assertions.assertArrayEquals(new int[]{Math.min(proxyA, proxyB), Math.max(proxyA, proxyB)}, Arrays.copyOf(tree.getPairBuffer(), 2));
+
+		boxB.min().apply(Operator.Add, 5f);
+		boxB.max().apply(Operator.Add, 5f);
+		Assertions.assertTrue(tree.moveProxy(proxyB, boxB));
+		Assertions.assertEquals(0, tree.computeOverlappingPairs());
+
+		// both moved into each other, reported once
+		boxB.min().apply(Operator.Add, -5f);
+		boxB.max().apply(Operator.Add, -5f);
+		Assertions.assertTrue(tree.moveProxy(proxyB, boxB));
+		boxA.min().apply(Operator.Add, 2f);
+		boxA.max().apply(Operator.Add, 2f);
+		Assertions.assertTrue(tree.moveProxy(proxyA, boxA));
+		Assertions.assertEquals(1, tree.computeOverlappingPairs());
+
+		tree.destroyProxy(proxyA);
+		// the destroyed id is recycled, the new proxy only pairs with what it touches
+		tree.createProxy(new AxisAlignedBoundingBox(new Vec3f(10.5f), new Vec3f(11.5f)), "c");
+		Assertions.assertEquals(1, tree.computeOverlappingPairs());
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("far", "c")),
+				new HashSet<>(Arrays.asList(tree.getUserData(tree.getPairBuffer()[0]), tree.getUserData(tree.getPairBuffer()[1]))));
+		tree.validate();
+	}
+}
@@ -3,12 +3,16 @@ package utils.collision;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.Random;
 import java.util.function.BiConsumer;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import static org.hamcrest.MatcherAssert.assertThat;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import utils.matrix.MatrixArithmeticOOP;
+import utils.matrix.MatrixMath;
+import utils.operator.Operator;
 import utils.vector.Vec3f;
 
 public class OcTreeTest {
@@ -174,4 +178,278 @@ public class OcTreeTest {
 		assertThat("Remove element", processor, new ProcessorStateMatcher(18, 18, expectedElements));
 	}
 
+	private static ArrayList<Integer> query(ISpatialTree<OcTreeData> tree, AxisAlignedBoundingBox box) {
+		QueryProcessor processor = new QueryProcessor(box);
+		tree.traverse(processor);
+		processor.found.sort(Integer::compareTo);
+		return processor.found;
+	}
+
+	@Test
+	public void testLinearOcTreeMatchesOcTree() {
+		Random random = new Random(11);
+		OcTree<OcTreeData> ocTree = new OcTree<>(16f);
+		LinearOcTree<OcTreeData> linearOcTree = new LinearOcTree<>(16f);
+		ArrayList<OcTreeData> data = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100, random.nextFloat() * 50);
+			AxisAlignedBoundingBox box = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 4));
+			OcTreeData element = new OcTreeData(box, i);
+			data.add(element);
+			for (ISpatialTree<OcTreeData> tree : Arrays.asList(ocTree, linearOcTree)) {
+				tree.insert(box, element);
+			}
+		}
+		for (int i = 0; i < data.size(); i += 3) {
+			OcTreeData element = data.get(i);
+			Assertions.assertTrue(ocTree.remove(element.box, element));
+			Assertions.assertTrue(linearOcTree.remove(element.box, element));
+			Assertions.assertFalse(linearOcTree.remove(element.box, element));
+		}
+
+		AllProcessor processor = new AllProcessor();
+		linearOcTree.traverse(processor);
+		Assertions.assertEquals(data.size() - (data.size() + 2) / 3, processor.processed);
+		for (int i = 0; i < 50; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100, random.nextFloat() * 50);
+			AxisAlignedBoundingBox queryBox = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 40));
+			Assertions.assertEquals(query(ocTree, queryBox), query(linearOcTree, queryBox), "query " + queryBox);
+		}
+
+		// bulk build of the remaining elements finds the same
+		ArrayList<OcTreeData> remaining = new ArrayList<>();
+		ocTree.traverse(new ITreeProcessor<>() {
+			@Override
+			public boolean descend(AxisAlignedBoundingBox nodeBox) {
+				return true;
+			}
+
+			@Override
+			public void process(OcTreeData hit) {
+				remaining.add(hit);
+			}
+		});
+		LinearOcTree<OcTreeData> bulkTree = new LinearOcTree<>(1f);
+		bulkTree.build(remaining.stream().map(OcTreeData::box).toArray(AxisAlignedBoundingBox[]::new),
+				remaining.toArray(new OcTreeData[0]), remaining.size());
+		AxisAlignedBoundingBox queryBox = new AxisAlignedBoundingBox(new Vec3f(-20f, -20f, 0f), new Vec3f(20f, 20f, 10f));
+		Assertions.assertEquals(query(ocTree, queryBox), query(bulkTree, queryBox));
+	}
+
+	@Test
+	public void testTrackedUpdates() {
+		Random random = new Random(5);
+		OcTree<OcTreeData> tree = new OcTree<>(16f);
+		ArrayList<OcTreeData> data = new ArrayList<>();
+		int[] handles = new int[500];
+		for (int i = 0; i < handles.length; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 30 - 15, random.nextFloat() * 30 - 15, random.nextFloat() * 30 - 15);
+			OcTreeData element = new OcTreeData(new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat())), i);
+			data.add(element);
+			handles[i] = tree.insertTracked(element.box, element);
+		}
+
+		int relocated = 0;
+		for (int step = 0; step < 20; step++) {
+			for (int i = 0; i < handles.length; i++) {
+				Vec3f offset = new Vec3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+				data.get(i).box.min().apply(Operator.Add, offset);
+				data.get(i).box.max().apply(Operator.Add, offset);
+				if (tree.update(handles[i], data.get(i).box)) {
+					relocated++;
+				}
+			}
+		}
+		Assertions.assertTrue(relocated > 0 && relocated < handles.length * 20, "relocated " + relocated);
+
+		OcTree<OcTreeData> rebuiltTree = new OcTree<>(16f);
+		for (OcTreeData element : data) {
+			rebuiltTree.insert(element.box, element);
+		}
+		for (int i = 0; i < 20; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20);
+			AxisAlignedBoundingBox queryBox = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 10));
+			Assertions.assertEquals(query(rebuiltTree, queryBox), query(tree, queryBox), "query " + queryBox);
+		}
+
+		for (int handle : handles) {
+			tree.remove(handle);
+		}
+		tree.compact();
+		Assertions.assertEquals(1, tree.getNodeCount());
+		Assertions.assertEquals(16f, tree.getRootBox().size().data[0]);
+		int pooledNodes = tree.getPooledNodeCount();
+		Assertions.assertTrue(pooledNodes > 0);
+		tree.insertTracked(data.get(0).box, data.get(0));
+		Assertions.assertEquals(pooledNodes - (tree.getNodeCount() - 1), tree.getPooledNodeCount());
+	}
+
+	@Test
+	public void testRootBoxIsNotShared() {
+		AxisAlignedBoundingBox rootBox = new AxisAlignedBoundingBox(new Vec3f(0f), new Vec3f(4f));
+		OcTree<OcTreeData> tree = new OcTree<>(rootBox);
+		OcTreeData far = new OcTreeData(new AxisAlignedBoundingBox(new Vec3f(100f), new Vec3f(101f)), 0);
+		int handle = tree.insertTracked(far.box, far);
+		tree.remove(handle);
+		// the initial root is pooled and reused for the new nodes
+		tree.compact();
+		for (int i = 1; i < 20; i++) {
+			Vec3f min = new Vec3f(i * 0.1f);
+			tree.insert(new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, 0.05f)), new OcTreeData(null, i));
+		}
+		Assertions.assertArrayEquals(new float[]{0f, 0f, 0f}, rootBox.min().data);
+		Assertions.assertArrayEquals(new float[]{4f, 4f, 4f}, rootBox.max().data);
+	}
+
+	private static float distanceToBox(Vec3f point, AxisAlignedBoundingBox box) {
+		float distanceSquared = 0f;
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			float d = Math.max(0f, Math.max(box.min().data[i] - point.data[i], point.data[i] - box.max().data[i]));
+			distanceSquared += d * d;
+		}
+		return (float) Math.sqrt(distanceSquared);
+	}
+
+	private static float rayEntry(Vec3f origin, Vec3f direction, AxisAlignedBoundingBox box) {
+		float entry = 0f;
+		float exit = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			float t1 = (box.min().data[i] - origin.data[i]) / direction.data[i];
+			float t2 = (box.max().data[i] - origin.data[i]) / direction.data[i];
+			entry = Math.max(entry, Math.min(t1, t2));
+			exit = Math.min(exit, Math.max(t1, t2));
+		}
+		return entry <= exit ? entry : -1f;
+	}
+
+	private static ArrayList<Integer> sortedValues(SpatialQueryResult<OcTreeData> result) {
+		ArrayList<Integer> values = new ArrayList<>();
+		for (int i = 0; i < result.size(); i++) {
+			values.add(result.get(i).value);
+		}
+		values.sort(Integer::compareTo);
+		return values;
+	}
+
+	@Test
+	public void testSpatialQueriesMatchBruteForce() {
+		Random random = new Random(17);
+		OcTree<OcTreeData> tree = new OcTree<>(16f);
+		ArrayList<OcTreeData> data = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+			OcTreeData element = new OcTreeData(new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 3)), i);
+			data.add(element);
+			tree.insert(element.box, element);
+		}
+		SpatialQueryResult<OcTreeData> result = new SpatialQueryResult<>();
+
+		for (int query = 0; query < 20; query++) {
+			Vec3f point = new Vec3f(random.nextFloat() * 120 - 60, random.nextFloat() * 120 - 60, random.nextFloat() * 120 - 60);
+			float[] expectedDistances = new float[data.size()];
+			for (int i = 0; i < data.size(); i++) {
+				expectedDistances[i] = distanceToBox(point, data.get(i).box);
+			}
+			Arrays.sort(expectedDistances);
+			tree.queryNearest(point, 10, result);
+			Assertions.assertEquals(10, result.size());
+			for (int i = 0; i < 10; i++) {
+				Assertions.assertEquals(expectedDistances[i], result.getDistance(i), 1e-4f, "nearest " + i);
+				Assertions.assertEquals(distanceToBox(point, result.get(i).box), result.getDistance(i), 1e-4f);
+			}
+
+			float radius = random.nextFloat() * 15;
+			ArrayList<Integer> expected = new ArrayList<>();
+			for (OcTreeData element : data) {
+				if (distanceToBox(point, element.box) <= radius) {
+					expected.add(element.value);
+				}
+			}
+			tree.querySphere(point, radius, result);
+			Assertions.assertEquals(expected, sortedValues(result), "sphere " + point + " " + radius);
+
+			Vec3f direction = new Vec3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+			float maxDistance = 200f;
+			ArrayList<Float> hitDistances = new ArrayList<>();
+			for (OcTreeData element : data) {
+				float entry = rayEntry(point, direction, element.box);
+				if (entry >= 0f && entry <= maxDistance) {
+					hitDistances.add(entry);
+				}
+			}
+			hitDistances.sort(Float::compareTo);
+			tree.raycast(point, direction, maxDistance, 3, result);
+			Assertions.assertEquals(Math.min(3, hitDistances.size()), result.size(), "ray hits");
+			for (int i = 0; i < result.size(); i++) {
+				Assertions.assertEquals(hitDistances.get(i), result.getDistance(i), 1e-3f, "ray hit " + i);
+			}
+		}
+
+		Frustum frustum = new Frustum(MatrixArithmeticOOP.mul(
+				MatrixMath.perspective(60f, 1.5f, 0.1f, 60f),
+				MatrixMath.lookAt(new Vec3f(0f, 0f, -40f), new Vec3f(0f, 0f, 1f), new Vec3f(0f, 1f, 0f))
+		));
+		Assertions.assertTrue(frustum.isIntersecting(new AxisAlignedBoundingBox(new Vec3f(-1f), new Vec3f(1f))));
+		Assertions.assertFalse(frustum.isIntersecting(new AxisAlignedBoundingBox(new Vec3f(-1f, -1f, -50f), new Vec3f(1f, 1f, -45f))));
+		Assertions.assertFalse(frustum.isIntersecting(new AxisAlignedBoundingBox(new Vec3f(40f, -1f, -1f), new Vec3f(42f, 1f, 1f))));
+		ArrayList<Integer> expected = new ArrayList<>();
+		for (OcTreeData element : data) {
+			if (frustum.isIntersecting(element.box)) {
+				expected.add(element.value);
+			}
+		}
+		tree.queryFrustum(frustum, result);
+		Assertions.assertEquals(expected, sortedValues(result));
+		Assertions.assertTrue(expected.size() > 0 && expected.size() < data.size());
+	}
+
+	@Test
+	public void testBatchQueriesMatchSingleQueries() {
+		Random random = new Random(23);
+		OcTree<OcTreeData> tree = new OcTree<>(16f);
+		for (int i = 0; i < 2000; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+			OcTreeData element = new OcTreeData(new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 3)), i);
+			tree.insert(element.box, element);
+		}
+
+		int queryCount = 300;
+		AxisAlignedBoundingBox[] boxes = new AxisAlignedBoundingBox[queryCount];
+		Vec3f[] origins = new Vec3f[queryCount];
+		Vec3f[] directions = new Vec3f[queryCount];
+		for (int i = 0; i < queryCount; i++) {
+			Vec3f min = new Vec3f(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+			boxes[i] = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, random.nextFloat() * 12));
+			origins[i] = min;
+			directions[i] = new Vec3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+		}
+		BatchQueryResult<OcTreeData> batch = new BatchQueryResult<>();
+		SpatialQueryResult<OcTreeData> single = new SpatialQueryResult<>();
+
+		tree.queryBoxes(boxes, queryCount, batch);
+		Assertions.assertEquals(queryCount, batch.getQueryCount());
+		int total = 0;
+		for (int q = 0; q < queryCount; q++) {
+			tree.queryBox(boxes[q], single);
+			Assertions.assertEquals(query(tree, boxes[q]), sortedValues(single), "box " + q);
+			ArrayList<Integer> batchValues = new ArrayList<>();
+			for (int i = batch.getStart(q); i < batch.getEnd(q); i++) {
+				batchValues.add(batch.get(i).value);
+			}
+			batchValues.sort(Integer::compareTo);
+			Assertions.assertEquals(sortedValues(single), batchValues, "batch box " + q);
+			total += single.size();
+		}
+		Assertions.assertEquals(total, batch.size());
+
+		tree.raycasts(origins, directions, 100f, 2, queryCount / 2, batch);
+		Assertions.assertEquals(queryCount / 2, batch.getQueryCount());
+		for (int q = 0; q < queryCount / 2; q++) {
+			tree.raycast(origins[q], directions[q], 100f, 2, single);
+			Assertions.assertEquals(single.size(), batch.getEnd(q) - batch.getStart(q));
+			for (int i = 0; i < single.size(); i++) {
+				Assertions.assertEquals(single.getDistance(i), batch.getDistance(batch.getStart(q) + i));
+			}
+		}
+	}
 }
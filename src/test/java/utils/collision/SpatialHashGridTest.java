@@ -0,0 +1,163 @@
+package utils.collision;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.MatrixArithmeticOOP;
+import utils.matrix.MatrixMath;
+import utils.operator.Operator;
+import utils.vector.Vec3f;
+
+public class SpatialHashGridTest {
+
+	private static AxisAlignedBoundingBox randomParticle(Random random, float worldSize) {
+		Vec3f center = new Vec3f(
+				(random.nextFloat() - 0.5f) * worldSize,
+				(random.nextFloat() - 0.5f) * worldSize,
+				(random.nextFloat() - 0.5f) * worldSize
+		);
+		float radius = 0.2f + random.nextFloat() * 0.3f;
+		return new AxisAlignedBoundingBox(center.copy().apply(Operator.Sub, radius), center.copy().apply(Operator.Add, radius));
+	}
+
+	private static float distanceToBox(Vec3f point, AxisAlignedBoundingBox box) {
+		float distanceSquared = 0f;
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			float d = Math.max(0f, Math.max(box.min().data[i] - point.data[i], point.data[i] - box.max().data[i]));
+			distanceSquared += d * d;
+		}
+		return (float) Math.sqrt(distanceSquared);
+	}
+
+	private static ArrayList<Integer> sortedValues(SpatialQueryResult<Integer> result) {
+		ArrayList<Integer> values = new ArrayList<>();
+		for (int i = 0; i < result.size(); i++) {
+			values.add(result.get(i));
+		}
+		values.sort(Integer::compareTo);
+		return values;
+	}
+
+	@Test
+	public void testQueriesMatchOcTree() {
+		Random random = new Random(29);
+		SpatialHashGrid<Integer> grid = new SpatialHashGrid<>(1f);
+		OcTree<Integer> tree = new OcTree<>(16f);
+		ArrayList<AxisAlignedBoundingBox> boxes = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			AxisAlignedBoundingBox box = randomParticle(random, 40f);
+			boxes.add(box);
+			grid.insert(box, i);
+			tree.insert(box, i);
+		}
+		for (int i = 0; i < boxes.size(); i += 7) {
+			Assertions.assertTrue(grid.remove(boxes.get(i), i));
+			Assertions.assertTrue(tree.remove(boxes.get(i), i));
+		}
+		Assertions.assertFalse(grid.remove(boxes.get(0), 0));
+
+		SpatialQueryResult<Integer> gridResult = new SpatialQueryResult<>();
+		SpatialQueryResult<Integer> treeResult = new SpatialQueryResult<>();
+		for (int query = 0; query < 30; query++) {
+			Vec3f point = new Vec3f((random.nextFloat() - 0.5f) * 50f, (random.nextFloat() - 0.5f) * 50f, (random.nextFloat() - 0.5f) * 50f);
+			AxisAlignedBoundingBox queryBox = new AxisAlignedBoundingBox(point, point.copy().apply(Operator.Add, random.nextFloat() * 8f));
+			grid.queryBox(queryBox, gridResult);
+			tree.queryBox(queryBox, treeResult);
+			Assertions.assertEquals(sortedValues(treeResult), sortedValues(gridResult), "box " + queryBox);
+
+			float radius = random.nextFloat() * 5f;
+			grid.querySphere(point, radius, gridResult);
+			tree.querySphere(point, radius, treeResult);
+			Assertions.assertEquals(sortedValues(treeResult), sortedValues(gridResult), "sphere " + point);
+
+			grid.queryNearest(point, 8, gridResult);
+			tree.queryNearest(point, 8, treeResult);
+			Assertions.assertEquals(8, gridResult.size());
+			for (int i = 0; i < 8; i++) {
+				Assertions.assertEquals(treeResult.getDistance(i), gridResult.getDistance(i), 1e-4f, "nearest " + i);
+				Assertions.assertEquals(distanceToBox(point, boxes.get(gridResult.get(i))), gridResult.getDistance(i), 1e-4f);
+			}
+
+			Vec3f direction = new Vec3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+			grid.raycast(point, direction, 100f, 3, gridResult);
+			tree.raycast(point, direction, 100f, 3, treeResult);
+			Assertions.assertEquals(treeResult.size(), gridResult.size(), "ray hits");
+			for (int i = 0; i < gridResult.size(); i++) {
+				Assertions.assertEquals(treeResult.getDistance(i), gridResult.getDistance(i), 1e-4f, "ray hit " + i);
+			}
+		}
+
+		Frustum frustum = new Frustum(MatrixArithmeticOOP.mul(
+				MatrixMath.perspective(60f, 1.5f, 0.1f, 30f),
+				MatrixMath.lookAt(new Vec3f(0f, 0f, -25f), new Vec3f(0f, 0f, 1f), new Vec3f(0f, 1f, 0f))
+		));
+		grid.queryFrustum(frustum, gridResult);
+		tree.queryFrustum(frustum, treeResult);
+		Assertions.assertEquals(sortedValues(treeResult), sortedValues(gridResult));
+	}
+
+	@Test
+	public void testOverlappingPairs() {
+		Random random = new Random(31);
+		int count = 2000;
+		AxisAlignedBoundingBox[] boxes = new AxisAlignedBoundingBox[count];
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			boxes[i] = randomParticle(random, 20f);
+			values[i] = i;
+		}
+		// a few larger elements widen the neighbourhood
+		boxes[0].max().apply(Operator.Add, 2f);
+		SpatialHashGrid<Integer> grid = new SpatialHashGrid<>(1f);
+		grid.build(boxes, values, count);
+
+		HashSet<Long> pairs = new HashSet<>();
+		int pairCount = grid.computeOverlappingPairs();
+		for (int pair = 0; pair < pairCount; pair++) {
+			int a = grid.getElement(grid.getPairBuffer()[pair * 2]);
+			int b = grid.getElement(grid.getPairBuffer()[pair * 2 + 1]);
+			Assertions.assertTrue(pairs.add(((long) Math.min(a, b) << 32) | Math.max(a, b)), "duplicate pair");
+		}
+		int expectedPairs = 0;
+		for (int a = 0; a < count; a++) {
+			for (int b = a + 1; b < count; b++) {
+				if (boxes[a].isIntersecting(boxes[b])) {
+					expectedPairs++;
+					Assertions.assertTrue(pairs.contains(((long) a << 32) | b), "missing pair " + a + ", " + b);
+				}
+			}
+		}
+		Assertions.assertEquals(expectedPairs, pairCount);
+	}
+
+	@Test
+	public void testParallelRebuild() {
+		Random random = new Random(37);
+		int count = 40000;
+		AxisAlignedBoundingBox[] boxes = new AxisAlignedBoundingBox[count];
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			boxes[i] = randomParticle(random, 100f);
+			values[i] = i;
+		}
+		SpatialHashGrid<Integer> grid = new SpatialHashGrid<>(1f);
+		grid.build(boxes, values, count);
+		Assertions.assertTrue(grid.getCellCount() > 1 << 14);
+
+		SpatialQueryResult<Integer> result = new SpatialQueryResult<>();
+		for (int query = 0; query < 10; query++) {
+			Vec3f min = new Vec3f((random.nextFloat() - 0.5f) * 100f, (random.nextFloat() - 0.5f) * 100f, (random.nextFloat() - 0.5f) * 100f);
+			AxisAlignedBoundingBox queryBox = new AxisAlignedBoundingBox(min, min.copy().apply(Operator.Add, 6f));
+			ArrayList<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				if (queryBox.isIntersecting(boxes[i])) {
+					expected.add(i);
+				}
+			}
+			grid.queryBox(queryBox, result);
+			Assertions.assertEquals(expected, sortedValues(result));
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package utils.collision;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.vector.Vec3f;
+
+public class SweptCollisionTest {
+
+	@Test
+	public void testBoxTimeOfImpact() {
+		// thin wall at x in [5, 5.2], projectile ends far behind it
+		AxisAlignedBoundingBox wall = new AxisAlignedBoundingBox(new Vec3f(5f, -1f, -1f), new Vec3f(5.2f, 1f, 1f));
+		AxisAlignedBoundingBox projectile = new AxisAlignedBoundingBox(new Vec3f(9.9f, -0.1f, -0.1f), new Vec3f(10.1f, 0.1f, 0.1f));
+		Vec3f displacement = new Vec3f(10f, 0f, 0f);
+		Assertions.assertFalse(projectile.isIntersecting(wall));
+		Assertions.assertEquals(0.49f, SweptCollision.timeOfImpact(projectile, displacement, wall, Vec3f.zero()), 1e-5f);
+		Assertions.assertEquals(0.49f, SweptCollision.timeOfImpact(wall, Vec3f.zero(), projectile, displacement), 1e-5f);
+
+		// passing above the wall
+		projectile.min().data[1] += 2f;
+		projectile.max().data[1] += 2f;
+		Assertions.assertEquals(SweptCollision.noImpact, SweptCollision.timeOfImpact(projectile, displacement, wall, Vec3f.zero()));
+
+		// moving with the wall, overlapping the whole tick
+		AxisAlignedBoundingBox carried = new AxisAlignedBoundingBox(new Vec3f(5.1f, 0f, 0f), new Vec3f(5.3f, 0.2f, 0.2f));
+		Assertions.assertEquals(0f, SweptCollision.timeOfImpact(carried, displacement, wall, displacement));
+
+		// stopping short of the wall
+		AxisAlignedBoundingBox shortMove = new AxisAlignedBoundingBox(new Vec3f(4f, 0f, 0f), new Vec3f(4.5f, 0.5f, 0.5f));
+		Assertions.assertEquals(SweptCollision.noImpact, SweptCollision.timeOfImpact(shortMove, new Vec3f(3f, 0f, 0f), wall, Vec3f.zero()));
+	}
+
+	@Test
+	public void testSphereTimeOfImpact() {
+		Vec3f start = new Vec3f(0f);
+		Vec3f target = new Vec3f(10f, 0f, 0f);
+		Assertions.assertEquals(0.45f, SweptCollision.timeOfImpact(start, 0.5f, new Vec3f(20f, 0f, 0f), target, 0.5f, Vec3f.zero()), 1e-5f);
+		Assertions.assertEquals(SweptCollision.noImpact,
+				SweptCollision.timeOfImpact(start, 0.5f, new Vec3f(20f, 4f, 0f), target, 0.5f, Vec3f.zero()));
+		Assertions.assertEquals(SweptCollision.noImpact,
+				SweptCollision.timeOfImpact(start, 0.5f, new Vec3f(-20f, 0f, 0f), target, 0.5f, Vec3f.zero()));
+		Assertions.assertEquals(0f, SweptCollision.timeOfImpact(start, 6f, new Vec3f(1f, 0f, 0f), target, 5f, Vec3f.zero()));
+	}
+}
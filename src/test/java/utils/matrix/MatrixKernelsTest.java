@@ -0,0 +1,133 @@
+package utils.matrix;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.operator.Operator;
+
+public class MatrixKernelsTest {
+	private static final float scalar = 1.75f;
+
+	private static void randomize(float[] data, Random random) {
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextFloat() * 8f - 4f;
+		}
+	}
+
+	@Test
+	public void testMat2fKernels() {
+		Random random = new Random(101);
+		Mat2f a = new Mat2f();
+		Mat2f b = new Mat2f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat2x3fKernels() {
+		Random random = new Random(103);
+		Mat2x3f a = new Mat2x3f();
+		Mat2x3f b = new Mat2x3f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat2x4fKernels() {
+		Random random = new Random(105);
+		Mat2x4f a = new Mat2x4f();
+		Mat2x4f b = new Mat2x4f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat3fKernels() {
+		Random random = new Random(107);
+		Mat3f a = new Mat3f();
+		Mat3f b = new Mat3f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat3x2fKernels() {
+		Random random = new Random(109);
+		Mat3x2f a = new Mat3x2f();
+		Mat3x2f b = new Mat3x2f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat3x4fKernels() {
+		Random random = new Random(111);
+		Mat3x4f a = new Mat3x4f();
+		Mat3x4f b = new Mat3x4f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat4fKernels() {
+		Random random = new Random(113);
+		Mat4f a = new Mat4f();
+		Mat4f b = new Mat4f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat4x2fKernels() {
+		Random random = new Random(115);
+		Mat4x2f a = new Mat4x2f();
+		Mat4x2f b = new Mat4x2f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+
+	@Test
+	public void testMat4x3fKernels() {
+		Random random = new Random(117);
+		Mat4x3f a = new Mat4x3f();
+		Mat4x3f b = new Mat4x3f();
+		randomize(a.data, random);
+		randomize(b.data, random);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+	}
+}
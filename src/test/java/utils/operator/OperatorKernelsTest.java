@@ -0,0 +1,81 @@
+package utils.operator;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OperatorKernelsTest {
+	private static final int length = 11;
+	private static final int start = 3;
+
+	private static float[] randomArray(Random random) {
+		float[] data = new float[start + length + 2];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextFloat() * 8f - 4f;
+		}
+		return data;
+	}
+
+	@Test
+	public void testInPlaceKernelsMatchOperators() {
+		Random random = new Random(73);
+		float[] data = randomArray(random);
+		float[] other = randomArray(random);
+		float scalar = 1.5f + random.nextFloat();
+
+		// the operators read other at the same index, the untouched elements outside the range must stay as they are
+		float[] expected = data.clone();
+		float[] actual = data.clone();
+		Operator.Add.apply(expected, start, length, scalar);
+		OperatorKernels.addInPlace(actual, start, length, scalar);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Add.apply(expected, start, length, other);
+		OperatorKernels.addInPlace(actual, start, length, other, start);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Sub.apply(expected, start, length, scalar);
+		OperatorKernels.subInPlace(actual, start, length, scalar);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Sub.apply(expected, start, length, other);
+		OperatorKernels.subInPlace(actual, start, length, other, start);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Mul.apply(expected, start, length, scalar);
+		OperatorKernels.mulInPlace(actual, start, length, scalar);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Mul.apply(expected, start, length, other);
+		OperatorKernels.mulInPlace(actual, start, length, other, start);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Div.apply(expected, start, length, scalar);
+		OperatorKernels.divInPlace(actual, start, length, scalar);
+		Assertions.assertArrayEquals(expected, actual);
+
+		float[] scaled = other.clone();
+		Operator.Mul.apply(scaled, start, length, scalar);
+		Operator.Add.apply(expected, start, length, scaled);
+		OperatorKernels.scaleAdd(actual, start, length, other, start, scalar);
+		Assertions.assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	public void testTargetKernelsMatchOperators() {
+		Random random = new Random(79);
+		float[] a = randomArray(random);
+		float[] b = randomArray(random);
+		float[] c = randomArray(random);
+
+		// different offsets per array
+		float[] expected = new float[length + 1];
+		float[] actual = new float[length + 1];
+		Operator.Add.apply(expected, 1, a, 0, b, 2, length);
+		OperatorKernels.add(actual, 1, a, 0, b, 2, length);
+		Assertions.assertArrayEquals(expected, actual);
+		Operator.Sub.apply(expected, 1, a, 2, b, 0, length);
+		OperatorKernels.sub(actual, 1, a, 2, b, 0, length);
+		Assertions.assertArrayEquals(expected, actual);
+
+		// a * b + c, rounded after the multiply, exactly what the two operator passes produce
+		Operator.Mul.apply(expected, 0, a, 1, b, start, length);
+		Operator.Add.apply(expected, 0, expected, 0, c, 2, length);
+		OperatorKernels.fma(actual, 0, a, 1, b, start, c, 2, length);
+		Assertions.assertArrayEquals(expected, actual);
+	}
+}
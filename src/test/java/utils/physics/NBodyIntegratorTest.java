@@ -0,0 +1,103 @@
+package utils.physics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.collision.BarnesHutTree;
+
+public class NBodyIntegratorTest {
+	private static final double gravConstant = 1;
+	private static final NBodyIntegrator.AccelerationSolver exactSolver = (positions, masses, bodyCount, accelerations) ->
+			BarnesHutTree.computeExactAccelerations(positions, masses, bodyCount, gravConstant, 0, accelerations);
+
+	/**
+	 * Two bodies on a circular orbit with radius 1 around their common center of mass.
+	 */
+	private static NBodyIntegrator createBinary() {
+		double sunMass = 1, planetMass = 1e-3;
+		double totalMass = sunMass + planetMass;
+		double relativeVelocity = Math.sqrt(gravConstant * totalMass);
+		NBodyIntegrator integrator = new NBodyIntegrator();
+		integrator.setBodyCount(2);
+		double[] positions = integrator.getPositions();
+		double[] velocities = integrator.getVelocities();
+		double[] masses = integrator.getMasses();
+		masses[0] = sunMass;
+		masses[1] = planetMass;
+		positions[0] = -planetMass / totalMass;
+		positions[3] = sunMass / totalMass;
+		velocities[1] = -relativeVelocity * planetMass / totalMass;
+		velocities[4] = relativeVelocity * sunMass / totalMass;
+		return integrator;
+	}
+
+	private static double computeEnergy(NBodyIntegrator integrator) {
+		double[] positions = integrator.getPositions();
+		double[] velocities = integrator.getVelocities();
+		double[] masses = integrator.getMasses();
+		double kinetic = 0;
+		for (int body = 0; body < 2; body++) {
+			for (int axis = 0; axis < 3; axis++) {
+				kinetic += 0.5 * masses[body] * velocities[body * 3 + axis] * velocities[body * 3 + axis];
+			}
+		}
+		double dx = positions[3] - positions[0], dy = positions[4] - positions[1], dz = positions[5] - positions[2];
+		return kinetic - gravConstant * masses[0] * masses[1] / Math.sqrt(dx * dx + dy * dy + dz * dz);
+	}
+
+	/**
+	 * @return the largest relative energy error over 50 orbits with 32 steps per orbit
+	 */
+	private static double computeMaxEnergyError(SymplecticIntegrator scheme) {
+		NBodyIntegrator integrator = createBinary();
+		double initialEnergy = computeEnergy(integrator);
+		double orbitSeconds = 2 * Math.PI / Math.sqrt(gravConstant * (1 + 1e-3));
+		double maxError = 0;
+		for (int orbit = 0; orbit < 50; orbit++) {
+			for (int step = 0; step < 32; step++) {
+				integrator.step(scheme, orbitSeconds / 32, 1, exactSolver);
+				maxError = Math.max(maxError, Math.abs((computeEnergy(integrator) - initialEnergy) / initialEnergy));
+			}
+		}
+		return maxError;
+	}
+
+	@Test
+	public void testEnergyIsBounded() {
+		double leapfrogError = computeMaxEnergyError(SymplecticIntegrator.Leapfrog);
+		double verletError = computeMaxEnergyError(SymplecticIntegrator.VelocityVerlet);
+		double yoshidaError = computeMaxEnergyError(SymplecticIntegrator.Yoshida4);
+		Assertions.assertTrue(leapfrogError < 1e-2, "leapfrog energy error " + leapfrogError);
+		Assertions.assertTrue(verletError < 1e-2, "velocity verlet energy error " + verletError);
+		Assertions.assertTrue(yoshidaError < leapfrogError / 10, "yoshida energy error " + yoshidaError);
+	}
+
+	@Test
+	public void testSubStepsMatchSmallerSteps() {
+		NBodyIntegrator subStepped = createBinary();
+		NBodyIntegrator manual = createBinary();
+		for (int i = 0; i < 10; i++) {
+			subStepped.step(SymplecticIntegrator.Yoshida4, 0.1, 4, exactSolver);
+			for (int step = 0; step < 4; step++) {
+				manual.step(SymplecticIntegrator.Yoshida4, 0.1 / 4, 1, exactSolver);
+			}
+		}
+		for (int i = 0; i < 6; i++) {
+			Assertions.assertEquals(manual.getPositions()[i], subStepped.getPositions()[i], 1e-12);
+			Assertions.assertEquals(manual.getVelocities()[i], subStepped.getVelocities()[i], 1e-12);
+		}
+	}
+
+	@Test
+	public void testVelocityVerletReusesAccelerations() {
+		NBodyIntegrator integrator = createBinary();
+		integrator.step(SymplecticIntegrator.VelocityVerlet, 1, 10, exactSolver);
+		Assertions.assertEquals(11, integrator.getForceEvaluations());
+
+		integrator.step(SymplecticIntegrator.VelocityVerlet, 1, 10, exactSolver);
+		Assertions.assertEquals(21, integrator.getForceEvaluations());
+
+		integrator.invalidateAccelerations();
+		integrator.step(SymplecticIntegrator.Leapfrog, 1, 10, exactSolver);
+		Assertions.assertEquals(31, integrator.getForceEvaluations());
+	}
+}
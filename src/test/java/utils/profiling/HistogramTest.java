@@ -0,0 +1,81 @@
+package utils.profiling;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void testEmpty() {
+		Histogram histogram = new Histogram();
+		Assertions.assertEquals(0, histogram.getTotalCount());
+		Assertions.assertEquals(0, histogram.getValueAtPercentile(50d));
+		Assertions.assertEquals(0, histogram.getMin());
+		Assertions.assertEquals(0, histogram.getMax());
+		Assertions.assertEquals(0d, histogram.getMean());
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		Histogram histogram = new Histogram();
+		for (int value = 99; value >= 0; value--) {
+			histogram.record(value);
+		}
+		Assertions.assertEquals(0, histogram.getValueAtPercentile(0d));
+		Assertions.assertEquals(0, histogram.getValueAtPercentile(1d));
+		Assertions.assertEquals(49, histogram.getValueAtPercentile(50d));
+		Assertions.assertEquals(98, histogram.getValueAtPercentile(99d));
+		Assertions.assertEquals(99, histogram.getValueAtPercentile(100d));
+		Assertions.assertEquals(0, histogram.getMin());
+		Assertions.assertEquals(99, histogram.getMax());
+		Assertions.assertEquals(49.5d, histogram.getMean());
+	}
+
+	@Test
+	public void testPercentilesWithinPrecision() {
+		Histogram histogram = new Histogram();
+		Random random = new Random(71);
+		long[] values = new long[100_000];
+		for (int i = 0; i < values.length; i++) {
+			// nanosecond-like durations over several orders of magnitude
+			values[i] = (long) Math.exp(random.nextDouble() * 20d);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double percentile : new double[]{10d, 50d, 90d, 99d, 99.9d}) {
+			long expected = values[(int) Math.ceil(percentile / 100d * values.length) - 1];
+			long actual = histogram.getValueAtPercentile(percentile);
+			// the reported value is the top of the slot, never below the exact one and at most one slot width above it
+			Assertions.assertTrue(actual >= expected, percentile + ": " + actual + " < " + expected);
+			Assertions.assertTrue(actual <= expected + expected / 64 + 1, percentile + ": " + actual + " > " + expected);
+		}
+		Assertions.assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100d));
+		Assertions.assertEquals(values[values.length - 1], histogram.getMax());
+		Assertions.assertEquals(values[0], histogram.getMin());
+	}
+
+	@Test
+	public void testMaxClampsPercentiles() {
+		Histogram histogram = new Histogram();
+		histogram.record(1_000_003L);
+		// the slot of the value reaches further up, percentiles still never exceed the recorded maximum
+		Assertions.assertEquals(1_000_003L, histogram.getValueAtPercentile(50d));
+		Assertions.assertEquals(1_000_003L, histogram.getMax());
+
+		histogram.record(-5L);
+		histogram.record(Long.MAX_VALUE);
+		Assertions.assertEquals(0, histogram.getMin());
+		Assertions.assertEquals((1L << 40) - 1, histogram.getMax());
+		Assertions.assertEquals((1L << 40) - 1, histogram.getValueAtPercentile(100d));
+		Assertions.assertEquals(3, histogram.getTotalCount());
+
+		histogram.reset();
+		Assertions.assertEquals(0, histogram.getTotalCount());
+		Assertions.assertEquals(0, histogram.getMax());
+		histogram.record(7L);
+		Assertions.assertEquals(7L, histogram.getMin());
+		Assertions.assertEquals(7L, histogram.getValueAtPercentile(100d));
+	}
+}
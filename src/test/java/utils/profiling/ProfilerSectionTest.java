@@ -0,0 +1,61 @@
+package utils.profiling;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProfilerSectionTest {
+
+	@Test
+	public void testWallAndCpuTime() {
+		ProfilerSection section = new ProfilerSection("test");
+		// four workers busy for 1 ms each within 1.5 ms of wall time
+		IntStream.range(0, 4).parallel().forEach(worker -> section.accumulate(1_000_000L, 10, -1));
+		section.commit(1_500_000L);
+		Assertions.assertEquals(1, section.getDurationNanos().getTotalCount());
+		Assertions.assertEquals(1_500_000L, section.getDurationNanos().getMax());
+		Assertions.assertEquals(4_000_000L, section.getCpuNanos().getMax());
+		Assertions.assertEquals(40, section.getEntitiesProcessed());
+		Assertions.assertEquals(-1, section.getAllocatedBytes());
+
+		// a system of a fused stage only has CPU time
+		section.accumulate(2_000L, 1, 64);
+		section.commitCpuTime();
+		Assertions.assertEquals(1, section.getDurationNanos().getTotalCount());
+		Assertions.assertEquals(2, section.getCpuNanos().getTotalCount());
+		Assertions.assertEquals(64, section.getAllocatedBytes());
+
+		// single threaded sections spend their wall time on the CPU
+		section.record(3_000L, 0, -1);
+		Assertions.assertEquals(2, section.getDurationNanos().getTotalCount());
+		Assertions.assertEquals(3, section.getCpuNanos().getTotalCount());
+
+		section.reset();
+		Assertions.assertEquals(0, section.getCpuNanos().getTotalCount());
+	}
+
+	@Test
+	public void testReportMarksMissingTimes() {
+		Profiler profiler = Profiler.getInstance();
+		profiler.getSection("profilerSectionTest/stage").recordWallTime(2_000_000L);
+		ProfilerSection system = profiler.getSection("profilerSectionTest/system");
+		system.accumulate(3_000_000L, 5, -1);
+		system.commitCpuTime();
+		String stageLine = null;
+		String systemLine = null;
+		for (String line : profiler.getReport().split(System.lineSeparator())) {
+			if (line.startsWith("profilerSectionTest/stage")) {
+				stageLine = line;
+			} else if (line.startsWith("profilerSectionTest/system")) {
+				systemLine = line;
+			}
+		}
+		profiler.reset();
+		Assertions.assertNotNull(stageLine);
+		Assertions.assertNotNull(systemLine);
+		Assertions.assertArrayEquals(new String[]{"1", "2.000", "2.000", "2.000", "n/a", "n/a", "0", "n/a"},
+				stageLine.substring(48).trim().split(" +"), stageLine);
+		Assertions.assertArrayEquals(new String[]{"1", "n/a", "n/a", "n/a", "3.000", "3.000", "5", "n/a"},
+				systemLine.substring(48).trim().split(" +"), systemLine);
+	}
+}
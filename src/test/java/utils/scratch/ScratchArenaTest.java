@@ -0,0 +1,100 @@
+package utils.scratch;
+
+import ecs.components.RotationalVelocity;
+import ecs.components.Transform;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.Mat4f;
+import utils.quaternion.Quaternion;
+import utils.vector.Vec3f;
+
+public class ScratchArenaTest {
+
+	@AfterEach
+	public void cleanUp() {
+		ScratchArena.setDebug(false);
+		ScratchArena.get().reset();
+	}
+
+	@Test
+	public void testScopesReuseTemporaries() {
+		ScratchArena arena = ScratchArena.get();
+		arena.reset();
+		Vec3f outer;
+		Vec3f inner;
+		try (ScratchArena.Scope scope = arena.push()) {
+			outer = arena.vec3(1f, 2f, 3f);
+			try (ScratchArena.Scope nested = arena.push()) {
+				inner = arena.vec3();
+				Assertions.assertNotSame(outer, inner);
+				Assertions.assertEquals(2, arena.getOpenScopes());
+			}
+			Assertions.assertSame(inner, arena.vec3());
+			Assertions.assertEquals(2f, outer.data[1]);
+		}
+		Assertions.assertEquals(0, arena.getOpenScopes());
+
+		try (ScratchArena.Scope scope = arena.push()) {
+			Assertions.assertSame(outer, arena.vec3());
+			Assertions.assertEquals(0f, outer.data[1]);
+			Assertions.assertEquals(1f, arena.quaternion().data[3]);
+			Mat4f matrix = arena.mat4();
+			Assertions.assertArrayEquals(new Mat4f().data, matrix.data);
+		}
+	}
+
+	@Test
+	public void testSteadyStateDoesNotGrow() {
+		ScratchArena arena = ScratchArena.get();
+		RotationalVelocity rotationalVelocity = new RotationalVelocity(new Vec3f(0.5f, 1f, 0f));
+		Transform transform = new Transform(new Vec3f(), Quaternion.identity(), new Vec3f(1f));
+		for (int frame = 0; frame < 3; frame++) {
+			rotationalVelocity.applyRotation(transform);
+			arena.vec3(1f, 1f, 1f);
+			arena.reset();
+		}
+		int created = arena.getCreatedCount();
+		for (int frame = 0; frame < 100; frame++) {
+			rotationalVelocity.applyRotation(transform);
+			arena.vec3(1f, 1f, 1f);
+			arena.reset();
+		}
+		Assertions.assertEquals(created, arena.getCreatedCount());
+	}
+
+	@Test
+	public void testDebugDetectsMisuse() throws InterruptedException {
+		ScratchArena.setDebug(true);
+		ScratchArena arena = ScratchArena.get();
+		arena.reset();
+
+		Vec3f escaped;
+		try (ScratchArena.Scope scope = arena.push()) {
+			escaped = arena.vec3(1f, 2f, 3f);
+			Assertions.assertFalse(arena.isReleased(escaped));
+		}
+		Assertions.assertTrue(arena.isReleased(escaped));
+		Assertions.assertTrue(Float.isNaN(escaped.data[0]));
+
+		ScratchArena.Scope outer = arena.push();
+		arena.push();
+		Assertions.assertThrows(IllegalStateException.class, outer::close);
+		IllegalStateException leak = Assertions.assertThrows(IllegalStateException.class, arena::reset);
+		Assertions.assertNotNull(leak.getCause());
+		Assertions.assertEquals(0, arena.getOpenScopes());
+
+		AtomicReference<Throwable> foreignFailure = new AtomicReference<>();
+		Thread foreign = new Thread(() -> {
+			try {
+				arena.vec3();
+			} catch (IllegalStateException e) {
+				foreignFailure.set(e);
+			}
+		});
+		foreign.start();
+		foreign.join();
+		Assertions.assertNotNull(foreignFailure.get());
+	}
+}
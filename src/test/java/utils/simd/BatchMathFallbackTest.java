@@ -0,0 +1,18 @@
+package utils.simd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs in its own surefire execution without `--add-modules jdk.incubator.vector`.
+ */
+public class BatchMathFallbackTest {
+
+	@Test
+	public void testFallsBackToScalarKernels() {
+		Assertions.assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty(), "run without the incubator module");
+		Assertions.assertFalse(BatchMath.isVectorized());
+		Assertions.assertSame(ScalarBatchMath.class, BatchMath.getInstance().getClass());
+		BatchMathTest.testKernels(BatchMath.getInstance());
+	}
+}
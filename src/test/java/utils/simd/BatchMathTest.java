@@ -0,0 +1,138 @@
+package utils.simd;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.matrix.Mat4f;
+import utils.matrix.MatrixArithmeticOOP;
+import utils.quaternion.Quaternion;
+import utils.quaternion.QuaternionMathOOP;
+import utils.vector.Vec3f;
+import utils.vector.Vec4f;
+
+public class BatchMathTest {
+	// not a multiple of any vector length, so the scalar remainder is covered as well
+	private static final int size = 37;
+	private static final float epsilon = 1e-4f;
+
+	private static Vec3f randomVector(Random random) {
+		return new Vec3f(random.nextFloat() * 4f - 2f, random.nextFloat() * 4f - 2f, random.nextFloat() * 4f - 2f);
+	}
+
+	private static Mat4f randomTransform(Random random) {
+		Mat4f matrix = QuaternionMathOOP.toMat4(QuaternionMathOOP.eulerRad(randomVector(random)));
+		Vec3f translation = randomVector(random);
+		for (int row = 0; row < 3; row++) {
+			for (int column = 0; column < 3; column++) {
+				matrix.data[row * 4 + column] *= 0.5f + column;
+			}
+			matrix.data[row * 4 + 3] = translation.data[row];
+		}
+		return matrix;
+	}
+
+	private static void assertVector(Vec3f expected, Vec3Batch batch, int index) {
+		Vec3f actual = batch.get(index, new Vec3f());
+		for (int i = 0; i < Vec3f.DATA_LEN; i++) {
+			Assertions.assertEquals(expected.data[i], actual.data[i], epsilon, "element " + index);
+		}
+	}
+
+	@Test
+	public void testScalarKernels() {
+		testKernels(new ScalarBatchMath());
+	}
+
+	@Test
+	public void testSelectedKernels() {
+		testKernels(BatchMath.getInstance());
+	}
+
+	static void testKernels(IBatchMath math) {
+		Random random = new Random(41);
+		Vec3f[] a = new Vec3f[size];
+		Vec3f[] b = new Vec3f[size];
+		Quaternion[] quaternions = new Quaternion[size];
+		Mat4f[] matrices = new Mat4f[size];
+		Vec3Batch aBatch = new Vec3Batch(4).setSize(size);
+		Vec3Batch bBatch = new Vec3Batch(4).setSize(size);
+		Vec4Batch vectorBatch = new Vec4Batch(4).setSize(size);
+		Vec4Batch quaternionBatch = new Vec4Batch(4).setSize(size);
+		Mat4Batch matrixBatch = new Mat4Batch(4).setSize(size);
+		for (int i = 0; i < size; i++) {
+			// the last vector is zero, normalizing must keep it zero
+			a[i] = i == size - 1 ? new Vec3f(0f) : randomVector(random);
+			b[i] = randomVector(random);
+			quaternions[i] = QuaternionMathOOP.eulerRad(randomVector(random));
+			matrices[i] = randomTransform(random);
+			aBatch.set(i, a[i]);
+			bBatch.set(i, b[i]);
+			vectorBatch.set(i, new Vec4f(a[i], 1f));
+			quaternionBatch.set(i, quaternions[i]);
+			matrixBatch.set(i, matrices[i]);
+		}
+		Mat4f transform = randomTransform(random);
+
+		Vec4Batch vectorResult = new Vec4Batch(0);
+		math.mul(transform, vectorBatch, vectorResult);
+		Mat4Batch matrixResult = new Mat4Batch(0);
+		math.mul(matrixBatch, matrixBatch, matrixResult);
+		Vec3Batch rotated = new Vec3Batch(0);
+		math.rotate(quaternionBatch, bBatch, rotated);
+		Vec3Batch normalized = new Vec3Batch(0);
+		math.normalize(aBatch, normalized);
+		float[] dots = new float[size];
+		math.dot(aBatch, bBatch, dots);
+		Vec3Batch crosses = new Vec3Batch(0);
+		math.cross(aBatch, bBatch, crosses);
+		Vec3Batch moved = new Vec3Batch(0);
+		math.addScaled(aBatch, bBatch, 0.25f, moved);
+		// boxes spanned by a[i] and the origin
+		Vec3Batch boxMin = new Vec3Batch(size).setSize(size);
+		Vec3Batch boxMax = new Vec3Batch(size).setSize(size);
+		for (int i = 0; i < size; i++) {
+			boxMin.set(i, Math.min(a[i].data[0], 0f), Math.min(a[i].data[1], 0f), Math.min(a[i].data[2], 0f));
+			boxMax.set(i, Math.max(a[i].data[0], 0f), Math.max(a[i].data[1], 0f), Math.max(a[i].data[2], 0f));
+		}
+		math.transformAABBs(transform, boxMin, boxMax, boxMin, boxMax);
+
+		for (int i = 0; i < size; i++) {
+			Vec4f expectedVector = MatrixArithmeticOOP.mul(transform, new Vec4f(a[i], 1f));
+			Vec4f actualVector = vectorResult.get(i, new Vec4f());
+			Mat4f expectedMatrix = MatrixArithmeticOOP.mul(matrices[i], matrices[i]);
+			Mat4f actualMatrix = matrixResult.get(i, new Mat4f());
+			for (int element = 0; element < 16; element++) {
+				Assertions.assertEquals(expectedMatrix.data[element], actualMatrix.data[element], epsilon);
+				if (element < Vec4f.DATA_LEN) {
+					Assertions.assertEquals(expectedVector.data[element], actualVector.data[element], epsilon);
+				}
+			}
+			assertVector(QuaternionMathOOP.rotate(quaternions[i], b[i]), rotated, i);
+			assertVector(i == size - 1 ? new Vec3f(0f) : a[i].copy().normalize(), normalized, i);
+			Assertions.assertEquals(a[i].dot(b[i]), dots[i], epsilon);
+			assertVector(a[i].copy().cross(b[i]), crosses, i);
+			assertVector(new Vec3f(a[i].data[0] + b[i].data[0] * 0.25f, a[i].data[1] + b[i].data[1] * 0.25f, a[i].data[2] + b[i].data[2] * 0.25f), moved, i);
+
+			// bounds of all transformed corners
+			Vec3f expectedMin = new Vec3f(Float.MAX_VALUE);
+			Vec3f expectedMax = new Vec3f(-Float.MAX_VALUE);
+			for (int corner = 0; corner < 8; corner++) {
+				Vec4f point = new Vec4f(
+						(corner & 1) == 0 ? 0f : a[i].data[0],
+						(corner & 2) == 0 ? 0f : a[i].data[1],
+						(corner & 4) == 0 ? 0f : a[i].data[2],
+						1f
+				);
+				Vec4f transformed = MatrixArithmeticOOP.mul(transform, point);
+				for (int axis = 0; axis < Vec3f.DATA_LEN; axis++) {
+					expectedMin.data[axis] = Math.min(expectedMin.data[axis], transformed.data[axis]);
+					expectedMax.data[axis] = Math.max(expectedMax.data[axis], transformed.data[axis]);
+				}
+			}
+			assertVector(expectedMin, boxMin, i);
+			assertVector(expectedMax, boxMax, i);
+		}
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> math.cross(aBatch, new Vec3Batch(size), crosses));
+	}
+}
@@ -0,0 +1,93 @@
+package utils.vector;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utils.operator.Operator;
+
+public class VectorKernelsTest {
+
+	private static Vec2f randomVec2(Random random) {
+		return new Vec2f(random.nextFloat() * 8f - 4f, random.nextFloat() * 8f - 4f);
+	}
+
+	private static Vec3f randomVec3(Random random) {
+		return new Vec3f(random.nextFloat() * 8f - 4f, random.nextFloat() * 8f - 4f, random.nextFloat() * 8f - 4f);
+	}
+
+	private static Vec4f randomVec4(Random random) {
+		return new Vec4f(randomVec3(random), random.nextFloat() * 8f - 4f);
+	}
+
+	@Test
+	public void testVec2fKernels() {
+		Random random = new Random(83);
+		Vec2f a = randomVec2(random);
+		Vec2f b = randomVec2(random);
+		Vec2f c = randomVec2(random);
+		float scalar = 1.5f + random.nextFloat();
+
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, scalar).data, a.copy().addInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.data[0], b.data[1]).data, a.copy().addInPlace(b.data[0], b.data[1]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, scalar).data, a.copy().subInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b.data[0], b.data[1]).data, a.copy().subInPlace(b.data[0], b.data[1]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).data, a.copy().mulInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Div, scalar).data, a.copy().divInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).apply(Operator.Add, c).data, a.copy().fma(b, c).data);
+	}
+
+	@Test
+	public void testVec3fKernels() {
+		Random random = new Random(89);
+		Vec3f a = randomVec3(random);
+		Vec3f b = randomVec3(random);
+		Vec3f c = randomVec3(random);
+		float scalar = 1.5f + random.nextFloat();
+
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, scalar).data, a.copy().addInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.data[0], b.data[1], b.data[2]).data, a.copy().addInPlace(b.data[0], b.data[1], b.data[2]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, scalar).data, a.copy().subInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b.data[0], b.data[1], b.data[2]).data, a.copy().subInPlace(b.data[0], b.data[1], b.data[2]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).data, a.copy().mulInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Div, scalar).data, a.copy().divInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).apply(Operator.Add, c).data, a.copy().fma(b, c).data);
+	}
+
+	@Test
+	public void testVec4fKernels() {
+		Random random = new Random(97);
+		Vec4f a = randomVec4(random);
+		Vec4f b = randomVec4(random);
+		Vec4f c = randomVec4(random);
+		float scalar = 1.5f + random.nextFloat();
+
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b).data, a.copy().addInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, scalar).data, a.copy().addInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.data[0], b.data[1], b.data[2], b.data[3]).data,
+				a.copy().addInPlace(b.data[0], b.data[1], b.data[2], b.data[3]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b).data, a.copy().subInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, scalar).data, a.copy().subInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Sub, b.data[0], b.data[1], b.data[2], b.data[3]).data,
+				a.copy().subInPlace(b.data[0], b.data[1], b.data[2], b.data[3]).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, scalar).data, a.copy().mulInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).data, a.copy().mulInPlace(b).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Div, scalar).data, a.copy().divInPlace(scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Add, b.copy().apply(Operator.Mul, scalar)).data, a.copy().scaleAdd(b, scalar).data);
+		Assertions.assertArrayEquals(a.copy().apply(Operator.Mul, b).apply(Operator.Add, c).data, a.copy().fma(b, c).data);
+	}
+
+	@Test
+	public void testFmaArgumentOrder() {
+		// this is the multiplicand, the first argument the multiplier and the second one the addend
+		Vec3f result = new Vec3f(2f, 3f, 4f).fma(new Vec3f(10f, 100f, 1000f), new Vec3f(1f, 2f, 3f));
+		Assertions.assertArrayEquals(new float[]{21f, 302f, 4003f}, result.data);
+	}
+}